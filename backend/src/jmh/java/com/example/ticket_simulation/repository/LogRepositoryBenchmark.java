@@ -0,0 +1,49 @@
+package com.example.ticket_simulation.repository;
+
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.model.Tickets;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of appending to the log under contention and of rendering a page of entries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogRepositoryBenchmark {
+
+	private static final Tickets TICKET = new Tickets(1, "Event", "Location", 100.0);
+
+	private LogRepository logRepository;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		logRepository = new LogRepository();
+		for (int i = 0; i < LogRepository.DEFAULT_CAPACITY; i++) {
+			logRepository.addRecord(LogEventType.TICKET_ADDED, 1, TICKET, System.nanoTime());
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void addLog() {
+		logRepository.addLog("Simulation message");
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void addTicketEvent() {
+		logRepository.addRecord(LogEventType.TICKET_RETRIEVED, 1, TICKET, System.nanoTime());
+	}
+
+	@Benchmark
+	public LogPage readPage() {
+		return logRepository.getLogsAfter(0, 500);
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.model.PoolEngineType;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.repository.JournalVisitor;
+import com.example.ticket_simulation.repository.LogRepository;
+import com.example.ticket_simulation.repository.TicketJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to replay the releases and sales of a recorded run through each pool engine, in the order they
+ * were journaled, on a single thread.
+ * <p>
+ * Pass a journal directory with {@code -p journal=/path/to/journal} to replay a real run; the last run in
+ * the journal is replayed from the oldest segment still on disk, at the capacity it was configured with.
+ * Without one, a virtual time run is journaled to a temporary directory first. Operations that find the
+ * pool full or empty, because the journal order differs slightly from the order the pool saw, are skipped.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalReplayBenchmark {
+
+	@Param({""})
+	public String journal;
+
+	@Param({"LOCKING", "RING_BUFFER", "SHARDED", "INDEXED", "COMPACT"})
+	public PoolEngineType engine;
+
+	// Released tickets, or null for a sale
+	private Tickets[] operations;
+	private int[] actors;
+	private Configuration config;
+	private TicketPoolEngine pool;
+
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+		Path directory = journal.isEmpty() ? record() : Paths.get(journal);
+		Recorder recorder = new Recorder();
+		TicketJournal.replay(directory, 0, Long.MAX_VALUE, recorder);
+		// Segments folded into a snapshot are gone, so the run may have started before the first segment left
+		config = recorder.config != null ? recorder.config : JournalState.load(directory).getConfiguration();
+		if (config == null) {
+			throw new IllegalStateException("No run in journal " + directory);
+		}
+		config.setPoolEngine(engine);
+		operations = recorder.operations.toArray(new Tickets[0]);
+		actors = recorder.actors.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		pool = TicketPool.createEngine(config);
+	}
+
+	@Benchmark
+	public int replay() {
+		int applied = 0;
+		for (int i = 0; i < operations.length; i++) {
+			if (operations[i] != null ? pool.offer(operations[i], actors[i], 0) : pool.poll(actors[i], 0) != null) {
+				applied++;
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * Journals a virtual time run to a temporary directory.
+	 *
+	 * @return The directory.
+	 */
+	private static Path record() throws IOException {
+		Path directory = Files.createTempDirectory("journal-replay");
+		Configuration config = new Configuration(1_000_000, 0, 0, 1000);
+		config.setExecutionMode(ExecutionMode.VIRTUAL_TIME);
+		config.setEventCount(4);
+		config.setPriceTiers(3);
+		TicketJournal recording = TicketJournal.open(directory, 64 * 1024 * 1024);
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.attachJournal(recording);
+		ticketPool.initialize(config);
+		new DiscreteEventSimulation(config, ticketPool, new LoggerService(new LogRepository())).run(() -> true);
+		recording.close();
+		return directory;
+	}
+
+	/**
+	 * Collects the operations of the last run in a journal.
+	 */
+	private static final class Recorder implements JournalVisitor {
+		private final List<Tickets> operations = new ArrayList<>();
+		private final List<Integer> actors = new ArrayList<>();
+		private Configuration config;
+
+		@Override
+		public void reset(Configuration config) {
+			this.config = config;
+			operations.clear();
+			actors.clear();
+		}
+
+		@Override
+		public void released(Tickets ticket, int vendorId, long epochNanos) {
+			operations.add(ticket);
+			actors.add(vendorId);
+		}
+
+		@Override
+		public void sold(int ticketId, int customerId, long epochNanos) {
+			operations.add(null);
+			actors.add(customerId);
+		}
+	}
+}
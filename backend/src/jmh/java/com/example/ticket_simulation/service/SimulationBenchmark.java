@@ -0,0 +1,66 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.model.LogOverflowPolicy;
+import com.example.ticket_simulation.model.PoolEngineType;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time for a complete {@link TicketService} run with no sleeps between releases and retrievals,
+ * including logging every ticket event.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationBenchmark {
+
+	@Param({"100000"})
+	public int totalTickets;
+
+	@Param({"LOCKING", "RING_BUFFER", "SHARDED", "INDEXED", "COMPACT"})
+	public PoolEngineType engine;
+
+	@Param({"PLATFORM_THREADS", "VIRTUAL_TIME", "PACED"})
+	public ExecutionMode executionMode;
+
+	@Param({"false", "true"})
+	public boolean asyncLogging;
+
+	private TicketService ticketService;
+	private LoggerService loggerService;
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		Configuration config = new Configuration(totalTickets, 0, 0, 1000);
+		config.setPoolEngine(engine);
+		config.setExecutionMode(executionMode);
+		loggerService = new LoggerService(new LogRepository(), asyncLogging, 65536,
+				LogOverflowPolicy.BLOCK, 10);
+		ticketService = new TicketService(new TicketPool(), loggerService);
+		ticketService.configure(config);
+	}
+
+	@Benchmark
+	public int run() {
+		ticketService.runSimulation();
+		while (ticketService.getTicketsSold() < totalTickets) {
+			LockSupport.parkNanos(100_000);
+		}
+		loggerService.flush();
+		return ticketService.getTicketsSold();
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() {
+		ticketService.stopSimulation();
+		loggerService.close();
+	}
+}
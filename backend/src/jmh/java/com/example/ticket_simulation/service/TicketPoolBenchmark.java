@@ -0,0 +1,119 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.PoolEngineType;
+import com.example.ticket_simulation.model.Tickets;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of adding and retrieving tickets through each pool engine, for balanced,
+ * producer-heavy and consumer-heavy thread ratios.
+ * <p>
+ * Each operation waits like {@link TicketPool#addTicket(Tickets, int)} and
+ * {@link TicketPool#retrieveTicket(int)} do, but in bounded slices so that threads blocked on a full or
+ * empty pool can notice the end of an iteration instead of hanging the run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketPoolBenchmark {
+
+	private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final Tickets TICKET = TicketService.createTicket(1);
+
+	@State(Scope.Group)
+	public static class Pool {
+		@Param({"LOCKING", "RING_BUFFER", "SHARDED", "INDEXED", "COMPACT"})
+		public PoolEngineType engine;
+
+		@Param({"16", "1024"})
+		public int capacity;
+
+		TicketPoolEngine pool;
+		final AtomicInteger actorIds = new AtomicInteger();
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			Configuration config = new Configuration(Integer.MAX_VALUE, 0, 0, capacity);
+			config.setPoolEngine(engine);
+			pool = TicketPool.createEngine(config);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Actor {
+		int id;
+
+		@Setup(Level.Trial)
+		public void setUp(Pool pool) {
+			id = pool.actorIds.incrementAndGet();
+		}
+	}
+
+	@Benchmark
+	@Group("balanced")
+	@GroupThreads(2)
+	public boolean balancedAdd(Pool pool, Actor actor, Control control) {
+		return add(pool, actor, control);
+	}
+
+	@Benchmark
+	@Group("balanced")
+	@GroupThreads(2)
+	public Tickets balancedRetrieve(Pool pool, Actor actor, Control control) {
+		return retrieve(pool, actor, control);
+	}
+
+	@Benchmark
+	@Group("producerHeavy")
+	@GroupThreads(3)
+	public boolean producerHeavyAdd(Pool pool, Actor actor, Control control) {
+		return add(pool, actor, control);
+	}
+
+	@Benchmark
+	@Group("producerHeavy")
+	@GroupThreads(1)
+	public Tickets producerHeavyRetrieve(Pool pool, Actor actor, Control control) {
+		return retrieve(pool, actor, control);
+	}
+
+	@Benchmark
+	@Group("consumerHeavy")
+	@GroupThreads(1)
+	public boolean consumerHeavyAdd(Pool pool, Actor actor, Control control) {
+		return add(pool, actor, control);
+	}
+
+	@Benchmark
+	@Group("consumerHeavy")
+	@GroupThreads(3)
+	public Tickets consumerHeavyRetrieve(Pool pool, Actor actor, Control control) {
+		return retrieve(pool, actor, control);
+	}
+
+	private static boolean add(Pool pool, Actor actor, Control control) {
+		while (!control.stopMeasurement) {
+			if (pool.pool.offer(TICKET, actor.id, WAIT_SLICE_NANOS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Tickets retrieve(Pool pool, Actor actor, Control control) {
+		while (!control.stopMeasurement) {
+			Tickets ticket = pool.pool.poll(actor.id, WAIT_SLICE_NANOS);
+			if (ticket != null) {
+				return ticket;
+			}
+		}
+		return null;
+	}
+}
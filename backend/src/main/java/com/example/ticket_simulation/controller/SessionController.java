@@ -0,0 +1,350 @@
+package com.example.ticket_simulation.controller;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ConfigurationUpdate;
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.ReleaseControlSnapshot;
+import com.example.ticket_simulation.model.SessionSummary;
+import com.example.ticket_simulation.service.LoggerService;
+import com.example.ticket_simulation.service.SessionService;
+import com.example.ticket_simulation.service.TicketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for simulation sessions, each with its own pool, threads and logs. The endpoints under
+ * {@code /api/sessions/{id}} mirror those of the application's own simulation.
+ */
+@RestController
+@RequestMapping("/api/sessions")
+public class SessionController {
+
+    @Autowired
+    private SessionService sessionService;
+
+    /**
+     * Opens a new session, optionally configuring it straight away.
+     *
+     * @param config The simulation configuration, or null to configure the session later.
+     * @return A ResponseEntity with CREATED and the session, CONFLICT if too many sessions are open,
+     *         or BAD_REQUEST if the configuration is invalid.
+     */
+    @PostMapping
+    public ResponseEntity<?> openSession(@RequestBody(required = false) Configuration config) {
+        SessionSummary session;
+        try {
+            session = sessionService.open();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        }
+        if (config != null) {
+            try {
+                sessionService.getTicketService(session.getId()).startSimulation(config);
+            } catch (IllegalArgumentException e) {
+                sessionService.close(session.getId());
+                return ResponseEntity.badRequest()
+                        .body(Collections.singletonMap("error", e.getMessage()));
+            }
+            session = sessionService.getSession(session.getId());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Location", "/api/sessions/" + session.getId())
+                .body(session);
+    }
+
+    /**
+     * Retrieves every open session.
+     *
+     * @return A ResponseEntity containing the sessions, oldest first.
+     */
+    @GetMapping
+    public ResponseEntity<List<SessionSummary>> getSessions() {
+        return ResponseEntity.ok(sessionService.getSessions());
+    }
+
+    /**
+     * Retrieves one session.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the session, or NOT_FOUND if it is not open.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<SessionSummary> getSession(@PathVariable long id) {
+        SessionSummary session = sessionService.getSession(id);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(session);
+    }
+
+    /**
+     * Stops a session's simulation and closes the session.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity with a success message, or NOT_FOUND if the session is not open.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, String>> closeSession(@PathVariable long id) {
+        if (!sessionService.close(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Collections.singletonMap("message", "Session closed"));
+    }
+
+    /**
+     * Configures a session's simulation.
+     *
+     * @param id     The ID of the session.
+     * @param config The simulation configuration.
+     * @return A ResponseEntity with a success message, NOT_FOUND if the session is not open,
+     *         or BAD_REQUEST if the configuration is invalid.
+     */
+    @PostMapping("/{id}/start")
+    public ResponseEntity<Map<String, String>> startSimulation(@PathVariable long id,
+                                                               @RequestBody Configuration config) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            ticketService.startSimulation(config);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(Collections.singletonMap("message", "Simulation started"));
+    }
+
+    /**
+     * Runs a session's simulation.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity with a success message, NOT_FOUND if the session is not open,
+     *         CONFLICT if it has not been configured, BAD_REQUEST if the configuration cannot run in a session,
+     *         or SERVICE_UNAVAILABLE if the shared threads are in use.
+     */
+    @PostMapping("/{id}/run")
+    public ResponseEntity<Map<String, String>> runSimulation(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ticketService.getConfiguration() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("error", "Session " + id + " has not been configured"));
+        }
+        try {
+            ticketService.runSimulation();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(Collections.singletonMap("message", "Simulation running"));
+    }
+
+    /**
+     * Stops a session's simulation.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity with a success message, or NOT_FOUND if the session is not open.
+     */
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<Map<String, String>> stopSimulation(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ticketService.stopSimulation();
+        return ResponseEntity.ok(Collections.singletonMap("message", "Simulation stopped"));
+    }
+
+    /**
+     * Resets a session's simulation.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity with a success message, or NOT_FOUND if the session is not open.
+     */
+    @PostMapping("/{id}/reset")
+    public ResponseEntity<Map<String, String>> resetSimulation(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ticketService.resetSimulation();
+        return ResponseEntity.ok(Collections.singletonMap("message", "Simulation reset"));
+    }
+
+    /**
+     * Retrieves the configuration of a session's run.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the configuration, or NOT_FOUND if the session is not open
+     *         or has not been configured.
+     */
+    @GetMapping("/{id}/config")
+    public ResponseEntity<Configuration> getConfiguration(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null || ticketService.getConfiguration() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketService.getConfiguration());
+    }
+
+    /**
+     * Changes the rates and the pool capacity of a session's run without stopping it.
+     *
+     * @param id     The ID of the session.
+     * @param update The settings to change; settings left out are kept.
+     * @return A ResponseEntity containing the changed configuration, NOT_FOUND if the session is not open,
+     *         BAD_REQUEST if a setting is invalid, or CONFLICT if there is no run to change.
+     */
+    @PutMapping("/{id}/config")
+    public ResponseEntity<?> updateConfiguration(@PathVariable long id, @RequestBody ConfigurationUpdate update) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(ticketService.updateConfiguration(update));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retrieves a session's logs.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the logs, NO_CONTENT if there are none,
+     *         or NOT_FOUND if the session is not open.
+     */
+    @GetMapping("/{id}/logs")
+    public ResponseEntity<List<String>> getLogs(@PathVariable long id) {
+        LoggerService loggerService = sessionService.getLoggerService(id);
+        if (loggerService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<String> logs = loggerService.getLogs();
+        if (logs.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(logs);
+        }
+        return ResponseEntity.ok(logs);
+    }
+
+    /**
+     * Retrieves a session's log entries that follow the given sequence number, optionally filtered by event
+     * kind and by vendor or customer ID.
+     *
+     * @param id    The ID of the session.
+     * @param after The sequence number of the last entry the client has seen, or 0 to start from the oldest.
+     * @param limit The maximum number of entries to return.
+     * @param kind  Only return events of this kind, or all kinds if omitted.
+     * @param actor Only return events of this vendor or customer ID, or all actors if omitted.
+     * @return A ResponseEntity containing the matching entries, or NOT_FOUND if the session is not open.
+     */
+    @GetMapping(value = "/{id}/logs", params = "after")
+    public ResponseEntity<LogPage> getLogsAfter(@PathVariable long id, @RequestParam long after,
+                                               @RequestParam(defaultValue = "500") int limit,
+                                               @RequestParam(required = false) LogEventType kind,
+                                               @RequestParam(required = false) Integer actor) {
+        LoggerService loggerService = sessionService.getLoggerService(id);
+        if (loggerService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(loggerService.getLogsAfter(after, limit, kind, actor));
+    }
+
+    /**
+     * Retrieves the number of available tickets in a session's pool.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the number of available tickets, or NOT_FOUND if the session is not open.
+     */
+    @GetMapping("/{id}/tickets/available")
+    public ResponseEntity<Integer> getTicketsAvailable(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketService.getTicketsAvailable());
+    }
+
+    /**
+     * Retrieves the number of tickets sold in a session's run.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the number of sold tickets, or NOT_FOUND if the session is not open.
+     */
+    @GetMapping("/{id}/tickets/sold")
+    public ResponseEntity<Integer> getTicketsSold(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketService.getTicketsSold());
+    }
+
+    /**
+     * Retrieves the integrity report of a session's run.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the report, or NOT_FOUND if the session is not open.
+     */
+    @GetMapping("/{id}/ledger/report")
+    public ResponseEntity<IntegrityReport> getIntegrityReport(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketService.getIntegrityReport());
+    }
+
+    /**
+     * Retrieves the latency histograms and throughput rates of a session's pool.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the metrics, with durations in microseconds,
+     *         or NOT_FOUND if the session is not open.
+     */
+    @GetMapping("/{id}/metrics")
+    public ResponseEntity<MetricsSnapshot> getMetrics(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketService.getMetrics());
+    }
+
+    /**
+     * Retrieves the state and the decisions of the controller that adjusts the release rate of a session's run.
+     *
+     * @param id The ID of the session.
+     * @return A ResponseEntity containing the controller's state, or NOT_FOUND if the session is not open
+     *         or its run does not control its release rate.
+     */
+    @GetMapping("/{id}/release-control")
+    public ResponseEntity<ReleaseControlSnapshot> getReleaseControl(@PathVariable long id) {
+        TicketService ticketService = sessionService.getTicketService(id);
+        if (ticketService == null || ticketService.getReleaseControl() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketService.getReleaseControl());
+    }
+}
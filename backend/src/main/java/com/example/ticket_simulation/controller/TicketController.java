@@ -1,13 +1,37 @@
 package com.example.ticket_simulation.controller;
 
 import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ConfigurationUpdate;
+import com.example.ticket_simulation.model.ConfigurationVersion;
+import com.example.ticket_simulation.model.EventAvailability;
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.ReleaseControlSnapshot;
+import com.example.ticket_simulation.model.Sweep;
+import com.example.ticket_simulation.model.SweepRequest;
+import com.example.ticket_simulation.model.TicketHold;
+import com.example.ticket_simulation.model.TicketQuery;
+import com.example.ticket_simulation.model.TicketSaleStatus;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.service.ConfigurationStore;
 import com.example.ticket_simulation.service.LoggerService;
+import com.example.ticket_simulation.service.PurchaseService;
+import com.example.ticket_simulation.service.StreamService;
+import com.example.ticket_simulation.service.SweepService;
 import com.example.ticket_simulation.service.TicketService;
+import com.example.ticket_simulation.util.PrometheusFormat;
+import com.example.ticket_simulation.util.SweepTable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -25,11 +49,23 @@ public class TicketController {
     @Autowired
     private LoggerService loggerService;
 
+    @Autowired
+    private StreamService streamService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ConfigurationStore configurationStore;
+
+    @Autowired
+    private SweepService sweepService;
+
     /**
      * Starts the simulation with the provided configuration.
      *
      * @param config The simulation configuration.
-     * @return A ResponseEntity with a success or error message.
+     * @return A ResponseEntity with a success or error message, or BAD_REQUEST if the configuration is invalid.
      */
     @PostMapping("/start")
     public ResponseEntity<Map<String, String>> startSimulation(@RequestBody Configuration config) {
@@ -37,6 +73,9 @@ public class TicketController {
             ticketService.startSimulation(config);
             // Return a JSON object with a success message
             return ResponseEntity.ok(Collections.singletonMap("message", "Simulation started"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", e.getMessage()));
         } catch (Exception e) {
             loggerService.log("Error starting simulation: " + e.getMessage());
             // Return a JSON object with an error message
@@ -45,6 +84,78 @@ public class TicketController {
         }
     }
 
+    /**
+     * Retrieves the configuration of the current run.
+     *
+     * @return A ResponseEntity containing the configuration, or NOT_FOUND if none has been applied.
+     */
+    @GetMapping("/config")
+    public ResponseEntity<Configuration> getConfiguration() {
+        Configuration config = ticketService.getConfiguration();
+        if (config == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(config);
+    }
+
+    /**
+     * Changes the rates and the pool capacity of the current run without stopping it.
+     *
+     * @param update The settings to change; settings left out are kept.
+     * @return A ResponseEntity containing the changed configuration, BAD_REQUEST if a setting is invalid,
+     *         or CONFLICT if there is no run to change.
+     */
+    @PutMapping("/config")
+    public ResponseEntity<?> updateConfiguration(@RequestBody ConfigurationUpdate update) {
+        try {
+            return ResponseEntity.ok(ticketService.updateConfiguration(update));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retrieves the saved configurations, newest first.
+     *
+     * @return A ResponseEntity containing the saved versions, or an error message if they cannot be read.
+     */
+    @GetMapping("/config/history")
+    public ResponseEntity<?> getConfigurationHistory() {
+        try {
+            return ResponseEntity.ok(configurationStore.getHistory());
+        } catch (IOException e) {
+            loggerService.log("Error reading configuration history: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("error", "Error reading configuration history"));
+        }
+    }
+
+    /**
+     * Retrieves one saved configuration.
+     *
+     * @param version The version number.
+     * @return A ResponseEntity containing the version, NOT_FOUND if it is not in the history,
+     *         or an error message if it cannot be read.
+     */
+    @GetMapping("/config/history/{version}")
+    public ResponseEntity<?> getConfigurationVersion(@PathVariable long version) {
+        try {
+            ConfigurationVersion saved = configurationStore.getVersion(version);
+            if (saved == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(saved);
+        } catch (IOException e) {
+            loggerService.log("Error reading configuration version " + version + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("error", "Error reading configuration version " + version));
+        }
+    }
+
     /**
      * Runs the simulation.
      *
@@ -110,6 +221,38 @@ public class TicketController {
         return ResponseEntity.ok(logs);
     }
 
+    /**
+     * Retrieves the log entries that follow the given sequence number, optionally filtered by event kind
+     * and by vendor or customer ID.
+     *
+     * @param after The sequence number of the last entry the client has seen, or 0 to start from the oldest.
+     * @param limit The maximum number of entries to return.
+     * @param kind  Only return events of this kind, or all kinds if omitted.
+     * @param actor Only return events of this vendor or customer ID, or all actors if omitted.
+     * @return A ResponseEntity containing the matching entries and the retained sequence range.
+     */
+    @GetMapping(value = "/logs", params = "after")
+    public ResponseEntity<LogPage> getLogsAfter(@RequestParam long after,
+                                               @RequestParam(defaultValue = "500") int limit,
+                                               @RequestParam(required = false) LogEventType kind,
+                                               @RequestParam(required = false) Integer actor) {
+        return ResponseEntity.ok(loggerService.getLogsAfter(after, limit, kind, actor));
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of new log entries ({@code logs} events) and ticket counters
+     * ({@code counters} events). A reconnecting browser resumes after the last log entry it received.
+     *
+     * @param after       The sequence number of the last log entry the client has seen, or 0 to start from the oldest.
+     * @param lastEventId The ID of the last event received before a reconnect, sent by the browser.
+     * @return The emitter the events are written to.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long after,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return streamService.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
     /**
      * Retrieves the number of available tickets.
      *
@@ -131,4 +274,246 @@ public class TicketController {
         int sold = ticketService.getTicketsSold();
         return ResponseEntity.ok(sold);
     }
-}
\ No newline at end of file
+
+    /**
+     * Buys a ticket from the pool. If the pool is empty the request waits without holding a servlet thread,
+     * and waiting buyers are served in the order they arrived.
+     *
+     * @param customerId The ID the purchase is logged under.
+     * @param waitMs     How long to wait for a ticket in milliseconds, or the configured default if omitted.
+     * @return A result completing with the ticket, with SERVICE_UNAVAILABLE if none became available in time,
+     *         or with TOO_MANY_REQUESTS if too many buyers are already waiting.
+     */
+    @PostMapping("/tickets/purchase")
+    public DeferredResult<ResponseEntity<?>> purchaseTicket(@RequestParam(defaultValue = "0") int customerId,
+                                                            @RequestParam(required = false) Long waitMs) {
+        return purchaseService.purchase(customerId, waitMs);
+    }
+
+    /**
+     * Retrieves the available and sold tickets of every event.
+     *
+     * @return A ResponseEntity containing the counters per event.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<List<EventAvailability>> getEvents() {
+        return ResponseEntity.ok(ticketService.getEventAvailability());
+    }
+
+    /**
+     * Retrieves the available and sold tickets of one event.
+     *
+     * @param event The event.
+     * @return A ResponseEntity containing the counters, or NOT_FOUND if the event is unknown.
+     */
+    @GetMapping("/events/{event}")
+    public ResponseEntity<EventAvailability> getEvent(@PathVariable String event) {
+        EventAvailability availability = ticketService.getEventAvailability(event);
+        if (availability == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(availability);
+    }
+
+    /**
+     * Buys the cheapest available ticket for an event, optionally at a given venue and up to a price.
+     * Needs the INDEXED pool engine.
+     *
+     * @param event      The event.
+     * @param location   The venue, or any venue if omitted.
+     * @param maxPrice   The highest acceptable price, or any price if omitted.
+     * @param customerId The ID the purchase is logged under.
+     * @return A ResponseEntity containing the ticket, SERVICE_UNAVAILABLE if no ticket matches,
+     *         or BAD_REQUEST if the pool engine cannot look tickets up by event.
+     */
+    @PostMapping("/events/{event}/purchase")
+    public ResponseEntity<?> purchaseEventTicket(@PathVariable String event,
+                                                 @RequestParam(required = false) String location,
+                                                 @RequestParam(required = false) Double maxPrice,
+                                                 @RequestParam(defaultValue = "0") int customerId) {
+        Tickets ticket;
+        try {
+            ticket = ticketService.purchaseTicket(new TicketQuery(event, location, maxPrice), customerId);
+        } catch (UnsupportedOperationException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", "Event lookups need the INDEXED pool engine"));
+        }
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Collections.singletonMap("error", "No matching ticket available"));
+        }
+        return ResponseEntity.ok(ticket);
+    }
+
+    /**
+     * Holds a ticket for a customer during checkout. The hold must be confirmed within its time to live,
+     * or the ticket goes back to the pool.
+     *
+     * @param customerId The ID of the customer.
+     * @param ttlMs      How long the hold lasts in milliseconds.
+     * @return A ResponseEntity containing the hold, or SERVICE_UNAVAILABLE if no ticket is available.
+     */
+    @PostMapping("/tickets/reserve")
+    public ResponseEntity<?> reserveTicket(@RequestParam(defaultValue = "0") int customerId,
+                                           @RequestParam(defaultValue = "300000") long ttlMs) {
+        TicketHold hold = ticketService.reserveTicket(customerId, ttlMs);
+        if (hold == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Collections.singletonMap("error", "No ticket available"));
+        }
+        return ResponseEntity.ok(hold);
+    }
+
+    /**
+     * Confirms a hold, completing the sale of its ticket.
+     *
+     * @param holdId The ID of the hold.
+     * @return A ResponseEntity containing the hold, or GONE if it has expired, was cancelled or does not exist.
+     */
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable long holdId) {
+        TicketHold hold = ticketService.confirmHold(holdId);
+        if (hold == null) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .body(Collections.singletonMap("error", "Hold " + holdId + " is no longer active"));
+        }
+        return ResponseEntity.ok(hold);
+    }
+
+    /**
+     * Cancels a hold, putting its ticket back into the pool.
+     *
+     * @param holdId The ID of the hold.
+     * @return A ResponseEntity with a success message, or GONE if the hold is no longer active.
+     */
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Map<String, String>> cancelHold(@PathVariable long holdId) {
+        if (ticketService.cancelHold(holdId) == null) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .body(Collections.singletonMap("error", "Hold " + holdId + " is no longer active"));
+        }
+        return ResponseEntity.ok(Collections.singletonMap("message", "Hold cancelled"));
+    }
+
+    /**
+     * Retrieves whether a ticket has been sold, to which customer and when.
+     *
+     * @param ticketId The ticket ID.
+     * @return A ResponseEntity containing the ticket's sale status.
+     */
+    @GetMapping("/tickets/{ticketId:\\d+}")
+    public ResponseEntity<TicketSaleStatus> getTicketSale(@PathVariable int ticketId) {
+        return ResponseEntity.ok(ticketService.getTicketSale(ticketId));
+    }
+
+    /**
+     * Retrieves the integrity report of the current run: duplicate sales and tickets that went missing.
+     *
+     * @return A ResponseEntity containing the report.
+     */
+    @GetMapping("/ledger/report")
+    public ResponseEntity<IntegrityReport> getIntegrityReport() {
+        return ResponseEntity.ok(ticketService.getIntegrityReport());
+    }
+
+    /**
+     * Retrieves the number of tickets held during checkout.
+     *
+     * @return A ResponseEntity containing the number of held tickets.
+     */
+    @GetMapping("/tickets/held")
+    public ResponseEntity<Integer> getTicketsHeld() {
+        return ResponseEntity.ok(ticketService.getTicketsHeld());
+    }
+
+    /**
+     * Retrieves the latency histograms and throughput rates of the ticket pool.
+     *
+     * @return A ResponseEntity containing the metrics, with durations in microseconds.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<MetricsSnapshot> getMetrics() {
+        return ResponseEntity.ok(ticketService.getMetrics());
+    }
+
+    /**
+     * Retrieves the metrics in the Prometheus text exposition format, for scraping, followed by the decisions
+     * of the release-rate controller if the run has one.
+     *
+     * @return A ResponseEntity containing the metrics as text.
+     */
+    @GetMapping(value = "/metrics/prometheus", produces = PrometheusFormat.CONTENT_TYPE)
+    public ResponseEntity<String> getPrometheusMetrics() {
+        return ResponseEntity.ok(
+                PrometheusFormat.format(ticketService.getMetrics(), ticketService.getReleaseControl()));
+    }
+
+    /**
+     * Retrieves the state and the decisions of the controller that adjusts the release rate of the run.
+     *
+     * @return A ResponseEntity containing the controller's state, or NOT_FOUND if the run does not control
+     *         its release rate.
+     */
+    @GetMapping("/release-control")
+    public ResponseEntity<ReleaseControlSnapshot> getReleaseControl() {
+        ReleaseControlSnapshot releaseControl = ticketService.getReleaseControl();
+        if (releaseControl == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(releaseControl);
+    }
+
+    /**
+     * Starts running a grid of configurations in parallel, each in a pool of its own. The results are
+     * retrieved from {@code /api/sweeps/{id}} once the runs finish.
+     *
+     * @param request The grid and how to run it.
+     * @return A ResponseEntity with ACCEPTED and the new sweep, BAD_REQUEST if the grid is empty or too large,
+     *         or CONFLICT if too many sweeps are already running.
+     */
+    @PostMapping("/sweeps")
+    public ResponseEntity<?> startSweep(@RequestBody SweepRequest request) {
+        try {
+            Sweep sweep = sweepService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", "/api/sweeps/" + sweep.getId())
+                    .body(sweep);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retrieves the progress of a sweep and the results of the runs finished so far.
+     *
+     * @param id The ID of the sweep.
+     * @return A ResponseEntity containing the sweep, or NOT_FOUND if it does not exist or has been dropped.
+     */
+    @GetMapping("/sweeps/{id}")
+    public ResponseEntity<Sweep> getSweep(@PathVariable long id) {
+        Sweep sweep = sweepService.getSweep(id);
+        if (sweep == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(sweep);
+    }
+
+    /**
+     * Retrieves the results of a sweep as a plain-text comparison table, one row per finished run.
+     *
+     * @param id The ID of the sweep.
+     * @return A ResponseEntity containing the table, or NOT_FOUND if the sweep does not exist or has been dropped.
+     */
+    @GetMapping(value = "/sweeps/{id}/table", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getSweepTable(@PathVariable long id) {
+        Sweep sweep = sweepService.getSweep(id);
+        if (sweep == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(SweepTable.format(sweep));
+    }
+}
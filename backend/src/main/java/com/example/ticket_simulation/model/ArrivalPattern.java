@@ -0,0 +1,22 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * How customer purchases arrive over time in a load scenario.
+ */
+public enum ArrivalPattern {
+    /**
+     * Evenly spaced, exactly at the scenario's rate.
+     */
+    STEADY,
+
+    /**
+     * Independently at random, as a Poisson process at the scenario's rate.
+     */
+    POISSON,
+
+    /**
+     * In bursts of several purchases at once; the bursts arrive as a Poisson process, so the average rate
+     * is the scenario's rate.
+     */
+    BURSTY
+}
@@ -0,0 +1,27 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * What a vendor does when the pool is full, or a customer when it does not hold enough tickets.
+ */
+public enum BackpressurePolicy {
+    /**
+     * Wait until the operation can complete or the simulation is stopped.
+     */
+    BLOCK,
+
+    /**
+     * Wait at most the configured timeout, then give up.
+     */
+    BLOCK_WITH_TIMEOUT,
+
+    /**
+     * Give up straight away.
+     */
+    FAIL_FAST,
+
+    /**
+     * Vendors make room by dropping the tickets customers would get next; customers, who cannot make
+     * tickets appear, give up straight away.
+     */
+    DROP_OLDEST
+}
@@ -8,6 +8,25 @@ public class Configuration {
     private int totalTickets;
     private int ticketReleaseRate;
     private int customerRetrievalRate;
+    private PoolEngineType poolEngine = PoolEngineType.LOCKING;
+    private int poolShards;
+    private int vendorCount = 10;
+    private int customerCount = 10;
+    private int releaseBatchSize = 1;
+    private int purchaseBatchSize = 1;
+    private int eventCount = 1;
+    private int priceTiers = 1;
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+    private long seed;
+    private int releasesPerSecond;
+    private int purchasesPerSecond;
+    private int pacingWorkers;
+    private LoadScenario scenario;
+    private BackpressurePolicy vendorBackpressure = BackpressurePolicy.BLOCK;
+    private BackpressurePolicy customerBackpressure = BackpressurePolicy.BLOCK;
+    private long vendorTimeoutMillis;
+    private long customerTimeoutMillis;
+    private ReleaseControl releaseControl;
 
     /**
      * Default constructor for Configuration.
@@ -30,6 +49,37 @@ public class Configuration {
         this.maxTicketCapacity = maxTicketCapacity;
     }
 
+    /**
+     * Constructs a copy of another Configuration.
+     *
+     * @param other The configuration to copy.
+     */
+    public Configuration(Configuration other) {
+        this.maxTicketCapacity = other.maxTicketCapacity;
+        this.totalTickets = other.totalTickets;
+        this.ticketReleaseRate = other.ticketReleaseRate;
+        this.customerRetrievalRate = other.customerRetrievalRate;
+        this.poolEngine = other.poolEngine;
+        this.poolShards = other.poolShards;
+        this.vendorCount = other.vendorCount;
+        this.customerCount = other.customerCount;
+        this.releaseBatchSize = other.releaseBatchSize;
+        this.purchaseBatchSize = other.purchaseBatchSize;
+        this.eventCount = other.eventCount;
+        this.priceTiers = other.priceTiers;
+        this.executionMode = other.executionMode;
+        this.seed = other.seed;
+        this.releasesPerSecond = other.releasesPerSecond;
+        this.purchasesPerSecond = other.purchasesPerSecond;
+        this.pacingWorkers = other.pacingWorkers;
+        this.scenario = other.scenario != null ? new LoadScenario(other.scenario) : null;
+        this.vendorBackpressure = other.vendorBackpressure;
+        this.customerBackpressure = other.customerBackpressure;
+        this.vendorTimeoutMillis = other.vendorTimeoutMillis;
+        this.customerTimeoutMillis = other.customerTimeoutMillis;
+        this.releaseControl = other.releaseControl != null ? new ReleaseControl(other.releaseControl) : null;
+    }
+
     /**
      * Gets the maximum ticket capacity.
      *
@@ -101,4 +151,353 @@ public class Configuration {
     public void setCustomerRetrievalRate(int customerRetrievalRate) {
         this.customerRetrievalRate = customerRetrievalRate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the pool engine used to store tickets.
+     *
+     * @return The pool engine.
+     */
+    public PoolEngineType getPoolEngine() {
+        return poolEngine;
+    }
+
+    /**
+     * Sets the pool engine used to store tickets.
+     *
+     * @param poolEngine The pool engine to set.
+     */
+    public void setPoolEngine(PoolEngineType poolEngine) {
+        this.poolEngine = poolEngine;
+    }
+
+    /**
+     * Gets the number of shards used by the sharded pool engine.
+     *
+     * @return The number of shards, or 0 to use one per available processor.
+     */
+    public int getPoolShards() {
+        return poolShards;
+    }
+
+    /**
+     * Sets the number of shards used by the sharded pool engine.
+     *
+     * @param poolShards The number of shards to set, or 0 to use one per available processor.
+     */
+    public void setPoolShards(int poolShards) {
+        this.poolShards = poolShards;
+    }
+
+    /**
+     * Gets the number of vendors.
+     *
+     * @return The number of vendors.
+     */
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    /**
+     * Sets the number of vendors.
+     *
+     * @param vendorCount The number of vendors to set.
+     */
+    public void setVendorCount(int vendorCount) {
+        this.vendorCount = vendorCount;
+    }
+
+    /**
+     * Gets the number of customers.
+     *
+     * @return The number of customers.
+     */
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    /**
+     * Sets the number of customers.
+     *
+     * @param customerCount The number of customers to set.
+     */
+    public void setCustomerCount(int customerCount) {
+        this.customerCount = customerCount;
+    }
+
+    /**
+     * Gets the number of tickets a vendor releases at once.
+     *
+     * @return The release batch size.
+     */
+    public int getReleaseBatchSize() {
+        return releaseBatchSize;
+    }
+
+    /**
+     * Sets the number of tickets a vendor releases at once.
+     *
+     * @param releaseBatchSize The release batch size to set.
+     */
+    public void setReleaseBatchSize(int releaseBatchSize) {
+        this.releaseBatchSize = releaseBatchSize;
+    }
+
+    /**
+     * Gets the number of tickets a customer buys at once. A purchase gets all of its tickets or none.
+     *
+     * @return The purchase batch size.
+     */
+    public int getPurchaseBatchSize() {
+        return purchaseBatchSize;
+    }
+
+    /**
+     * Sets the number of tickets a customer buys at once.
+     *
+     * @param purchaseBatchSize The purchase batch size to set.
+     */
+    public void setPurchaseBatchSize(int purchaseBatchSize) {
+        this.purchaseBatchSize = purchaseBatchSize;
+    }
+
+    /**
+     * Gets the number of events whose tickets are on sale at the same time.
+     *
+     * @return The number of events.
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Sets the number of events whose tickets are on sale at the same time.
+     *
+     * @param eventCount The number of events to set.
+     */
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    /**
+     * Gets the number of price tiers each event's tickets are spread over.
+     *
+     * @return The number of price tiers.
+     */
+    public int getPriceTiers() {
+        return priceTiers;
+    }
+
+    /**
+     * Sets the number of price tiers each event's tickets are spread over.
+     *
+     * @param priceTiers The number of price tiers to set.
+     */
+    public void setPriceTiers(int priceTiers) {
+        this.priceTiers = priceTiers;
+    }
+
+    /**
+     * Gets the way vendors and customers are executed.
+     *
+     * @return The execution mode.
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Sets the way vendors and customers are executed.
+     *
+     * @param executionMode The execution mode to set.
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Gets the random seed used by the virtual time execution mode.
+     *
+     * @return The random seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the random seed used by the virtual time execution mode.
+     *
+     * @param seed The random seed to set.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the number of tickets all vendors together release per second in the paced execution mode.
+     *
+     * @return The release rate, or 0 to derive it from the ticket release rate of each vendor.
+     */
+    public int getReleasesPerSecond() {
+        return releasesPerSecond;
+    }
+
+    /**
+     * Sets the number of tickets all vendors together release per second in the paced execution mode.
+     *
+     * @param releasesPerSecond The release rate to set, or 0 to derive it from the ticket release rate.
+     */
+    public void setReleasesPerSecond(int releasesPerSecond) {
+        this.releasesPerSecond = releasesPerSecond;
+    }
+
+    /**
+     * Gets the number of tickets all customers together buy per second in the paced execution mode.
+     *
+     * @return The purchase rate, or 0 to derive it from the customer retrieval rate of each customer.
+     */
+    public int getPurchasesPerSecond() {
+        return purchasesPerSecond;
+    }
+
+    /**
+     * Sets the number of tickets all customers together buy per second in the paced execution mode.
+     *
+     * @param purchasesPerSecond The purchase rate to set, or 0 to derive it from the customer retrieval rate.
+     */
+    public void setPurchasesPerSecond(int purchasesPerSecond) {
+        this.purchasesPerSecond = purchasesPerSecond;
+    }
+
+    /**
+     * Gets the number of worker threads that carry out releases and purchases in the paced execution mode.
+     *
+     * @return The number of workers, or 0 for one per available processor.
+     */
+    public int getPacingWorkers() {
+        return pacingWorkers;
+    }
+
+    /**
+     * Sets the number of worker threads that carry out releases and purchases in the paced execution mode.
+     *
+     * @param pacingWorkers The number of workers to set, or 0 for one per available processor.
+     */
+    public void setPacingWorkers(int pacingWorkers) {
+        this.pacingWorkers = pacingWorkers;
+    }
+
+    /**
+     * Gets how the load changes over the run. Only the paced execution mode follows a load scenario.
+     *
+     * @return The load scenario, or null for constant rates.
+     */
+    public LoadScenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Sets how the load changes over the run. Only the paced execution mode follows a load scenario.
+     *
+     * @param scenario The load scenario to set, or null for constant rates.
+     */
+    public void setScenario(LoadScenario scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * Gets what a vendor does when the pool is full. A vendor that gives up keeps the tickets it could not
+     * release and tries again after its release interval. Only the thread-per-actor execution modes wait
+     * on the pool, so only they follow the policy.
+     *
+     * @return The vendor policy.
+     */
+    public BackpressurePolicy getVendorBackpressure() {
+        return vendorBackpressure;
+    }
+
+    /**
+     * Sets what a vendor does when the pool is full. Only the thread-per-actor execution modes follow it.
+     *
+     * @param vendorBackpressure The vendor policy to set.
+     */
+    public void setVendorBackpressure(BackpressurePolicy vendorBackpressure) {
+        this.vendorBackpressure = vendorBackpressure;
+    }
+
+    /**
+     * Gets what a customer does when the pool does not hold enough tickets for a purchase. A customer that
+     * gives up abandons the purchase and moves on to its next one. Only the thread-per-actor execution
+     * modes wait on the pool, so only they follow the policy.
+     *
+     * @return The customer policy.
+     */
+    public BackpressurePolicy getCustomerBackpressure() {
+        return customerBackpressure;
+    }
+
+    /**
+     * Sets what a customer does when the pool does not hold enough tickets for a purchase.
+     * Only the thread-per-actor execution modes follow it.
+     *
+     * @param customerBackpressure The customer policy to set.
+     */
+    public void setCustomerBackpressure(BackpressurePolicy customerBackpressure) {
+        this.customerBackpressure = customerBackpressure;
+    }
+
+    /**
+     * Gets the longest a vendor waits for space under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     *
+     * @return The timeout in milliseconds.
+     */
+    public long getVendorTimeoutMillis() {
+        return vendorTimeoutMillis;
+    }
+
+    /**
+     * Sets the longest a vendor waits for space under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     *
+     * @param vendorTimeoutMillis The timeout in milliseconds to set.
+     */
+    public void setVendorTimeoutMillis(long vendorTimeoutMillis) {
+        this.vendorTimeoutMillis = vendorTimeoutMillis;
+    }
+
+    /**
+     * Gets the longest a customer waits for tickets under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     *
+     * @return The timeout in milliseconds.
+     */
+    public long getCustomerTimeoutMillis() {
+        return customerTimeoutMillis;
+    }
+
+    /**
+     * Sets the longest a customer waits for tickets under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     *
+     * @param customerTimeoutMillis The timeout in milliseconds to set.
+     */
+    public void setCustomerTimeoutMillis(long customerTimeoutMillis) {
+        this.customerTimeoutMillis = customerTimeoutMillis;
+    }
+
+    /**
+     * Gets the controller that adjusts the release rate to hold the pool at a target fill level.
+     * The virtual time execution mode keeps the configured rate.
+     *
+     * @return The controller settings, or null for the configured release rate.
+     */
+    public ReleaseControl getReleaseControl() {
+        return releaseControl;
+    }
+
+    /**
+     * Sets the controller that adjusts the release rate to hold the pool at a target fill level.
+     * The virtual time execution mode keeps the configured rate.
+     *
+     * @param releaseControl The controller settings to set, or null for the configured release rate.
+     */
+    public void setReleaseControl(ReleaseControl releaseControl) {
+        this.releaseControl = releaseControl;
+    }
+}
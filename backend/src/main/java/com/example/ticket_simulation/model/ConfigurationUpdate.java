@@ -0,0 +1,124 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the settings that can be changed while a simulation is running.
+ * Settings left null keep their current value.
+ */
+public class ConfigurationUpdate {
+    private Integer ticketReleaseRate;
+    private Integer customerRetrievalRate;
+    private Integer maxTicketCapacity;
+    private Integer releasesPerSecond;
+    private Integer purchasesPerSecond;
+
+    /**
+     * Default constructor for ConfigurationUpdate.
+     */
+    public ConfigurationUpdate() {
+    }
+
+    /**
+     * Constructs a ConfigurationUpdate with the specified settings.
+     *
+     * @param ticketReleaseRate     The new release rate in milliseconds, or null to keep the current one.
+     * @param customerRetrievalRate The new retrieval rate in milliseconds, or null to keep the current one.
+     * @param maxTicketCapacity     The new pool capacity, or null to keep the current one.
+     */
+    public ConfigurationUpdate(Integer ticketReleaseRate, Integer customerRetrievalRate, Integer maxTicketCapacity) {
+        this.ticketReleaseRate = ticketReleaseRate;
+        this.customerRetrievalRate = customerRetrievalRate;
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    /**
+     * Gets the new ticket release rate.
+     *
+     * @return The release rate in milliseconds, or null to keep the current one.
+     */
+    public Integer getTicketReleaseRate() {
+        return ticketReleaseRate;
+    }
+
+    /**
+     * Sets the new ticket release rate.
+     *
+     * @param ticketReleaseRate The release rate in milliseconds, or null to keep the current one.
+     */
+    public void setTicketReleaseRate(Integer ticketReleaseRate) {
+        this.ticketReleaseRate = ticketReleaseRate;
+    }
+
+    /**
+     * Gets the new customer retrieval rate.
+     *
+     * @return The retrieval rate in milliseconds, or null to keep the current one.
+     */
+    public Integer getCustomerRetrievalRate() {
+        return customerRetrievalRate;
+    }
+
+    /**
+     * Sets the new customer retrieval rate.
+     *
+     * @param customerRetrievalRate The retrieval rate in milliseconds, or null to keep the current one.
+     */
+    public void setCustomerRetrievalRate(Integer customerRetrievalRate) {
+        this.customerRetrievalRate = customerRetrievalRate;
+    }
+
+    /**
+     * Gets the new maximum ticket capacity.
+     *
+     * @return The pool capacity, or null to keep the current one.
+     */
+    public Integer getMaxTicketCapacity() {
+        return maxTicketCapacity;
+    }
+
+    /**
+     * Sets the new maximum ticket capacity.
+     *
+     * @param maxTicketCapacity The pool capacity, or null to keep the current one.
+     */
+    public void setMaxTicketCapacity(Integer maxTicketCapacity) {
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    /**
+     * Gets the new number of tickets all vendors together release per second in a paced run.
+     *
+     * @return The release rate, 0 to derive it from the ticket release rate, or null to keep the current one.
+     */
+    public Integer getReleasesPerSecond() {
+        return releasesPerSecond;
+    }
+
+    /**
+     * Sets the new number of tickets all vendors together release per second in a paced run.
+     *
+     * @param releasesPerSecond The release rate, 0 to derive it from the ticket release rate,
+     *                          or null to keep the current one.
+     */
+    public void setReleasesPerSecond(Integer releasesPerSecond) {
+        this.releasesPerSecond = releasesPerSecond;
+    }
+
+    /**
+     * Gets the new number of tickets all customers together buy per second in a paced run.
+     *
+     * @return The purchase rate, 0 to derive it from the customer retrieval rate, or null to keep the current one.
+     */
+    public Integer getPurchasesPerSecond() {
+        return purchasesPerSecond;
+    }
+
+    /**
+     * Sets the new number of tickets all customers together buy per second in a paced run.
+     *
+     * @param purchasesPerSecond The purchase rate, 0 to derive it from the customer retrieval rate,
+     *                           or null to keep the current one.
+     */
+    public void setPurchasesPerSecond(Integer purchasesPerSecond) {
+        this.purchasesPerSecond = purchasesPerSecond;
+    }
+}
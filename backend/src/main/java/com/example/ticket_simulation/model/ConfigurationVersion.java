@@ -0,0 +1,50 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents one saved version of the simulation configuration.
+ */
+public class ConfigurationVersion {
+    private final long version;
+    private final long savedAt;
+    private final Configuration configuration;
+
+    /**
+     * Constructs a ConfigurationVersion.
+     *
+     * @param version       The version number; later saves have higher numbers.
+     * @param savedAt       When the version was saved, in milliseconds since the epoch.
+     * @param configuration The configuration.
+     */
+    public ConfigurationVersion(long version, long savedAt, Configuration configuration) {
+        this.version = version;
+        this.savedAt = savedAt;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Gets the version number.
+     *
+     * @return The version number.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets when the version was saved.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    /**
+     * Gets the configuration.
+     *
+     * @return The configuration.
+     */
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the ticket counters at one point in time, as pushed to streaming clients.
+ */
+public class CounterSnapshot {
+    private final int ticketsAvailable;
+    private final int ticketsSold;
+    private final boolean running;
+
+    /**
+     * Constructs a CounterSnapshot.
+     *
+     * @param ticketsAvailable The number of tickets in the pool.
+     * @param ticketsSold      The number of tickets sold.
+     * @param running          Whether the simulation is running.
+     */
+    public CounterSnapshot(int ticketsAvailable, int ticketsSold, boolean running) {
+        this.ticketsAvailable = ticketsAvailable;
+        this.ticketsSold = ticketsSold;
+        this.running = running;
+    }
+
+    /**
+     * Gets the number of tickets in the pool.
+     *
+     * @return The number of available tickets.
+     */
+    public int getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    /**
+     * Gets the number of tickets sold.
+     *
+     * @return The number of sold tickets.
+     */
+    public int getTicketsSold() {
+        return ticketsSold;
+    }
+
+    /**
+     * Gets whether the simulation is running.
+     *
+     * @return True if the simulation is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CounterSnapshot)) {
+            return false;
+        }
+        CounterSnapshot other = (CounterSnapshot) o;
+        return ticketsAvailable == other.ticketsAvailable && ticketsSold == other.ticketsSold
+                && running == other.running;
+    }
+
+    @Override
+    public int hashCode() {
+        return (ticketsAvailable * 31 + ticketsSold) * 31 + (running ? 1 : 0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the ticket counters of one event.
+ */
+public class EventAvailability {
+    private final String event;
+    private final long ticketsAvailable;
+    private final long ticketsSold;
+
+    /**
+     * Constructs an EventAvailability.
+     *
+     * @param event            The event.
+     * @param ticketsAvailable The number of the event's tickets in the pool.
+     * @param ticketsSold      The number of the event's tickets sold.
+     */
+    public EventAvailability(String event, long ticketsAvailable, long ticketsSold) {
+        this.event = event;
+        this.ticketsAvailable = ticketsAvailable;
+        this.ticketsSold = ticketsSold;
+    }
+
+    /**
+     * Gets the event.
+     *
+     * @return The event.
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Gets the number of the event's tickets in the pool.
+     *
+     * @return The number of available tickets.
+     */
+    public long getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    /**
+     * Gets the number of the event's tickets sold.
+     *
+     * @return The number of sold tickets.
+     */
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+}
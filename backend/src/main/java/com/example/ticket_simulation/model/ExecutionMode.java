@@ -0,0 +1,27 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * The ways vendors and customers can be executed during a simulation.
+ */
+public enum ExecutionMode {
+    /**
+     * One platform thread per vendor and customer.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * One virtual thread per vendor and customer, falling back to platform threads on JVMs without them.
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * A single-threaded discrete-event run on a simulated clock that finishes as fast as the CPU allows.
+     */
+    VIRTUAL_TIME,
+
+    /**
+     * A central pacer that releases and sells tickets at aggregate rates through a small pool of worker
+     * threads, instead of one sleeping thread per vendor and customer.
+     */
+    PACED
+}
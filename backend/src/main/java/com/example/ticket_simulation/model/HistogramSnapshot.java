@@ -0,0 +1,98 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the distribution of a recorded duration, in microseconds.
+ */
+public class HistogramSnapshot {
+    private final long count;
+    private final double mean;
+    private final double max;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+
+    /**
+     * Constructs a HistogramSnapshot.
+     *
+     * @param count The number of recorded values.
+     * @param mean  The mean in microseconds.
+     * @param max   The largest value in microseconds.
+     * @param p50   The median in microseconds.
+     * @param p90   The 90th percentile in microseconds.
+     * @param p99   The 99th percentile in microseconds.
+     * @param p999  The 99.9th percentile in microseconds.
+     */
+    public HistogramSnapshot(long count, double mean, double max, double p50, double p90, double p99, double p999) {
+        this.count = count;
+        this.mean = mean;
+        this.max = max;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean.
+     *
+     * @return The mean in microseconds.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum in microseconds.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the median.
+     *
+     * @return The 50th percentile in microseconds.
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * Gets the 90th percentile.
+     *
+     * @return The 90th percentile in microseconds.
+     */
+    public double getP90() {
+        return p90;
+    }
+
+    /**
+     * Gets the 99th percentile.
+     *
+     * @return The 99th percentile in microseconds.
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * Gets the 99.9th percentile.
+     *
+     * @return The 99.9th percentile in microseconds.
+     */
+    public double getP999() {
+        return p999;
+    }
+}
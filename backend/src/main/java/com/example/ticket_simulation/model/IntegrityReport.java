@@ -0,0 +1,159 @@
+package com.example.ticket_simulation.model;
+
+import java.util.List;
+
+/**
+ * Represents the result of checking the sales ledger against the tickets released in a run.
+ * A run is consistent when no ticket was sold twice, every sold ticket was one of those released,
+ * and every released ticket is either sold, still in the pool, held for a customer, or dropped by a vendor
+ * to make room for new tickets.
+ */
+public class IntegrityReport {
+    private final long ticketsReleased;
+    private final long salesRecorded;
+    private final long distinctTicketsSold;
+    private final long duplicateSales;
+    private final List<Integer> duplicateTicketIds;
+    private final long unexpectedSales;
+    private final int ticketsInPool;
+    private final int ticketsHeld;
+    private final long ticketsDropped;
+    private final long ticketsUnaccounted;
+
+    /**
+     * Constructs an IntegrityReport.
+     *
+     * @param ticketsReleased     The number of tickets released in the run.
+     * @param salesRecorded       The number of sales in the ledger.
+     * @param distinctTicketsSold The number of released tickets sold at least once.
+     * @param duplicateSales      The number of sales of a ticket that had already been sold.
+     * @param duplicateTicketIds  The IDs of the first few tickets sold more than once.
+     * @param unexpectedSales     The number of sales of tickets outside the released ID range.
+     * @param ticketsInPool       The number of tickets in the pool.
+     * @param ticketsHeld         The number of tickets held for customers.
+     * @param ticketsDropped      The number of tickets dropped from the pool to make room for others.
+     * @param ticketsUnaccounted  The number of released tickets that are neither sold, pooled, held nor dropped.
+     */
+    public IntegrityReport(long ticketsReleased, long salesRecorded, long distinctTicketsSold, long duplicateSales,
+                           List<Integer> duplicateTicketIds, long unexpectedSales, int ticketsInPool,
+                           int ticketsHeld, long ticketsDropped, long ticketsUnaccounted) {
+        this.ticketsReleased = ticketsReleased;
+        this.salesRecorded = salesRecorded;
+        this.distinctTicketsSold = distinctTicketsSold;
+        this.duplicateSales = duplicateSales;
+        this.duplicateTicketIds = duplicateTicketIds;
+        this.unexpectedSales = unexpectedSales;
+        this.ticketsInPool = ticketsInPool;
+        this.ticketsHeld = ticketsHeld;
+        this.ticketsDropped = ticketsDropped;
+        this.ticketsUnaccounted = ticketsUnaccounted;
+    }
+
+    /**
+     * Gets the number of tickets released in the run.
+     *
+     * @return The number of released tickets.
+     */
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    /**
+     * Gets the number of sales in the ledger, duplicates included.
+     *
+     * @return The number of sales.
+     */
+    public long getSalesRecorded() {
+        return salesRecorded;
+    }
+
+    /**
+     * Gets the number of released tickets sold at least once.
+     *
+     * @return The number of distinct tickets sold.
+     */
+    public long getDistinctTicketsSold() {
+        return distinctTicketsSold;
+    }
+
+    /**
+     * Gets the number of sales of a ticket that had already been sold.
+     *
+     * @return The number of duplicate sales.
+     */
+    public long getDuplicateSales() {
+        return duplicateSales;
+    }
+
+    /**
+     * Gets the IDs of the first few tickets sold more than once.
+     *
+     * @return The ticket IDs, in the order the duplicates were detected.
+     */
+    public List<Integer> getDuplicateTicketIds() {
+        return duplicateTicketIds;
+    }
+
+    /**
+     * Gets the number of sales of tickets outside the released ID range.
+     *
+     * @return The number of unexpected sales.
+     */
+    public long getUnexpectedSales() {
+        return unexpectedSales;
+    }
+
+    /**
+     * Gets the number of tickets in the pool.
+     *
+     * @return The number of pooled tickets.
+     */
+    public int getTicketsInPool() {
+        return ticketsInPool;
+    }
+
+    /**
+     * Gets the number of tickets held for customers.
+     *
+     * @return The number of held tickets.
+     */
+    public int getTicketsHeld() {
+        return ticketsHeld;
+    }
+
+    /**
+     * Gets the number of tickets dropped from the pool to make room for others.
+     *
+     * @return The number of dropped tickets.
+     */
+    public long getTicketsDropped() {
+        return ticketsDropped;
+    }
+
+    /**
+     * Gets the number of released tickets that are neither sold, pooled, held nor dropped.
+     *
+     * @return The number of unaccounted tickets.
+     */
+    public long getTicketsUnaccounted() {
+        return ticketsUnaccounted;
+    }
+
+    /**
+     * Checks whether the run is consistent.
+     *
+     * @return True if there are no duplicate, unexpected or unaccounted tickets.
+     */
+    public boolean isConsistent() {
+        return duplicateSales == 0 && unexpectedSales == 0 && ticketsUnaccounted == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Integrity " + (isConsistent() ? "OK" : "FAILED") + ": " + distinctTicketsSold + " of "
+                + ticketsReleased + " tickets sold, " + ticketsInPool + " in pool, " + ticketsHeld + " held, "
+                + ticketsDropped + " dropped, "
+                + duplicateSales + " duplicate sales, " + unexpectedSales + " unexpected sales, "
+                + ticketsUnaccounted + " unaccounted.";
+    }
+}
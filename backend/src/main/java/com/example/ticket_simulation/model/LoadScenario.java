@@ -0,0 +1,147 @@
+package com.example.ticket_simulation.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents how the load of a paced run changes over time: rate curves for the vendors and the customers,
+ * how customer purchases arrive, and when tickets go on sale.
+ * <p>
+ * A curve holds its first rate from the start of the run unless that point ramps, in which case the rate
+ * climbs from the configured rate; after the last point the last rate holds. Without a curve the configured
+ * rate applies throughout. Customers buy nothing before the on-sale time, while vendors already stock the pool.
+ */
+public class LoadScenario {
+    private List<RatePoint> releaseCurve;
+    private List<RatePoint> purchaseCurve;
+    private ArrivalPattern arrivals = ArrivalPattern.STEADY;
+    private int burstSize;
+    private long onSaleAtMillis;
+
+    /**
+     * Default constructor for LoadScenario.
+     */
+    public LoadScenario() {
+    }
+
+    /**
+     * Constructs a copy of another LoadScenario.
+     *
+     * @param other The scenario to copy.
+     */
+    public LoadScenario(LoadScenario other) {
+        this.releaseCurve = copy(other.releaseCurve);
+        this.purchaseCurve = copy(other.purchaseCurve);
+        this.arrivals = other.arrivals;
+        this.burstSize = other.burstSize;
+        this.onSaleAtMillis = other.onSaleAtMillis;
+    }
+
+    private static List<RatePoint> copy(List<RatePoint> curve) {
+        if (curve == null) {
+            return null;
+        }
+        List<RatePoint> copy = new ArrayList<>(curve.size());
+        for (RatePoint point : curve) {
+            copy.add(new RatePoint(point.getAtMillis(), point.getPerSecond(), point.isRamp()));
+        }
+        return copy;
+    }
+
+    /**
+     * Gets how the number of tickets all vendors together release per second changes over time.
+     *
+     * @return The points of the curve, or null to keep the configured rate.
+     */
+    public List<RatePoint> getReleaseCurve() {
+        return releaseCurve;
+    }
+
+    /**
+     * Sets how the number of tickets all vendors together release per second changes over time.
+     *
+     * @param releaseCurve The points of the curve, or null to keep the configured rate.
+     */
+    public void setReleaseCurve(List<RatePoint> releaseCurve) {
+        this.releaseCurve = releaseCurve;
+    }
+
+    /**
+     * Gets how the number of tickets all customers together buy per second changes over time.
+     *
+     * @return The points of the curve, or null to keep the configured rate.
+     */
+    public List<RatePoint> getPurchaseCurve() {
+        return purchaseCurve;
+    }
+
+    /**
+     * Sets how the number of tickets all customers together buy per second changes over time.
+     *
+     * @param purchaseCurve The points of the curve, or null to keep the configured rate.
+     */
+    public void setPurchaseCurve(List<RatePoint> purchaseCurve) {
+        this.purchaseCurve = purchaseCurve;
+    }
+
+    /**
+     * Gets how customer purchases arrive over time.
+     *
+     * @return The arrival pattern.
+     */
+    public ArrivalPattern getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * Sets how customer purchases arrive over time.
+     *
+     * @param arrivals The arrival pattern.
+     */
+    public void setArrivals(ArrivalPattern arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    /**
+     * Gets the number of purchases in each burst of {@link ArrivalPattern#BURSTY} arrivals.
+     *
+     * @return The burst size, or 0 for the default.
+     */
+    public int getBurstSize() {
+        return burstSize;
+    }
+
+    /**
+     * Sets the number of purchases in each burst of {@link ArrivalPattern#BURSTY} arrivals.
+     *
+     * @param burstSize The burst size, or 0 for the default.
+     */
+    public void setBurstSize(int burstSize) {
+        this.burstSize = burstSize;
+    }
+
+    /**
+     * Gets when tickets go on sale.
+     *
+     * @return The time in milliseconds after the run started; 0 to sell from the start.
+     */
+    public long getOnSaleAtMillis() {
+        return onSaleAtMillis;
+    }
+
+    /**
+     * Sets when tickets go on sale.
+     *
+     * @param onSaleAtMillis The time in milliseconds after the run started; 0 to sell from the start.
+     */
+    public void setOnSaleAtMillis(long onSaleAtMillis) {
+        this.onSaleAtMillis = onSaleAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return arrivals + " arrivals, on sale at " + onSaleAtMillis + " ms, "
+                + (releaseCurve != null ? releaseCurve.size() : 0) + " release and "
+                + (purchaseCurve != null ? purchaseCurve.size() : 0) + " purchase rate points";
+    }
+}
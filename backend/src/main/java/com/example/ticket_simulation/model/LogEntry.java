@@ -0,0 +1,38 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents a single log message and its position in the log.
+ */
+public class LogEntry {
+    private final long sequence;
+    private final String message;
+
+    /**
+     * Constructs a LogEntry with the specified sequence number and message.
+     *
+     * @param sequence The sequence number of the entry.
+     * @param message  The timestamped log message.
+     */
+    public LogEntry(long sequence, String message) {
+        this.sequence = sequence;
+        this.message = message;
+    }
+
+    /**
+     * Gets the sequence number of the entry. Sequence numbers start at 1 and increase by one per entry.
+     *
+     * @return The sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the timestamped log message.
+     *
+     * @return The message.
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * The kinds of events recorded in the simulation log.
+ */
+public enum LogEventType {
+    /**
+     * A vendor added a ticket to the pool.
+     */
+    TICKET_ADDED,
+
+    /**
+     * A customer retrieved a ticket from the pool.
+     */
+    TICKET_RETRIEVED,
+
+    /**
+     * A free-text message.
+     */
+    MESSAGE
+}
@@ -0,0 +1,22 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * What an asynchronous logger does with ticket events when its queue cannot keep up.
+ * Free-text messages always wait for space, whatever the policy.
+ */
+public enum LogOverflowPolicy {
+    /**
+     * Wait for the writer to free space.
+     */
+    BLOCK,
+
+    /**
+     * Drop events while the queue is full.
+     */
+    DROP,
+
+    /**
+     * Keep only a sample of events once the queue is half full, and drop events while it is full.
+     */
+    SAMPLE
+}
@@ -0,0 +1,53 @@
+package com.example.ticket_simulation.model;
+
+import java.util.List;
+
+/**
+ * Represents a batch of log entries returned by an incremental log fetch.
+ */
+public class LogPage {
+    private final List<LogEntry> entries;
+    private final long oldestSequence;
+    private final long nextSequence;
+
+    /**
+     * Constructs a LogPage.
+     *
+     * @param entries        The entries in ascending sequence order.
+     * @param oldestSequence The sequence number of the oldest entry still retained.
+     * @param nextSequence   The sequence number the next log entry will receive.
+     */
+    public LogPage(List<LogEntry> entries, long oldestSequence, long nextSequence) {
+        this.entries = entries;
+        this.oldestSequence = oldestSequence;
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Gets the entries in ascending sequence order.
+     *
+     * @return The entries.
+     */
+    public List<LogEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the sequence number of the oldest entry still retained.
+     * A client whose cursor is older than this has missed entries that were overwritten.
+     *
+     * @return The oldest retained sequence number.
+     */
+    public long getOldestSequence() {
+        return oldestSequence;
+    }
+
+    /**
+     * Gets the sequence number the next log entry will receive.
+     *
+     * @return The next sequence number.
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the latency and throughput metrics of the ticket pool at one point in time.
+ */
+public class MetricsSnapshot {
+    private final HistogramSnapshot addWait;
+    private final HistogramSnapshot retrieveWait;
+    private final HistogramSnapshot timeInPool;
+    private final long ticketsReleased;
+    private final long ticketsSold;
+    private final double releasesPerSecond;
+    private final double salesPerSecond;
+    private final long releasesRejected;
+    private final long releasesTimedOut;
+    private final long purchasesRejected;
+    private final long purchasesTimedOut;
+    private final long ticketsDropped;
+
+    /**
+     * Constructs a MetricsSnapshot.
+     *
+     * @param addWait           How long vendors waited to add a ticket.
+     * @param retrieveWait      How long customers waited to retrieve a ticket.
+     * @param timeInPool        How long tickets stayed in the pool before they were sold.
+     * @param ticketsReleased   The number of tickets added to the pool.
+     * @param ticketsSold       The number of tickets sold.
+     * @param releasesPerSecond The recent number of tickets added per second.
+     * @param salesPerSecond    The recent number of tickets sold per second.
+     * @param releasesRejected  The number of releases vendors gave up on straight away.
+     * @param releasesTimedOut  The number of releases vendors gave up on after their timeout.
+     * @param purchasesRejected The number of purchases customers gave up on straight away.
+     * @param purchasesTimedOut The number of purchases customers gave up on after their timeout.
+     * @param ticketsDropped    The number of tickets dropped from the pool to make room for others.
+     */
+    public MetricsSnapshot(HistogramSnapshot addWait, HistogramSnapshot retrieveWait, HistogramSnapshot timeInPool,
+                           long ticketsReleased, long ticketsSold, double releasesPerSecond, double salesPerSecond,
+                           long releasesRejected, long releasesTimedOut, long purchasesRejected,
+                           long purchasesTimedOut, long ticketsDropped) {
+        this.addWait = addWait;
+        this.retrieveWait = retrieveWait;
+        this.timeInPool = timeInPool;
+        this.ticketsReleased = ticketsReleased;
+        this.ticketsSold = ticketsSold;
+        this.releasesPerSecond = releasesPerSecond;
+        this.salesPerSecond = salesPerSecond;
+        this.releasesRejected = releasesRejected;
+        this.releasesTimedOut = releasesTimedOut;
+        this.purchasesRejected = purchasesRejected;
+        this.purchasesTimedOut = purchasesTimedOut;
+        this.ticketsDropped = ticketsDropped;
+    }
+
+    /**
+     * Gets how long vendors waited to add a ticket.
+     *
+     * @return The add wait distribution.
+     */
+    public HistogramSnapshot getAddWait() {
+        return addWait;
+    }
+
+    /**
+     * Gets how long customers waited to retrieve a ticket.
+     *
+     * @return The retrieve wait distribution.
+     */
+    public HistogramSnapshot getRetrieveWait() {
+        return retrieveWait;
+    }
+
+    /**
+     * Gets how long tickets stayed in the pool before they were sold.
+     *
+     * @return The time-in-pool distribution.
+     */
+    public HistogramSnapshot getTimeInPool() {
+        return timeInPool;
+    }
+
+    /**
+     * Gets the number of tickets added to the pool.
+     *
+     * @return The number of released tickets.
+     */
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    /**
+     * Gets the number of tickets sold.
+     *
+     * @return The number of sold tickets.
+     */
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    /**
+     * Gets the recent number of tickets added per second.
+     *
+     * @return The release rate.
+     */
+    public double getReleasesPerSecond() {
+        return releasesPerSecond;
+    }
+
+    /**
+     * Gets the recent number of tickets sold per second.
+     *
+     * @return The sales rate.
+     */
+    public double getSalesPerSecond() {
+        return salesPerSecond;
+    }
+
+    /**
+     * Gets the number of releases vendors gave up on straight away because the pool was full.
+     *
+     * @return The number of rejected releases.
+     */
+    public long getReleasesRejected() {
+        return releasesRejected;
+    }
+
+    /**
+     * Gets the number of releases vendors gave up on after waiting for space until their timeout.
+     *
+     * @return The number of timed-out releases.
+     */
+    public long getReleasesTimedOut() {
+        return releasesTimedOut;
+    }
+
+    /**
+     * Gets the number of purchases customers gave up on straight away because too few tickets were available.
+     *
+     * @return The number of rejected purchases.
+     */
+    public long getPurchasesRejected() {
+        return purchasesRejected;
+    }
+
+    /**
+     * Gets the number of purchases customers gave up on after waiting for tickets until their timeout.
+     *
+     * @return The number of timed-out purchases.
+     */
+    public long getPurchasesTimedOut() {
+        return purchasesTimedOut;
+    }
+
+    /**
+     * Gets the number of tickets dropped from the pool to make room for others.
+     *
+     * @return The number of dropped tickets.
+     */
+    public long getTicketsDropped() {
+        return ticketsDropped;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * The available storage engines for the ticket pool.
+ */
+public enum PoolEngineType {
+    /**
+     * A single monitor guarding a linked queue.
+     */
+    LOCKING,
+
+    /**
+     * A lock-free, array-backed multi-producer/multi-consumer ring buffer.
+     */
+    RING_BUFFER,
+
+    /**
+     * Independently locked shards with work stealing between them.
+     */
+    SHARDED,
+
+    /**
+     * A single monitor guarding per-event, per-venue, per-price queues with an index for targeted lookups.
+     */
+    INDEXED,
+
+    /**
+     * A single monitor guarding a fixed ring of tickets packed into primitives, for very large pools.
+     */
+    COMPACT
+}
@@ -0,0 +1,83 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents one point of a rate curve in a load scenario.
+ */
+public class RatePoint {
+    private long atMillis;
+    private double perSecond;
+    private boolean ramp;
+
+    /**
+     * Default constructor for RatePoint.
+     */
+    public RatePoint() {
+    }
+
+    /**
+     * Constructs a RatePoint.
+     *
+     * @param atMillis  When the rate applies, in milliseconds after the run started.
+     * @param perSecond The number of tickets per second.
+     * @param ramp      Whether the rate climbs or falls linearly from the previous point instead of jumping.
+     */
+    public RatePoint(long atMillis, double perSecond, boolean ramp) {
+        this.atMillis = atMillis;
+        this.perSecond = perSecond;
+        this.ramp = ramp;
+    }
+
+    /**
+     * Gets when the rate applies.
+     *
+     * @return The time in milliseconds after the run started.
+     */
+    public long getAtMillis() {
+        return atMillis;
+    }
+
+    /**
+     * Sets when the rate applies.
+     *
+     * @param atMillis The time in milliseconds after the run started.
+     */
+    public void setAtMillis(long atMillis) {
+        this.atMillis = atMillis;
+    }
+
+    /**
+     * Gets the rate at this point.
+     *
+     * @return The number of tickets per second.
+     */
+    public double getPerSecond() {
+        return perSecond;
+    }
+
+    /**
+     * Sets the rate at this point.
+     *
+     * @param perSecond The number of tickets per second.
+     */
+    public void setPerSecond(double perSecond) {
+        this.perSecond = perSecond;
+    }
+
+    /**
+     * Checks whether the rate climbs or falls linearly from the previous point.
+     *
+     * @return True for a ramp, false for a jump at this point.
+     */
+    public boolean isRamp() {
+        return ramp;
+    }
+
+    /**
+     * Sets whether the rate climbs or falls linearly from the previous point.
+     *
+     * @param ramp True for a ramp, false for a jump at this point.
+     */
+    public void setRamp(boolean ramp) {
+        this.ramp = ramp;
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the settings of a closed-loop controller that adjusts how fast vendors release tickets so that
+ * the pool stays at a target fill level.
+ * <p>
+ * Every interval the controller compares the share of the pool that is filled with the target. A pool
+ * below its target, or customers who waited longer than the wait limit on average, call for faster
+ * releases; a pool above its target calls for slower ones. The controller's rate replaces the configured
+ * release rate and any release curve of the run. Rates are tickets per second for all vendors together.
+ */
+public class ReleaseControl {
+    private ReleaseControlAlgorithm algorithm = ReleaseControlAlgorithm.AIMD;
+    private double targetOccupancy = 0.5;
+    private long intervalMillis = 100;
+    private double minReleasesPerSecond = 1;
+    private double maxReleasesPerSecond;
+    private long maxCustomerWaitMillis;
+    private double additiveIncrease;
+    private double multiplicativeDecrease = 0.5;
+    private double proportionalGain = 1.0;
+    private double integralGain = 0.5;
+    private double derivativeGain;
+
+    /**
+     * Default constructor for ReleaseControl.
+     */
+    public ReleaseControl() {
+    }
+
+    /**
+     * Constructs a copy of another ReleaseControl.
+     *
+     * @param other The settings to copy.
+     */
+    public ReleaseControl(ReleaseControl other) {
+        this.algorithm = other.algorithm;
+        this.targetOccupancy = other.targetOccupancy;
+        this.intervalMillis = other.intervalMillis;
+        this.minReleasesPerSecond = other.minReleasesPerSecond;
+        this.maxReleasesPerSecond = other.maxReleasesPerSecond;
+        this.maxCustomerWaitMillis = other.maxCustomerWaitMillis;
+        this.additiveIncrease = other.additiveIncrease;
+        this.multiplicativeDecrease = other.multiplicativeDecrease;
+        this.proportionalGain = other.proportionalGain;
+        this.integralGain = other.integralGain;
+        this.derivativeGain = other.derivativeGain;
+    }
+
+    /**
+     * Gets the feedback law of the controller.
+     *
+     * @return The algorithm.
+     */
+    public ReleaseControlAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Sets the feedback law of the controller.
+     *
+     * @param algorithm The algorithm to set.
+     */
+    public void setAlgorithm(ReleaseControlAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Gets the share of the pool capacity the controller keeps filled.
+     *
+     * @return The target, from 0 to 1.
+     */
+    public double getTargetOccupancy() {
+        return targetOccupancy;
+    }
+
+    /**
+     * Sets the share of the pool capacity the controller keeps filled.
+     *
+     * @param targetOccupancy The target to set, from 0 to 1.
+     */
+    public void setTargetOccupancy(double targetOccupancy) {
+        this.targetOccupancy = targetOccupancy;
+    }
+
+    /**
+     * Gets how often the controller adjusts the rate.
+     *
+     * @return The interval in milliseconds.
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Sets how often the controller adjusts the rate.
+     *
+     * @param intervalMillis The interval in milliseconds to set.
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Gets the lowest rate the controller sets.
+     *
+     * @return The minimum rate.
+     */
+    public double getMinReleasesPerSecond() {
+        return minReleasesPerSecond;
+    }
+
+    /**
+     * Sets the lowest rate the controller sets.
+     *
+     * @param minReleasesPerSecond The minimum rate to set.
+     */
+    public void setMinReleasesPerSecond(double minReleasesPerSecond) {
+        this.minReleasesPerSecond = minReleasesPerSecond;
+    }
+
+    /**
+     * Gets the highest rate the controller sets.
+     *
+     * @return The maximum rate, or 0 for ten times the configured release rate.
+     */
+    public double getMaxReleasesPerSecond() {
+        return maxReleasesPerSecond;
+    }
+
+    /**
+     * Sets the highest rate the controller sets.
+     *
+     * @param maxReleasesPerSecond The maximum rate to set, or 0 for ten times the configured release rate.
+     */
+    public void setMaxReleasesPerSecond(double maxReleasesPerSecond) {
+        this.maxReleasesPerSecond = maxReleasesPerSecond;
+    }
+
+    /**
+     * Gets the longest customers may wait for tickets on average before the controller releases faster
+     * whatever the occupancy. Only customers of the thread-per-actor execution modes wait.
+     *
+     * @return The wait limit in milliseconds, or 0 to control on the occupancy alone.
+     */
+    public long getMaxCustomerWaitMillis() {
+        return maxCustomerWaitMillis;
+    }
+
+    /**
+     * Sets the longest customers may wait for tickets on average before the controller releases faster.
+     *
+     * @param maxCustomerWaitMillis The wait limit in milliseconds to set, or 0 to control on the occupancy alone.
+     */
+    public void setMaxCustomerWaitMillis(long maxCustomerWaitMillis) {
+        this.maxCustomerWaitMillis = maxCustomerWaitMillis;
+    }
+
+    /**
+     * Gets how much {@link ReleaseControlAlgorithm#AIMD} raises the rate per interval while the pool is below
+     * its target.
+     *
+     * @return The increase in tickets per second, or 0 for a twentieth of the maximum rate.
+     */
+    public double getAdditiveIncrease() {
+        return additiveIncrease;
+    }
+
+    /**
+     * Sets how much {@link ReleaseControlAlgorithm#AIMD} raises the rate per interval while the pool is below
+     * its target.
+     *
+     * @param additiveIncrease The increase in tickets per second to set, or 0 for a twentieth of the maximum rate.
+     */
+    public void setAdditiveIncrease(double additiveIncrease) {
+        this.additiveIncrease = additiveIncrease;
+    }
+
+    /**
+     * Gets the factor {@link ReleaseControlAlgorithm#AIMD} multiplies the rate by per interval while the pool
+     * is above its target.
+     *
+     * @return The factor, between 0 and 1.
+     */
+    public double getMultiplicativeDecrease() {
+        return multiplicativeDecrease;
+    }
+
+    /**
+     * Sets the factor {@link ReleaseControlAlgorithm#AIMD} multiplies the rate by per interval while the pool
+     * is above its target.
+     *
+     * @param multiplicativeDecrease The factor to set, between 0 and 1.
+     */
+    public void setMultiplicativeDecrease(double multiplicativeDecrease) {
+        this.multiplicativeDecrease = multiplicativeDecrease;
+    }
+
+    /**
+     * Gets the proportional gain of {@link ReleaseControlAlgorithm#PID}, in rate ranges per unit of
+     * occupancy error.
+     *
+     * @return The gain.
+     */
+    public double getProportionalGain() {
+        return proportionalGain;
+    }
+
+    /**
+     * Sets the proportional gain of {@link ReleaseControlAlgorithm#PID}.
+     *
+     * @param proportionalGain The gain to set.
+     */
+    public void setProportionalGain(double proportionalGain) {
+        this.proportionalGain = proportionalGain;
+    }
+
+    /**
+     * Gets the integral gain of {@link ReleaseControlAlgorithm#PID}, in rate ranges per unit of occupancy
+     * error and second.
+     *
+     * @return The gain.
+     */
+    public double getIntegralGain() {
+        return integralGain;
+    }
+
+    /**
+     * Sets the integral gain of {@link ReleaseControlAlgorithm#PID}.
+     *
+     * @param integralGain The gain to set.
+     */
+    public void setIntegralGain(double integralGain) {
+        this.integralGain = integralGain;
+    }
+
+    /**
+     * Gets the derivative gain of {@link ReleaseControlAlgorithm#PID}, in rate ranges per unit of occupancy
+     * error change per second.
+     *
+     * @return The gain.
+     */
+    public double getDerivativeGain() {
+        return derivativeGain;
+    }
+
+    /**
+     * Sets the derivative gain of {@link ReleaseControlAlgorithm#PID}.
+     *
+     * @param derivativeGain The gain to set.
+     */
+    public void setDerivativeGain(double derivativeGain) {
+        this.derivativeGain = derivativeGain;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " to " + Math.round(targetOccupancy * 100) + "% occupancy every " + intervalMillis
+                + " ms";
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * The feedback laws a release-rate controller can use to hold the pool at its target occupancy.
+ */
+public enum ReleaseControlAlgorithm {
+    /**
+     * Additive increase while the pool is below its target, multiplicative decrease while it is above.
+     */
+    AIMD,
+
+    /**
+     * A proportional-integral-derivative controller on the difference between the target and the occupancy.
+     */
+    PID
+}
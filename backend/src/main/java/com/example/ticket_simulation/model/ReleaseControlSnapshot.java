@@ -0,0 +1,149 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the state and the decisions of a release-rate controller at one point in time.
+ */
+public class ReleaseControlSnapshot {
+    private final ReleaseControlAlgorithm algorithm;
+    private final double targetOccupancy;
+    private final double occupancy;
+    private final double customerWaitMillis;
+    private final double releasesPerSecond;
+    private final double minReleasesPerSecond;
+    private final double maxReleasesPerSecond;
+    private final long updates;
+    private final long increases;
+    private final long decreases;
+    private final long starvedIntervals;
+
+    /**
+     * Constructs a ReleaseControlSnapshot.
+     *
+     * @param algorithm            The feedback law of the controller.
+     * @param targetOccupancy      The share of the pool capacity the controller keeps filled.
+     * @param occupancy            The share of the pool capacity filled at the last adjustment.
+     * @param customerWaitMillis   How long customers waited on average in the last interval.
+     * @param releasesPerSecond    The rate the controller set last.
+     * @param minReleasesPerSecond The lowest rate the controller sets.
+     * @param maxReleasesPerSecond The highest rate the controller sets.
+     * @param updates              The number of adjustments so far.
+     * @param increases            The number of adjustments that raised the rate.
+     * @param decreases            The number of adjustments that lowered the rate.
+     * @param starvedIntervals     The number of intervals in which customers waited longer than the limit.
+     */
+    public ReleaseControlSnapshot(ReleaseControlAlgorithm algorithm, double targetOccupancy, double occupancy,
+                                  double customerWaitMillis, double releasesPerSecond, double minReleasesPerSecond,
+                                  double maxReleasesPerSecond, long updates, long increases, long decreases,
+                                  long starvedIntervals) {
+        this.algorithm = algorithm;
+        this.targetOccupancy = targetOccupancy;
+        this.occupancy = occupancy;
+        this.customerWaitMillis = customerWaitMillis;
+        this.releasesPerSecond = releasesPerSecond;
+        this.minReleasesPerSecond = minReleasesPerSecond;
+        this.maxReleasesPerSecond = maxReleasesPerSecond;
+        this.updates = updates;
+        this.increases = increases;
+        this.decreases = decreases;
+        this.starvedIntervals = starvedIntervals;
+    }
+
+    /**
+     * Gets the feedback law of the controller.
+     *
+     * @return The algorithm.
+     */
+    public ReleaseControlAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the share of the pool capacity the controller keeps filled.
+     *
+     * @return The target, from 0 to 1.
+     */
+    public double getTargetOccupancy() {
+        return targetOccupancy;
+    }
+
+    /**
+     * Gets the share of the pool capacity filled at the last adjustment.
+     *
+     * @return The occupancy, from 0 to 1.
+     */
+    public double getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Gets how long customers waited for tickets on average in the last interval.
+     *
+     * @return The mean wait in milliseconds, or 0 if no customer waited.
+     */
+    public double getCustomerWaitMillis() {
+        return customerWaitMillis;
+    }
+
+    /**
+     * Gets the rate the controller set last.
+     *
+     * @return The number of tickets all vendors together release per second.
+     */
+    public double getReleasesPerSecond() {
+        return releasesPerSecond;
+    }
+
+    /**
+     * Gets the lowest rate the controller sets.
+     *
+     * @return The minimum rate.
+     */
+    public double getMinReleasesPerSecond() {
+        return minReleasesPerSecond;
+    }
+
+    /**
+     * Gets the highest rate the controller sets.
+     *
+     * @return The maximum rate.
+     */
+    public double getMaxReleasesPerSecond() {
+        return maxReleasesPerSecond;
+    }
+
+    /**
+     * Gets the number of adjustments so far.
+     *
+     * @return The number of updates.
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Gets the number of adjustments that raised the rate.
+     *
+     * @return The number of increases.
+     */
+    public long getIncreases() {
+        return increases;
+    }
+
+    /**
+     * Gets the number of adjustments that lowered the rate.
+     *
+     * @return The number of decreases.
+     */
+    public long getDecreases() {
+        return decreases;
+    }
+
+    /**
+     * Gets the number of intervals in which customers waited longer than the limit on average.
+     *
+     * @return The number of starved intervals.
+     */
+    public long getStarvedIntervals() {
+        return starvedIntervals;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the state of one simulation session at one point in time.
+ */
+public class SessionSummary {
+    private final long id;
+    private final long createdAt;
+    private final boolean running;
+    private final Configuration configuration;
+    private final int ticketsAvailable;
+    private final int ticketsSold;
+
+    /**
+     * Constructs a SessionSummary.
+     *
+     * @param id               The ID of the session.
+     * @param createdAt        When the session was created, in milliseconds since the epoch.
+     * @param running          Whether the session's simulation is running.
+     * @param configuration    The configuration of the session's run, or null if none has been applied.
+     * @param ticketsAvailable The number of tickets in the session's pool.
+     * @param ticketsSold      The number of tickets sold in the session's run.
+     */
+    public SessionSummary(long id, long createdAt, boolean running, Configuration configuration,
+                          int ticketsAvailable, int ticketsSold) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.running = running;
+        this.configuration = configuration;
+        this.ticketsAvailable = ticketsAvailable;
+        this.ticketsSold = ticketsSold;
+    }
+
+    /**
+     * Gets the ID of the session.
+     *
+     * @return The ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets when the session was created.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Checks whether the session's simulation is running.
+     *
+     * @return True if it has been run and not stopped since.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the configuration of the session's run.
+     *
+     * @return The configuration, or null if none has been applied.
+     */
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Gets the number of tickets in the session's pool.
+     *
+     * @return The number of available tickets.
+     */
+    public int getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    /**
+     * Gets the number of tickets sold in the session's run.
+     *
+     * @return The number of sold tickets.
+     */
+    public int getTicketsSold() {
+        return ticketsSold;
+    }
+}
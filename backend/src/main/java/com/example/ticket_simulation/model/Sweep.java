@@ -0,0 +1,88 @@
+package com.example.ticket_simulation.model;
+
+import java.util.List;
+
+/**
+ * Represents the progress and results of a parameter sweep at one point in time.
+ */
+public class Sweep {
+    private final long id;
+    private final SweepStatus status;
+    private final long submittedAt;
+    private final long completedAt;
+    private final int runCount;
+    private final List<SweepRun> runs;
+
+    /**
+     * Constructs a Sweep.
+     *
+     * @param id          The ID of the sweep.
+     * @param status      Whether every run has finished.
+     * @param submittedAt When the sweep was submitted, in milliseconds since the epoch.
+     * @param completedAt When the last run finished, in milliseconds since the epoch, or 0 if some are running.
+     * @param runCount    The number of configurations in the grid.
+     * @param runs        The results of the runs finished so far, in grid order.
+     */
+    public Sweep(long id, SweepStatus status, long submittedAt, long completedAt, int runCount, List<SweepRun> runs) {
+        this.id = id;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+        this.runCount = runCount;
+        this.runs = runs;
+    }
+
+    /**
+     * Gets the ID of the sweep.
+     *
+     * @return The ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets whether every run has finished.
+     *
+     * @return The status.
+     */
+    public SweepStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets when the sweep was submitted.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Gets when the last run finished.
+     *
+     * @return The time in milliseconds since the epoch, or 0 if some runs have not finished.
+     */
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Gets the number of configurations in the grid.
+     *
+     * @return The number of runs.
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Gets the results of the runs finished so far.
+     *
+     * @return The results in grid order.
+     */
+    public List<SweepRun> getRuns() {
+        return runs;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.ticket_simulation.model;
+
+import java.util.List;
+
+/**
+ * Represents a grid of simulation configurations to run side by side.
+ * <p>
+ * The grid starts from the listed configurations, or from the base configuration if none are listed,
+ * and every non-empty list of values multiplies it: each configuration is run once with every value.
+ * Leaving all lists empty runs the starting configurations as they are.
+ */
+public class SweepRequest {
+    private Configuration base;
+    private List<Configuration> configurations;
+    private List<Integer> maxTicketCapacities;
+    private List<Integer> ticketReleaseRates;
+    private List<Integer> customerRetrievalRates;
+    private List<Integer> vendorCounts;
+    private List<Integer> customerCounts;
+    private int parallelism;
+    private long timeoutSeconds;
+
+    /**
+     * Gets the configuration the grid varies.
+     *
+     * @return The base configuration, or null if the configurations are listed.
+     */
+    public Configuration getBase() {
+        return base;
+    }
+
+    /**
+     * Sets the configuration the grid varies.
+     *
+     * @param base The base configuration.
+     */
+    public void setBase(Configuration base) {
+        this.base = base;
+    }
+
+    /**
+     * Gets the configurations the grid starts from.
+     *
+     * @return The configurations, or null to start from the base configuration.
+     */
+    public List<Configuration> getConfigurations() {
+        return configurations;
+    }
+
+    /**
+     * Sets the configurations the grid starts from.
+     *
+     * @param configurations The configurations, or null to start from the base configuration.
+     */
+    public void setConfigurations(List<Configuration> configurations) {
+        this.configurations = configurations;
+    }
+
+    /**
+     * Gets the pool capacities to try.
+     *
+     * @return The capacities, or null to keep each configuration's own.
+     */
+    public List<Integer> getMaxTicketCapacities() {
+        return maxTicketCapacities;
+    }
+
+    /**
+     * Sets the pool capacities to try.
+     *
+     * @param maxTicketCapacities The capacities, or null to keep each configuration's own.
+     */
+    public void setMaxTicketCapacities(List<Integer> maxTicketCapacities) {
+        this.maxTicketCapacities = maxTicketCapacities;
+    }
+
+    /**
+     * Gets the ticket release rates to try.
+     *
+     * @return The release rates in milliseconds, or null to keep each configuration's own.
+     */
+    public List<Integer> getTicketReleaseRates() {
+        return ticketReleaseRates;
+    }
+
+    /**
+     * Sets the ticket release rates to try.
+     *
+     * @param ticketReleaseRates The release rates in milliseconds, or null to keep each configuration's own.
+     */
+    public void setTicketReleaseRates(List<Integer> ticketReleaseRates) {
+        this.ticketReleaseRates = ticketReleaseRates;
+    }
+
+    /**
+     * Gets the customer retrieval rates to try.
+     *
+     * @return The retrieval rates in milliseconds, or null to keep each configuration's own.
+     */
+    public List<Integer> getCustomerRetrievalRates() {
+        return customerRetrievalRates;
+    }
+
+    /**
+     * Sets the customer retrieval rates to try.
+     *
+     * @param customerRetrievalRates The retrieval rates in milliseconds, or null to keep each configuration's own.
+     */
+    public void setCustomerRetrievalRates(List<Integer> customerRetrievalRates) {
+        this.customerRetrievalRates = customerRetrievalRates;
+    }
+
+    /**
+     * Gets the numbers of vendors to try.
+     *
+     * @return The vendor counts, or null to keep each configuration's own.
+     */
+    public List<Integer> getVendorCounts() {
+        return vendorCounts;
+    }
+
+    /**
+     * Sets the numbers of vendors to try.
+     *
+     * @param vendorCounts The vendor counts, or null to keep each configuration's own.
+     */
+    public void setVendorCounts(List<Integer> vendorCounts) {
+        this.vendorCounts = vendorCounts;
+    }
+
+    /**
+     * Gets the numbers of customers to try.
+     *
+     * @return The customer counts, or null to keep each configuration's own.
+     */
+    public List<Integer> getCustomerCounts() {
+        return customerCounts;
+    }
+
+    /**
+     * Sets the numbers of customers to try.
+     *
+     * @param customerCounts The customer counts, or null to keep each configuration's own.
+     */
+    public void setCustomerCounts(List<Integer> customerCounts) {
+        this.customerCounts = customerCounts;
+    }
+
+    /**
+     * Gets the number of runs that execute at the same time.
+     *
+     * @return The parallelism, or 0 for the configured default.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of runs that execute at the same time.
+     *
+     * @param parallelism The parallelism, or 0 for the configured default.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets how long one run may take before it is stopped.
+     *
+     * @return The timeout in seconds, or 0 for the configured default.
+     */
+    public long getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    /**
+     * Sets how long one run may take before it is stopped.
+     *
+     * @param timeoutSeconds The timeout in seconds, or 0 for the configured default.
+     */
+    public void setTimeoutSeconds(long timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents the result of one configuration of a parameter sweep.
+ */
+public class SweepRun {
+    private final int run;
+    private final Configuration configuration;
+    private final SweepRunOutcome outcome;
+    private final String error;
+    private final long ticketsSold;
+    private final long elapsedMillis;
+    private final double ticketsPerSecond;
+    private final HistogramSnapshot addWait;
+    private final HistogramSnapshot retrieveWait;
+    private final boolean consistent;
+
+    /**
+     * Constructs a SweepRun.
+     *
+     * @param run              The position of the configuration in the grid, starting at 1.
+     * @param configuration    The configuration that was run.
+     * @param outcome          How the run ended.
+     * @param error            Why the configuration could not be run, or null.
+     * @param ticketsSold      The number of tickets sold.
+     * @param elapsedMillis    How long the run took in milliseconds of wall-clock time.
+     * @param ticketsPerSecond The number of tickets sold per second over the whole run.
+     * @param addWait          How long vendors waited to add a ticket.
+     * @param retrieveWait     How long customers waited to retrieve a ticket.
+     * @param consistent       Whether the run's integrity report found no duplicate or missing tickets.
+     */
+    public SweepRun(int run, Configuration configuration, SweepRunOutcome outcome, String error, long ticketsSold,
+                    long elapsedMillis, double ticketsPerSecond, HistogramSnapshot addWait,
+                    HistogramSnapshot retrieveWait, boolean consistent) {
+        this.run = run;
+        this.configuration = configuration;
+        this.outcome = outcome;
+        this.error = error;
+        this.ticketsSold = ticketsSold;
+        this.elapsedMillis = elapsedMillis;
+        this.ticketsPerSecond = ticketsPerSecond;
+        this.addWait = addWait;
+        this.retrieveWait = retrieveWait;
+        this.consistent = consistent;
+    }
+
+    /**
+     * Gets the position of the configuration in the grid.
+     *
+     * @return The run number, starting at 1.
+     */
+    public int getRun() {
+        return run;
+    }
+
+    /**
+     * Gets the configuration that was run.
+     *
+     * @return The configuration.
+     */
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Gets how the run ended.
+     *
+     * @return The outcome.
+     */
+    public SweepRunOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Gets why the configuration could not be run.
+     *
+     * @return The error message, or null if the run did not fail.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Gets the number of tickets sold.
+     *
+     * @return The number of sold tickets.
+     */
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    /**
+     * Gets how long the run took.
+     *
+     * @return The wall-clock time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the number of tickets sold per second over the whole run.
+     *
+     * @return The throughput.
+     */
+    public double getTicketsPerSecond() {
+        return ticketsPerSecond;
+    }
+
+    /**
+     * Gets how long vendors waited to add a ticket.
+     *
+     * @return The add wait distribution, or null if the run failed.
+     */
+    public HistogramSnapshot getAddWait() {
+        return addWait;
+    }
+
+    /**
+     * Gets how long customers waited to retrieve a ticket.
+     *
+     * @return The retrieve wait distribution, or null if the run failed.
+     */
+    public HistogramSnapshot getRetrieveWait() {
+        return retrieveWait;
+    }
+
+    /**
+     * Checks whether the run's integrity report found no duplicate or missing tickets.
+     *
+     * @return True if the run was consistent.
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+}
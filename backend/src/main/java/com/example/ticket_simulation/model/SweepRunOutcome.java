@@ -0,0 +1,21 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * The ways one run of a parameter sweep can end.
+ */
+public enum SweepRunOutcome {
+    /**
+     * Every ticket was sold.
+     */
+    COMPLETED,
+
+    /**
+     * The run was stopped with tickets still unsold, because its timeout passed or the application shut down.
+     */
+    TIMED_OUT,
+
+    /**
+     * The configuration could not be run.
+     */
+    FAILED
+}
@@ -0,0 +1,16 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * The states of a parameter sweep.
+ */
+public enum SweepStatus {
+    /**
+     * Some runs have not finished yet.
+     */
+    RUNNING,
+
+    /**
+     * Every run has finished.
+     */
+    COMPLETED
+}
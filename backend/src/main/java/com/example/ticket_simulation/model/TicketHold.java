@@ -0,0 +1,62 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents a ticket taken out of the pool and held for a customer while checkout runs.
+ */
+public class TicketHold {
+    private final long holdId;
+    private final int customerId;
+    private final Tickets ticket;
+    private final long expiresAt;
+
+    /**
+     * Constructs a TicketHold.
+     *
+     * @param holdId     The ID used to confirm or cancel the hold.
+     * @param customerId The ID of the customer holding the ticket.
+     * @param ticket     The held ticket.
+     * @param expiresAt  When the hold expires, in milliseconds since the epoch.
+     */
+    public TicketHold(long holdId, int customerId, Tickets ticket, long expiresAt) {
+        this.holdId = holdId;
+        this.customerId = customerId;
+        this.ticket = ticket;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the ID of the hold.
+     *
+     * @return The hold ID.
+     */
+    public long getHoldId() {
+        return holdId;
+    }
+
+    /**
+     * Gets the ID of the customer holding the ticket.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the held ticket.
+     *
+     * @return The ticket.
+     */
+    public Tickets getTicket() {
+        return ticket;
+    }
+
+    /**
+     * Gets when the hold expires and the ticket goes back to the pool.
+     *
+     * @return The expiry time in milliseconds since the epoch.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Describes the ticket a customer is looking for: an event, optionally a venue, and a price limit.
+ */
+public class TicketQuery {
+    private final String event;
+    private final String location;
+    private final Double maxPrice;
+
+    /**
+     * Constructs a TicketQuery.
+     *
+     * @param event    The event.
+     * @param location The venue, or null for any venue of the event.
+     * @param maxPrice The highest acceptable price, or null for any price.
+     */
+    public TicketQuery(String event, String location, Double maxPrice) {
+        this.event = event;
+        this.location = location;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * Gets the event.
+     *
+     * @return The event.
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Gets the venue.
+     *
+     * @return The venue, or null for any venue.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the highest acceptable price.
+     *
+     * @return The price limit, or null for any price.
+     */
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Checks whether a price is within the limit.
+     *
+     * @param price The price.
+     * @return True if the price is acceptable.
+     */
+    public boolean acceptsPrice(double price) {
+        return maxPrice == null || price <= maxPrice;
+    }
+}
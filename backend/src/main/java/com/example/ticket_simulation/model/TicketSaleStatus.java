@@ -0,0 +1,71 @@
+package com.example.ticket_simulation.model;
+
+/**
+ * Represents whether a ticket has been sold, and to whom.
+ */
+public class TicketSaleStatus {
+    private final int ticketId;
+    private final int saleCount;
+    private final Integer customerId;
+    private final Long soldAt;
+
+    /**
+     * Constructs a TicketSaleStatus.
+     *
+     * @param ticketId   The ticket ID.
+     * @param saleCount  The number of times the ticket was sold; more than one means a duplicate sale.
+     * @param customerId The ID of the customer the ticket was first sold to, or null if it is unsold.
+     * @param soldAt     When the ticket was first sold in milliseconds since the epoch, or null if it is unsold.
+     */
+    public TicketSaleStatus(int ticketId, int saleCount, Integer customerId, Long soldAt) {
+        this.ticketId = ticketId;
+        this.saleCount = saleCount;
+        this.customerId = customerId;
+        this.soldAt = soldAt;
+    }
+
+    /**
+     * Gets the ticket ID.
+     *
+     * @return The ticket ID.
+     */
+    public int getTicketId() {
+        return ticketId;
+    }
+
+    /**
+     * Checks whether the ticket has been sold.
+     *
+     * @return True if the ticket has been sold at least once.
+     */
+    public boolean isSold() {
+        return saleCount > 0;
+    }
+
+    /**
+     * Gets the number of times the ticket was sold.
+     *
+     * @return The number of sales.
+     */
+    public int getSaleCount() {
+        return saleCount;
+    }
+
+    /**
+     * Gets the ID of the customer the ticket was first sold to.
+     *
+     * @return The customer ID, or null if the ticket is unsold.
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets when the ticket was first sold.
+     *
+     * @return The time in milliseconds since the epoch, or null if the ticket is unsold.
+     */
+    public Long getSoldAt() {
+        return soldAt;
+    }
+}
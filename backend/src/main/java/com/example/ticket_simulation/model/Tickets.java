@@ -8,6 +8,8 @@ public class Tickets {
     private final String event;
     private final String location;
     private final double price;
+    // Set by the pool engine when the ticket enters the pool; published to customers by the pool itself
+    private long pooledAtNanos;
 
     /**
      * Constructs a Tickets object with the specified ID, event, location, and price.
@@ -60,6 +62,24 @@ public class Tickets {
         return price;
     }
 
+    /**
+     * Records when the ticket entered the pool.
+     *
+     * @param nanoTime The {@link System#nanoTime()} at which the ticket was added.
+     */
+    public void markPooled(long nanoTime) {
+        this.pooledAtNanos = nanoTime;
+    }
+
+    /**
+     * Gets when the ticket entered the pool.
+     *
+     * @return The {@link System#nanoTime()} at which the ticket was added.
+     */
+    public long pooledAtNanos() {
+        return pooledAtNanos;
+    }
+
     /**
      * Returns a string representation of the ticket.
      *
@@ -0,0 +1,345 @@
+package com.example.ticket_simulation.repository;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.Tickets;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The state of a run folded out of a {@link TicketJournal}: its configuration, the tickets still in the
+ * pool in release order, every sale, and the number of tickets dropped to make room for others.
+ * <p>
+ * Records are folded in as they are read, and a reset starts over. The state can be saved as a snapshot
+ * that stands in for every segment before {@link #getNextSegment()}, so recovery only reads the snapshot
+ * and the segments written after it, and the covered segments can be deleted.
+ */
+public class JournalState implements JournalVisitor {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int MAGIC = 0x544A534E;
+    private static final int VERSION = 1;
+
+    private Configuration config;
+    private final Map<Integer, Tickets> pooled = new LinkedHashMap<>();
+    // Sales journaled before their release, which a vendor can lose the race to journal
+    private final Set<Integer> soldBeforeRelease = new HashSet<>();
+    private final Set<Integer> droppedBeforeRelease = new HashSet<>();
+    private final Map<String, Long> soldByEvent = new HashMap<>();
+    private long ticketsReleased;
+    private long ticketsDropped;
+    private int saleCount;
+    private int[] saleTicketIds = new int[1024];
+    private int[] saleCustomerIds = new int[1024];
+    private long[] saleTimes = new long[1024];
+    private long nextSegment = 1;
+
+    @Override
+    public void reset(Configuration config) {
+        this.config = config;
+        pooled.clear();
+        soldBeforeRelease.clear();
+        droppedBeforeRelease.clear();
+        soldByEvent.clear();
+        ticketsReleased = 0;
+        ticketsDropped = 0;
+        saleCount = 0;
+    }
+
+    @Override
+    public void released(Tickets ticket, int vendorId, long epochNanos) {
+        ticketsReleased++;
+        if (soldBeforeRelease.remove(ticket.getId())) {
+            soldByEvent.merge(String.valueOf(ticket.getEvent()), 1L, Long::sum);
+        } else if (!droppedBeforeRelease.remove(ticket.getId())) {
+            pooled.put(ticket.getId(), ticket);
+        }
+    }
+
+    @Override
+    public void sold(int ticketId, int customerId, long epochNanos) {
+        Tickets ticket = pooled.remove(ticketId);
+        if (ticket != null) {
+            soldByEvent.merge(String.valueOf(ticket.getEvent()), 1L, Long::sum);
+        } else {
+            soldBeforeRelease.add(ticketId);
+        }
+        addSale(ticketId, customerId, epochNanos);
+    }
+
+    @Override
+    public void dropped(int ticketId, long epochNanos) {
+        ticketsDropped++;
+        if (pooled.remove(ticketId) == null) {
+            // Dropped by another vendor before its own vendor journaled the release
+            droppedBeforeRelease.add(ticketId);
+        }
+    }
+
+    private void addSale(int ticketId, int customerId, long epochNanos) {
+        if (saleCount == saleTicketIds.length) {
+            saleTicketIds = Arrays.copyOf(saleTicketIds, saleCount * 2);
+            saleCustomerIds = Arrays.copyOf(saleCustomerIds, saleCount * 2);
+            saleTimes = Arrays.copyOf(saleTimes, saleCount * 2);
+        }
+        saleTicketIds[saleCount] = ticketId;
+        saleCustomerIds[saleCount] = customerId;
+        saleTimes[saleCount] = epochNanos;
+        saleCount++;
+    }
+
+    /**
+     * Gets the configuration of the run.
+     *
+     * @return The configuration, or null if no run has been set up.
+     */
+    public Configuration getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Gets the tickets released and neither sold nor dropped, in release order.
+     *
+     * @return The tickets.
+     */
+    public Collection<Tickets> getPooledTickets() {
+        return pooled.values();
+    }
+
+    /**
+     * Gets the number of tickets released in the run.
+     *
+     * @return The number of released tickets.
+     */
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    /**
+     * Gets the number of tickets dropped from the pool to make room for others.
+     *
+     * @return The number of dropped tickets.
+     */
+    public long getTicketsDropped() {
+        return ticketsDropped;
+    }
+
+    /**
+     * Gets the number of tickets sold per event.
+     *
+     * @return The number of sales per event.
+     */
+    public Map<String, Long> getSoldByEvent() {
+        return soldByEvent;
+    }
+
+    /**
+     * Gets the number of sales in the run.
+     *
+     * @return The number of sales.
+     */
+    public int getSaleCount() {
+        return saleCount;
+    }
+
+    /**
+     * Gets the ticket of a sale.
+     *
+     * @param sale The sale, from 0 in journal order.
+     * @return The ticket ID.
+     */
+    public int getSaleTicketId(int sale) {
+        return saleTicketIds[sale];
+    }
+
+    /**
+     * Gets the customer of a sale.
+     *
+     * @param sale The sale, from 0 in journal order.
+     * @return The customer ID.
+     */
+    public int getSaleCustomerId(int sale) {
+        return saleCustomerIds[sale];
+    }
+
+    /**
+     * Gets the time of a sale.
+     *
+     * @param sale The sale, from 0 in journal order.
+     * @return The time in nanoseconds since the epoch.
+     */
+    public long getSaleTime(int sale) {
+        return saleTimes[sale];
+    }
+
+    /**
+     * Gets the number of the first segment not folded into this state.
+     *
+     * @return The segment number.
+     */
+    public long getNextSegment() {
+        return nextSegment;
+    }
+
+    /**
+     * Sets the number of the first segment not folded into this state.
+     *
+     * @param nextSegment The segment number.
+     */
+    public void setNextSegment(long nextSegment) {
+        this.nextSegment = nextSegment;
+    }
+
+    /**
+     * Saves the state as a snapshot and deletes older snapshots.
+     * The snapshot is written to a temporary file, flushed to disk and renamed into place, so a crash
+     * leaves either the old snapshot or the new one.
+     *
+     * @param directory The directory of the journal.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public void save(Path directory) throws IOException {
+        Path target = snapshotPath(directory, nextSegment);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(nextSegment);
+            byte[] json = config != null ? TicketJournal.objectMapper.writeValueAsBytes(config) : new byte[0];
+            out.writeInt(json.length);
+            out.write(json);
+            out.writeLong(ticketsReleased);
+            out.writeInt(pooled.size());
+            for (Tickets ticket : pooled.values()) {
+                out.writeInt(ticket.getId());
+                writeString(out, ticket.getEvent());
+                writeString(out, ticket.getLocation());
+                out.writeDouble(ticket.getPrice());
+            }
+            writeIds(out, soldBeforeRelease);
+            out.writeInt(soldByEvent.size());
+            for (Map.Entry<String, Long> entry : soldByEvent.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeInt(saleCount);
+            for (int i = 0; i < saleCount; i++) {
+                out.writeInt(saleTicketIds[i]);
+                out.writeInt(saleCustomerIds[i]);
+                out.writeLong(saleTimes[i]);
+            }
+            out.writeLong(ticketsDropped);
+            writeIds(out, droppedBeforeRelease);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (long index : TicketJournal.numberedFiles(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (index < nextSegment) {
+                Files.deleteIfExists(snapshotPath(directory, index));
+            }
+        }
+    }
+
+    /**
+     * Loads the latest snapshot of a journal.
+     *
+     * @param directory The directory of the journal.
+     * @return The state saved in the snapshot, or an empty state if there is none.
+     * @throws IOException If the snapshot cannot be read.
+     */
+    public static JournalState load(Path directory) throws IOException {
+        JournalState state = new JournalState();
+        long latest = latestSnapshot(directory);
+        if (latest == 0) {
+            return state;
+        }
+        Path path = snapshotPath(directory, latest);
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a journal snapshot: " + path);
+            }
+            state.nextSegment = in.readLong();
+            byte[] json = new byte[in.readInt()];
+            in.readFully(json);
+            state.config = json.length > 0 ? TicketJournal.objectMapper.readValue(json, Configuration.class) : null;
+            state.ticketsReleased = in.readLong();
+            for (int i = in.readInt(); i > 0; i--) {
+                int id = in.readInt();
+                String event = readString(in);
+                String location = readString(in);
+                state.pooled.put(id, new Tickets(id, event, location, in.readDouble()));
+            }
+            readIds(in, state.soldBeforeRelease);
+            for (int i = in.readInt(); i > 0; i--) {
+                state.soldByEvent.put(in.readUTF(), in.readLong());
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                int ticketId = in.readInt();
+                int customerId = in.readInt();
+                state.addSale(ticketId, customerId, in.readLong());
+            }
+            state.ticketsDropped = in.readLong();
+            readIds(in, state.droppedBeforeRelease);
+        }
+        return state;
+    }
+
+    /**
+     * Finds the latest snapshot of a journal.
+     *
+     * @param directory The directory of the journal.
+     * @return The number of the first segment the snapshot does not cover, or 0 if there is no snapshot.
+     * @throws IOException If the directory cannot be listed.
+     */
+    static long latestSnapshot(Path directory) throws IOException {
+        List<Long> snapshots = TicketJournal.numberedFiles(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        return snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+    }
+
+    private static Path snapshotPath(Path directory, long nextSegment) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, nextSegment, SNAPSHOT_SUFFIX));
+    }
+
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        out.writeBoolean(text != null);
+        if (text != null) {
+            out.writeUTF(text);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeIds(DataOutputStream out, Set<Integer> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (int id : ids) {
+            out.writeInt(id);
+        }
+    }
+
+    private static void readIds(DataInputStream in, Set<Integer> ids) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            ids.add(in.readInt());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ticket_simulation.repository;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.Tickets;
+
+/**
+ * Receives the records of a {@link TicketJournal} in the order they were written.
+ */
+public interface JournalVisitor {
+
+    /**
+     * Called when the pool was set up for a new run; everything before it no longer applies.
+     *
+     * @param config The configuration of the run, or null if the pool was emptied without one.
+     */
+    void reset(Configuration config);
+
+    /**
+     * Called for a ticket a vendor added to the pool.
+     *
+     * @param ticket     The ticket.
+     * @param vendorId   The ID of the vendor.
+     * @param epochNanos The time of the release in nanoseconds since the epoch.
+     */
+    void released(Tickets ticket, int vendorId, long epochNanos);
+
+    /**
+     * Called for a ticket sold to a customer.
+     *
+     * @param ticketId   The ID of the ticket.
+     * @param customerId The ID of the customer.
+     * @param epochNanos The time of the sale in nanoseconds since the epoch.
+     */
+    void sold(int ticketId, int customerId, long epochNanos);
+
+    /**
+     * Called for a ticket a vendor dropped from the pool to make room for new ones. Journals written before
+     * tickets could be dropped have no such records.
+     *
+     * @param ticketId   The ID of the ticket.
+     * @param epochNanos The time of the drop in nanoseconds since the epoch.
+     */
+    default void dropped(int ticketId, long epochNanos) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ticket_simulation.repository;
+
+import com.example.ticket_simulation.model.LogEventType;
+
+/**
+ * A reusable buffer of raw log events handed to {@link LogRepository#addRecords(LogRecordBatch)}.
+ */
+public class LogRecordBatch {
+    private final LogEventType[] types;
+    private final int[] actors;
+    private final Object[] payloads;
+    private final long[] times;
+    private int size;
+
+    /**
+     * Constructs a LogRecordBatch with the specified capacity.
+     *
+     * @param capacity The maximum number of events in the batch.
+     */
+    public LogRecordBatch(int capacity) {
+        this.types = new LogEventType[capacity];
+        this.actors = new int[capacity];
+        this.payloads = new Object[capacity];
+        this.times = new long[capacity];
+    }
+
+    /**
+     * Adds an event to the batch.
+     *
+     * @param type       The kind of event.
+     * @param actorId    The vendor or customer ID, or 0 for messages.
+     * @param payload    The ticket for ticket events, or the message text.
+     * @param epochNanos The time of the event in nanoseconds since the epoch.
+     * @return True if there is room for more events.
+     */
+    public boolean add(LogEventType type, int actorId, Object payload, long epochNanos) {
+        types[size] = type;
+        actors[size] = actorId;
+        payloads[size] = payload;
+        times[size] = epochNanos;
+        size++;
+        return size < types.length;
+    }
+
+    /**
+     * Gets the number of events in the batch.
+     *
+     * @return The number of events.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the batch so it can be reused.
+     */
+    public void clear() {
+        java.util.Arrays.fill(payloads, 0, size, null);
+        size = 0;
+    }
+
+    LogEventType type(int i) {
+        return types[i];
+    }
+
+    int actor(int i) {
+        return actors[i];
+    }
+
+    Object payload(int i) {
+        return payloads[i];
+    }
+
+    long time(int i) {
+        return times[i];
+    }
+}
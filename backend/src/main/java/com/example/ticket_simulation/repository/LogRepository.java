@@ -1,44 +1,348 @@
 package com.example.ticket_simulation.repository;
 
+import com.example.ticket_simulation.model.LogEntry;
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.model.Tickets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Repository for storing and retrieving log messages.
+ * <p>
+ * Events are kept as fixed-width records (kind, actor, ticket ID, ticket details, time) in parallel
+ * primitive arrays that form a fixed-capacity ring; once it is full the oldest records are overwritten.
+ * Event, location and price are interned in a small table, and free-text messages keep their string in
+ * a side array. Text is only rendered for the records a client reads, after any filters have been applied
+ * to the raw fields.
+ * <p>
+ * Every record gets a sequence number so clients can fetch only what they have not seen yet.
+ * Writers serialize on the repository lock, readers never take it: each slot is guarded like a seqlock,
+ * and readers skip any slot that a writer overwrote while they were copying it.
  */
 @Repository
 public class LogRepository {
 
-    private final List<String> logs = new ArrayList<>();
+    /**
+     * The number of messages retained when no capacity is configured.
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LogEventType[] KINDS = LogEventType.values();
+    // Slot sequence while a writer is filling the slot in
+    private static final long WRITING = -1;
+
+    private final int capacity;
+    private final AtomicLongArray sequences;
+    private final byte[] kinds;
+    private final int[] actors;
+    private final int[] ticketIds;
+    private final int[] details;
+    private final long[] times;
+    private final String[] texts;
+
+    // Interned ticket details; written under the repository lock and republished as a new array
+    private volatile TicketDetail[] detailTable = new TicketDetail[0];
+    private final Map<TicketDetail, Integer> detailIndex = new HashMap<>();
+    private int lastDetail = -1;
+
+    // Sequence number of the next record; records up to nextSequence - 1 are published
+    private volatile long nextSequence = 1;
+    // Sequence number of the first record after the last clear
+    private volatile long clearedBefore = 1;
+
+    /**
+     * Constructs a LogRepository with the default capacity.
+     */
+    public LogRepository() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a LogRepository that retains up to the given number of messages.
+     *
+     * @param capacity The maximum number of messages retained.
+     */
+    @Autowired
+    public LogRepository(@Value("${logs.capacity:" + DEFAULT_CAPACITY + "}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Log capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.sequences = new AtomicLongArray(capacity);
+        this.kinds = new byte[capacity];
+        this.actors = new int[capacity];
+        this.ticketIds = new int[capacity];
+        this.details = new int[capacity];
+        this.times = new long[capacity];
+        this.texts = new String[capacity];
+    }
 
     /**
      * Adds a log message to the repository.
      *
      * @param message The message to log.
      */
-    public synchronized void addLog(String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        logs.add(timestamp + " - " + message);
+    public void addLog(String message) {
+        Instant now = Instant.now();
+        addRecord(LogEventType.MESSAGE, 0, message, now.getEpochSecond() * 1_000_000_000L + now.getNano());
     }
 
     /**
-     * Retrieves all log messages from the repository.
+     * Adds a log event to the repository.
+     *
+     * @param type       The kind of event.
+     * @param actorId    The vendor or customer ID, or 0 for messages.
+     * @param payload    The ticket for ticket events, or the message text.
+     * @param epochNanos The time of the event in nanoseconds since the epoch.
+     */
+    public synchronized void addRecord(LogEventType type, int actorId, Object payload, long epochNanos) {
+        append(type, actorId, payload, epochNanos);
+    }
+
+    /**
+     * Adds a batch of log events under a single lock acquisition.
+     *
+     * @param batch The events to add.
+     */
+    public synchronized void addRecords(LogRecordBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            append(batch.type(i), batch.actor(i), batch.payload(i), batch.time(i));
+        }
+    }
+
+    /**
+     * Writes a record into the next slot. Callers must hold the repository lock.
+     *
+     * @param type       The kind of event.
+     * @param actorId    The vendor or customer ID.
+     * @param payload    The ticket or message text.
+     * @param epochNanos The time of the event in nanoseconds since the epoch.
+     */
+    private void append(LogEventType type, int actorId, Object payload, long epochNanos) {
+        long sequence = nextSequence;
+        int index = index(sequence);
+        sequences.set(index, WRITING);
+        // Keep the field writes below from becoming visible before the slot is marked
+        VarHandle.storeStoreFence();
+        kinds[index] = (byte) type.ordinal();
+        actors[index] = actorId;
+        times[index] = epochNanos;
+        if (type == LogEventType.MESSAGE) {
+            ticketIds[index] = 0;
+            details[index] = -1;
+            texts[index] = (String) payload;
+        } else {
+            Tickets ticket = (Tickets) payload;
+            ticketIds[index] = ticket.getId();
+            details[index] = internDetail(ticket);
+            texts[index] = null;
+        }
+        sequences.set(index, sequence);
+        nextSequence = sequence + 1;
+    }
+
+    /**
+     * Looks up or assigns the index of a ticket's event, location and price.
+     * Callers must hold the repository lock.
+     *
+     * @param ticket The ticket.
+     * @return The index into the detail table.
+     */
+    private int internDetail(Tickets ticket) {
+        TicketDetail[] table = detailTable;
+        // Vendors release long runs of tickets with the same details, so try the last one first
+        if (lastDetail >= 0 && table[lastDetail].matches(ticket)) {
+            return lastDetail;
+        }
+        TicketDetail detail = new TicketDetail(ticket.getEvent(), ticket.getLocation(), ticket.getPrice());
+        Integer index = detailIndex.get(detail);
+        if (index == null) {
+            index = table.length;
+            TicketDetail[] grown = Arrays.copyOf(table, index + 1);
+            grown[index] = detail;
+            detailTable = grown;
+            detailIndex.put(detail, index);
+        }
+        lastDetail = index;
+        return index;
+    }
+
+    /**
+     * Retrieves all retained log messages from the repository.
      *
      * @return A list of log messages.
      */
-    public synchronized List<String> getLogs() {
-        return new ArrayList<>(logs);
+    public List<String> getLogs() {
+        List<LogEntry> entries = getLogsAfter(0, capacity).getEntries();
+        List<String> messages = new ArrayList<>(entries.size());
+        for (LogEntry entry : entries) {
+            messages.add(entry.getMessage());
+        }
+        return messages;
+    }
+
+    /**
+     * Retrieves the log entries that follow the given sequence number.
+     *
+     * @param after The sequence number of the last entry the caller has seen, or 0 to start from the oldest.
+     * @param limit The maximum number of entries to return.
+     * @return The entries after {@code after}, oldest first, together with the retained sequence range.
+     */
+    public LogPage getLogsAfter(long after, int limit) {
+        return getLogsAfter(after, limit, null, null);
+    }
+
+    /**
+     * Retrieves the log entries that follow the given sequence number and match the given filters.
+     * The filters are checked against the stored fields, so entries that do not match are never rendered.
+     *
+     * @param after   The sequence number of the last entry the caller has seen, or 0 to start from the oldest.
+     * @param limit   The maximum number of entries to return.
+     * @param type    Only return events of this kind, or null for every kind.
+     * @param actorId Only return events of this vendor or customer ID, or null for every actor.
+     * @return The matching entries after {@code after}, oldest first, together with the retained sequence range.
+     */
+    public LogPage getLogsAfter(long after, int limit, LogEventType type, Integer actorId) {
+        long next = nextSequence;
+        long from = Math.max(after + 1, oldestSequence(next));
+        int max = Math.max(0, Math.min(limit, capacity));
+        List<LogEntry> entries = new ArrayList<>((int) Math.min(max, Math.max(0, next - from)));
+        TicketDetail[] table = detailTable;
+        for (long sequence = from; sequence < next && entries.size() < max; sequence++) {
+            int index = index(sequence);
+            if (sequences.get(index) != sequence) {
+                continue;
+            }
+            byte kind = kinds[index];
+            int actor = actors[index];
+            int ticketId = ticketIds[index];
+            int detail = details[index];
+            long time = times[index];
+            String text = texts[index];
+            // A writer may have lapped us while we were copying; skip what is no longer there
+            VarHandle.loadLoadFence();
+            if (sequences.get(index) != sequence) {
+                continue;
+            }
+            if ((type != null && kind != type.ordinal()) || (actorId != null && actor != actorId)) {
+                continue;
+            }
+            if (detail >= table.length) {
+                table = detailTable;
+            }
+            String message = detail < 0 ? text : render(KINDS[kind], actor, ticketId, table[detail]);
+            entries.add(new LogEntry(sequence, formatLine(message, time)));
+        }
+        return new LogPage(entries, oldestSequence(nextSequence), next);
     }
 
     /**
      * Clears all log messages from the repository.
+     * Sequence numbers keep increasing, and one is skipped, so that even a client that had read
+     * every entry sees a gap in front of the oldest sequence and knows to discard what it holds.
      */
     public synchronized void clearLogs() {
-        logs.clear();
+        nextSequence = nextSequence + 1;
+        clearedBefore = nextSequence;
+    }
+
+    /**
+     * Gets the oldest sequence number still retained.
+     *
+     * @param next The sequence number of the next entry.
+     * @return The oldest retained sequence number; equal to {@code next} when the log is empty.
+     */
+    private long oldestSequence(long next) {
+        return Math.max(clearedBefore, next - capacity);
+    }
+
+    /**
+     * Maps a sequence number to its slot in the ring.
+     *
+     * @param sequence The sequence number.
+     * @return The slot index.
+     */
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * Renders the text of a ticket event.
+     *
+     * @param type     The kind of event.
+     * @param actorId  The vendor or customer ID.
+     * @param ticketId The ticket ID.
+     * @param detail   The ticket's event, location and price.
+     * @return The log message.
+     */
+    private static String render(LogEventType type, int actorId, int ticketId, TicketDetail detail) {
+        String action = type == LogEventType.TICKET_ADDED ? "Vendor " + actorId + " added "
+                : "Customer " + actorId + " retrieved ";
+        return action + "Ticket ID " + ticketId + " [Event: " + detail.event + ", Location: " + detail.location
+                + ", Price: $" + detail.price + "]";
+    }
+
+    /**
+     * Formats a log line with its timestamp.
+     *
+     * @param message    The message.
+     * @param epochNanos The time the logged event happened, in nanoseconds since the epoch.
+     * @return The timestamped line.
+     */
+    private static String formatLine(String message, long epochNanos) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos),
+                ZoneId.systemDefault());
+        return timestamp.format(formatter) + " - " + message;
+    }
+
+    /**
+     * The event, location and price shared by many tickets.
+     */
+    private static final class TicketDetail {
+        private final String event;
+        private final String location;
+        private final double price;
+
+        private TicketDetail(String event, String location, double price) {
+            this.event = event;
+            this.location = location;
+            this.price = price;
+        }
+
+        private boolean matches(Tickets ticket) {
+            return Objects.equals(event, ticket.getEvent()) && Objects.equals(location, ticket.getLocation())
+                    && Double.compare(price, ticket.getPrice()) == 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TicketDetail)) {
+                return false;
+            }
+            TicketDetail other = (TicketDetail) o;
+            return Objects.equals(event, other.event) && Objects.equals(location, other.location)
+                    && Double.compare(price, other.price) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(event, location, price);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,569 @@
+package com.example.ticket_simulation.repository;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.Tickets;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of ticket releases, sales and drops, written to memory-mapped segment files.
+ * <p>
+ * Each segment is a file of fixed size mapped into memory when it is created, so appending a record is a
+ * few writes to memory under the journal lock, with no system call. When a record does not fit, the journal
+ * rolls over to the next segment. Durability is a group commit: {@link #force()} is called periodically and
+ * flushes every record appended since the last call to disk in one go. A crash of the process loses nothing
+ * that was appended, since the mapped pages belong to the operating system; a crash of the machine loses
+ * at most the records since the last flush.
+ * <p>
+ * A record is a length and a CRC-32C checksum followed by the payload. Segments are zero-filled, so a zero
+ * length marks the end of the data, and a torn record at the end of a segment fails its checksum. Events,
+ * venues and prices are written once per segment as detail records that releases refer to by number, which
+ * keeps a release at 29 bytes and a sale at 25, and makes every segment readable on its own.
+ */
+public class TicketJournal {
+    // Also reads and writes the configuration in snapshots
+    static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 8;
+
+    private static final byte RESET = 1;
+    private static final byte DETAIL = 2;
+    private static final byte RELEASE = 3;
+    private static final byte SALE = 4;
+    private static final byte DROP = 5;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32C checksum = new CRC32C();
+    // Segments rolled over since the last flush
+    private final Queue<MappedByteBuffer> unflushed = new ConcurrentLinkedQueue<>();
+
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    // Details written to the current segment, and the last one used
+    private final Map<Detail, Integer> details = new HashMap<>();
+    private Detail lastDetail;
+    private int lastDetailId;
+
+    private boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Constructs a TicketJournal and creates its first segment.
+     *
+     * @param directory    The directory the segments are written to.
+     * @param segmentBytes The size of each segment file in bytes.
+     * @param firstSegment The number of the first segment.
+     * @throws IOException If the first segment cannot be created.
+     */
+    private TicketJournal(Path directory, int segmentBytes, long firstSegment) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.segmentIndex = firstSegment - 1;
+        roll();
+    }
+
+    /**
+     * Opens a journal for appending. Existing segments are left as they are; appending starts in a new
+     * segment numbered after every existing segment and snapshot.
+     *
+     * @param directory    The directory the segments are written to; created if missing.
+     * @param segmentBytes The size of each segment file in bytes.
+     * @return The journal.
+     * @throws IOException If the directory or the first segment cannot be created.
+     */
+    public static TicketJournal open(Path directory, int segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        List<Long> segments = segments(directory);
+        long first = Math.max(segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1,
+                JournalState.latestSnapshot(directory));
+        return new TicketJournal(directory, segmentBytes, first);
+    }
+
+    /**
+     * Records that the pool was set up for a new run.
+     *
+     * @param config The configuration of the run, or null if the pool was emptied without one.
+     */
+    public synchronized void appendReset(Configuration config) {
+        if (closed) {
+            return;
+        }
+        try {
+            byte[] json = config != null ? objectMapper.writeValueAsBytes(config) : new byte[0];
+            int start = begin(1 + json.length);
+            segment.put(RESET).put(json);
+            end(start);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records a ticket a vendor added to the pool.
+     *
+     * @param ticket     The ticket.
+     * @param vendorId   The ID of the vendor.
+     * @param epochNanos The time of the release in nanoseconds since the epoch.
+     */
+    public synchronized void appendRelease(Tickets ticket, int vendorId, long epochNanos) {
+        if (closed) {
+            return;
+        }
+        try {
+            writeRelease(ticket, vendorId, epochNanos);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the tickets of a block a vendor added to the pool.
+     *
+     * @param tickets    The block.
+     * @param added      The number of tickets added, counted from the start of the block.
+     * @param vendorId   The ID of the vendor.
+     * @param epochNanos The time of the release in nanoseconds since the epoch.
+     */
+    public synchronized void appendReleases(List<Tickets> tickets, int added, int vendorId, long epochNanos) {
+        if (closed) {
+            return;
+        }
+        try {
+            for (int i = 0; i < added; i++) {
+                writeRelease(tickets.get(i), vendorId, epochNanos);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the tickets of a purchase.
+     *
+     * @param tickets    The tickets sold.
+     * @param customerId The ID of the customer.
+     * @param epochNanos The time of the sale in nanoseconds since the epoch.
+     */
+    public synchronized void appendSales(List<Tickets> tickets, int customerId, long epochNanos) {
+        if (closed) {
+            return;
+        }
+        try {
+            for (Tickets ticket : tickets) {
+                int start = begin(17);
+                segment.put(SALE).putInt(ticket.getId()).putInt(customerId).putLong(epochNanos);
+                end(start);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records tickets dropped from the pool to make room for new ones.
+     *
+     * @param tickets    The dropped tickets.
+     * @param epochNanos The time of the drop in nanoseconds since the epoch.
+     */
+    public synchronized void appendDrops(List<Tickets> tickets, long epochNanos) {
+        if (closed) {
+            return;
+        }
+        try {
+            for (Tickets ticket : tickets) {
+                int start = begin(13);
+                segment.put(DROP).putInt(ticket.getId()).putLong(epochNanos);
+                end(start);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Writes a release record, preceded by a detail record if the segment has not seen the ticket's
+     * event, venue and price yet. Callers must hold the journal lock.
+     *
+     * @param ticket     The ticket.
+     * @param vendorId   The ID of the vendor.
+     * @param epochNanos The time of the release.
+     * @throws IOException If a new segment is needed and cannot be created.
+     */
+    private void writeRelease(Tickets ticket, int vendorId, long epochNanos) throws IOException {
+        int detailId = detailId(ticket);
+        if (segment.remaining() < HEADER_BYTES + 21) {
+            // The release must land in the same segment as its detail
+            roll();
+            detailId = detailId(ticket);
+        }
+        int start = begin(21);
+        segment.put(RELEASE).putInt(ticket.getId()).putInt(vendorId).putInt(detailId).putLong(epochNanos);
+        end(start);
+    }
+
+    /**
+     * Gets the number of a ticket's details in the current segment, writing them first if needed.
+     * Callers must hold the journal lock.
+     *
+     * @param ticket The ticket.
+     * @return The detail number.
+     * @throws IOException If a new segment is needed and cannot be created.
+     */
+    private int detailId(Tickets ticket) throws IOException {
+        // Vendors release long runs of tickets with the same details, so the last one is tried first
+        if (lastDetail != null && lastDetail.matches(ticket)) {
+            return lastDetailId;
+        }
+        Detail detail = new Detail(ticket.getEvent(), ticket.getLocation(), ticket.getPrice());
+        Integer id = details.get(detail);
+        if (id == null) {
+            byte[] event = utf8(detail.event);
+            byte[] location = utf8(detail.location);
+            int length = 1 + 4 + 8 + 4 + (event != null ? event.length : 0) + 4 + (location != null ? location.length : 0);
+            int start = begin(length);
+            // Rolling over in begin clears the table, so the number is taken afterwards
+            id = details.size();
+            segment.put(DETAIL).putInt(id).putDouble(detail.price);
+            putBytes(event);
+            putBytes(location);
+            end(start);
+            details.put(detail, id);
+        }
+        lastDetail = detail;
+        lastDetailId = id;
+        return id;
+    }
+
+    /**
+     * Makes room for a record and positions the segment at its payload. Callers must hold the journal lock.
+     *
+     * @param payloadBytes The size of the payload.
+     * @return The position of the record.
+     * @throws IOException If a new segment is needed and cannot be created.
+     */
+    private int begin(int payloadBytes) throws IOException {
+        if (HEADER_BYTES + payloadBytes > segmentBytes) {
+            throw new IOException("Journal record of " + payloadBytes + " bytes does not fit in a segment");
+        }
+        if (segment.remaining() < HEADER_BYTES + payloadBytes) {
+            roll();
+        }
+        int start = segment.position();
+        segment.position(start + HEADER_BYTES);
+        return start;
+    }
+
+    /**
+     * Completes a record whose payload has been written by filling in its header.
+     * The length is written last, so a reader never sees a length without the checksum before it.
+     *
+     * @param start The position of the record.
+     */
+    private void end(int start) {
+        int end = segment.position();
+        checksum.reset();
+        segment.position(start + HEADER_BYTES).limit(end);
+        checksum.update(segment);
+        segment.limit(segment.capacity());
+        segment.putInt(start + 4, (int) checksum.getValue());
+        segment.putInt(start, end - start - HEADER_BYTES);
+    }
+
+    /**
+     * Seals the current segment and maps a new one. Callers must hold the journal lock.
+     *
+     * @throws IOException If the new segment cannot be created.
+     */
+    private void roll() throws IOException {
+        Path path = segmentPath(directory, segmentIndex + 1);
+        MappedByteBuffer next;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            next = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        if (segment != null) {
+            unflushed.add(segment);
+        }
+        segment = next;
+        segmentIndex++;
+        details.clear();
+        lastDetail = null;
+    }
+
+    private void putBytes(byte[] bytes) {
+        if (bytes == null) {
+            segment.putInt(-1);
+        } else {
+            segment.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Stops journaling after a write failed; the failure is kept for {@link #failure()}.
+     *
+     * @param e The failure.
+     */
+    private void fail(IOException e) {
+        failure = e;
+        closed = true;
+    }
+
+    /**
+     * Flushes every record appended so far to disk.
+     * Appends carry on while the flush runs; records appended meanwhile are left for the next call.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = segment;
+        }
+        MappedByteBuffer sealed;
+        while ((sealed = unflushed.poll()) != null) {
+            sealed.force();
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * Gets the number of the segment being appended to. Every segment before it is complete.
+     *
+     * @return The segment number.
+     */
+    public synchronized long currentSegment() {
+        return segmentIndex;
+    }
+
+    /**
+     * Gets the error that stopped the journal, if any.
+     *
+     * @return The error, or null if the journal is working.
+     */
+    public IOException failure() {
+        return failure;
+    }
+
+    /**
+     * Flushes the journal and stops appending to it.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        force();
+        synchronized (this) {
+            segment = null;
+        }
+    }
+
+    /**
+     * Reads the records of a range of segments in order.
+     * Reading a segment stops at its end of data or at the first record that fails its checksum.
+     *
+     * @param directory The directory of the journal.
+     * @param from      The number of the first segment to read.
+     * @param to        The number of the segment to stop before.
+     * @param visitor   Receives the records.
+     * @return The number of records read.
+     * @throws IOException If a segment cannot be read.
+     */
+    public static long replay(Path directory, long from, long to, JournalVisitor visitor) throws IOException {
+        long records = 0;
+        for (long index : segments(directory)) {
+            if (index >= from && index < to) {
+                records += replaySegment(segmentPath(directory, index), visitor);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the records of one segment.
+     *
+     * @param path    The segment file.
+     * @param visitor Receives the records.
+     * @return The number of records read.
+     * @throws IOException If the segment cannot be read or holds an unknown record.
+     */
+    private static long replaySegment(Path path, JournalVisitor visitor) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        List<Detail> segmentDetails = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        long records = 0;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            if (length <= 0 || length > buffer.capacity() - start - HEADER_BYTES) {
+                break;
+            }
+            int end = start + HEADER_BYTES + length;
+            crc.reset();
+            buffer.position(start + HEADER_BYTES).limit(end);
+            crc.update(buffer);
+            buffer.limit(buffer.capacity()).position(start + HEADER_BYTES);
+            if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+                break;
+            }
+            byte type = buffer.get();
+            if (type == RELEASE) {
+                int ticketId = buffer.getInt();
+                int vendorId = buffer.getInt();
+                Detail detail = segmentDetails.get(buffer.getInt());
+                visitor.released(new Tickets(ticketId, detail.event, detail.location, detail.price),
+                        vendorId, buffer.getLong());
+            } else if (type == SALE) {
+                int ticketId = buffer.getInt();
+                int customerId = buffer.getInt();
+                visitor.sold(ticketId, customerId, buffer.getLong());
+            } else if (type == DROP) {
+                int ticketId = buffer.getInt();
+                visitor.dropped(ticketId, buffer.getLong());
+            } else if (type == DETAIL) {
+                int id = buffer.getInt();
+                double price = buffer.getDouble();
+                String event = getString(buffer);
+                segmentDetails.add(id, new Detail(event, getString(buffer), price));
+            } else if (type == RESET) {
+                byte[] json = new byte[length - 1];
+                buffer.get(json);
+                visitor.reset(json.length > 0 ? objectMapper.readValue(json, Configuration.class) : null);
+            } else {
+                throw new IOException("Unknown journal record type " + type + " in " + path);
+            }
+            buffer.position(end);
+            records++;
+        }
+        return records;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists the segments of a journal.
+     *
+     * @param directory The directory of the journal.
+     * @return The segment numbers in ascending order; empty if the directory does not exist.
+     * @throws IOException If the directory cannot be listed.
+     */
+    public static List<Long> segments(Path directory) throws IOException {
+        return numberedFiles(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Deletes the segments before a given one, once a snapshot covers them.
+     *
+     * @param directory The directory of the journal.
+     * @param before    The number of the first segment to keep.
+     * @throws IOException If a segment cannot be deleted.
+     */
+    public static void deleteSegments(Path directory, long before) throws IOException {
+        for (long index : segments(directory)) {
+            if (index < before) {
+                Files.deleteIfExists(segmentPath(directory, index));
+            }
+        }
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Lists the files of a directory named with a prefix, a number and a suffix.
+     *
+     * @param directory The directory.
+     * @param prefix    The prefix.
+     * @param suffix    The suffix.
+     * @return The numbers in ascending order; empty if the directory does not exist.
+     * @throws IOException If the directory cannot be listed.
+     */
+    static List<Long> numberedFiles(Path directory, String prefix, String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * An event, venue and price written to a segment.
+     */
+    private static final class Detail {
+        private final String event;
+        private final String location;
+        private final double price;
+
+        private Detail(String event, String location, double price) {
+            this.event = event;
+            this.location = location;
+            this.price = price;
+        }
+
+        private boolean matches(Tickets ticket) {
+            return price == ticket.getPrice() && Objects.equals(event, ticket.getEvent())
+                    && Objects.equals(location, ticket.getLocation());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Detail)) {
+                return false;
+            }
+            Detail other = (Detail) o;
+            return price == other.price && Objects.equals(event, other.event)
+                    && Objects.equals(location, other.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(event, location, price);
+        }
+    }
+}
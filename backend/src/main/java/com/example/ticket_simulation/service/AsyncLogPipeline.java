@@ -0,0 +1,242 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogOverflowPolicy;
+import com.example.ticket_simulation.repository.LogRecordBatch;
+import com.example.ticket_simulation.repository.LogRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves log events off the vendor and customer threads.
+ * <p>
+ * Producers claim a slot in a preallocated ring and write the raw event fields into parallel arrays, so
+ * publishing allocates nothing and takes no lock. A single writer thread drains the ring in batches
+ * and stores each batch of records with one call to the repository.
+ */
+class AsyncLogPipeline {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+
+    private final LogRepository logRepository;
+    private final LogOverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final LogEventType[] types;
+    private final int[] actors;
+    private final Object[] payloads;
+    private final long[] times;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    // Only the writer advances the head; producers read it to estimate occupancy
+    private volatile long head;
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final WaitQueue waitingProducers = new WaitQueue();
+
+    private final Thread writer;
+    private volatile boolean writerIdle;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs an AsyncLogPipeline and starts its writer thread.
+     *
+     * @param logRepository  The repository the writer stores the events in.
+     * @param queueCapacity  The number of events the ring holds, rounded up to a power of two.
+     * @param overflowPolicy What producers do when the ring is full.
+     * @param sampleRate     Under {@link LogOverflowPolicy#SAMPLE}, keep one in this many events once half full.
+     */
+    AsyncLogPipeline(LogRepository logRepository, int queueCapacity, LogOverflowPolicy overflowPolicy,
+                     int sampleRate) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Log queue capacity must be positive: " + queueCapacity);
+        }
+        int size = 1;
+        while (size < queueCapacity) {
+            size <<= 1;
+        }
+        this.logRepository = logRepository;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.types = new LogEventType[size];
+        this.actors = new int[size];
+        this.payloads = new Object[size];
+        this.times = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.writer = new Thread(this::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Publishes an event, applying the overflow policy if the ring is full.
+     *
+     * @param type       The kind of event.
+     * @param actorId    The vendor or customer ID, or 0 for free-text messages.
+     * @param payload    The ticket for ticket events, or the message text.
+     * @param epochNanos The time of the event in nanoseconds since the epoch.
+     */
+    void publish(LogEventType type, int actorId, Object payload, long epochNanos) {
+        LogOverflowPolicy policy = type == LogEventType.MESSAGE ? LogOverflowPolicy.BLOCK : overflowPolicy;
+        if (policy == LogOverflowPolicy.SAMPLE && tail.get() - head > (mask + 1) / 2
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            dropped.increment();
+            return;
+        }
+        if (tryPublish(type, actorId, payload, epochNanos)) {
+            return;
+        }
+        if (policy != LogOverflowPolicy.BLOCK) {
+            dropped.increment();
+            return;
+        }
+        while (true) {
+            WaitQueue.Waiter waiter = waitingProducers.enqueue();
+            if (tryPublish(type, actorId, payload, epochNanos)) {
+                if (waitingProducers.leave(waiter)) {
+                    waitingProducers.signal();
+                }
+                return;
+            }
+            if (!waitingProducers.park(waiter, -1, 0)) {
+                // Interrupted while waiting; losing one log line is better than hanging a shutdown
+                dropped.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims the next slot and writes the event into it without waiting.
+     *
+     * @param type       The kind of event.
+     * @param actorId    The vendor or customer ID.
+     * @param payload    The ticket or message text.
+     * @param epochNanos The time of the event in nanoseconds since the epoch.
+     * @return True if the event was published, false if the ring is full.
+     */
+    private boolean tryPublish(LogEventType type, int actorId, Object payload, long epochNanos) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    types[index] = type;
+                    actors[index] = actorId;
+                    payloads[index] = payload;
+                    times[index] = epochNanos;
+                    sequences.set(index, pos + 1);
+                    if (writerIdle) {
+                        LockSupport.unpark(writer);
+                    }
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Writer thread body: drains batches until the pipeline is closed and empty.
+     */
+    private void drainLoop() {
+        LogRecordBatch batch = new LogRecordBatch(MAX_BATCH);
+        while (true) {
+            if (drainBatch(batch) > 0) {
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            // Announce that we are going idle, then look once more before parking
+            writerIdle = true;
+            if (drainBatch(batch) == 0 && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerIdle = false;
+        }
+    }
+
+    /**
+     * Stores up to one batch of published events.
+     *
+     * @param batch A reusable buffer for the events.
+     * @return The number of events drained.
+     */
+    private int drainBatch(LogRecordBatch batch) {
+        long pos = head;
+        int count = 0;
+        while (count < MAX_BATCH) {
+            int index = (int) pos & mask;
+            if (sequences.get(index) != pos + 1) {
+                break;
+            }
+            batch.add(types[index], actors[index], payloads[index], times[index]);
+            payloads[index] = null;
+            sequences.set(index, pos + mask + 1);
+            pos++;
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        logRepository.addRecords(batch);
+        batch.clear();
+        // Advanced only once the batch is stored, so a flush that sees it knows the events are readable
+        head = pos;
+        // Wake one blocked producer per freed slot
+        for (int i = 0; i < count; i++) {
+            if (!waitingProducers.signal()) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Waits until every event published before this call has been stored.
+     */
+    void flush() {
+        long target = tail.get();
+        while (head < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * Gets the number of events dropped by the overflow policy.
+     *
+     * @return The number of dropped events.
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stores everything still queued and stops the writer thread.
+     */
+    void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool engine that stores tickets as primitives in a fixed ring guarded by a single monitor.
+ * <p>
+ * A pooled ticket takes 16 bytes: its ID and interned detail index packed into one long, plus the time it
+ * entered the pool. Both arrays are allocated at the pool's capacity and only reallocated when the capacity
+ * is changed, so the footprint is known up front and stays the same however many tickets flow through, and
+ * the garbage collector never has to trace the pool's contents. Tickets are turned back into objects only
+ * when they are handed out, sharing their event and venue strings through a {@link TicketDetailTable}.
+ */
+public class CompactPoolEngine implements TicketPoolEngine {
+    private volatile int maxTicketCapacity;
+    private long[] codes;
+    private long[] pooledAt;
+    private final TicketDetailTable details = new TicketDetailTable();
+    private int head;
+    private int count;
+
+    /**
+     * Constructs a CompactPoolEngine with the specified maximum capacity.
+     *
+     * @param maxTicketCapacity The maximum capacity of the pool.
+     */
+    public CompactPoolEngine(int maxTicketCapacity) {
+        this.maxTicketCapacity = maxTicketCapacity;
+        this.codes = new long[maxTicketCapacity];
+        this.pooledAt = new long[maxTicketCapacity];
+    }
+
+    @Override
+    public boolean offer(Tickets ticket, long timeoutNanos) {
+        // Intern outside the monitor; the table has its own lock
+        long code = details.encode(ticket);
+        synchronized (this) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (count >= maxTicketCapacity) {
+                if (!awaitChange(timeoutNanos, deadline)) {
+                    return false;
+                }
+            }
+            append(code, System.nanoTime());
+            notifyAll();
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized Tickets poll(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (count == 0) {
+            if (!awaitChange(timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+        Tickets ticket = removeFirst();
+        notifyAll();
+        return ticket;
+    }
+
+    @Override
+    public int offerBatch(List<Tickets> tickets, int vendorId, long timeoutNanos) {
+        long[] batch = new long[tickets.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = details.encode(tickets.get(i));
+        }
+        synchronized (this) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            int added = 0;
+            while (added < batch.length) {
+                int space = maxTicketCapacity - count;
+                if (space <= 0) {
+                    if (!awaitChange(timeoutNanos, deadline)) {
+                        break;
+                    }
+                    continue;
+                }
+                long now = System.nanoTime();
+                int end = Math.min(batch.length, added + space);
+                for (; added < end; added++) {
+                    append(batch[added], now);
+                }
+                notifyAll();
+            }
+            return added;
+        }
+    }
+
+    @Override
+    public synchronized List<Tickets> pollBatch(int count, int customerId, long timeoutNanos) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + count);
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (this.count < count) {
+            if (count > maxTicketCapacity || !awaitChange(timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+        List<Tickets> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tickets.add(removeFirst());
+        }
+        notifyAll();
+        return tickets;
+    }
+
+    /**
+     * Writes a packed ticket behind the last one. Callers must hold the monitor and have checked for space.
+     *
+     * @param code          The packed ticket.
+     * @param pooledAtNanos When the ticket entered the pool.
+     */
+    private void append(long code, long pooledAtNanos) {
+        int tail = head + count;
+        if (tail >= codes.length) {
+            tail -= codes.length;
+        }
+        codes[tail] = code;
+        pooledAt[tail] = pooledAtNanos;
+        count++;
+    }
+
+    /**
+     * Takes the oldest ticket out of the ring. Callers must hold the monitor and have checked it is not empty.
+     *
+     * @return The ticket.
+     */
+    private Tickets removeFirst() {
+        Tickets ticket = details.decode(codes[head], pooledAt[head]);
+        if (++head == codes.length) {
+            head = 0;
+        }
+        count--;
+        return ticket;
+    }
+
+    /**
+     * Waits on the monitor until notified or the deadline passes.
+     *
+     * @param timeoutNanos The original timeout; a negative value waits indefinitely.
+     * @param deadline     The deadline in {@link System#nanoTime()} units.
+     * @return True if the caller should re-check its condition, false if it should give up.
+     */
+    private boolean awaitChange(long timeoutNanos, long deadline) {
+        try {
+            if (timeoutNanos < 0) {
+                wait();
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return maxTicketCapacity;
+    }
+
+    @Override
+    public synchronized void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        // The ring has to keep every ticket held, even while the pool is above its new capacity
+        int length = Math.max(capacity, count);
+        if (length != codes.length) {
+            long[] resizedCodes = new long[length];
+            long[] resizedPooledAt = new long[length];
+            for (int i = 0; i < count; i++) {
+                int from = head + i;
+                if (from >= codes.length) {
+                    from -= codes.length;
+                }
+                resizedCodes[i] = codes[from];
+                resizedPooledAt[i] = pooledAt[from];
+            }
+            codes = resizedCodes;
+            pooledAt = resizedPooledAt;
+            head = 0;
+        }
+        maxTicketCapacity = capacity;
+        notifyAll();
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ConfigurationVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that saves the simulation configuration to disk and keeps a history of past configurations.
+ * <p>
+ * Saving serializes the configuration on the caller's thread, which is cheap, and hands the bytes to a
+ * single writer thread, so the request that started the simulation never waits for the disk. Every save
+ * becomes a numbered version in the history directory, and the latest one is also kept as
+ * {@code configuration.json} and {@code configuration.txt}. Each file is written to a temporary file,
+ * flushed and renamed into place, so a crash never leaves a half-written configuration behind.
+ */
+@Service
+public class ConfigurationStore {
+    private static final String CURRENT_JSON = "configuration.json";
+    private static final String CURRENT_TEXT = "configuration.txt";
+    private static final String VERSION_PREFIX = "configuration-";
+    private static final String VERSION_SUFFIX = ".json";
+
+    private final ObjectMapper objectMapper;
+    private final LoggerService loggerService;
+    private final Path directory;
+    private final Path historyDirectory;
+    private final int historySize;
+    private final boolean loadOnStartup;
+    private final AtomicLong lastVersion;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "config-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a ConfigurationStore, continuing the version numbers of any history already on disk.
+     *
+     * @param objectMapper  The application's JSON mapper.
+     * @param loggerService The service that logs saves and failures.
+     * @param directory     The directory the configuration and its history are saved in.
+     * @param historySize   The number of past versions kept; older ones are deleted.
+     * @param loadOnStartup Whether the last saved configuration is applied when the application starts.
+     * @throws IOException If the history directory exists but cannot be listed.
+     */
+    @Autowired
+    public ConfigurationStore(ObjectMapper objectMapper, LoggerService loggerService,
+                              @Value("${config.directory:config}") String directory,
+                              @Value("${config.history-size:50}") int historySize,
+                              @Value("${config.load-on-startup:false}") boolean loadOnStartup) throws IOException {
+        if (historySize <= 0) {
+            throw new IllegalArgumentException("Configuration history size must be positive: " + historySize);
+        }
+        this.objectMapper = objectMapper;
+        this.loggerService = loggerService;
+        this.directory = Paths.get(directory);
+        this.historyDirectory = this.directory.resolve("history");
+        this.historySize = historySize;
+        this.loadOnStartup = loadOnStartup;
+        List<Long> versions = versions();
+        this.lastVersion = new AtomicLong(versions.isEmpty() ? 0 : versions.get(versions.size() - 1));
+    }
+
+    /**
+     * Saves a configuration as a new version. The files are written in the background.
+     *
+     * @param config The configuration.
+     * @return The version number it is saved under.
+     */
+    public long save(Configuration config) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(config);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Configuration cannot be serialized", e);
+        }
+        byte[] text = toText(config).getBytes(StandardCharsets.UTF_8);
+        long version = lastVersion.incrementAndGet();
+        writer.execute(() -> write(version, json, text));
+        return version;
+    }
+
+    /**
+     * Writes a version to the history and makes it the current configuration. Runs on the writer thread.
+     *
+     * @param version The version number.
+     * @param json    The configuration as JSON.
+     * @param text    The configuration as readable text.
+     */
+    private void write(long version, byte[] json, byte[] text) {
+        try {
+            Files.createDirectories(historyDirectory);
+            writeAtomically(versionPath(version), json);
+            writeAtomically(directory.resolve(CURRENT_JSON), json);
+            writeAtomically(directory.resolve(CURRENT_TEXT), text);
+            List<Long> versions = versions();
+            for (int i = 0; i < versions.size() - historySize; i++) {
+                Files.deleteIfExists(versionPath(versions.get(i)));
+            }
+            loggerService.log("Configuration version " + version + " saved.");
+        } catch (IOException e) {
+            loggerService.log("Configuration version " + version + " could not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces a file with new contents through a flushed temporary file and a rename.
+     *
+     * @param target The file.
+     * @param bytes  The new contents.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Renders a configuration as readable text.
+     *
+     * @param config The configuration.
+     * @return One line per setting.
+     */
+    static String toText(Configuration config) {
+        return "Total Tickets: " + config.getTotalTickets() + "\n"
+                + "Ticket Release Rate: " + config.getTicketReleaseRate() + "\n"
+                + "Customer Retrieval Rate: " + config.getCustomerRetrievalRate() + "\n"
+                + "Max Ticket Capacity: " + config.getMaxTicketCapacity() + "\n"
+                + "Pool Engine: " + config.getPoolEngine() + "\n"
+                + "Vendors: " + config.getVendorCount() + "\n"
+                + "Customers: " + config.getCustomerCount() + "\n"
+                + "Release Batch Size: " + config.getReleaseBatchSize() + "\n"
+                + "Purchase Batch Size: " + config.getPurchaseBatchSize() + "\n"
+                + "Events: " + config.getEventCount() + "\n"
+                + "Price Tiers: " + config.getPriceTiers() + "\n"
+                + "Execution Mode: " + config.getExecutionMode() + "\n"
+                + "Releases Per Second: " + config.getReleasesPerSecond() + "\n"
+                + "Purchases Per Second: " + config.getPurchasesPerSecond() + "\n"
+                + "Pacing Workers: " + config.getPacingWorkers() + "\n"
+                + "Load Scenario: " + (config.getScenario() != null ? config.getScenario() : "none") + "\n"
+                + "Vendor Backpressure: " + config.getVendorBackpressure()
+                + " (timeout " + config.getVendorTimeoutMillis() + " ms)\n"
+                + "Customer Backpressure: " + config.getCustomerBackpressure()
+                + " (timeout " + config.getCustomerTimeoutMillis() + " ms)\n"
+                + "Release Control: " + (config.getReleaseControl() != null ? config.getReleaseControl() : "none")
+                + "\n";
+    }
+
+    /**
+     * Loads the last saved configuration.
+     *
+     * @return The configuration, or null if none has been saved or it cannot be read.
+     */
+    public Configuration loadLatest() {
+        Path path = directory.resolve(CURRENT_JSON);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(path.toFile(), Configuration.class);
+        } catch (IOException e) {
+            loggerService.log("Saved configuration could not be read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the last saved configuration should be applied when the application starts.
+     *
+     * @return True if it should be loaded at startup.
+     */
+    public boolean isLoadOnStartup() {
+        return loadOnStartup;
+    }
+
+    /**
+     * Gets the saved versions, newest first. Versions still being written, and versions pruned while the
+     * history is being read, are not included.
+     *
+     * @return The versions.
+     * @throws IOException If the history cannot be read.
+     */
+    public List<ConfigurationVersion> getHistory() throws IOException {
+        List<Long> versions = versions();
+        List<ConfigurationVersion> history = new ArrayList<>(versions.size());
+        for (int i = versions.size() - 1; i >= 0; i--) {
+            ConfigurationVersion version = getVersion(versions.get(i));
+            if (version != null) {
+                history.add(version);
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Gets one saved version.
+     *
+     * @param version The version number.
+     * @return The version, or null if it does not exist or has been deleted from the history.
+     * @throws IOException If the version cannot be read.
+     */
+    public ConfigurationVersion getVersion(long version) throws IOException {
+        Path path = versionPath(version);
+        try {
+            long savedAt = Files.getLastModifiedTime(path).toMillis();
+            Configuration config = objectMapper.readValue(path.toFile(), Configuration.class);
+            return new ConfigurationVersion(version, savedAt, config);
+        } catch (NoSuchFileException | FileNotFoundException e) {
+            // Never saved, or pruned by the writer thread since the history was listed
+            return null;
+        }
+    }
+
+    /**
+     * Lists the version numbers in the history.
+     *
+     * @return The version numbers in ascending order.
+     * @throws IOException If the history directory cannot be listed.
+     */
+    private List<Long> versions() throws IOException {
+        if (!Files.isDirectory(historyDirectory)) {
+            return Collections.emptyList();
+        }
+        List<Long> versions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(historyDirectory,
+                VERSION_PREFIX + "*" + VERSION_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    versions.add(Long.parseLong(
+                            name.substring(VERSION_PREFIX.length(), name.length() - VERSION_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not a version file
+                }
+            }
+        }
+        Collections.sort(versions);
+        return versions;
+    }
+
+    /**
+     * Gets the history file of a version.
+     *
+     * @param version The version number.
+     * @return The path of the version's file, whether or not it exists.
+     */
+    private Path versionPath(long version) {
+        return historyDirectory.resolve(String.format("%s%06d%s", VERSION_PREFIX, version, VERSION_SUFFIX));
+    }
+
+    /**
+     * Waits until every save made so far has been written.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes any pending saves and stops the writer thread.
+     */
+    @PreDestroy
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
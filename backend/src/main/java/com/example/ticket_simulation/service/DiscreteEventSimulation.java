@@ -0,0 +1,309 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.BackpressurePolicy;
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs a simulation as a sequence of timestamped vendor and customer events on a simulated clock.
+ * <p>
+ * Vendors and customers behave as they do in a real-time run: a vendor adds a block of tickets and then
+ * waits {@code ticketReleaseRate} milliseconds, a customer buys a batch of tickets and then waits
+ * {@code customerRetrievalRate} milliseconds, and both follow their backpressure policy while the pool is too
+ * full or too empty: they block, give up when their timeout passes on the simulated clock, give up straight
+ * away, or, for vendors, drop the oldest tickets to make room. Instead of sleeping, the clock jumps straight
+ * to the next event, so a run takes only as long as the CPU needs.
+ * Events due at the same instant are ordered by a random draw from the configured seed, which makes a run
+ * reproducible.
+ */
+public class DiscreteEventSimulation {
+    private final Configuration config;
+    private final TicketPool ticketPool;
+    private final LoggerService loggerService;
+    private final Random random;
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final Queue<Actor> blockedVendors = new ArrayDeque<>();
+    private final Queue<Actor> blockedCustomers = new ArrayDeque<>();
+    private long sequence;
+    private long now;
+
+    /**
+     * Constructs a DiscreteEventSimulation for the given configuration.
+     *
+     * @param config        The simulation configuration.
+     * @param ticketPool    The pool the vendors and customers share.
+     * @param loggerService The service that receives the log messages.
+     */
+    public DiscreteEventSimulation(Configuration config, TicketPool ticketPool, LoggerService loggerService) {
+        this.config = config;
+        this.ticketPool = ticketPool;
+        this.loggerService = loggerService;
+        this.random = new Random(config.getSeed());
+    }
+
+    /**
+     * Runs the simulation until every event has been processed or it is cancelled.
+     *
+     * @param keepRunning Checked before every event; the run stops as soon as it returns false.
+     * @return The simulated duration of the run in milliseconds.
+     */
+    public long run(BooleanSupplier keepRunning) {
+        long start = LoggerService.epochNanos();
+        for (int i = 1; i <= config.getVendorCount(); i++) {
+            Actor vendor = new Actor(true, i, TicketService.ticketShare(config, i, config.getVendorCount()));
+            vendor.nextTicketId = TicketService.firstTicketId(config, i);
+            schedule(vendor, 0);
+        }
+        for (int i = 1; i <= config.getCustomerCount(); i++) {
+            schedule(new Actor(false, i, TicketService.ticketShare(config, i, config.getCustomerCount())), 0);
+        }
+
+        while (!events.isEmpty() && keepRunning.getAsBoolean()) {
+            Event event = events.poll();
+            now = event.time;
+            Actor actor = event.actor;
+            if (event.wait >= 0) {
+                expire(actor, event.wait, start);
+            } else if (actor.vendor) {
+                releaseTicket(actor, start);
+            } else {
+                retrieveTicket(actor, start);
+            }
+        }
+
+        if (!blockedCustomers.isEmpty() || !blockedVendors.isEmpty()) {
+            loggerService.log("Virtual time run ended with " + blockedVendors.size() + " vendors and "
+                    + blockedCustomers.size() + " customers still waiting.", start + now * 1_000_000);
+        }
+        return now;
+    }
+
+    /**
+     * Lets a vendor add as much of its pending block as fits, and blocks it until the rest fits unless its
+     * policy gives up or drops the oldest tickets instead.
+     *
+     * @param vendor The vendor.
+     * @param start  The wall-clock time the simulated clock starts at, in nanoseconds since the epoch.
+     */
+    private void releaseTicket(Actor vendor, long start) {
+        if (vendor.pending.isEmpty()) {
+            for (int i = TicketService.releaseBatch(config, vendor.remaining); i > 0; i--) {
+                vendor.pending.add(TicketService.createTicket(config, vendor.nextTicketId++));
+            }
+        }
+        int added = config.getVendorBackpressure() == BackpressurePolicy.DROP_OLDEST
+                ? ticketPool.tryAddTicketsDroppingOldest(vendor.pending, vendor.id, start + now * 1_000_000)
+                : ticketPool.tryAddTickets(vendor.pending, vendor.id, start + now * 1_000_000);
+        List<Tickets> released = vendor.pending.subList(0, added);
+        for (Tickets ticket : released) {
+            loggerService.ticketAdded(vendor.id, ticket, start + now * 1_000_000);
+        }
+        released.clear();
+        vendor.remaining -= added;
+        if (added > 0) {
+            // A customer buying several tickets may still not have enough, so let every one of them retry
+            wake(blockedCustomers, config.getPurchaseBatchSize() > 1 ? blockedCustomers.size() : added);
+        }
+        if (vendor.pending.isEmpty()) {
+            endWait(vendor);
+            schedule(vendor, now + config.getTicketReleaseRate());
+        } else if (!block(vendor, config.getVendorBackpressure(), config.getVendorTimeoutMillis())) {
+            giveUp(vendor, false, start);
+        }
+    }
+
+    /**
+     * Lets a customer buy its next batch of tickets, or blocks it until the pool holds enough of them unless
+     * its policy gives up instead.
+     *
+     * @param customer The customer.
+     * @param start    The wall-clock time the simulated clock starts at, in nanoseconds since the epoch.
+     */
+    private void retrieveTicket(Actor customer, long start) {
+        int count = TicketService.purchaseBatch(config, customer.remaining);
+        List<Tickets> tickets = ticketPool.tryRetrieveTickets(count, customer.id, start + now * 1_000_000);
+        if (tickets == null) {
+            if (!block(customer, config.getCustomerBackpressure(), config.getCustomerTimeoutMillis())) {
+                giveUp(customer, false, start);
+            }
+            return;
+        }
+        endWait(customer);
+        for (Tickets ticket : tickets) {
+            loggerService.ticketRetrieved(customer.id, ticket, start + now * 1_000_000);
+        }
+        wake(blockedVendors, count);
+        customer.remaining -= count;
+        schedule(customer, now + config.getCustomerRetrievalRate());
+    }
+
+    /**
+     * Blocks an actor the pool cannot serve yet, if its backpressure policy waits. A wait with a timeout
+     * keeps the deadline of its first attempt, as a thread waiting in the pool would.
+     *
+     * @param actor         The vendor or customer.
+     * @param policy        The actor's backpressure policy; null to wait.
+     * @param timeoutMillis The longest to wait under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     * @return True if the actor is blocked, false if it gives up now.
+     */
+    private boolean block(Actor actor, BackpressurePolicy policy, long timeoutMillis) {
+        if (policy == BackpressurePolicy.BLOCK_WITH_TIMEOUT && timeoutMillis > 0) {
+            if (actor.deadline < 0) {
+                actor.deadline = now + timeoutMillis;
+                events.add(new Event(actor.deadline, random.nextLong(), sequence++, actor, actor.wait));
+            }
+            if (now >= actor.deadline) {
+                return false;
+            }
+        } else if (policy != null && policy != BackpressurePolicy.BLOCK) {
+            return false;
+        }
+        (actor.vendor ? blockedVendors : blockedCustomers).add(actor);
+        return true;
+    }
+
+    /**
+     * Times out an actor that is still blocked in the wait the timeout was set for.
+     *
+     * @param actor The vendor or customer.
+     * @param wait  The wait the timeout belongs to.
+     * @param start The wall-clock time the simulated clock starts at, in nanoseconds since the epoch.
+     */
+    private void expire(Actor actor, int wait, long start) {
+        if (actor.wait == wait && (actor.vendor ? blockedVendors : blockedCustomers).remove(actor)) {
+            giveUp(actor, true, start);
+        }
+    }
+
+    /**
+     * Counts a release or purchase given up on and moves the actor on, as in a real-time run: a vendor keeps
+     * the rest of its block and tries again after its release interval, a customer abandons the purchase.
+     *
+     * @param actor    The vendor or customer.
+     * @param timedOut Whether it waited until its timeout, rather than giving up straight away.
+     * @param start    The wall-clock time the simulated clock starts at, in nanoseconds since the epoch.
+     */
+    private void giveUp(Actor actor, boolean timedOut, long start) {
+        endWait(actor);
+        PoolMetrics metrics = ticketPool.getMetrics();
+        if (actor.vendor) {
+            if (timedOut) {
+                metrics.recordReleaseTimedOut();
+            } else {
+                metrics.recordReleaseRejected();
+            }
+            schedule(actor, now + config.getTicketReleaseRate());
+            return;
+        }
+        if (timedOut) {
+            metrics.recordPurchaseTimedOut();
+        } else {
+            metrics.recordPurchaseRejected();
+        }
+        int count = TicketService.purchaseBatch(config, actor.remaining);
+        loggerService.log("Customer " + actor.id + " gave up on buying " + count + " tickets.",
+                start + now * 1_000_000);
+        actor.remaining -= count;
+        schedule(actor, now + config.getCustomerRetrievalRate());
+    }
+
+    /**
+     * Ends an actor's current wait, so that a timeout still pending for it has no effect.
+     *
+     * @param actor The vendor or customer.
+     */
+    private void endWait(Actor actor) {
+        if (actor.deadline >= 0) {
+            actor.deadline = -1;
+            actor.wait++;
+        }
+    }
+
+    /**
+     * Reschedules the longest-blocked actors at the current instant.
+     *
+     * @param blocked The queue of blocked actors.
+     * @param count   The maximum number of actors to wake.
+     */
+    private void wake(Queue<Actor> blocked, int count) {
+        for (int i = 0; i < count; i++) {
+            Actor actor = blocked.poll();
+            if (actor == null) {
+                return;
+            }
+            schedule(actor, now);
+        }
+    }
+
+    /**
+     * Schedules an actor's next turn.
+     *
+     * @param actor The vendor or customer.
+     * @param time  The simulated time in milliseconds.
+     */
+    private void schedule(Actor actor, long time) {
+        if (actor.remaining > 0) {
+            events.add(new Event(time, random.nextLong(), sequence++, actor, -1));
+        }
+    }
+
+    /**
+     * A vendor or customer and how many tickets it still has to release or retrieve.
+     */
+    private static final class Actor {
+        private final boolean vendor;
+        private final int id;
+        private int remaining;
+        private int nextTicketId;
+        private final List<Tickets> pending = new ArrayList<>();
+        // The simulated time a wait with a timeout gives up at, or -1; and a count of such waits
+        private long deadline = -1;
+        private int wait;
+
+        private Actor(boolean vendor, int id, int remaining) {
+            this.vendor = vendor;
+            this.id = id;
+            this.remaining = remaining;
+        }
+    }
+
+    /**
+     * An actor's turn at a point in simulated time, or the timeout of one of its waits.
+     */
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long tieBreaker;
+        private final long sequence;
+        private final Actor actor;
+        // The wait this event times out, or -1 for a turn
+        private final int wait;
+
+        private Event(long time, long tieBreaker, long sequence, Actor actor, int wait) {
+            this.time = time;
+            this.tieBreaker = tieBreaker;
+            this.sequence = sequence;
+            this.actor = actor;
+            this.wait = wait;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            if (tieBreaker != other.tieBreaker) {
+                return Long.compare(tieBreaker, other.tieBreaker);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
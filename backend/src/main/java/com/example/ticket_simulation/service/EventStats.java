@@ -0,0 +1,113 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.EventAvailability;
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free per-event counters of the tickets in the pool and the tickets sold.
+ * The counters are updated after the pool operation they describe, so a snapshot taken during a run may
+ * be off by the operations in flight.
+ */
+class EventStats {
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Counts a ticket entering the pool.
+     *
+     * @param ticket The ticket.
+     */
+    void added(Tickets ticket) {
+        counters(ticket).inPool.increment();
+    }
+
+    /**
+     * Counts a ticket leaving the pool, for a sale or a hold.
+     *
+     * @param ticket The ticket.
+     */
+    void taken(Tickets ticket) {
+        counters(ticket).inPool.decrement();
+    }
+
+    /**
+     * Counts a ticket sold.
+     *
+     * @param ticket The ticket.
+     */
+    void sold(Tickets ticket) {
+        counters(ticket).sold.increment();
+    }
+
+    /**
+     * Counts tickets of an event sold before the pool was restored.
+     *
+     * @param event The event.
+     * @param count The number of tickets sold.
+     */
+    void restoreSold(String event, long count) {
+        counters.computeIfAbsent(event, key -> new Counters()).sold.add(count);
+    }
+
+    /**
+     * Gets the counters of every event, ordered by event.
+     *
+     * @return The counters.
+     */
+    List<EventAvailability> snapshot() {
+        List<EventAvailability> events = new ArrayList<>(counters.size());
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            events.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        events.sort(Comparator.comparing(EventAvailability::getEvent));
+        return events;
+    }
+
+    /**
+     * Gets the counters of one event.
+     *
+     * @param event The event.
+     * @return The counters, or null if no ticket of the event has been counted.
+     */
+    EventAvailability snapshot(String event) {
+        Counters eventCounters = counters.get(event);
+        return eventCounters != null ? eventCounters.snapshot(event) : null;
+    }
+
+    /**
+     * Forgets every event.
+     */
+    void clear() {
+        counters.clear();
+    }
+
+    /**
+     * Gets or creates the counters of a ticket's event.
+     *
+     * @param ticket The ticket.
+     * @return The counters.
+     */
+    private Counters counters(Tickets ticket) {
+        String event = String.valueOf(ticket.getEvent());
+        Counters eventCounters = counters.get(event);
+        return eventCounters != null ? eventCounters : counters.computeIfAbsent(event, key -> new Counters());
+    }
+
+    /**
+     * The counters of one event.
+     */
+    private static final class Counters {
+        private final LongAdder inPool = new LongAdder();
+        private final LongAdder sold = new LongAdder();
+
+        private EventAvailability snapshot(String event) {
+            return new EventAvailability(event, Math.max(0, inPool.sum()), sold.sum());
+        }
+    }
+}
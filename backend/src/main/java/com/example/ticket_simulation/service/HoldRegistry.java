@@ -0,0 +1,188 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.TicketHold;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.util.TimingWheel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the outstanding ticket holds of a {@link TicketPool} and expires them on a timing wheel.
+ * <p>
+ * Each hold owns one wheel timeout, and whoever settles that timeout first owns the ticket: confirming
+ * or cancelling cancels the timeout, while expiry fires it. So a hold is confirmed, cancelled or expired
+ * exactly once without any lock. An expired or cancelled ticket goes back to the pool; if the pool has
+ * filled up in the meantime it is retried on the next tick rather than blocking the wheel. Until it is
+ * back, the ticket still counts as held, so it never looks lost in between.
+ */
+class HoldRegistry {
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 512;
+
+    private final Map<Long, Entry> holds = new ConcurrentHashMap<>();
+    private final AtomicLong nextHoldId = new AtomicLong(1);
+    private final TimingWheel<Entry> wheel;
+    private final Predicate<Tickets> returnToPool;
+    // Replaced by clear, so tickets of holds from before a reset never reach the new pool
+    private volatile Generation generation = new Generation();
+
+    /**
+     * Constructs a HoldRegistry.
+     *
+     * @param returnToPool Puts a ticket back into the pool without waiting; returns false if the pool is full.
+     */
+    HoldRegistry(Predicate<Tickets> returnToPool) {
+        this.returnToPool = returnToPool;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, this::expire, "hold-expiry");
+    }
+
+    /**
+     * Holds a ticket for a customer.
+     *
+     * @param ticket     The ticket, already taken out of the pool.
+     * @param customerId The ID of the customer.
+     * @param ttlMillis  How long the hold lasts in milliseconds.
+     * @return The hold.
+     */
+    TicketHold hold(Tickets ticket, int customerId, long ttlMillis) {
+        long ttl = Math.max(TICK_MILLIS, ttlMillis);
+        TicketHold hold = new TicketHold(nextHoldId.getAndIncrement(), customerId, ticket,
+                System.currentTimeMillis() + ttl);
+        Entry entry = new Entry(hold, generation);
+        // In the map before the wheel can see it, so an expiry always finds the entry it removes
+        holds.put(hold.getHoldId(), entry);
+        entry.timeout = wheel.schedule(entry, ttl);
+        return hold;
+    }
+
+    /**
+     * Settles a hold so that it can no longer expire, as when its ticket is sold.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it does not exist, has already expired or was cancelled.
+     */
+    TicketHold settle(long holdId) {
+        Entry entry = holds.get(holdId);
+        if (entry == null || entry.timeout == null || !entry.timeout.cancel()) {
+            return null;
+        }
+        holds.remove(holdId, entry);
+        return entry.hold;
+    }
+
+    /**
+     * Cancels a hold and puts its ticket back into the pool, retrying on the next tick if the pool is full.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it does not exist, has already expired or was settled.
+     */
+    TicketHold cancel(long holdId) {
+        Entry entry = holds.get(holdId);
+        if (entry == null || entry.timeout == null || !entry.timeout.cancel()) {
+            return null;
+        }
+        startReturn(entry);
+        giveBack(entry);
+        return entry.hold;
+    }
+
+    /**
+     * Gets the number of tickets held: the outstanding holds and the ended ones whose ticket is not back
+     * in the pool yet.
+     *
+     * @return The number of held tickets.
+     */
+    int size() {
+        return holds.size() + generation.returning.get();
+    }
+
+    /**
+     * Drops every outstanding hold without returning its ticket, as when the pool is replaced.
+     */
+    void clear() {
+        generation = new Generation();
+        for (Entry entry : holds.values()) {
+            // A hold still being scheduled has no timeout yet; when it expires it belongs to the old generation
+            TimingWheel.Timeout<Entry> timeout = entry.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+        holds.clear();
+    }
+
+    /**
+     * Stops the expiry thread.
+     */
+    void close() {
+        wheel.close();
+    }
+
+    /**
+     * Wheel callback: a hold has run out, or a returned ticket is being retried.
+     *
+     * @param entry The hold.
+     */
+    private void expire(Entry entry) {
+        if (!entry.returning) {
+            startReturn(entry);
+        }
+        giveBack(entry);
+    }
+
+    /**
+     * Moves an ended hold from the outstanding holds to the returns in progress, counting it among the
+     * returns first so that it is counted as held throughout.
+     *
+     * @param entry The hold.
+     */
+    private void startReturn(Entry entry) {
+        entry.returning = true;
+        entry.generation.returning.incrementAndGet();
+        holds.remove(entry.hold.getHoldId(), entry);
+    }
+
+    /**
+     * Returns a ticket to the pool, or schedules another try if the pool is full.
+     *
+     * @param entry The hold whose ticket goes back.
+     */
+    private void giveBack(Entry entry) {
+        if (entry.generation != generation) {
+            return;
+        }
+        if (returnToPool.test(entry.hold.getTicket())) {
+            entry.generation.returning.decrementAndGet();
+        } else {
+            wheel.schedule(entry, TICK_MILLIS);
+        }
+    }
+
+    /**
+     * A hold, its expiry and the pool generation it belongs to.
+     */
+    private static final class Entry {
+        private final TicketHold hold;
+        private final Generation generation;
+        private volatile TimingWheel.Timeout<Entry> timeout;
+        // Set once the hold has ended and its ticket is on its way back to the pool
+        private volatile boolean returning;
+
+        private Entry(TicketHold hold, Generation generation) {
+            this.hold = hold;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * The holds of one pool, between two resets.
+     */
+    private static final class Generation {
+        // Ended holds whose ticket has not made it back into the pool yet
+        private final AtomicInteger returning = new AtomicInteger();
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.TicketQuery;
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pool engine that keeps a separate FIFO queue per event, venue and price, guarded by a single monitor.
+ * <p>
+ * The queues are indexed by event, then venue, then price in a sorted map, so a customer asking for a
+ * given event at or below a price is served the cheapest matching ticket in O(log n) instead of by a scan.
+ * Only non-empty queues are kept. Untargeted retrievals still get the oldest ticket in the whole pool: the
+ * non-empty queues are also kept in a sorted map keyed by the arrival number of their oldest ticket.
+ */
+public class IndexedPoolEngine implements TicketPoolEngine {
+    private volatile int maxTicketCapacity;
+    // event -> venue -> price -> tickets of that price in arrival order
+    private final Map<String, Map<String, TreeMap<Double, Tier>>> index = new HashMap<>();
+    // Every non-empty tier, keyed by the arrival number of its oldest ticket
+    private final TreeMap<Long, Tier> oldest = new TreeMap<>();
+    private long nextArrival;
+    private int size;
+
+    /**
+     * Constructs an IndexedPoolEngine with the specified maximum capacity.
+     *
+     * @param maxTicketCapacity The maximum capacity of the pool.
+     */
+    public IndexedPoolEngine(int maxTicketCapacity) {
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    @Override
+    public synchronized boolean offer(Tickets ticket, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (size >= maxTicketCapacity) {
+            if (!awaitChange(timeoutNanos, deadline)) {
+                return false;
+            }
+        }
+        ticket.markPooled(System.nanoTime());
+        insert(ticket);
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public synchronized Tickets poll(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (size == 0) {
+            if (!awaitChange(timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+        Tickets ticket = take(oldest.firstEntry().getValue());
+        notifyAll();
+        return ticket;
+    }
+
+    @Override
+    public synchronized Tickets poll(TicketQuery query, int customerId, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        Tier tier;
+        while ((tier = find(query)) == null) {
+            if (!awaitChange(timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+        Tickets ticket = take(tier);
+        notifyAll();
+        return ticket;
+    }
+
+    @Override
+    public synchronized int offerBatch(List<Tickets> tickets, int vendorId, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int added = 0;
+        while (added < tickets.size()) {
+            int space = maxTicketCapacity - size;
+            if (space <= 0) {
+                if (!awaitChange(timeoutNanos, deadline)) {
+                    break;
+                }
+                continue;
+            }
+            long now = System.nanoTime();
+            int end = Math.min(tickets.size(), added + space);
+            for (; added < end; added++) {
+                Tickets ticket = tickets.get(added);
+                ticket.markPooled(now);
+                insert(ticket);
+            }
+            notifyAll();
+        }
+        return added;
+    }
+
+    @Override
+    public synchronized List<Tickets> pollBatch(int count, int customerId, long timeoutNanos) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + count);
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (size < count) {
+            if (count > maxTicketCapacity || !awaitChange(timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+        List<Tickets> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tickets.add(take(oldest.firstEntry().getValue()));
+        }
+        notifyAll();
+        return tickets;
+    }
+
+    /**
+     * Files a ticket under its event, venue and price. Callers must hold the monitor.
+     *
+     * @param ticket The ticket.
+     */
+    private void insert(Tickets ticket) {
+        Tier tier = index.computeIfAbsent(ticket.getEvent(), event -> new HashMap<>())
+                .computeIfAbsent(ticket.getLocation(), location -> new TreeMap<>())
+                .computeIfAbsent(ticket.getPrice(), price -> new Tier(ticket.getEvent(), ticket.getLocation(), price));
+        long arrival = nextArrival++;
+        if (tier.isEmpty()) {
+            oldest.put(arrival, tier);
+        }
+        tier.add(ticket, arrival);
+        size++;
+    }
+
+    /**
+     * Removes the oldest ticket of a tier and drops the tier from the index once it is empty.
+     * Callers must hold the monitor.
+     *
+     * @param tier A non-empty tier.
+     * @return The ticket.
+     */
+    private Tickets take(Tier tier) {
+        oldest.remove(tier.headArrival());
+        Tickets ticket = tier.remove();
+        if (!tier.isEmpty()) {
+            oldest.put(tier.headArrival(), tier);
+        } else {
+            Map<String, TreeMap<Double, Tier>> venues = index.get(tier.event);
+            TreeMap<Double, Tier> prices = venues.get(tier.location);
+            prices.remove(tier.price);
+            if (prices.isEmpty()) {
+                venues.remove(tier.location);
+                if (venues.isEmpty()) {
+                    index.remove(tier.event);
+                }
+            }
+        }
+        size--;
+        return ticket;
+    }
+
+    /**
+     * Finds the cheapest non-empty tier that matches a query. Callers must hold the monitor.
+     *
+     * @param query The query.
+     * @return The tier, or null if no ticket matches.
+     */
+    private Tier find(TicketQuery query) {
+        Map<String, TreeMap<Double, Tier>> venues = index.get(query.getEvent());
+        if (venues == null) {
+            return null;
+        }
+        if (query.getLocation() != null) {
+            return cheapest(venues.get(query.getLocation()), query);
+        }
+        Tier best = null;
+        for (TreeMap<Double, Tier> prices : venues.values()) {
+            Tier tier = cheapest(prices, query);
+            if (tier != null && (best == null || tier.price < best.price
+                    || (tier.price == best.price && tier.headArrival() < best.headArrival()))) {
+                best = tier;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the cheapest tier of a venue if it is within the query's price limit.
+     *
+     * @param prices The venue's tiers, or null if the venue has no tickets.
+     * @param query  The query.
+     * @return The tier, or null if none is cheap enough.
+     */
+    private static Tier cheapest(TreeMap<Double, Tier> prices, TicketQuery query) {
+        if (prices == null || prices.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Double, Tier> entry = prices.firstEntry();
+        return query.acceptsPrice(entry.getKey()) ? entry.getValue() : null;
+    }
+
+    /**
+     * Waits on the monitor until notified or the deadline passes.
+     *
+     * @param timeoutNanos The original timeout; a negative value waits indefinitely.
+     * @param deadline     The deadline in {@link System#nanoTime()} units.
+     * @return True if the caller should re-check its condition, false if it should give up.
+     */
+    private boolean awaitChange(long timeoutNanos, long deadline) {
+        try {
+            if (timeoutNanos < 0) {
+                wait();
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return maxTicketCapacity;
+    }
+
+    @Override
+    public synchronized void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        maxTicketCapacity = capacity;
+        // Wake producers that now have space and batch consumers the pool can no longer fill
+        notifyAll();
+    }
+
+    /**
+     * The tickets of one event, venue and price in arrival order, kept in a growable circular buffer
+     * alongside their arrival numbers.
+     */
+    private static final class Tier {
+        private final String event;
+        private final String location;
+        private final double price;
+        private Tickets[] tickets = new Tickets[4];
+        private long[] arrivals = new long[4];
+        private int head;
+        private int count;
+
+        private Tier(String event, String location, double price) {
+            this.event = event;
+            this.location = location;
+            this.price = price;
+        }
+
+        private boolean isEmpty() {
+            return count == 0;
+        }
+
+        private long headArrival() {
+            return arrivals[head];
+        }
+
+        private void add(Tickets ticket, long arrival) {
+            if (count == tickets.length) {
+                grow();
+            }
+            int tail = (head + count) & (tickets.length - 1);
+            tickets[tail] = ticket;
+            arrivals[tail] = arrival;
+            count++;
+        }
+
+        private Tickets remove() {
+            Tickets ticket = tickets[head];
+            tickets[head] = null;
+            head = (head + 1) & (tickets.length - 1);
+            count--;
+            return ticket;
+        }
+
+        private void grow() {
+            Tickets[] grownTickets = new Tickets[tickets.length * 2];
+            long[] grownArrivals = new long[arrivals.length * 2];
+            for (int i = 0; i < count; i++) {
+                int from = (head + i) & (tickets.length - 1);
+                grownTickets[i] = tickets[from];
+                grownArrivals[i] = arrivals[from];
+            }
+            tickets = grownTickets;
+            arrivals = grownArrivals;
+            head = 0;
+        }
+    }
+}
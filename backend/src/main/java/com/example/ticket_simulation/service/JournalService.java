@@ -0,0 +1,157 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.repository.TicketJournal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service that journals every ticket release and sale to disk and recovers the pool from the journal
+ * on startup.
+ * <p>
+ * Recovery loads the latest snapshot, replays the segments written after it, and restores the pool and
+ * the sales ledger of the last run. A background thread then flushes the journal at a fixed interval,
+ * committing every record appended in between as one group, and folds completed segments into a new
+ * snapshot once enough have piled up, deleting the segments it covers. Recovery therefore reads at most a
+ * snapshot and a few segments, however long the journal has been running.
+ */
+@Service
+public class JournalService {
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    private final TicketPool ticketPool;
+    private final TicketService ticketService;
+    private final LoggerService loggerService;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalNanos;
+    private final int snapshotSegments;
+
+    private TicketJournal journal;
+    // Every segment before the journal's first one, folded; kept up to date by each snapshot
+    private JournalState compacted;
+    private Thread flusher;
+    private volatile boolean running;
+    private boolean failureLogged;
+
+    /**
+     * Constructs a JournalService.
+     *
+     * @param ticketPool          The pool whose releases and sales are journaled.
+     * @param ticketService       The service the recovered run is restored into.
+     * @param loggerService       The service that logs recovery and journal failures.
+     * @param enabled             Whether to journal and recover at all.
+     * @param directory           The directory of the journal.
+     * @param segmentSizeMb       The size of each segment file in megabytes.
+     * @param flushIntervalMillis How often the journal is flushed to disk in milliseconds.
+     * @param snapshotSegments    The number of completed segments that triggers a snapshot.
+     */
+    @Autowired
+    public JournalService(TicketPool ticketPool, TicketService ticketService, LoggerService loggerService,
+                          @Value("${journal.enabled:false}") boolean enabled,
+                          @Value("${journal.directory:journal}") String directory,
+                          @Value("${journal.segment-size-mb:64}") int segmentSizeMb,
+                          @Value("${journal.flush-interval-ms:10}") long flushIntervalMillis,
+                          @Value("${journal.snapshot-segments:4}") int snapshotSegments) {
+        if (segmentSizeMb <= 0 || segmentSizeMb > 1024) {
+            throw new IllegalArgumentException("Journal segment size must be between 1 and 1024 MB: " + segmentSizeMb);
+        }
+        this.ticketPool = ticketPool;
+        this.ticketService = ticketService;
+        this.loggerService = loggerService;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = (int) (segmentSizeMb * BYTES_PER_MB);
+        this.flushIntervalNanos = Math.max(1, flushIntervalMillis) * 1_000_000;
+        this.snapshotSegments = Math.max(1, snapshotSegments);
+    }
+
+    /**
+     * Recovers the last run from the journal, then starts journaling and the flush thread.
+     *
+     * @throws IOException If the journal cannot be read or opened.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        JournalState state = JournalState.load(directory);
+        long records = TicketJournal.replay(directory, state.getNextSegment(), Long.MAX_VALUE, state);
+        if (state.getConfiguration() != null) {
+            int overflow = ticketService.restore(state);
+            loggerService.log("Recovered " + state.getTicketsReleased() + " released and " + state.getSaleCount()
+                    + " sold tickets from the journal (" + records + " records replayed) in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms."
+                    + (overflow > 0 ? " " + overflow + " unsold tickets no longer fit in the pool." : ""));
+        }
+        journal = TicketJournal.open(directory, segmentBytes);
+        state.setNextSegment(journal.currentSegment());
+        compacted = state;
+        ticketPool.attachJournal(journal);
+        running = true;
+        flusher = new Thread(this::flushLoop, "journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Flushes the journal at the configured interval until the service is closed.
+     */
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            journal.force();
+            try {
+                long current = journal.currentSegment();
+                if (current - compacted.getNextSegment() >= snapshotSegments) {
+                    snapshot(current);
+                }
+            } catch (IOException e) {
+                loggerService.log("Journal snapshot failed: " + e.getMessage());
+            }
+            IOException failure = journal.failure();
+            if (failure != null && !failureLogged) {
+                failureLogged = true;
+                loggerService.log("Journaling stopped: " + failure.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Folds the completed segments into a new snapshot and deletes them.
+     *
+     * @param upTo The number of the first segment not to fold, the one being appended to.
+     * @throws IOException If a segment cannot be read or the snapshot cannot be written.
+     */
+    private void snapshot(long upTo) throws IOException {
+        TicketJournal.replay(directory, compacted.getNextSegment(), upTo, compacted);
+        compacted.setNextSegment(upTo);
+        compacted.save(directory);
+        TicketJournal.deleteSegments(directory, upTo);
+    }
+
+    /**
+     * Stops journaling, flushing everything appended so far.
+     */
+    @PreDestroy
+    public void close() {
+        if (journal == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        ticketPool.attachJournal(null);
+        journal.close();
+    }
+}
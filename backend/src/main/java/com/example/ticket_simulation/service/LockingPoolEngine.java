@@ -0,0 +1,179 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool engine that guards a linked queue with a single lock.
+ * <p>
+ * Waiters park on a {@link ReentrantLock} condition rather than a monitor, so vendors and customers running
+ * on virtual threads release their carrier thread while they wait.
+ */
+public class LockingPoolEngine implements TicketPoolEngine {
+    private final Queue<Tickets> ticketsQueue = new LinkedList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile int maxTicketCapacity;
+
+    /**
+     * Constructs a LockingPoolEngine with the specified maximum capacity.
+     *
+     * @param maxTicketCapacity The maximum capacity of the pool.
+     */
+    public LockingPoolEngine(int maxTicketCapacity) {
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    @Override
+    public boolean offer(Tickets ticket, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        lock.lock();
+        try {
+            while (ticketsQueue.size() >= maxTicketCapacity) {
+                if (!awaitChange(timeoutNanos, deadline)) {
+                    return false;
+                }
+            }
+            ticket.markPooled(System.nanoTime());
+            ticketsQueue.add(ticket);
+            changed.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Tickets poll(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        lock.lock();
+        try {
+            while (ticketsQueue.isEmpty()) {
+                if (!awaitChange(timeoutNanos, deadline)) {
+                    return null;
+                }
+            }
+            Tickets ticket = ticketsQueue.poll();
+            changed.signalAll();
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int offerBatch(List<Tickets> tickets, int vendorId, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int added = 0;
+        lock.lock();
+        try {
+            while (added < tickets.size()) {
+                int space = maxTicketCapacity - ticketsQueue.size();
+                if (space <= 0) {
+                    if (!awaitChange(timeoutNanos, deadline)) {
+                        break;
+                    }
+                    continue;
+                }
+                long now = System.nanoTime();
+                int end = Math.min(tickets.size(), added + space);
+                for (; added < end; added++) {
+                    Tickets ticket = tickets.get(added);
+                    ticket.markPooled(now);
+                    ticketsQueue.add(ticket);
+                }
+                // One wake-up for the whole block instead of one per ticket
+                changed.signalAll();
+            }
+            return added;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Tickets> pollBatch(int count, int customerId, long timeoutNanos) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + count);
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        lock.lock();
+        try {
+            while (ticketsQueue.size() < count) {
+                if (count > maxTicketCapacity || !awaitChange(timeoutNanos, deadline)) {
+                    return null;
+                }
+            }
+            List<Tickets> tickets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tickets.add(ticketsQueue.poll());
+            }
+            changed.signalAll();
+            return tickets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits on the condition until signalled or the deadline passes. The caller holds the lock.
+     *
+     * @param timeoutNanos The original timeout; a negative value waits indefinitely.
+     * @param deadline     The deadline in {@link System#nanoTime()} units.
+     * @return True if the caller should re-check its condition, false if it should give up.
+     */
+    private boolean awaitChange(long timeoutNanos, long deadline) {
+        try {
+            if (timeoutNanos < 0) {
+                changed.await();
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            // Keep the interrupt for the caller; await() has already cleared it
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return ticketsQueue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return maxTicketCapacity;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        lock.lock();
+        try {
+            maxTicketCapacity = capacity;
+            // Wake producers that now have space and batch consumers the pool can no longer fill
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
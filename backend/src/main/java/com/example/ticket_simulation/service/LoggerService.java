@@ -1,19 +1,61 @@
 package com.example.ticket_simulation.service;
 
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogOverflowPolicy;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.model.Tickets;
 import com.example.ticket_simulation.repository.LogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.util.List;
 
 /**
  * Service for managing logs.
+ * <p>
+ * Events are stored as raw records and only rendered as text when they are read. In synchronous mode
+ * every event is stored on the calling thread; in asynchronous mode events are handed to an
+ * {@link AsyncLogPipeline} and stored by a background writer.
  */
 @Service
 public class LoggerService {
 
+    // Anchors System.nanoTime() to the wall clock so producers can timestamp events cheaply
+    private static final long EPOCH_NANOS_AT_START = System.currentTimeMillis() * 1_000_000;
+    private static final long NANO_TIME_AT_START = System.nanoTime();
+
+    private final LogRepository logRepository;
+    private final AsyncLogPipeline pipeline;
+
+    /**
+     * Constructs a synchronous LoggerService.
+     *
+     * @param logRepository The repository the messages are stored in.
+     */
+    public LoggerService(LogRepository logRepository) {
+        this(logRepository, false, 0, LogOverflowPolicy.BLOCK, 0);
+    }
+
+    /**
+     * Constructs a LoggerService.
+     *
+     * @param logRepository  The repository the messages are stored in.
+     * @param async          Whether events are stored by a background writer.
+     * @param queueCapacity  The number of events the asynchronous queue holds.
+     * @param overflowPolicy What to do with ticket events when the asynchronous queue is full.
+     * @param sampleRate     Under {@link LogOverflowPolicy#SAMPLE}, keep one in this many events.
+     */
     @Autowired
-    private LogRepository logRepository;
+    public LoggerService(LogRepository logRepository,
+                         @Value("${logs.async:false}") boolean async,
+                         @Value("${logs.queue-capacity:65536}") int queueCapacity,
+                         @Value("${logs.overflow-policy:BLOCK}") LogOverflowPolicy overflowPolicy,
+                         @Value("${logs.sample-rate:10}") int sampleRate) {
+        this.logRepository = logRepository;
+        this.pipeline = async ? new AsyncLogPipeline(logRepository, queueCapacity, overflowPolicy, sampleRate) : null;
+    }
 
     /**
      * Logs a message.
@@ -21,7 +63,79 @@ public class LoggerService {
      * @param message The message to log.
      */
     public void log(String message) {
-        logRepository.addLog(message);
+        if (pipeline != null) {
+            pipeline.publish(LogEventType.MESSAGE, 0, message, epochNanos());
+        } else {
+            logRepository.addLog(message);
+        }
+    }
+
+    /**
+     * Logs a message at the given time, for events that happen on a simulated clock.
+     *
+     * @param message    The message to log.
+     * @param epochNanos The time the logged event happened, in nanoseconds since the epoch.
+     */
+    public void log(String message, long epochNanos) {
+        record(LogEventType.MESSAGE, 0, message, epochNanos);
+    }
+
+    /**
+     * Logs a vendor adding a ticket to the pool.
+     *
+     * @param vendorId The ID of the vendor.
+     * @param ticket   The ticket that was added.
+     */
+    public void ticketAdded(int vendorId, Tickets ticket) {
+        record(LogEventType.TICKET_ADDED, vendorId, ticket, epochNanos());
+    }
+
+    /**
+     * Logs a vendor adding a ticket to the pool at the given time.
+     *
+     * @param vendorId   The ID of the vendor.
+     * @param ticket     The ticket that was added.
+     * @param epochNanos The time the ticket was added, in nanoseconds since the epoch.
+     */
+    public void ticketAdded(int vendorId, Tickets ticket, long epochNanos) {
+        record(LogEventType.TICKET_ADDED, vendorId, ticket, epochNanos);
+    }
+
+    /**
+     * Logs a customer retrieving a ticket from the pool.
+     *
+     * @param customerId The ID of the customer.
+     * @param ticket     The ticket that was retrieved.
+     */
+    public void ticketRetrieved(int customerId, Tickets ticket) {
+        record(LogEventType.TICKET_RETRIEVED, customerId, ticket, epochNanos());
+    }
+
+    /**
+     * Logs a customer retrieving a ticket from the pool at the given time.
+     *
+     * @param customerId The ID of the customer.
+     * @param ticket     The ticket that was retrieved.
+     * @param epochNanos The time the ticket was retrieved, in nanoseconds since the epoch.
+     */
+    public void ticketRetrieved(int customerId, Tickets ticket, long epochNanos) {
+        record(LogEventType.TICKET_RETRIEVED, customerId, ticket, epochNanos);
+    }
+
+    /**
+     * Stores an event directly or publishes it to the asynchronous pipeline.
+     *
+     * @param type       The kind of event.
+     * @param actorId    The vendor or customer ID, or 0 for messages.
+     * @param payload    The ticket for ticket events, or the message text.
+     * @param epochNanos The time of the event in nanoseconds since the epoch.
+     */
+    private void record(LogEventType type, int actorId, Object payload, long epochNanos) {
+        if (pipeline != null) {
+            pipeline.publish(type, actorId, payload, epochNanos);
+        } else {
+            logRepository.addRecord(type, actorId, payload, epochNanos);
+        }
     }
 
     /**
@@ -33,10 +147,73 @@ public class LoggerService {
         return logRepository.getLogs();
     }
 
+    /**
+     * Retrieves the log entries that follow the given sequence number.
+     *
+     * @param after The sequence number of the last entry the caller has seen, or 0 to start from the oldest.
+     * @param limit The maximum number of entries to return.
+     * @return The entries after {@code after} and the retained sequence range.
+     */
+    public LogPage getLogsAfter(long after, int limit) {
+        return logRepository.getLogsAfter(after, limit);
+    }
+
+    /**
+     * Retrieves the log entries that follow the given sequence number and match the given filters.
+     *
+     * @param after   The sequence number of the last entry the caller has seen, or 0 to start from the oldest.
+     * @param limit   The maximum number of entries to return.
+     * @param type    Only return events of this kind, or null for every kind.
+     * @param actorId Only return events of this vendor or customer ID, or null for every actor.
+     * @return The matching entries after {@code after} and the retained sequence range.
+     */
+    public LogPage getLogsAfter(long after, int limit, LogEventType type, Integer actorId) {
+        return logRepository.getLogsAfter(after, limit, type, actorId);
+    }
+
+    /**
+     * Gets the number of ticket events the asynchronous pipeline dropped because it could not keep up.
+     *
+     * @return The number of dropped events; always 0 in synchronous mode.
+     */
+    public long getDroppedLogCount() {
+        return pipeline != null ? pipeline.getDroppedCount() : 0;
+    }
+
+    /**
+     * Waits until every event logged so far has been stored.
+     */
+    public void flush() {
+        if (pipeline != null) {
+            pipeline.flush();
+        }
+    }
+
     /**
      * Clears all log messages.
      */
     public void clearLogs() {
+        // Queued events belong to the log being cleared, so store them before clearing
+        flush();
         logRepository.clearLogs();
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores everything still queued and stops the asynchronous writer.
+     */
+    @PreDestroy
+    public void close() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Gets the current time in nanoseconds since the epoch without a system call to the wall clock.
+     *
+     * @return The current time in nanoseconds since the epoch.
+     */
+    static long epochNanos() {
+        return EPOCH_NANOS_AT_START + (System.nanoTime() - NANO_TIME_AT_START);
+    }
+}
@@ -0,0 +1,508 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.ArrivalPattern;
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.LoadScenario;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.util.ArrivalProcess;
+import com.example.ticket_simulation.util.RateCurve;
+import com.example.ticket_simulation.util.TokenBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs a simulation with a central pacer instead of a sleeping thread per vendor and customer.
+ * <p>
+ * Two token buckets hold the release and purchase rates of all vendors and all customers together. Every
+ * millisecond a pacer thread hands each idle vendor or customer its share of the tokens, in whole
+ * blocks or batches, and a small pool of worker threads adds or buys the tickets without waiting. Tickets
+ * that do not fit into the pool, and purchases it cannot fill yet, give their tokens back and are retried on
+ * a later tick. Nobody sleeps between operations, so the rates do not drift with lock waits and hold for any
+ * number of vendors and customers, with only the pacer and the workers running. The rates are re-read on
+ * every tick, so changes to the running configuration take effect within a millisecond.
+ * <p>
+ * A {@link LoadScenario} in the configuration varies the rates over the run: its curves replace the
+ * configured rates, customers buy nothing until the tickets go on sale, and Poisson or bursty customer
+ * arrivals are drawn for each tick and deposited into the purchase bucket instead of accruing evenly.
+ * A {@link ReleaseRateController}, if given, sets the release rate instead of the configuration and the
+ * release curve.
+ */
+class PacedSimulation {
+    private static final long TICK_NANOS = 1_000_000;
+    // How many seconds of tokens a bucket can save up while its side cannot keep up
+    private static final double BURST_SECONDS = 0.01;
+    private static final int DEFAULT_ARRIVAL_BURST = 50;
+
+    private final Configuration config;
+    private final Supplier<Configuration> currentConfig;
+    private final TicketPool ticketPool;
+    private final LoggerService loggerService;
+
+    private final Actor[] vendors;
+    private final Actor[] customers;
+    private final TokenBucket releases = new TokenBucket(0, 1);
+    private final TokenBucket purchases = new TokenBucket(0, 1);
+    private final AtomicInteger unfinished = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    // Vendors and customers handed to the workers by the pacer
+    private final BlockingQueue<Actor> dispatched = new LinkedBlockingQueue<>();
+    private final CountDownLatch pacerDone = new CountDownLatch(1);
+    private final CountDownLatch workersDone;
+    private volatile boolean pacing = true;
+    // Queued once per worker when the run ends, to stop it
+    private final Actor stop;
+    // The load scenario, if any; a null curve keeps the configured rate and null arrivals are steady
+    private final RateCurve releaseCurve;
+    private final RateCurve purchaseCurve;
+    private final ArrivalProcess purchaseArrivals;
+    private final int arrivalBurst;
+    private final ReleaseRateController releaseController;
+    private final long onSaleAtNanos;
+    private int nextVendor;
+    private int nextCustomer;
+    // Used by the pacer thread only
+    private long startNanos;
+    private long lastTickNanos;
+    private boolean onSale;
+
+    /**
+     * Constructs a PacedSimulation.
+     *
+     * @param currentConfig Supplies the configuration of the run, re-read for the rates and the pool capacity
+     *                      on every tick; the vendors, customers, tickets and load scenario are set up from
+     *                      its first value.
+     * @param ticketPool    The pool the vendors and customers share.
+     * @param loggerService The service that receives the log messages.
+     * @throws IllegalArgumentException If the load scenario has a negative time, rate or burst size.
+     */
+    PacedSimulation(Supplier<Configuration> currentConfig, TicketPool ticketPool, LoggerService loggerService) {
+        this(currentConfig, ticketPool, loggerService, null);
+    }
+
+    /**
+     * Constructs a PacedSimulation whose release rate is set by a controller.
+     *
+     * @param currentConfig     Supplies the configuration of the run, as for the other constructor.
+     * @param ticketPool        The pool the vendors and customers share.
+     * @param loggerService     The service that receives the log messages.
+     * @param releaseController The controller of the release rate, or null for the configured rate.
+     * @throws IllegalArgumentException If the load scenario has a negative time, rate or burst size.
+     */
+    PacedSimulation(Supplier<Configuration> currentConfig, TicketPool ticketPool, LoggerService loggerService,
+                    ReleaseRateController releaseController) {
+        this.releaseController = releaseController;
+        this.config = currentConfig.get();
+        this.currentConfig = currentConfig;
+        this.ticketPool = ticketPool;
+        this.loggerService = loggerService;
+        this.vendors = new Actor[config.getVendorCount()];
+        for (int i = 0; i < vendors.length; i++) {
+            vendors[i] = new Actor(true, i + 1, TicketService.ticketShare(config, i + 1, vendors.length));
+            vendors[i].nextTicketId = TicketService.firstTicketId(config, i + 1);
+        }
+        this.customers = new Actor[config.getCustomerCount()];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = new Actor(false, i + 1, TicketService.ticketShare(config, i + 1, customers.length));
+        }
+        LoadScenario scenario = config.getScenario() != null ? config.getScenario() : new LoadScenario();
+        if (scenario.getOnSaleAtMillis() < 0 || scenario.getBurstSize() < 0) {
+            throw new IllegalArgumentException("On-sale time and burst size must not be negative: "
+                    + scenario.getOnSaleAtMillis() + " ms, " + scenario.getBurstSize());
+        }
+        this.releaseCurve = scenario.getReleaseCurve() != null ? new RateCurve(scenario.getReleaseCurve()) : null;
+        this.purchaseCurve = scenario.getPurchaseCurve() != null ? new RateCurve(scenario.getPurchaseCurve()) : null;
+        this.arrivalBurst = scenario.getBurstSize() > 0 ? scenario.getBurstSize() : DEFAULT_ARRIVAL_BURST;
+        this.purchaseArrivals = scenario.getArrivals() == null || scenario.getArrivals() == ArrivalPattern.STEADY
+                ? null : new ArrivalProcess(scenario.getArrivals(), arrivalBurst, config.getSeed());
+        this.onSaleAtNanos = TimeUnit.MILLISECONDS.toNanos(scenario.getOnSaleAtMillis());
+        this.stop = new Actor(false, 0, 0);
+        this.workersDone = new CountDownLatch(workerCount(config));
+        if (unfinished.get() == 0) {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Starts the run and returns straight away. The run takes {@code 2 + workerCount(config)} tasks of the given
+     * executor, each holding its thread until the run is over: a driver that waits for every vendor and
+     * customer to finish or for the run to be cancelled, the pacer and the workers. Interrupting them stops
+     * the run.
+     *
+     * @param threads     The executor the run's threads come from; it must run every task at once.
+     * @param keepRunning Checked regularly; the run stops soon after it returns false.
+     */
+    void start(Executor threads, BooleanSupplier keepRunning) {
+        startNanos = System.nanoTime();
+        lastTickNanos = startNanos;
+        threads.execute(TicketService.named("Paced Run", () -> drive(keepRunning)));
+        threads.execute(TicketService.named("Pacer", this::pace));
+        int workerCount = workerCount(config);
+        for (int i = 1; i <= workerCount; i++) {
+            threads.execute(TicketService.named("Pacing Worker " + i, this::work));
+        }
+    }
+
+    /**
+     * Driver task: waits for the end of the run, stops the pacer and the workers and logs a summary.
+     *
+     * @param keepRunning Checked regularly; the run stops soon after it returns false.
+     */
+    private void drive(BooleanSupplier keepRunning) {
+        try {
+            while (!finished.await(100, TimeUnit.MILLISECONDS) && keepRunning.getAsBoolean()) {
+                // Wait for the last vendor and customer or for the run to be stopped
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Stop dispatching first, and only once the last tick is over let the workers finish what it dispatched
+            boolean interrupted = Thread.interrupted();
+            pacing = false;
+            try {
+                pacerDone.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            for (int i = workerCount(config); i > 0; i--) {
+                dispatched.add(stop);
+            }
+            try {
+                workersDone.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logSummary(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the number of worker threads a paced run uses.
+     *
+     * @param config The configuration of the run.
+     * @return The configured number of pacing workers, or the number of processors if none is configured.
+     */
+    static int workerCount(Configuration config) {
+        return config.getPacingWorkers() > 0 ? config.getPacingWorkers() : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Pacer task: runs a tick every millisecond until the driver stops it. A tick that fails ends the run,
+     * since carrying on would leave it waiting for vendors and customers nobody dispatches.
+     */
+    private void pace() {
+        try {
+            long next = System.nanoTime();
+            while (pacing && !Thread.currentThread().isInterrupted()) {
+                tick();
+                next += TICK_NANOS;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                }
+            }
+        } catch (RuntimeException e) {
+            loggerService.log("Paced run failed: " + e);
+            finished.countDown();
+        } finally {
+            pacerDone.countDown();
+        }
+    }
+
+    /**
+     * Worker task: runs the dispatched vendors and customers until the driver stops it. A vendor or customer
+     * that fails ends the run like a failed tick.
+     */
+    private void work() {
+        try {
+            for (Actor actor = dispatched.take(); actor != stop; actor = dispatched.take()) {
+                actor.run();
+            }
+        } catch (InterruptedException e) {
+            // The run was stopped
+        } catch (RuntimeException e) {
+            loggerService.log("Paced run failed: " + e);
+            finished.countDown();
+        } finally {
+            workersDone.countDown();
+        }
+    }
+
+    /**
+     * Refills the buckets and dispatches every vendor and customer they can pay for. Runs on the pacer thread.
+     */
+    private void tick() {
+        Configuration current = currentConfig.get();
+        long now = System.nanoTime();
+        long interval = now - lastTickNanos;
+        lastTickNanos = now;
+        double elapsedMillis = (now - startNanos) / 1_000_000.0;
+        int releaseBatch = Math.max(1, config.getReleaseBatchSize());
+        int purchaseBatch = TicketService.purchaseBatch(current, Integer.MAX_VALUE);
+        double releaseRate;
+        if (releaseController != null) {
+            releaseRate = releaseController.rate();
+        } else {
+            releaseRate = releaseRate(current);
+            if (releaseCurve != null) {
+                releaseRate = releaseCurve.rateAt(elapsedMillis, releaseRate);
+            }
+        }
+        double purchaseRate = 0;
+        if (now - startNanos >= onSaleAtNanos) {
+            if (!onSale && onSaleAtNanos > 0) {
+                loggerService.log("Tickets went on sale after " + (long) elapsedMillis + " ms.");
+            }
+            onSale = true;
+            purchaseRate = purchaseRate(current);
+            if (purchaseCurve != null) {
+                purchaseRate = purchaseCurve.rateAt(elapsedMillis, purchaseRate);
+            }
+        }
+        releases.setRate(releaseRate, Math.max(releaseBatch, releaseRate * BURST_SECONDS));
+        double purchaseBurst = Math.max(purchaseBatch, purchaseRate * BURST_SECONDS);
+        if (purchaseArrivals == null || Double.isInfinite(purchaseRate)) {
+            purchases.setRate(purchaseRate, purchaseBurst);
+        } else {
+            // The customers who arrived since the last tick, drawn instead of accrued
+            purchases.setRate(0, Math.max(purchaseBurst, arrivalBurst));
+            purchases.deposit(purchaseArrivals.arrivals(purchaseRate, interval));
+        }
+
+        // Dispatch only what the pool can take right now, so the workers do not spin on a full or empty pool
+        int stock = ticketPool.getTicketsAvailable();
+        int space = current.getMaxTicketCapacity() - stock;
+        int vendorShare = share(releases, vendors.length);
+        for (int i = 0; i < vendors.length && space > 0; i++) {
+            int index = (nextVendor + i) % vendors.length;
+            Actor vendor = vendors[index];
+            if (vendor.busy || vendor.remaining == 0) {
+                continue;
+            }
+            int tokens;
+            if (vendor.pending.isEmpty()) {
+                int block = TicketService.releaseBatch(config, vendor.remaining);
+                int limit = wholeUnits(vendor.remaining, Math.min(vendorShare, space), block);
+                tokens = releases.tryAcquire(block, limit);
+            } else {
+                // The rest of a block that did not fit goes out as space and tokens allow
+                tokens = releases.tryAcquire(1, Math.min(vendor.pending.size(), space));
+            }
+            if (tokens == 0) {
+                nextVendor = index;
+                break;
+            }
+            space -= tokens;
+            nextVendor = index + 1;
+            vendor.dispatch(tokens, tokens);
+        }
+        int customerShare = share(purchases, customers.length);
+        for (int i = 0; i < customers.length && stock > 0; i++) {
+            int index = (nextCustomer + i) % customers.length;
+            Actor customer = customers[index];
+            if (customer.busy || customer.remaining == 0) {
+                continue;
+            }
+            int count = TicketService.purchaseBatch(current, customer.remaining);
+            if (count > stock) {
+                continue;
+            }
+            int limit = wholeUnits(customer.remaining, Math.min(customerShare, stock), count);
+            int tokens = purchases.tryAcquire(count, limit);
+            if (tokens == 0) {
+                nextCustomer = index;
+                break;
+            }
+            stock -= tokens;
+            nextCustomer = index + 1;
+            customer.dispatch(tokens, count);
+        }
+    }
+
+    /**
+     * Gets one actor's share of the tokens a bucket holds. Tokens left over because some actors were
+     * still busy are shared out again on the next tick.
+     *
+     * @param bucket The bucket.
+     * @param actors The number of actors sharing it.
+     * @return The share, at least one token.
+     */
+    private static int share(TokenBucket bucket, int actors) {
+        long count = Math.max(1, actors);
+        return (int) Math.max(1, (bucket.available() + count - 1) / count);
+    }
+
+    /**
+     * Gets the most tickets an actor can be dispatched in whole blocks or batches.
+     *
+     * @param remaining The tickets the actor still has to release or buy.
+     * @param limit     The actor's share of the tick and of the pool.
+     * @param unit      The size of a block or batch; at most {@code remaining}.
+     * @return A multiple of {@code unit}; at least one unit, so that a share smaller than a unit still
+     *         dispatches one once the bucket has saved up for it.
+     */
+    private static int wholeUnits(int remaining, int limit, int unit) {
+        return Math.min(remaining, Math.max(unit, limit)) / unit * unit;
+    }
+
+    /**
+     * Gets the number of tickets all vendors together release per second.
+     *
+     * @param config The simulation configuration.
+     * @return The configured rate, or the rate of every vendor releasing a block each ticket release rate;
+     *         infinite if that rate is 0.
+     */
+    static double releaseRate(Configuration config) {
+        if (config.getReleasesPerSecond() > 0) {
+            return config.getReleasesPerSecond();
+        }
+        if (config.getTicketReleaseRate() <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return config.getVendorCount() * Math.max(1, config.getReleaseBatchSize()) * 1000.0
+                / config.getTicketReleaseRate();
+    }
+
+    /**
+     * Gets the number of tickets all customers together buy per second.
+     *
+     * @param config The simulation configuration.
+     * @return The configured rate, or the rate of every customer buying a batch each customer retrieval rate;
+     *         infinite if that rate is 0.
+     */
+    static double purchaseRate(Configuration config) {
+        if (config.getPurchasesPerSecond() > 0) {
+            return config.getPurchasesPerSecond();
+        }
+        if (config.getCustomerRetrievalRate() <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return config.getCustomerCount() * TicketService.purchaseBatch(config, Integer.MAX_VALUE) * 1000.0
+                / config.getCustomerRetrievalRate();
+    }
+
+    /**
+     * Logs how many tickets were released and sold and the rates achieved.
+     *
+     * @param elapsedNanos The duration of the run.
+     */
+    private void logSummary(long elapsedNanos) {
+        long released = 0;
+        for (Actor vendor : vendors) {
+            released += vendor.share - vendor.remaining;
+        }
+        long sold = 0;
+        for (Actor customer : customers) {
+            sold += customer.share - customer.remaining;
+        }
+        double seconds = Math.max(1, elapsedNanos) / 1_000_000_000.0;
+        loggerService.log(String.format("Paced run ended after %d ms: %d tickets released at %.0f per second, "
+                        + "%d sold at %.0f per second.", elapsedNanos / 1_000_000, released, released / seconds,
+                sold, sold / seconds));
+    }
+
+    /**
+     * A vendor or customer. The pacer only dispatches it while it is idle, so its work never overlaps.
+     */
+    private final class Actor implements Runnable {
+        private final boolean vendor;
+        private final int id;
+        private final int share;
+        // A vendor's block that did not fit into the pool yet, kept so its ticket IDs stay in order
+        private final List<Tickets> pending = new ArrayList<>();
+        private int remaining;
+        private int nextTicketId;
+        private int granted;
+        private int batch;
+        // Set by the pacer when dispatching and cleared by the worker, which publishes the fields above
+        private volatile boolean busy;
+
+        private Actor(boolean vendor, int id, int share) {
+            this.vendor = vendor;
+            this.id = id;
+            this.share = share;
+            this.remaining = share;
+            if (share > 0) {
+                unfinished.incrementAndGet();
+            }
+        }
+
+        /**
+         * Hands the actor to a worker with the tokens paid for its next tickets.
+         *
+         * @param tokens The number of tickets paid for.
+         * @param batch  The size of each purchase, for a customer.
+         */
+        private void dispatch(int tokens, int batch) {
+            this.granted = tokens;
+            this.batch = batch;
+            busy = true;
+            dispatched.add(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (vendor) {
+                    release();
+                } else {
+                    purchase();
+                }
+                if (remaining == 0 && unfinished.decrementAndGet() == 0) {
+                    finished.countDown();
+                }
+            } finally {
+                busy = false;
+            }
+        }
+
+        /**
+         * Adds as many of the vendor's paid-for tickets as fit and gives back the tokens of the rest.
+         */
+        private void release() {
+            if (pending.isEmpty()) {
+                for (int i = granted; i > 0; i--) {
+                    pending.add(TicketService.createTicket(config, nextTicketId++));
+                }
+            }
+            List<Tickets> released = pending.subList(0, granted);
+            int added = ticketPool.tryAddTickets(released, id);
+            for (int i = 0; i < added; i++) {
+                loggerService.ticketAdded(id, released.get(i));
+            }
+            pending.subList(0, added).clear();
+            remaining -= added;
+            releases.deposit(granted - added);
+        }
+
+        /**
+         * Buys the customer's paid-for batches while the pool holds enough tickets, and gives back the tokens
+         * of the rest.
+         */
+        private void purchase() {
+            for (int bought = 0; bought < granted; bought += batch) {
+                List<Tickets> tickets = ticketPool.tryRetrieveTickets(batch, id);
+                if (tickets == null) {
+                    purchases.deposit(granted - bought);
+                    return;
+                }
+                for (Tickets ticket : tickets) {
+                    loggerService.ticketRetrieved(id, ticket);
+                }
+                remaining -= batch;
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.util.LatencyHistogram;
+import com.example.ticket_simulation.util.RateMeter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and throughput metrics recorded by the ticket pool.
+ * <p>
+ * Every recording method is lock-free, so vendors and customers can call them on every ticket.
+ */
+public class PoolMetrics {
+    private final LatencyHistogram addWait = new LatencyHistogram();
+    private final LatencyHistogram retrieveWait = new LatencyHistogram();
+    private final LatencyHistogram timeInPool = new LatencyHistogram();
+    private final RateMeter releases = new RateMeter();
+    private final RateMeter sales = new RateMeter();
+    private final LongAdder releasesRejected = new LongAdder();
+    private final LongAdder releasesTimedOut = new LongAdder();
+    private final LongAdder purchasesRejected = new LongAdder();
+    private final LongAdder purchasesTimedOut = new LongAdder();
+    private final LongAdder ticketsDropped = new LongAdder();
+
+    /**
+     * Records tickets added to the pool.
+     *
+     * @param count The number of tickets added.
+     */
+    public void recordReleases(int count) {
+        releases.mark(count);
+    }
+
+    /**
+     * Records how long a vendor waited for space in the pool.
+     *
+     * @param waitNanos The wait in nanoseconds.
+     */
+    public void recordAddWait(long waitNanos) {
+        addWait.record(waitNanos);
+    }
+
+    /**
+     * Records tickets sold.
+     *
+     * @param count The number of tickets sold.
+     */
+    public void recordSales(int count) {
+        sales.mark(count);
+    }
+
+    /**
+     * Records how long a customer waited for a ticket or a batch of tickets.
+     *
+     * @param waitNanos The wait in nanoseconds.
+     */
+    public void recordRetrieveWait(long waitNanos) {
+        retrieveWait.record(waitNanos);
+    }
+
+    /**
+     * Records how long a sold ticket had been in the pool.
+     *
+     * @param timeInPoolNanos The time between the ticket entering and leaving the pool in nanoseconds.
+     */
+    public void recordTimeInPool(long timeInPoolNanos) {
+        timeInPool.record(timeInPoolNanos);
+    }
+
+    /**
+     * Records a release a vendor gave up on straight away because the pool was full.
+     */
+    public void recordReleaseRejected() {
+        releasesRejected.increment();
+    }
+
+    /**
+     * Records a release a vendor gave up on after waiting for space until its timeout.
+     */
+    public void recordReleaseTimedOut() {
+        releasesTimedOut.increment();
+    }
+
+    /**
+     * Records a purchase a customer gave up on straight away because too few tickets were available.
+     */
+    public void recordPurchaseRejected() {
+        purchasesRejected.increment();
+    }
+
+    /**
+     * Records a purchase a customer gave up on after waiting for tickets until its timeout.
+     */
+    public void recordPurchaseTimedOut() {
+        purchasesTimedOut.increment();
+    }
+
+    /**
+     * Records tickets dropped from the pool to make room for others.
+     *
+     * @param count The number of tickets dropped.
+     */
+    public void recordDrops(int count) {
+        ticketsDropped.add(count);
+    }
+
+    /**
+     * Gets the number of tickets dropped from the pool to make room for others.
+     *
+     * @return The number of dropped tickets.
+     */
+    public long getTicketsDropped() {
+        return ticketsDropped.sum();
+    }
+
+    /**
+     * Gets the number of customer waits recorded, without taking a snapshot.
+     *
+     * @return The number of waits.
+     */
+    public long getRetrieveWaitCount() {
+        return retrieveWait.getCount();
+    }
+
+    /**
+     * Gets the total time customers waited, without taking a snapshot.
+     *
+     * @return The sum of the waits in nanoseconds.
+     */
+    public long getRetrieveWaitNanos() {
+        return retrieveWait.getSumNanos();
+    }
+
+    /**
+     * Gets the number of tickets released into the pool.
+     *
+     * @return The number of released tickets.
+     */
+    public long getTicketsReleased() {
+        return releases.getCount();
+    }
+
+    /**
+     * Gets the number of tickets sold.
+     *
+     * @return The number of sold tickets.
+     */
+    public long getTicketsSold() {
+        return sales.getCount();
+    }
+
+    /**
+     * Clears all metrics.
+     */
+    public void reset() {
+        addWait.reset();
+        retrieveWait.reset();
+        timeInPool.reset();
+        releases.reset();
+        sales.reset();
+        releasesRejected.reset();
+        releasesTimedOut.reset();
+        purchasesRejected.reset();
+        purchasesTimedOut.reset();
+        ticketsDropped.reset();
+    }
+
+    /**
+     * Takes a snapshot of the metrics.
+     *
+     * @return The current metrics.
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(addWait.snapshot(), retrieveWait.snapshot(), timeInPool.snapshot(),
+                releases.getCount(), sales.getCount(), releases.getRate(), sales.getRate(),
+                releasesRejected.sum(), releasesTimedOut.sum(), purchasesRejected.sum(), purchasesTimedOut.sum(),
+                ticketsDropped.sum());
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.TicketHold;
+import com.example.ticket_simulation.model.Tickets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service for ticket purchases made over HTTP.
+ * <p>
+ * A purchase that finds a ticket in the pool completes at once on the request thread. Otherwise the buyer
+ * is parked as a {@link DeferredResult} in a FIFO queue and the request thread goes back to the servlet
+ * container, so thousands of waiting buyers cost a queue entry each rather than a thread each. A single
+ * dispatcher thread serves the queue in arrival order: it waits on the pool for the buyer at the head,
+ * hands it the ticket and moves on to the next. The dispatcher only holds the ticket while it hands it
+ * over and confirms the sale once the buyer has it, so a ticket that arrives for a buyer who timed out or
+ * disconnected in the meantime goes back into the pool instead of being sold to nobody.
+ */
+@Service
+public class PurchaseService {
+    // How long the dispatcher waits on the pool before it looks at the head of the queue again
+    private static final long POLL_NANOS = 50_000_000;
+    private static final long IDLE_PARK_NANOS = 100_000_000;
+    // Far longer than a handoff takes, so a hold never expires between handing the ticket over and confirming
+    private static final long HANDOFF_HOLD_MILLIS = 60_000;
+
+    private final TicketPool ticketPool;
+    private final LoggerService loggerService;
+    private final long defaultWaitMillis;
+    private final long maxWaitMillis;
+    private final int maxWaiters;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Thread dispatcher;
+    private volatile boolean dispatcherIdle;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a PurchaseService and starts its dispatcher thread.
+     *
+     * @param ticketPool        The pool the tickets are bought from.
+     * @param loggerService     The service that logs each purchase.
+     * @param defaultWaitMillis How long a buyer waits for a ticket when the request does not say.
+     * @param maxWaitMillis     The longest a buyer may ask to wait.
+     * @param maxWaiters        The maximum number of buyers waiting at once; further buyers are turned away.
+     */
+    @Autowired
+    public PurchaseService(TicketPool ticketPool, LoggerService loggerService,
+                           @Value("${purchase.default-wait-ms:10000}") long defaultWaitMillis,
+                           @Value("${purchase.max-wait-ms:60000}") long maxWaitMillis,
+                           @Value("${purchase.max-waiters:10000}") int maxWaiters) {
+        if (maxWaiters <= 0) {
+            throw new IllegalArgumentException("Purchase waiter limit must be positive: " + maxWaiters);
+        }
+        this.ticketPool = ticketPool;
+        this.loggerService = loggerService;
+        this.defaultWaitMillis = defaultWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxWaiters = maxWaiters;
+        this.dispatcher = new Thread(this::dispatchLoop, "purchase-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Buys a ticket for an HTTP client.
+     *
+     * @param customerId The ID the purchase is logged under.
+     * @param waitMillis How long to wait for a ticket if the pool is empty, or null for the default.
+     * @return A result that completes with the ticket, with 503 if none became available in time,
+     *         or with 429 if too many buyers are already waiting.
+     */
+    public DeferredResult<ResponseEntity<?>> purchase(int customerId, Long waitMillis) {
+        long timeout = Math.min(waitMillis != null ? Math.max(0, waitMillis) : defaultWaitMillis, maxWaitMillis);
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeout);
+        // Only take the fast path when nobody is queued, so a newcomer never overtakes a waiting buyer
+        if (waiting.get() == 0) {
+            Tickets ticket = ticketPool.tryRetrieveTicket(customerId);
+            if (ticket != null) {
+                loggerService.ticketRetrieved(customerId, ticket);
+                result.setResult(ResponseEntity.ok(ticket));
+                return result;
+            }
+        }
+        if (timeout == 0) {
+            result.setResult(unavailable());
+            return result;
+        }
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            result.setResult(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Collections.singletonMap("error", "Too many buyers waiting")));
+            return result;
+        }
+        result.onTimeout(() -> result.setResult(unavailable()));
+        waiters.add(new Waiter(customerId, result));
+        if (dispatcherIdle) {
+            LockSupport.unpark(dispatcher);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of buyers waiting for a ticket, including any that have just given up.
+     *
+     * @return The number of queued buyers.
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Dispatcher loop: hands tickets to the queued buyers in arrival order.
+     */
+    private void dispatchLoop() {
+        while (running) {
+            Waiter head = waiters.peek();
+            if (head == null) {
+                // Announce that we are going idle, then look once more before parking
+                dispatcherIdle = true;
+                if (waiters.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                dispatcherIdle = false;
+                continue;
+            }
+            if (head.result.isSetOrExpired()) {
+                dequeue();
+                continue;
+            }
+            TicketHold hold = ticketPool.reserveTicket(head.customerId, HANDOFF_HOLD_MILLIS, POLL_NANOS);
+            if (hold == null) {
+                continue;
+            }
+            dequeue();
+            if (head.result.setResult(ResponseEntity.ok(hold.getTicket()))) {
+                ticketPool.confirmHold(hold.getHoldId());
+                loggerService.ticketRetrieved(head.customerId, hold.getTicket());
+            } else {
+                // The buyer left while the ticket was on its way
+                ticketPool.cancelHold(hold.getHoldId());
+            }
+        }
+    }
+
+    /**
+     * Removes the buyer at the head of the queue. Only the dispatcher removes buyers.
+     */
+    private void dequeue() {
+        waiters.poll();
+        waiting.decrementAndGet();
+    }
+
+    /**
+     * Builds the response for a buyer who waited in vain.
+     *
+     * @return A 503 response with an error message.
+     */
+    private static ResponseEntity<?> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Collections.singletonMap("error", "No ticket available"));
+    }
+
+    /**
+     * Stops the dispatcher and turns away every waiting buyer.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.result.setResult(unavailable());
+        }
+    }
+
+    /**
+     * A buyer waiting for a ticket.
+     */
+    private static final class Waiter {
+        private final int customerId;
+        private final DeferredResult<ResponseEntity<?>> result;
+
+        private Waiter(int customerId, DeferredResult<ResponseEntity<?>> result) {
+            this.customerId = customerId;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ReleaseControl;
+import com.example.ticket_simulation.model.ReleaseControlAlgorithm;
+import com.example.ticket_simulation.model.ReleaseControlSnapshot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Adjusts the release rate of a run so that the pool stays at a target fill level.
+ * <p>
+ * The controller has no thread of its own: whoever asks for the rate (the vendors, or the pacer of a paced run)
+ * runs the next adjustment once an interval has passed, and everyone else reads the last rate. An adjustment
+ * samples the pool occupancy and the mean customer wait since the previous one and applies the feedback law
+ * of the settings. Customers who waited longer than the wait limit count as an empty pool, so a pool that is
+ * drained as fast as it fills still gets more tickets.
+ */
+class ReleaseRateController {
+    private final ReleaseControl settings;
+    private final Supplier<Configuration> currentConfig;
+    private final TicketPool ticketPool;
+    private final long intervalNanos;
+    private final double minRate;
+    private final double maxRate;
+    private final double initialRate;
+    private final double additiveIncrease;
+    private final AtomicLong nextUpdateNanos;
+    private volatile double rate;
+
+    // Updated by the thread running an adjustment, under the controller's lock
+    private long lastUpdateNanos;
+    private long lastWaitCount;
+    private long lastWaitNanos;
+    private double integral;
+    private double lastError;
+    private volatile double occupancy;
+    private volatile double customerWaitMillis;
+    private volatile long updates;
+    private volatile long increases;
+    private volatile long decreases;
+    private volatile long starvedIntervals;
+
+    /**
+     * Constructs a ReleaseRateController that starts from the configured release rate.
+     *
+     * @param currentConfig Supplies the configuration of the run, re-read for the pool capacity on every
+     *                      adjustment; the controller settings are taken from its first value.
+     * @param ticketPool    The pool whose occupancy is held.
+     * @throws IllegalArgumentException If the settings are out of range.
+     */
+    ReleaseRateController(Supplier<Configuration> currentConfig, TicketPool ticketPool) {
+        Configuration config = currentConfig.get();
+        this.settings = new ReleaseControl(config.getReleaseControl());
+        this.currentConfig = currentConfig;
+        this.ticketPool = ticketPool;
+        validate(settings);
+        if (settings.getAlgorithm() == null) {
+            settings.setAlgorithm(ReleaseControlAlgorithm.AIMD);
+        }
+        double configured = PacedSimulation.releaseRate(config);
+        double capacityRate = Math.max(1, config.getMaxTicketCapacity()) * 100.0;
+        this.maxRate = settings.getMaxReleasesPerSecond() > 0 ? settings.getMaxReleasesPerSecond()
+                : Math.max(settings.getMinReleasesPerSecond(),
+                        Double.isInfinite(configured) ? capacityRate : configured * 10);
+        this.minRate = settings.getMinReleasesPerSecond();
+        this.initialRate = clamp(Double.isInfinite(configured) ? maxRate : configured);
+        this.additiveIncrease = settings.getAdditiveIncrease() > 0 ? settings.getAdditiveIncrease() : maxRate / 20;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.getIntervalMillis());
+        this.rate = initialRate;
+        long now = System.nanoTime();
+        this.lastUpdateNanos = now;
+        this.nextUpdateNanos = new AtomicLong(now + intervalNanos);
+        PoolMetrics metrics = ticketPool.getMetrics();
+        this.lastWaitCount = metrics.getRetrieveWaitCount();
+        this.lastWaitNanos = metrics.getRetrieveWaitNanos();
+    }
+
+    /**
+     * Checks the controller settings before any of them is used.
+     *
+     * @param settings The settings of the run.
+     * @throws IllegalArgumentException If the target occupancy or the multiplicative decrease is outside its
+     *                                  range, the interval is not positive, or the rate limits are not positive
+     *                                  and in order.
+     */
+    private static void validate(ReleaseControl settings) {
+        if (settings.getTargetOccupancy() < 0 || settings.getTargetOccupancy() > 1) {
+            throw new IllegalArgumentException("Target occupancy must be between 0 and 1: "
+                    + settings.getTargetOccupancy());
+        }
+        if (settings.getIntervalMillis() <= 0) {
+            throw new IllegalArgumentException("Control interval must be positive: " + settings.getIntervalMillis());
+        }
+        if (settings.getMinReleasesPerSecond() <= 0 || settings.getMaxReleasesPerSecond() < 0
+                || settings.getMaxReleasesPerSecond() > 0
+                && settings.getMaxReleasesPerSecond() < settings.getMinReleasesPerSecond()) {
+            throw new IllegalArgumentException("Release rate limits must be positive and in order: "
+                    + settings.getMinReleasesPerSecond() + " to " + settings.getMaxReleasesPerSecond());
+        }
+        if (settings.getMultiplicativeDecrease() <= 0 || settings.getMultiplicativeDecrease() >= 1) {
+            throw new IllegalArgumentException("Multiplicative decrease must be between 0 and 1: "
+                    + settings.getMultiplicativeDecrease());
+        }
+    }
+
+    /**
+     * Gets the number of tickets all vendors together should release per second, adjusting it first if an
+     * interval has passed since the last adjustment.
+     *
+     * @return The release rate.
+     */
+    double rate() {
+        long now = System.nanoTime();
+        long next = nextUpdateNanos.get();
+        // Only one caller per interval wins the adjustment
+        if (now - next >= 0 && nextUpdateNanos.compareAndSet(next, now + intervalNanos)) {
+            update(now);
+        }
+        return rate;
+    }
+
+    /**
+     * Gets how long a vendor waits between two blocks at the current rate.
+     *
+     * @param blockSize   The number of tickets in the vendor's block.
+     * @param vendorCount The number of vendors sharing the rate.
+     * @return The pause in nanoseconds.
+     */
+    long releaseIntervalNanos(int blockSize, int vendorCount) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) * (double) blockSize * vendorCount / rate());
+    }
+
+    /**
+     * Gets how often the controller adjusts the rate.
+     *
+     * @return The interval in nanoseconds.
+     */
+    long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * Samples the pool and applies the feedback law.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     */
+    private synchronized void update(long now) {
+        int capacity = currentConfig.get().getMaxTicketCapacity();
+        double filled = capacity > 0 ? Math.min(1.0, (double) ticketPool.getTicketsAvailable() / capacity) : 0;
+        PoolMetrics metrics = ticketPool.getMetrics();
+        long waitCount = metrics.getRetrieveWaitCount();
+        long waitNanos = metrics.getRetrieveWaitNanos();
+        double waitMillis = waitCount > lastWaitCount
+                ? (waitNanos - lastWaitNanos) / 1e6 / (waitCount - lastWaitCount) : 0;
+        lastWaitCount = waitCount;
+        lastWaitNanos = waitNanos;
+
+        // Positive while the pool holds too few tickets
+        double error = settings.getTargetOccupancy() - filled;
+        boolean starved = settings.getMaxCustomerWaitMillis() > 0 && waitMillis > settings.getMaxCustomerWaitMillis();
+        if (starved) {
+            error = Math.max(error, settings.getTargetOccupancy());
+            starvedIntervals++;
+        }
+        double seconds = Math.max(1e-3, (now - lastUpdateNanos) / 1e9);
+        lastUpdateNanos = now;
+
+        double previous = rate;
+        double next;
+        if (settings.getAlgorithm() == ReleaseControlAlgorithm.PID) {
+            double range = maxRate - minRate;
+            double derivative = (error - lastError) / seconds;
+            double output = settings.getProportionalGain() * error + settings.getIntegralGain() * integral
+                    + settings.getDerivativeGain() * derivative;
+            next = initialRate + range * output;
+            // Stop integrating while the rate is pinned at a limit, so the controller recovers without overshoot
+            if ((next > minRate || error > 0) && (next < maxRate || error < 0)) {
+                integral += error * seconds;
+            }
+        } else if (Math.abs(error) * capacity < 0.5 && !starved) {
+            // Within half a ticket of the target
+            next = previous;
+        } else if (error > 0) {
+            next = previous + additiveIncrease;
+        } else {
+            next = previous * settings.getMultiplicativeDecrease();
+        }
+        lastError = error;
+        rate = clamp(next);
+        occupancy = filled;
+        customerWaitMillis = waitMillis;
+        updates++;
+        if (rate > previous) {
+            increases++;
+        } else if (rate < previous) {
+            decreases++;
+        }
+    }
+
+    /**
+     * Keeps a rate within the limits of the settings.
+     *
+     * @param value The rate the feedback law asked for.
+     * @return The rate, raised to the lower limit or lowered to the upper one if it falls outside them.
+     */
+    private double clamp(double value) {
+        return Math.max(minRate, Math.min(maxRate, value));
+    }
+
+    /**
+     * Takes a snapshot of the controller's state and decisions.
+     *
+     * @return The snapshot.
+     */
+    ReleaseControlSnapshot snapshot() {
+        return new ReleaseControlSnapshot(settings.getAlgorithm(), settings.getTargetOccupancy(), occupancy,
+                customerWaitMillis, rate, minRate, maxRate, updates, increases, decreases, starvedIntervals);
+    }
+}
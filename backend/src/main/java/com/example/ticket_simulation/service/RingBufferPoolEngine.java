@@ -0,0 +1,367 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pool engine backed by a bounded multi-producer/multi-consumer ring buffer.
+ * <p>
+ * Each slot carries a sequence number that tells producers and consumers whose turn it is, so
+ * {@link #offer} and {@link #poll} only contend on a compare-and-set of the tail or head sequence.
+ * Threads that find the pool full or empty park and are woken one at a time by the opposite side,
+ * instead of every operation waking every waiting thread.
+ * <p>
+ * The capacity can be changed while the pool is in use, but only up to the size of the slot array, which
+ * is fixed when the engine is created.
+ */
+public class RingBufferPoolEngine implements TicketPoolEngine {
+    private static final int MAX_SLOTS = 1 << 30;
+
+    private final Tickets[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private volatile int maxTicketCapacity;
+
+    // Next position to consume from and next position to produce into
+    private final PaddedSequence head = new PaddedSequence();
+    private final PaddedSequence tail = new PaddedSequence();
+
+    private final WaitQueue waitingProducers = new WaitQueue();
+    private final WaitQueue waitingConsumers = new WaitQueue();
+
+    /**
+     * Constructs a RingBufferPoolEngine with the specified maximum capacity.
+     * The slot array is rounded up to a power of two; the capacity bound itself is exact.
+     *
+     * @param maxTicketCapacity The maximum capacity of the pool.
+     */
+    public RingBufferPoolEngine(int maxTicketCapacity) {
+        if (maxTicketCapacity <= 0 || maxTicketCapacity > MAX_SLOTS) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 1 and " + MAX_SLOTS
+                    + ": " + maxTicketCapacity);
+        }
+        int size = 1;
+        while (size < maxTicketCapacity) {
+            size <<= 1;
+        }
+        this.slots = new Tickets[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    @Override
+    public boolean offer(Tickets ticket, long timeoutNanos) {
+        if (tryOffer(ticket)) {
+            waitingConsumers.signal();
+            return true;
+        }
+        if (timeoutNanos == 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            // Register before re-checking so a concurrent poll cannot slip past without waking us
+            WaitQueue.Waiter waiter = waitingProducers.enqueue();
+            if (tryOffer(ticket)) {
+                if (waitingProducers.leave(waiter)) {
+                    waitingProducers.signal();
+                }
+                waitingConsumers.signal();
+                return true;
+            }
+            if (!waitingProducers.park(waiter, timeoutNanos, deadline)) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public Tickets poll(long timeoutNanos) {
+        Tickets ticket = tryPoll();
+        if (ticket != null) {
+            waitingProducers.signal();
+            return ticket;
+        }
+        if (timeoutNanos == 0) {
+            return null;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            WaitQueue.Waiter waiter = waitingConsumers.enqueue();
+            ticket = tryPoll();
+            if (ticket != null) {
+                if (waitingConsumers.leave(waiter)) {
+                    waitingConsumers.signal();
+                }
+                waitingProducers.signal();
+                return ticket;
+            }
+            if (!waitingConsumers.park(waiter, timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public int offerBatch(List<Tickets> tickets, int vendorId, long timeoutNanos) {
+        int added = tryOfferBatch(tickets, 0);
+        waitingConsumers.signal(added);
+        if (added == tickets.size() || timeoutNanos == 0) {
+            return added;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (added < tickets.size()) {
+            WaitQueue.Waiter waiter = waitingProducers.enqueue();
+            int claimed = tryOfferBatch(tickets, added);
+            if (claimed > 0) {
+                added += claimed;
+                waitingConsumers.signal(claimed);
+                if (waitingProducers.leave(waiter)) {
+                    waitingProducers.signal();
+                }
+                continue;
+            }
+            if (!waitingProducers.park(waiter, timeoutNanos, deadline)) {
+                break;
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public List<Tickets> pollBatch(int count, int customerId, long timeoutNanos) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + count);
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        // Single-ticket signals cannot tell a batch consumer that enough tickets have arrived, so poll
+        for (int round = 0; ; round++) {
+            List<Tickets> tickets = tryPollBatch(count);
+            if (tickets != null) {
+                waitingProducers.signal(count);
+                return tickets;
+            }
+            if (count > maxTicketCapacity || timeoutNanos == 0 || !WaitQueue.backOff(round, timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Claims as many consecutive free slots as possible with one compare-and-set of the tail and
+     * publishes the next tickets of the batch into them.
+     *
+     * @param tickets The batch.
+     * @param from    The index of the first ticket still to add.
+     * @return The number of tickets added; 0 if the pool is at capacity.
+     */
+    private int tryOfferBatch(List<Tickets> tickets, int from) {
+        int remaining = tickets.size() - from;
+        if (remaining <= 0) {
+            return 0;
+        }
+        long pos = tail.get();
+        while (true) {
+            long free = maxTicketCapacity - (pos - head.get());
+            if (free <= 0) {
+                return 0;
+            }
+            int wanted = (int) Math.min(free, remaining);
+            int ready = 0;
+            long diff = 0;
+            // A slot is free once its previous ticket has been released by a consumer
+            while (ready < wanted && (diff = sequences.get((int) (pos + ready) & mask) - (pos + ready)) == 0) {
+                ready++;
+            }
+            if (ready == 0) {
+                if (diff < 0) {
+                    return 0;
+                }
+                pos = tail.get();
+                continue;
+            }
+            if (tail.compareAndSet(pos, pos + ready)) {
+                long now = System.nanoTime();
+                for (int i = 0; i < ready; i++) {
+                    int index = (int) (pos + i) & mask;
+                    Tickets ticket = tickets.get(from + i);
+                    ticket.markPooled(now);
+                    slots[index] = ticket;
+                    sequences.set(index, pos + i + 1);
+                }
+                return ready;
+            }
+            pos = tail.get();
+        }
+    }
+
+    /**
+     * Claims {@code count} consecutive published slots with one compare-and-set of the head, or none.
+     *
+     * @param count The number of tickets to take.
+     * @return The tickets, or null if fewer than {@code count} are available.
+     */
+    private List<Tickets> tryPollBatch(int count) {
+        long pos = head.get();
+        outer:
+        while (true) {
+            for (int i = 0; i < count; i++) {
+                long diff = sequences.get((int) (pos + i) & mask) - (pos + i + 1);
+                if (diff < 0) {
+                    // Not published yet, so there are fewer than count tickets
+                    return null;
+                }
+                if (diff > 0) {
+                    // Another consumer moved the head past this slot
+                    pos = head.get();
+                    continue outer;
+                }
+            }
+            if (head.compareAndSet(pos, pos + count)) {
+                List<Tickets> tickets = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int index = (int) (pos + i) & mask;
+                    tickets.add(slots[index]);
+                    slots[index] = null;
+                    sequences.set(index, pos + i + mask + 1);
+                }
+                return tickets;
+            }
+            pos = head.get();
+        }
+    }
+
+    /**
+     * Attempts to claim the tail slot and publish a ticket into it without waiting.
+     *
+     * @param ticket The ticket to add.
+     * @return True if the ticket was added, false if the pool is at capacity.
+     */
+    private boolean tryOffer(Tickets ticket) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                // Head only moves forward, so a stale read can only under-estimate the free space
+                if (pos - head.get() >= maxTicketCapacity) {
+                    return false;
+                }
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    ticket.markPooled(System.nanoTime());
+                    slots[index] = ticket;
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Attempts to claim the head slot and take its ticket without waiting.
+     *
+     * @return The ticket, or null if the pool is empty.
+     */
+    private Tickets tryPoll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Tickets ticket = slots[index];
+                    slots[index] = null;
+                    sequences.set(index, pos + mask + 1);
+                    return ticket;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        // Read head first so the difference never goes negative
+        long consumed = head.get();
+        long produced = tail.get();
+        return (int) Math.max(0, Math.min(slots.length, produced - consumed));
+    }
+
+    @Override
+    public int capacity() {
+        return maxTicketCapacity;
+    }
+
+    @Override
+    public synchronized void setCapacity(int capacity) {
+        if (capacity <= 0 || capacity > slots.length) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 1 and its " + slots.length
+                    + " slots: " + capacity);
+        }
+        int previous = maxTicketCapacity;
+        maxTicketCapacity = capacity;
+        if (capacity > previous) {
+            waitingProducers.signal(capacity - previous);
+        }
+    }
+
+    /**
+     * Padding laid out before a sequence; the fields of a superclass always come first.
+     */
+    @SuppressWarnings("unused")
+    private static class LeftPadding {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    /**
+     * The value of a sequence, between its left and right padding.
+     */
+    private static class SequenceValue extends LeftPadding {
+        protected volatile long value;
+    }
+
+    /**
+     * A sequence counter padded on both sides so the head and tail do not share a cache line with each
+     * other or with the fields around them.
+     */
+    @SuppressWarnings("unused")
+    private static final class PaddedSequence extends SequenceValue {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long p9, p10, p11, p12, p13, p14, p15;
+
+        long get() {
+            return value;
+        }
+
+        boolean compareAndSet(long expected, long next) {
+            return VALUE.compareAndSet(this, expected, next);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.TicketSaleStatus;
+import com.example.ticket_simulation.util.ConcurrentBitmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only record of every ticket sale, with a bitmap of the ticket IDs sold so far.
+ * <p>
+ * Sales are appended to one of several stripes picked by thread, so concurrent customers rarely contend on
+ * the same counter. Each stripe stores its sales in chunks of parallel primitive arrays (ticket ID, customer
+ * ID, time), 16 bytes per sale with no per-sale object. The bitmap answers "already sold?" in O(1) with one
+ * bit per ticket ID, and setting a bit that is already set is how a duplicate sale is caught as it happens.
+ * Looking up a single ticket's sales scans the stripes, which is fine for an occasional API call.
+ */
+class SalesLedger {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_DUPLICATE_SAMPLES = 20;
+    private static final VarHandle TICKET_IDS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Stripe[] stripes;
+    private final ConcurrentBitmap sold = new ConcurrentBitmap();
+    private final LongAdder duplicates = new LongAdder();
+    // A slot stays 0 until the sale that claimed it has written its ticket ID
+    private final AtomicIntegerArray duplicateSamples = new AtomicIntegerArray(MAX_DUPLICATE_SAMPLES);
+    private final AtomicLong duplicateSampleCount = new AtomicLong();
+
+    /**
+     * Constructs a SalesLedger with one stripe per available processor.
+     */
+    SalesLedger() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Records a sale.
+     *
+     * @param ticketId   The ID of the ticket sold; IDs are expected to be at least 1.
+     * @param customerId The ID of the customer who bought it.
+     * @param epochNanos The time of the sale in nanoseconds since the epoch.
+     * @return True if this is the first sale of the ticket, false if it had already been sold.
+     */
+    boolean record(int ticketId, int customerId, long epochNanos) {
+        int probe = (int) Thread.currentThread().getId();
+        stripes[probe & (stripes.length - 1)].append(ticketId, customerId, epochNanos);
+        if (ticketId < 0 || sold.set(ticketId)) {
+            return true;
+        }
+        duplicates.increment();
+        long sample = duplicateSampleCount.getAndIncrement();
+        if (sample < MAX_DUPLICATE_SAMPLES) {
+            duplicateSamples.set((int) sample, ticketId);
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a ticket has been sold.
+     *
+     * @param ticketId The ticket ID.
+     * @return True if at least one sale of the ticket has been recorded.
+     */
+    boolean isSold(int ticketId) {
+        return ticketId >= 0 && sold.get(ticketId);
+    }
+
+    /**
+     * Looks up the sales of a ticket.
+     *
+     * @param ticketId The ticket ID.
+     * @return The ticket's sale status; for a ticket sold more than once, the details are those of the first sale.
+     */
+    TicketSaleStatus lookup(int ticketId) {
+        if (!isSold(ticketId)) {
+            return new TicketSaleStatus(ticketId, 0, null, null);
+        }
+        int sales = 0;
+        int customerId = 0;
+        long firstSale = Long.MAX_VALUE;
+        for (Stripe stripe : stripes) {
+            long size = stripe.size.get();
+            for (long i = 0; i < size; i++) {
+                Chunk chunk = stripe.chunk((int) (i >>> CHUNK_BITS));
+                int offset = (int) i & (CHUNK_SIZE - 1);
+                // Pairs with the release in append, so the customer and time are visible once the ID is
+                if ((int) TICKET_IDS.getAcquire(chunk.ticketIds, offset) == ticketId) {
+                    sales++;
+                    if (chunk.times[offset] < firstSale) {
+                        firstSale = chunk.times[offset];
+                        customerId = chunk.customerIds[offset];
+                    }
+                }
+            }
+        }
+        return new TicketSaleStatus(ticketId, sales, sales > 0 ? customerId : null,
+                sales > 0 ? firstSale / 1_000_000 : null);
+    }
+
+    /**
+     * Checks that every released ticket has been sold exactly once, is still in the pool or held, or was dropped.
+     *
+     * @param maxTicketId     The highest ticket ID of the run; the run's tickets have IDs 1 to {@code maxTicketId}.
+     * @param ticketsReleased The number of tickets released so far.
+     * @param ticketsInPool   The number of tickets in the pool.
+     * @param ticketsHeld     The number of tickets held for customers.
+     * @param ticketsDropped  The number of tickets dropped from the pool to make room for others.
+     * @return The report.
+     */
+    IntegrityReport report(int maxTicketId, long ticketsReleased, int ticketsInPool, int ticketsHeld,
+                           long ticketsDropped) {
+        long recorded = 0;
+        for (Stripe stripe : stripes) {
+            recorded += stripe.size.get();
+        }
+        long duplicateSales = duplicates.sum();
+        long distinctSold = maxTicketId > 0 ? sold.cardinality(1, maxTicketId) : 0;
+        long unexpected = Math.max(0, recorded - duplicateSales - distinctSold);
+        long unaccounted = ticketsReleased - distinctSold - ticketsInPool - ticketsHeld - ticketsDropped;
+        int samples = (int) Math.min(duplicateSampleCount.get(), MAX_DUPLICATE_SAMPLES);
+        List<Integer> duplicateIds = new ArrayList<>(samples);
+        for (int i = 0; i < samples; i++) {
+            int id = duplicateSamples.get(i);
+            if (id != 0) {
+                duplicateIds.add(id);
+            }
+        }
+        return new IntegrityReport(ticketsReleased, recorded, distinctSold, duplicateSales, duplicateIds,
+                unexpected, ticketsInPool, ticketsHeld, ticketsDropped, unaccounted);
+    }
+
+    /**
+     * One stripe of the ledger: a growable list of chunks and the number of sales claimed in it.
+     */
+    private static final class Stripe {
+        private final AtomicLong size = new AtomicLong();
+        private volatile Chunk[] chunks = new Chunk[0];
+
+        private void append(int ticketId, int customerId, long epochNanos) {
+            long index = size.getAndIncrement();
+            Chunk chunk = chunk((int) (index >>> CHUNK_BITS));
+            int offset = (int) index & (CHUNK_SIZE - 1);
+            chunk.customerIds[offset] = customerId;
+            chunk.times[offset] = epochNanos;
+            TICKET_IDS.setRelease(chunk.ticketIds, offset, ticketId);
+        }
+
+        private Chunk chunk(int chunkIndex) {
+            Chunk[] current = chunks;
+            if (chunkIndex < current.length) {
+                return current[chunkIndex];
+            }
+            synchronized (this) {
+                current = chunks;
+                if (chunkIndex >= current.length) {
+                    Chunk[] grown = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+                    for (int i = current.length; i < grown.length; i++) {
+                        grown[i] = new Chunk();
+                    }
+                    chunks = grown;
+                    current = grown;
+                }
+                return current[chunkIndex];
+            }
+        }
+    }
+
+    /**
+     * A block of sales in parallel primitive arrays.
+     */
+    private static final class Chunk {
+        private final int[] ticketIds = new int[CHUNK_SIZE];
+        private final int[] customerIds = new int[CHUNK_SIZE];
+        private final long[] times = new long[CHUNK_SIZE];
+    }
+}
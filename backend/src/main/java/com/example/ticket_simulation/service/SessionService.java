@@ -0,0 +1,186 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.SessionSummary;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that hosts independent simulation sessions next to the application's own simulation.
+ * <p>
+ * Every session has its own pool, ticket service and log, so sessions can be configured, run and stopped
+ * without seeing each other. Their vendors and customers run on a thread budget shared by all sessions:
+ * a run leases the threads it needs when it starts and is refused if the budget cannot cover it, which keeps
+ * the total number of threads bounded however many sessions are open. Session configurations are not
+ * saved to disk.
+ * <p>
+ * Platform thread, virtual time and paced runs take every thread they use from the budget. Virtual thread
+ * runs are refused, since their carrier threads belong to the JVM and no budget could bound them.
+ */
+@Service
+public class SessionService {
+    private final LoggerService loggerService;
+    private final SharedActorExecutor sharedExecutor;
+    private final int maxSessions;
+    private final int logCapacity;
+    private final AtomicLong lastId = new AtomicLong();
+    private final Map<Long, Session> sessions = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructs a SessionService.
+     *
+     * @param loggerService The service that logs when sessions are opened and closed.
+     * @param maxThreads    The most vendor and customer threads all sessions together may use.
+     * @param maxSessions   The most sessions open at once.
+     * @param logCapacity   The number of log messages each session retains.
+     */
+    @Autowired
+    public SessionService(LoggerService loggerService,
+                          @Value("${sessions.max-threads:256}") int maxThreads,
+                          @Value("${sessions.max-sessions:64}") int maxSessions,
+                          @Value("${sessions.log-capacity:2000}") int logCapacity) {
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Session limit must be positive: " + maxSessions);
+        }
+        this.loggerService = loggerService;
+        this.sharedExecutor = new SharedActorExecutor(maxThreads);
+        this.maxSessions = maxSessions;
+        this.logCapacity = logCapacity;
+    }
+
+    /**
+     * Opens a new session with an empty pool.
+     *
+     * @return The new session.
+     * @throws IllegalStateException If the most sessions allowed are already open.
+     */
+    public synchronized SessionSummary open() {
+        if (sessions.size() >= maxSessions) {
+            throw new IllegalStateException("At most " + maxSessions + " sessions can be open");
+        }
+        Session session = new Session(lastId.incrementAndGet());
+        sessions.put(session.id, session);
+        loggerService.log("Session " + session.id + " opened.");
+        return session.summary();
+    }
+
+    /**
+     * Gets the state of a session.
+     *
+     * @param id The ID of the session.
+     * @return The session, or null if it does not exist or has been closed.
+     */
+    public SessionSummary getSession(long id) {
+        Session session = sessions.get(id);
+        return session != null ? session.summary() : null;
+    }
+
+    /**
+     * Gets the state of every open session.
+     *
+     * @return The sessions, oldest first.
+     */
+    public List<SessionSummary> getSessions() {
+        List<SessionSummary> summaries = new ArrayList<>(sessions.size());
+        for (Session session : sessions.values()) {
+            summaries.add(session.summary());
+        }
+        return summaries;
+    }
+
+    /**
+     * Gets the ticket service that runs a session's simulation.
+     *
+     * @param id The ID of the session.
+     * @return The ticket service, or null if the session does not exist or has been closed.
+     */
+    public TicketService getTicketService(long id) {
+        Session session = sessions.get(id);
+        return session != null ? session.ticketService : null;
+    }
+
+    /**
+     * Gets the service that holds a session's log.
+     *
+     * @param id The ID of the session.
+     * @return The logger service, or null if the session does not exist or has been closed.
+     */
+    public LoggerService getLoggerService(long id) {
+        Session session = sessions.get(id);
+        return session != null ? session.loggerService : null;
+    }
+
+    /**
+     * Gets the number of threads the sessions' runs have not leased.
+     *
+     * @return The free threads of the shared budget.
+     */
+    public int getAvailableThreads() {
+        return sharedExecutor.availableThreads();
+    }
+
+    /**
+     * Stops a session's simulation and closes the session.
+     *
+     * @param id The ID of the session.
+     * @return True if the session was open.
+     */
+    public boolean close(long id) {
+        Session session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        loggerService.log("Session " + id + " closed.");
+        return true;
+    }
+
+    /**
+     * Closes every session and stops the shared threads.
+     */
+    @PreDestroy
+    public void close() {
+        for (Long id : new ArrayList<>(sessions.keySet())) {
+            close(id);
+        }
+        sharedExecutor.close();
+    }
+
+    /**
+     * The pool, ticket service and log of one session.
+     */
+    private class Session {
+        private final long id;
+        private final long createdAt = System.currentTimeMillis();
+        private final TicketPool ticketPool = new TicketPool();
+        private final LoggerService loggerService = new LoggerService(new LogRepository(logCapacity));
+        private final TicketService ticketService;
+
+        Session(long id) {
+            this.id = id;
+            this.ticketService = new TicketService(ticketPool, loggerService, sharedExecutor);
+        }
+
+        SessionSummary summary() {
+            return new SessionSummary(id, createdAt, ticketService.isSimulationRunning(),
+                    ticketService.getConfiguration(), ticketService.getTicketsAvailable(),
+                    ticketService.getTicketsSold());
+        }
+
+        void close() {
+            if (ticketService.isSimulationRunning()) {
+                ticketService.stopSimulation();
+            }
+            ticketPool.close();
+            loggerService.close();
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool engine that splits the pool into independently locked shards.
+ * <p>
+ * Every vendor and customer is keyed to a home shard, so under load most operations only touch the
+ * lock of their own shard. Vendors spill into other shards when their home shard is full and customers
+ * steal from other shards when theirs is empty. The shard capacities add up to the pool capacity, which
+ * keeps the global bound exact without a shared counter. Tickets are handed out in FIFO order per shard.
+ * <p>
+ * The number of shards does not depend on the capacity, so a pool that starts small and grows later
+ * spreads over every shard. Changing the capacity re-divides it among the same shards; while the pool holds
+ * fewer tickets than it has shards, some shards have no room and their vendors spill into the others.
+ * Shrinking the pool below what a shard holds takes the missing room from the other shards, and customers
+ * give it back as they drain the fuller shards, so the bound stays exact across a resize too.
+ */
+public class ShardedPoolEngine implements TicketPoolEngine {
+    private final Shard[] shards;
+    private volatile int maxTicketCapacity;
+    // Set while some shards lend room to shards holding more than their part of the capacity
+    private volatile boolean rebalancing;
+    private final WaitQueue waitingProducers = new WaitQueue();
+    private final WaitQueue waitingConsumers = new WaitQueue();
+
+    /**
+     * Constructs a ShardedPoolEngine with the specified maximum capacity and number of shards.
+     *
+     * @param maxTicketCapacity The maximum capacity of the pool.
+     * @param shardCount        The number of shards; at least one.
+     */
+    public ShardedPoolEngine(int maxTicketCapacity, int shardCount) {
+        if (maxTicketCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + maxTicketCapacity);
+        }
+        int count = Math.max(1, shardCount);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(shardCapacity(maxTicketCapacity, i));
+        }
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    @Override
+    public boolean offer(Tickets ticket, long timeoutNanos) {
+        return offer(ticket, currentThreadKey(), timeoutNanos);
+    }
+
+    @Override
+    public boolean offer(Tickets ticket, int vendorId, long timeoutNanos) {
+        int home = shardFor(vendorId);
+        if (tryOffer(ticket, home)) {
+            waitingConsumers.signal();
+            return true;
+        }
+        if (timeoutNanos == 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            // Register before re-checking so a concurrent poll cannot slip past without waking us
+            WaitQueue.Waiter waiter = waitingProducers.enqueue();
+            if (tryOffer(ticket, home)) {
+                if (waitingProducers.leave(waiter)) {
+                    waitingProducers.signal();
+                }
+                waitingConsumers.signal();
+                return true;
+            }
+            if (!waitingProducers.park(waiter, timeoutNanos, deadline)) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public Tickets poll(long timeoutNanos) {
+        return poll(currentThreadKey(), timeoutNanos);
+    }
+
+    @Override
+    public Tickets poll(int customerId, long timeoutNanos) {
+        int home = shardFor(customerId);
+        Tickets ticket = tryPoll(home);
+        if (ticket != null) {
+            returnLentRoom();
+            waitingProducers.signal();
+            return ticket;
+        }
+        if (timeoutNanos == 0) {
+            return null;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            WaitQueue.Waiter waiter = waitingConsumers.enqueue();
+            ticket = tryPoll(home);
+            if (ticket != null) {
+                if (waitingConsumers.leave(waiter)) {
+                    waitingConsumers.signal();
+                }
+                returnLentRoom();
+                waitingProducers.signal();
+                return ticket;
+            }
+            if (!waitingConsumers.park(waiter, timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public int offerBatch(List<Tickets> tickets, int vendorId, long timeoutNanos) {
+        int home = shardFor(vendorId);
+        int added = tryOfferBatch(tickets, 0, home);
+        waitingConsumers.signal(added);
+        if (added == tickets.size() || timeoutNanos == 0) {
+            return added;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (added < tickets.size()) {
+            WaitQueue.Waiter waiter = waitingProducers.enqueue();
+            int claimed = tryOfferBatch(tickets, added, home);
+            if (claimed > 0) {
+                added += claimed;
+                waitingConsumers.signal(claimed);
+                if (waitingProducers.leave(waiter)) {
+                    waitingProducers.signal();
+                }
+                continue;
+            }
+            if (!waitingProducers.park(waiter, timeoutNanos, deadline)) {
+                break;
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public List<Tickets> pollBatch(int count, int customerId, long timeoutNanos) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + count);
+        }
+        int home = shardFor(customerId);
+        long deadline = System.nanoTime() + timeoutNanos;
+        // Single-ticket signals cannot tell a batch consumer that enough tickets have arrived, so poll
+        for (int round = 0; ; round++) {
+            List<Tickets> tickets = tryPollBatch(count, home);
+            if (tickets != null) {
+                returnLentRoom();
+                waitingProducers.signal(count);
+                return tickets;
+            }
+            if (count > maxTicketCapacity || timeoutNanos == 0 || !WaitQueue.backOff(round, timeoutNanos, deadline)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Adds as much of the batch as fits, one lock per shard, starting with the home shard.
+     *
+     * @param tickets The batch.
+     * @param from    The index of the first ticket still to add.
+     * @param home    The index of the home shard.
+     * @return The number of tickets added.
+     */
+    private int tryOfferBatch(List<Tickets> tickets, int from, int home) {
+        int added = 0;
+        for (int i = 0; i < shards.length && from + added < tickets.size(); i++) {
+            added += shards[(home + i) % shards.length].offerBatch(tickets, from + added);
+        }
+        return added;
+    }
+
+    /**
+     * Takes {@code count} tickets from the home shard if it has enough, otherwise from all shards together.
+     *
+     * @param count The number of tickets to take.
+     * @param home  The index of the home shard.
+     * @return The tickets, or null if the pool holds fewer than {@code count}.
+     */
+    private List<Tickets> tryPollBatch(int count, int home) {
+        List<Tickets> tickets = shards[home].pollBatch(count);
+        if (tickets != null || size() < count) {
+            return tickets;
+        }
+        // Lock every shard in index order, so concurrent batch purchases cannot deadlock, and check the total
+        lockAll();
+        try {
+            int available = 0;
+            for (Shard shard : shards) {
+                available += shard.tickets.size();
+            }
+            if (available < count) {
+                return null;
+            }
+            tickets = new ArrayList<>(count);
+            for (int i = 0; i < shards.length && tickets.size() < count; i++) {
+                Shard shard = shards[(home + i) % shards.length];
+                while (tickets.size() < count && !shard.tickets.isEmpty()) {
+                    tickets.add(shard.tickets.poll());
+                }
+                shard.size = shard.tickets.size();
+            }
+            return tickets;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Locks every shard in index order.
+     */
+    private void lockAll() {
+        for (Shard shard : shards) {
+            shard.lock.lock();
+        }
+    }
+
+    /**
+     * Unlocks every shard.
+     */
+    private void unlockAll() {
+        for (Shard shard : shards) {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Divides the capacity among the shards again once a customer has drained a shard that holds more than
+     * its part, so the room it lent out goes back to the shards it was taken from.
+     */
+    private void returnLentRoom() {
+        if (!rebalancing) {
+            return;
+        }
+        lockAll();
+        try {
+            divideCapacity();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Gives every shard its part of the capacity, less any room lent to shards that hold more than theirs.
+     * The caller holds every shard lock.
+     */
+    private void divideCapacity() {
+        int capacity = maxTicketCapacity;
+        int excess = 0;
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].capacity = shardCapacity(capacity, i);
+            excess += Math.max(0, shards[i].tickets.size() - shards[i].capacity);
+        }
+        boolean lent = false;
+        for (int i = 0; i < shards.length && excess > 0; i++) {
+            Shard shard = shards[i];
+            int room = Math.min(excess, shard.capacity - shard.tickets.size());
+            if (room > 0) {
+                shard.capacity -= room;
+                excess -= room;
+                lent = true;
+            }
+        }
+        rebalancing = lent;
+    }
+
+    /**
+     * Adds the ticket to the home shard, or to the next shard with space.
+     *
+     * @param ticket The ticket to add.
+     * @param home   The index of the home shard.
+     * @return True if the ticket was added, false if every shard is full.
+     */
+    private boolean tryOffer(Tickets ticket, int home) {
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[(home + i) % shards.length].offer(ticket)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a ticket from the home shard, or steals one from the next shard that has any.
+     *
+     * @param home The index of the home shard.
+     * @return The ticket, or null if every shard is empty.
+     */
+    private Tickets tryPoll(int home) {
+        for (int i = 0; i < shards.length; i++) {
+            Tickets ticket = shards[(home + i) % shards.length].poll();
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a shard's part of the pool capacity; the parts differ by at most one ticket.
+     *
+     * @param capacity The pool capacity.
+     * @param shard    The index of the shard.
+     * @return The shard capacity.
+     */
+    private int shardCapacity(int capacity, int shard) {
+        return capacity / shards.length + (shard < capacity % shards.length ? 1 : 0);
+    }
+
+    /**
+     * Maps a vendor or customer ID to its home shard.
+     *
+     * @param actorId The vendor or customer ID.
+     * @return The index of the home shard.
+     */
+    private int shardFor(int actorId) {
+        return Math.floorMod(actorId, shards.length);
+    }
+
+    /**
+     * Derives a shard key for callers that do not identify themselves.
+     *
+     * @return A key that is stable for the current thread.
+     */
+    private static int currentThreadKey() {
+        return (int) Thread.currentThread().getId();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return maxTicketCapacity;
+    }
+
+    @Override
+    public synchronized void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int previous = maxTicketCapacity;
+        lockAll();
+        try {
+            maxTicketCapacity = capacity;
+            divideCapacity();
+        } finally {
+            unlockAll();
+        }
+        if (capacity > previous) {
+            waitingProducers.signal(capacity - previous);
+        }
+    }
+
+    /**
+     * Padding laid out before the fields of a shard; the fields of a superclass always come first.
+     */
+    @SuppressWarnings("unused")
+    private static class ShardLeftPadding {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    /**
+     * The state of a shard, between its left and right padding.
+     */
+    private static class ShardFields extends ShardLeftPadding {
+        protected final ReentrantLock lock = new ReentrantLock();
+        protected final ArrayDeque<Tickets> tickets;
+        // Only changed while every shard is locked; offers read it without the lock first to skip full shards
+        protected volatile int capacity;
+        // Published after every change so callers can skip full or empty shards without locking
+        protected volatile int size;
+
+        ShardFields(int capacity) {
+            this.capacity = capacity;
+            this.tickets = new ArrayDeque<>(Math.max(1, capacity));
+        }
+    }
+
+    /**
+     * A bounded FIFO sub-pool with its own lock. Padded on both sides, so the hot size field of a shard
+     * does not share a cache line with its neighbours.
+     */
+    @SuppressWarnings("unused")
+    private static final class Shard extends ShardFields {
+        private long p9, p10, p11, p12, p13, p14, p15;
+
+        private Shard(int capacity) {
+            super(capacity);
+        }
+
+        private boolean offer(Tickets ticket) {
+            if (size >= capacity) {
+                return false;
+            }
+            lock.lock();
+            try {
+                if (tickets.size() >= capacity) {
+                    return false;
+                }
+                ticket.markPooled(System.nanoTime());
+                tickets.add(ticket);
+                size = tickets.size();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int offerBatch(List<Tickets> batch, int from) {
+            if (size >= capacity) {
+                return 0;
+            }
+            lock.lock();
+            try {
+                int end = Math.min(batch.size(), from + capacity - tickets.size());
+                long now = System.nanoTime();
+                for (int i = from; i < end; i++) {
+                    Tickets ticket = batch.get(i);
+                    ticket.markPooled(now);
+                    tickets.add(ticket);
+                }
+                size = tickets.size();
+                return Math.max(0, end - from);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Tickets> pollBatch(int count) {
+            if (size < count) {
+                return null;
+            }
+            lock.lock();
+            try {
+                if (tickets.size() < count) {
+                    return null;
+                }
+                List<Tickets> batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    batch.add(tickets.poll());
+                }
+                size = tickets.size();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Tickets poll() {
+            if (size == 0) {
+                return null;
+            }
+            lock.lock();
+            try {
+                Tickets ticket = tickets.poll();
+                size = tickets.size();
+                return ticket;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.ticket_simulation.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed budget of platform threads shared by the runs of every simulation session.
+ * <p>
+ * A run leases the threads it needs before it starts and gets an executor of its own, backed by the
+ * shared pool, that it can shut down and interrupt like a private one. A lease that does not fit into the
+ * budget is refused rather than queued, since the vendors and customers of a run wait for each other and
+ * a run that only got some of its threads would never finish. The threads go back to the budget once the
+ * lease is shut down and its last task has finished.
+ */
+class SharedActorExecutor {
+    private final ThreadPoolExecutor threads;
+    private final Semaphore permits;
+    private final int maxThreads;
+
+    /**
+     * Constructs a SharedActorExecutor.
+     *
+     * @param maxThreads The most threads all leases together may use.
+     */
+    SharedActorExecutor(int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("Thread budget must be positive: " + maxThreads);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        // Every lease is covered by permits, so tasks only queue while a finished thread is on its way back
+        this.threads = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Session Worker " + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.threads.allowCoreThreadTimeOut(true);
+        this.permits = new Semaphore(maxThreads);
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Reserves threads for a run.
+     *
+     * @param count The number of tasks the run executes at once.
+     * @return An executor for the run's tasks.
+     * @throws IllegalStateException If the budget does not have that many threads left.
+     */
+    ExecutorService lease(int count) {
+        if (!permits.tryAcquire(count)) {
+            throw new IllegalStateException("Not enough threads left for the run: it needs " + count + " of "
+                    + maxThreads + ", " + permits.availablePermits() + " are free");
+        }
+        return new Lease(count);
+    }
+
+    /**
+     * Gets the number of threads not leased.
+     *
+     * @return The free threads.
+     */
+    int availableThreads() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Gets the size of the budget.
+     *
+     * @return The most threads all leases together may use.
+     */
+    int maxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Interrupts every running task and stops the shared threads.
+     */
+    void close() {
+        threads.shutdownNow();
+    }
+
+    /**
+     * The threads leased by one run. Runs its tasks on the shared pool and tracks them, so that shutting it
+     * down only interrupts and waits for its own tasks.
+     */
+    private class Lease extends AbstractExecutorService {
+        private final int count;
+        private final Set<Thread> running = new HashSet<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private int active;
+        private boolean shutdown;
+        private volatile boolean stopped;
+
+        Lease(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Run has been shut down");
+                }
+                active++;
+            }
+            try {
+                threads.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    active--;
+                    terminateIfDone();
+                }
+                throw e;
+            }
+        }
+
+        private void run(Runnable task) {
+            Thread thread = Thread.currentThread();
+            String name = thread.getName();
+            synchronized (this) {
+                running.add(thread);
+            }
+            try {
+                // Tasks still queued when the run was stopped never start
+                if (!stopped) {
+                    task.run();
+                }
+            } finally {
+                synchronized (this) {
+                    running.remove(thread);
+                    active--;
+                    terminateIfDone();
+                }
+                // Not interrupted by this lease any more; do not carry its name or interrupt over to the next one
+                thread.setName(name);
+                Thread.interrupted();
+            }
+        }
+
+        // Called with the lease's lock held
+        private void terminateIfDone() {
+            if (shutdown && active == 0 && terminated.getCount() > 0) {
+                permits.release(count);
+                terminated.countDown();
+            }
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            terminateIfDone();
+        }
+
+        @Override
+        public synchronized List<Runnable> shutdownNow() {
+            stopped = true;
+            shutdown();
+            for (Thread thread : running) {
+                thread.interrupt();
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return terminated.getCount() == 0;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return terminated.await(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.CounterSnapshot;
+import com.example.ticket_simulation.model.LogEntry;
+import com.example.ticket_simulation.model.LogPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service for pushing new log entries and ticket counters to streaming clients.
+ * <p>
+ * A single broadcaster thread wakes up at most {@code stream.max-rate} times a second, reads the new log
+ * entries once and takes one snapshot of the counters, so counter changes between ticks are coalesced and
+ * unchanged counters are not sent at all. The actual writes run on a separate sender pool with at most one
+ * write in flight per subscriber: a subscriber that is still busy with its previous push is skipped and
+ * catches up from its own cursor later, and one that stays busy longer than {@code stream.stall-timeout-ms}
+ * is disconnected. The simulation threads never wait on a client.
+ */
+@Service
+public class StreamService {
+
+    private final TicketService ticketService;
+    private final LoggerService loggerService;
+    private final int logBatchSize;
+    private final long stallTimeoutMillis;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService broadcaster;
+    private final ExecutorService sender;
+    // Only touched by the broadcaster thread
+    private long sharedCursor;
+
+    /**
+     * Constructs a StreamService.
+     *
+     * @param ticketService      The service the counters are read from.
+     * @param loggerService      The service the log entries are read from.
+     * @param maxRate            The maximum number of pushes per second to each subscriber.
+     * @param logBatchSize       The maximum number of log entries in one push.
+     * @param stallTimeoutMillis How long a subscriber may take to accept a push before it is disconnected.
+     */
+    @Autowired
+    public StreamService(TicketService ticketService, LoggerService loggerService,
+                         @Value("${stream.max-rate:4}") int maxRate,
+                         @Value("${stream.log-batch:500}") int logBatchSize,
+                         @Value("${stream.stall-timeout-ms:30000}") long stallTimeoutMillis) {
+        if (maxRate <= 0) {
+            throw new IllegalArgumentException("Stream rate must be positive: " + maxRate);
+        }
+        this.ticketService = ticketService;
+        this.loggerService = loggerService;
+        this.logBatchSize = logBatchSize;
+        this.stallTimeoutMillis = stallTimeoutMillis;
+        this.broadcaster = Executors.newSingleThreadScheduledExecutor(daemon("stream-broadcaster"));
+        this.sender = Executors.newCachedThreadPool(daemon("stream-sender"));
+        long intervalMillis = Math.max(1, 1000 / maxRate);
+        broadcaster.scheduleWithFixedDelay(this::broadcast, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a new streaming client.
+     *
+     * @param after The sequence number of the last log entry the client has seen, or 0 to start from the oldest.
+     * @return The emitter the client's events are written to.
+     */
+    public SseEmitter subscribe(long after) {
+        // The stream stays open until the client goes away or stalls
+        SseEmitter emitter = new SseEmitter(0L);
+        subscribe(emitter, after);
+        return emitter;
+    }
+
+    /**
+     * Registers a streaming client that writes to the given emitter.
+     *
+     * @param emitter The emitter the client's events are written to.
+     * @param after   The sequence number of the last log entry the client has seen, or 0 to start from the oldest.
+     */
+    void subscribe(SseEmitter emitter, long after) {
+        Subscriber subscriber = new Subscriber(emitter, after);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Gets the number of connected streaming clients.
+     *
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Broadcaster tick: reads the new log entries and counters once and hands them to every idle subscriber.
+     */
+    private void broadcast() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            CounterSnapshot counters = new CounterSnapshot(ticketService.getTicketsAvailable(),
+                    ticketService.getTicketsSold(), ticketService.isSimulationRunning());
+            long cursor = sharedCursor;
+            LogPage shared = loggerService.getLogsAfter(cursor, logBatchSize);
+            sharedCursor = advance(cursor, shared);
+            long now = System.currentTimeMillis();
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.inFlight.compareAndSet(false, true)) {
+                    if (now - subscriber.busySince > stallTimeoutMillis) {
+                        subscribers.remove(subscriber);
+                        subscriber.emitter.complete();
+                    }
+                    continue;
+                }
+                LogPage page = subscriber.cursor == cursor ? shared
+                        : loggerService.getLogsAfter(subscriber.cursor, logBatchSize);
+                boolean logsChanged = advance(subscriber.cursor, page) != subscriber.cursor;
+                boolean countersChanged = !counters.equals(subscriber.counters);
+                if (!logsChanged && !countersChanged) {
+                    subscriber.inFlight.set(false);
+                    continue;
+                }
+                subscriber.busySince = now;
+                sender.execute(() -> push(subscriber, logsChanged ? page : null, countersChanged ? counters : null));
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next tick retries
+            loggerService.log("Error streaming updates: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one push to a subscriber on a sender thread.
+     *
+     * @param subscriber The subscriber.
+     * @param page       The log entries to send, or null if there are none.
+     * @param counters   The counters to send, or null if they have not changed.
+     */
+    private void push(Subscriber subscriber, LogPage page, CounterSnapshot counters) {
+        try {
+            if (page != null) {
+                long cursor = advance(subscriber.cursor, page);
+                // The ID lets a reconnecting EventSource resume where it left off via Last-Event-ID
+                subscriber.emitter.send(SseEmitter.event().name("logs").id(String.valueOf(cursor))
+                        .data(page, MediaType.APPLICATION_JSON));
+                subscriber.cursor = cursor;
+            }
+            if (counters != null) {
+                subscriber.emitter.send(SseEmitter.event().name("counters").data(counters, MediaType.APPLICATION_JSON));
+                subscriber.counters = counters;
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.inFlight.set(false);
+        }
+    }
+
+    /**
+     * Moves a log cursor past a page, the same way clients do.
+     *
+     * @param cursor The sequence number of the last entry seen.
+     * @param page   The page read after the cursor.
+     * @return The sequence number of the last entry seen after the page.
+     */
+    private static long advance(long cursor, LogPage page) {
+        List<LogEntry> entries = page.getEntries();
+        if (!entries.isEmpty()) {
+            return entries.get(entries.size() - 1).getSequence();
+        }
+        return Math.max(cursor, page.getOldestSequence() - 1);
+    }
+
+    /**
+     * Creates a thread factory for daemon threads with the given name.
+     *
+     * @param name The thread name.
+     * @return The thread factory.
+     */
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Stops the broadcaster and closes every open stream.
+     */
+    @PreDestroy
+    public void close() {
+        broadcaster.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * A connected client and what it has been sent so far.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile CounterSnapshot counters;
+        private volatile long busySince;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
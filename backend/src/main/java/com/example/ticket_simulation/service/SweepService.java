@@ -0,0 +1,316 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.Sweep;
+import com.example.ticket_simulation.model.SweepRequest;
+import com.example.ticket_simulation.model.SweepRun;
+import com.example.ticket_simulation.model.SweepRunOutcome;
+import com.example.ticket_simulation.model.SweepStatus;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Service that runs a grid of simulation configurations side by side and compares them.
+ * <p>
+ * Every run gets its own pool, ticket service and log, so runs never see each other's tickets and the
+ * application's own simulation is left alone. Each sweep runs on its own fork-join pool, whose parallelism
+ * bounds how many runs execute at once; the pool is shut down when the last run finishes. Results are
+ * collected as runs finish, so a sweep can be polled for partial results while it is still running.
+ */
+@Service
+public class SweepService {
+    private static final long POLL_NANOS = 1_000_000;
+
+    private final LoggerService loggerService;
+    private final int defaultParallelism;
+    private final int maxRuns;
+    private final long defaultTimeoutSeconds;
+    private final int runLogCapacity;
+    private final int maxActive;
+    private final int retained;
+    private final AtomicLong lastId = new AtomicLong();
+    // Ordered by ID, so the oldest sweeps are evicted first
+    private final Map<Long, SweepState> sweeps = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructs a SweepService.
+     *
+     * @param loggerService         The service that logs when sweeps start and finish.
+     * @param defaultParallelism    The number of runs that execute at once, or 0 for one per processor.
+     * @param maxRuns               The largest number of configurations one sweep may have.
+     * @param defaultTimeoutSeconds How long one run may take before it is stopped, in seconds.
+     * @param runLogCapacity        The number of log messages each run retains.
+     * @param maxActive             The number of sweeps that may run at once.
+     * @param retained              The number of sweeps kept for retrieval; older finished ones are dropped.
+     */
+    @Autowired
+    public SweepService(LoggerService loggerService,
+                        @Value("${sweeps.parallelism:0}") int defaultParallelism,
+                        @Value("${sweeps.max-runs:256}") int maxRuns,
+                        @Value("${sweeps.run-timeout-seconds:60}") long defaultTimeoutSeconds,
+                        @Value("${sweeps.run-log-capacity:1000}") int runLogCapacity,
+                        @Value("${sweeps.max-active:4}") int maxActive,
+                        @Value("${sweeps.retained:20}") int retained) {
+        if (maxRuns <= 0 || defaultTimeoutSeconds <= 0 || maxActive <= 0 || retained <= 0) {
+            throw new IllegalArgumentException("Sweep limits must be positive: " + maxRuns + " runs, "
+                    + defaultTimeoutSeconds + " s, " + maxActive + " active, " + retained + " retained");
+        }
+        this.loggerService = loggerService;
+        this.defaultParallelism = defaultParallelism > 0
+                ? defaultParallelism : Runtime.getRuntime().availableProcessors();
+        this.maxRuns = maxRuns;
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+        this.runLogCapacity = runLogCapacity;
+        this.maxActive = maxActive;
+        this.retained = retained;
+    }
+
+    /**
+     * Starts running a grid of configurations in the background.
+     *
+     * @param request The grid and how to run it.
+     * @return The sweep, with no results yet.
+     * @throws IllegalArgumentException If the grid is empty or larger than allowed.
+     * @throws IllegalStateException    If too many sweeps are already running.
+     */
+    public synchronized Sweep submit(SweepRequest request) {
+        List<Configuration> grid = expand(request, maxRuns);
+        long active = sweeps.values().stream().filter(sweep -> sweep.completedAt == 0).count();
+        if (active >= maxActive) {
+            throw new IllegalStateException(active + " sweeps are already running");
+        }
+        int parallelism = Math.min(grid.size(),
+                request.getParallelism() > 0 ? request.getParallelism() : defaultParallelism);
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(
+                request.getTimeoutSeconds() > 0 ? request.getTimeoutSeconds() : defaultTimeoutSeconds);
+
+        long id = lastId.incrementAndGet();
+        ForkJoinPool executor = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Sweep " + id + " Worker " + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        SweepState sweep = new SweepState(id, grid, executor);
+        sweeps.put(id, sweep);
+        evictFinished();
+
+        List<ForkJoinTask<?>> runs = new ArrayList<>(grid.size());
+        for (int i = 0; i < grid.size(); i++) {
+            int index = i;
+            runs.add(ForkJoinTask.adapt(() -> sweep.finish(index,
+                    run(index + 1, grid.get(index), timeoutNanos, runLogCapacity))));
+        }
+        loggerService.log("Sweep " + id + " started: " + grid.size() + " runs, " + parallelism
+                + " at a time.");
+        executor.execute(() -> {
+            try {
+                ForkJoinTask.invokeAll(runs);
+            } finally {
+                sweep.completedAt = System.currentTimeMillis();
+                executor.shutdown();
+            }
+            loggerService.log("Sweep " + id + " completed in " + (sweep.completedAt - sweep.submittedAt) + " ms.");
+        });
+        return sweep.snapshot();
+    }
+
+    /**
+     * Gets the progress and results of a sweep.
+     *
+     * @param id The ID of the sweep.
+     * @return The sweep, or null if it does not exist or has been dropped.
+     */
+    public Sweep getSweep(long id) {
+        SweepState sweep = sweeps.get(id);
+        return sweep != null ? sweep.snapshot() : null;
+    }
+
+    /**
+     * Drops the oldest finished sweeps until no more than the retained number are kept.
+     */
+    private void evictFinished() {
+        int excess = sweeps.size() - retained;
+        for (SweepState sweep : sweeps.values()) {
+            if (excess <= 0) {
+                return;
+            }
+            if (sweep.completedAt != 0) {
+                sweeps.remove(sweep.id);
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Expands a sweep request into the configurations to run. Every configuration is a copy, so runs
+     * never share one.
+     *
+     * @param request The request.
+     * @param maxRuns The largest number of configurations allowed.
+     * @return The configurations in grid order: the last list of values varies fastest.
+     * @throws IllegalArgumentException If the grid is empty or has more than {@code maxRuns} configurations.
+     */
+    static List<Configuration> expand(SweepRequest request, int maxRuns) {
+        List<Configuration> grid = new ArrayList<>();
+        if (request.getConfigurations() != null && !request.getConfigurations().isEmpty()) {
+            for (Configuration config : request.getConfigurations()) {
+                grid.add(new Configuration(config));
+            }
+        } else if (request.getBase() != null) {
+            grid.add(new Configuration(request.getBase()));
+        } else {
+            throw new IllegalArgumentException("A sweep needs a base configuration or a list of configurations");
+        }
+        long size = grid.size();
+        for (List<Integer> values : Arrays.asList(request.getMaxTicketCapacities(), request.getTicketReleaseRates(),
+                request.getCustomerRetrievalRates(), request.getVendorCounts(), request.getCustomerCounts())) {
+            if (values != null && !values.isEmpty()) {
+                size *= values.size();
+            }
+        }
+        if (size > maxRuns) {
+            throw new IllegalArgumentException("A sweep may have at most " + maxRuns + " runs: " + size);
+        }
+        grid = vary(grid, request.getMaxTicketCapacities(), Configuration::setMaxTicketCapacity);
+        grid = vary(grid, request.getTicketReleaseRates(), Configuration::setTicketReleaseRate);
+        grid = vary(grid, request.getCustomerRetrievalRates(), Configuration::setCustomerRetrievalRate);
+        grid = vary(grid, request.getVendorCounts(), Configuration::setVendorCount);
+        return vary(grid, request.getCustomerCounts(), Configuration::setCustomerCount);
+    }
+
+    /**
+     * Multiplies a grid by a list of values of one setting.
+     *
+     * @param grid    The configurations so far.
+     * @param values  The values to try, or null or empty to leave the grid as it is.
+     * @param setting Sets the value on a configuration.
+     * @return One copy of every configuration per value.
+     */
+    private static List<Configuration> vary(List<Configuration> grid, List<Integer> values,
+                                            BiConsumer<Configuration, Integer> setting) {
+        if (values == null || values.isEmpty()) {
+            return grid;
+        }
+        List<Configuration> varied = new ArrayList<>(grid.size() * values.size());
+        for (Configuration config : grid) {
+            for (Integer value : values) {
+                if (value == null) {
+                    throw new IllegalArgumentException("Sweep values must not be null");
+                }
+                Configuration copy = new Configuration(config);
+                setting.accept(copy, value);
+                varied.add(copy);
+            }
+        }
+        return varied;
+    }
+
+    /**
+     * Runs one configuration to completion in a pool, service and log of its own.
+     *
+     * @param run            The position of the configuration in the grid, starting at 1.
+     * @param config         The configuration.
+     * @param timeoutNanos   How long the run may take before it is stopped.
+     * @param runLogCapacity The number of log messages the run retains.
+     * @return The result of the run.
+     */
+    static SweepRun run(int run, Configuration config, long timeoutNanos, int runLogCapacity) {
+        TicketPool ticketPool = new TicketPool();
+        LoggerService runLogger = new LoggerService(new LogRepository(runLogCapacity));
+        TicketService ticketService = new TicketService(ticketPool, runLogger);
+        try {
+            ticketService.configure(config);
+            long start = System.nanoTime();
+            ticketService.runSimulation();
+            while (ticketService.getTicketsSold() < config.getTotalTickets()
+                    && System.nanoTime() - start < timeoutNanos && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(POLL_NANOS);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            int sold = ticketService.getTicketsSold();
+            ticketService.stopSimulation();
+            MetricsSnapshot metrics = ticketService.getMetrics();
+            IntegrityReport report = ticketService.getIntegrityReport();
+            return new SweepRun(run, config,
+                    sold >= config.getTotalTickets() ? SweepRunOutcome.COMPLETED : SweepRunOutcome.TIMED_OUT,
+                    null, sold, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    elapsedNanos > 0 ? sold * 1e9 / elapsedNanos : 0, metrics.getAddWait(),
+                    metrics.getRetrieveWait(), report.isConsistent());
+        } catch (RuntimeException e) {
+            if (ticketService.isSimulationRunning()) {
+                ticketService.stopSimulation();
+            }
+            return new SweepRun(run, config, SweepRunOutcome.FAILED, String.valueOf(e.getMessage()), 0, 0, 0,
+                    null, null, false);
+        } finally {
+            ticketPool.close();
+            runLogger.close();
+        }
+    }
+
+    /**
+     * Stops every running sweep. Runs in progress are stopped as if their timeout had passed.
+     */
+    @PreDestroy
+    public void close() {
+        for (SweepState sweep : sweeps.values()) {
+            sweep.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The mutable state of one sweep, filled in by its runs as they finish.
+     */
+    private static class SweepState {
+        private final long id;
+        private final long submittedAt = System.currentTimeMillis();
+        private final List<Configuration> grid;
+        private final AtomicReferenceArray<SweepRun> results;
+        private final ForkJoinPool executor;
+        private volatile long completedAt;
+
+        SweepState(long id, List<Configuration> grid, ForkJoinPool executor) {
+            this.id = id;
+            this.grid = grid;
+            this.results = new AtomicReferenceArray<>(grid.size());
+            this.executor = executor;
+        }
+
+        void finish(int index, SweepRun result) {
+            results.set(index, result);
+        }
+
+        Sweep snapshot() {
+            // Read before the results, so a completed sweep never shows missing runs
+            long completed = completedAt;
+            List<SweepRun> runs = new ArrayList<>();
+            for (int i = 0; i < grid.size(); i++) {
+                SweepRun result = results.get(i);
+                if (result != null) {
+                    runs.add(result);
+                }
+            }
+            return new Sweep(id, completed != 0 ? SweepStatus.COMPLETED : SweepStatus.RUNNING, submittedAt,
+                    completed, grid.size(), runs);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Interns the event, venue and price shared by many tickets, so a ticket can be stored as a pair of ints
+ * (its ID and a detail index) and turned back into a {@link Tickets} only when it is handed out.
+ * <p>
+ * Prices are kept in whole cents. Every ticket materialized from the table shares the table's event and
+ * venue strings, so a handed-out ticket costs one small object. Interning takes a lock; lookups never do,
+ * because the table is republished as a new array whenever it grows.
+ */
+class TicketDetailTable {
+    private volatile Detail[] table = new Detail[0];
+    private final Map<Detail, Integer> index = new HashMap<>();
+    // Vendors release long runs of tickets with the same details, so the last one is tried first
+    private volatile int lastDetail = -1;
+
+    /**
+     * Packs a ticket into a single long: the ticket ID in the high half and the detail index in the low half.
+     *
+     * @param ticket The ticket.
+     * @return The packed ticket.
+     */
+    long encode(Tickets ticket) {
+        return ((long) ticket.getId() << 32) | (intern(ticket) & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * Turns a packed ticket back into a ticket object.
+     *
+     * @param code          The packed ticket.
+     * @param pooledAtNanos When the ticket entered the pool, in {@link System#nanoTime()} units.
+     * @return The ticket.
+     */
+    Tickets decode(long code, long pooledAtNanos) {
+        Detail detail = table[(int) code];
+        Tickets ticket = new Tickets((int) (code >>> 32), detail.event, detail.location, detail.priceCents / 100.0);
+        ticket.markPooled(pooledAtNanos);
+        return ticket;
+    }
+
+    /**
+     * Gets the number of distinct details interned so far.
+     *
+     * @return The table size.
+     */
+    int size() {
+        return table.length;
+    }
+
+    /**
+     * Looks up or assigns the index of a ticket's event, venue and price.
+     *
+     * @param ticket The ticket.
+     * @return The index into the table.
+     */
+    private int intern(Tickets ticket) {
+        long priceCents = Math.round(ticket.getPrice() * 100);
+        int last = lastDetail;
+        if (last >= 0 && table[last].matches(ticket.getEvent(), ticket.getLocation(), priceCents)) {
+            return last;
+        }
+        synchronized (this) {
+            Detail detail = new Detail(ticket.getEvent(), ticket.getLocation(), priceCents);
+            Integer existing = index.get(detail);
+            if (existing == null) {
+                existing = table.length;
+                Detail[] grown = Arrays.copyOf(table, existing + 1);
+                grown[existing] = detail;
+                table = grown;
+                index.put(detail, existing);
+            }
+            lastDetail = existing;
+            return existing;
+        }
+    }
+
+    /**
+     * An interned event, venue and price.
+     */
+    private static final class Detail {
+        private final String event;
+        private final String location;
+        private final long priceCents;
+
+        private Detail(String event, String location, long priceCents) {
+            this.event = event;
+            this.location = location;
+            this.priceCents = priceCents;
+        }
+
+        private boolean matches(String otherEvent, String otherLocation, long otherPriceCents) {
+            return priceCents == otherPriceCents && Objects.equals(event, otherEvent)
+                    && Objects.equals(location, otherLocation);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Detail)) {
+                return false;
+            }
+            Detail other = (Detail) o;
+            return matches(other.event, other.location, other.priceCents);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(event, location, priceCents);
+        }
+    }
+}
@@ -1,84 +1,719 @@
 package com.example.ticket_simulation.service;
 
+import com.example.ticket_simulation.model.BackpressurePolicy;
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.EventAvailability;
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.PoolEngineType;
+import com.example.ticket_simulation.model.TicketHold;
+import com.example.ticket_simulation.model.TicketQuery;
+import com.example.ticket_simulation.model.TicketSaleStatus;
 import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.repository.TicketJournal;
 import org.springframework.stereotype.Component;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 
 /**
  * Represents a pool of tickets for the simulation.
+ * Storage and blocking are delegated to a {@link TicketPoolEngine} selected when the pool is initialized.
  */
 @Component
 public class TicketPool {
-    private Queue<Tickets> ticketsQueue = new LinkedList<>();
-    private int maxTicketCapacity;
-    private int ticketsAvailable = 0;
-    private int ticketsSold = 0;
+    // Passed instead of a start time by the operations that do not wait
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+    // Passed instead of a release or sale time by the operations that happen now on the wall clock
+    private static final long WALL_CLOCK = Long.MAX_VALUE;
+
+    private volatile TicketPoolEngine engine = new LockingPoolEngine(0);
+    private final PoolMetrics metrics = new PoolMetrics();
+    private final EventStats eventStats = new EventStats();
+    private final HoldRegistry holds = new HoldRegistry(this::returnTicket);
+    private volatile SalesLedger ledger = new SalesLedger();
+    private volatile TicketJournal journal;
 
     /**
-     * Initializes the ticket pool with the specified maximum capacity.
+     * Initializes the ticket pool with the specified maximum capacity using the locking engine.
      *
      * @param maxTicketCapacity The maximum capacity of the ticket pool.
      */
     public void initialize(int maxTicketCapacity) {
-        this.maxTicketCapacity = maxTicketCapacity;
-        this.ticketsQueue.clear();
-        this.ticketsAvailable = 0;
-        this.ticketsSold = 0;
+        reset(new LockingPoolEngine(maxTicketCapacity));
+        journalReset(null);
+    }
+
+    /**
+     * Initializes the ticket pool with the capacity and engine from the given configuration.
+     *
+     * @param config The simulation configuration.
+     */
+    public void initialize(Configuration config) {
+        reset(createEngine(config));
+        journalReset(config);
+    }
+
+    /**
+     * Rebuilds the pool and the sales ledger from the state recovered from a journal.
+     * Tickets go back into the pool in the order they were released; holds are not journaled,
+     * so held tickets come back as available. Unsold tickets that no longer fit, because the pool
+     * was made smaller since, are counted as dropped so that the integrity report still balances.
+     *
+     * @param config The configuration of the recovered run.
+     * @param state  The recovered state.
+     * @return The number of unsold tickets that no longer fit in the pool.
+     */
+    int restore(Configuration config, JournalState state) {
+        reset(createEngine(config));
+        int overflow = 0;
+        for (Tickets ticket : state.getPooledTickets()) {
+            if (engine.offer(ticket, 0)) {
+                eventStats.added(ticket);
+            } else {
+                overflow++;
+            }
+        }
+        for (Map.Entry<String, Long> sold : state.getSoldByEvent().entrySet()) {
+            eventStats.restoreSold(sold.getKey(), sold.getValue());
+        }
+        for (int i = 0; i < state.getSaleCount(); i++) {
+            ledger.record(state.getSaleTicketId(i), state.getSaleCustomerId(i), state.getSaleTime(i));
+        }
+        metrics.recordReleases((int) state.getTicketsReleased());
+        metrics.recordSales(state.getSaleCount());
+        metrics.recordDrops((int) state.getTicketsDropped() + overflow);
+        return overflow;
+    }
+
+    /**
+     * Starts or stops writing every release and sale to a journal.
+     *
+     * @param journal The journal, or null to stop journaling.
+     */
+    void attachJournal(TicketJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Journals that the pool was set up for a new run.
+     *
+     * @param config The configuration of the run, or null if the pool was emptied without one.
+     */
+    private void journalReset(Configuration config) {
+        TicketJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.appendReset(config);
+        }
+    }
+
+    /**
+     * Replaces the engine and clears the counters.
+     *
+     * @param engine The new, empty engine.
+     */
+    private void reset(TicketPoolEngine engine) {
+        this.engine = engine;
+        this.metrics.reset();
+        this.eventStats.clear();
+        this.holds.clear();
+        this.ledger = new SalesLedger();
+    }
+
+    /**
+     * Creates the engine selected by the configuration.
+     *
+     * @param config The simulation configuration.
+     * @return A new, empty engine.
+     */
+    static TicketPoolEngine createEngine(Configuration config) {
+        int capacity = config.getMaxTicketCapacity();
+        PoolEngineType engineType = config.getPoolEngine();
+        if (engineType == PoolEngineType.RING_BUFFER) {
+            return new RingBufferPoolEngine(capacity);
+        }
+        if (engineType == PoolEngineType.COMPACT) {
+            return new CompactPoolEngine(capacity);
+        }
+        if (engineType == PoolEngineType.INDEXED) {
+            return new IndexedPoolEngine(capacity);
+        }
+        if (engineType == PoolEngineType.SHARDED) {
+            int shards = config.getPoolShards() > 0
+                    ? config.getPoolShards() : Runtime.getRuntime().availableProcessors();
+            return new ShardedPoolEngine(capacity, shards);
+        }
+        return new LockingPoolEngine(capacity);
     }
 
     /**
-     * Adds a ticket to the pool.
+     * Adds a ticket to the pool, waiting while the pool is full.
      *
      * @param ticket The ticket to add.
      */
-    public synchronized void addTicket(Tickets ticket) {
-        while (ticketsQueue.size() >= maxTicketCapacity) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                // Check interrupted status and exit if interrupted
-                if (Thread.currentThread().isInterrupted()) {
-                    return;
+    public void addTicket(Tickets ticket) {
+        long start = System.nanoTime();
+        recordRelease(ticket, 0, engine.offer(ticket, -1), start);
+    }
+
+    /**
+     * Adds a ticket to the pool on behalf of a vendor, waiting while the pool is full.
+     *
+     * @param ticket   The ticket to add.
+     * @param vendorId The ID of the vendor releasing the ticket.
+     */
+    public void addTicket(Tickets ticket, int vendorId) {
+        long start = System.nanoTime();
+        recordRelease(ticket, vendorId, engine.offer(ticket, vendorId, -1), start);
+    }
+
+    /**
+     * Adds a ticket to the pool on behalf of a vendor if there is space, without waiting.
+     *
+     * @param ticket   The ticket to add.
+     * @param vendorId The ID of the vendor releasing the ticket.
+     * @return True if the ticket was added, false if the pool is full.
+     */
+    public boolean tryAddTicket(Tickets ticket, int vendorId) {
+        return recordRelease(ticket, vendorId, engine.offer(ticket, vendorId, 0), NOT_TIMED);
+    }
+
+    /**
+     * Adds a block of tickets to the pool on behalf of a vendor, waiting while the pool is full.
+     * Free space is taken as much as possible at a time rather than one ticket at a time.
+     *
+     * @param tickets  The tickets to add, in release order.
+     * @param vendorId The ID of the vendor releasing the tickets.
+     * @return The number of tickets added; less than the block size only if the thread was interrupted.
+     */
+    public int addTickets(List<Tickets> tickets, int vendorId) {
+        long start = System.nanoTime();
+        return recordReleases(tickets, vendorId, engine.offerBatch(tickets, vendorId, -1), start);
+    }
+
+    /**
+     * Adds a block of tickets to the pool on behalf of a vendor, following the vendor's policy while the pool
+     * is full. Releases given up on are counted as rejected or timed out; an interrupted vendor is not counted.
+     *
+     * @param tickets      The tickets to add, in release order.
+     * @param vendorId     The ID of the vendor releasing the tickets.
+     * @param policy       What to do while the pool is full; null to wait.
+     * @param timeoutNanos The longest to wait in nanoseconds under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     * @return The number of tickets added, counted from the start of the list.
+     * @throws IllegalArgumentException If the policy is {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT} and the
+     *                                  timeout is not positive.
+     */
+    public int addTickets(List<Tickets> tickets, int vendorId, BackpressurePolicy policy, long timeoutNanos) {
+        requireTimeout(policy, timeoutNanos);
+        if (policy == BackpressurePolicy.DROP_OLDEST) {
+            return addTicketsDroppingOldest(tickets, vendorId);
+        }
+        if (policy != BackpressurePolicy.BLOCK_WITH_TIMEOUT && policy != BackpressurePolicy.FAIL_FAST) {
+            return addTickets(tickets, vendorId);
+        }
+        long timeout = policy == BackpressurePolicy.BLOCK_WITH_TIMEOUT ? timeoutNanos : 0;
+        long start = System.nanoTime();
+        int added = recordReleases(tickets, vendorId, engine.offerBatch(tickets, vendorId, timeout), start);
+        if (added < tickets.size() && !Thread.currentThread().isInterrupted()) {
+            if (timeout > 0) {
+                metrics.recordReleaseTimedOut();
+            } else {
+                metrics.recordReleaseRejected();
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Adds a block of tickets without waiting, dropping the tickets customers would get next to make room.
+     * Dropped tickets are never sold; they are counted and journaled so the run still adds up.
+     *
+     * @param tickets  The tickets to add, in release order.
+     * @param vendorId The ID of the vendor releasing the tickets.
+     * @return The number of tickets added; less than the block size only if the thread was interrupted.
+     */
+    private int addTicketsDroppingOldest(List<Tickets> tickets, int vendorId) {
+        return addTicketsDroppingOldest(tickets, vendorId, System.nanoTime(), WALL_CLOCK);
+    }
+
+    /**
+     * Adds a block of tickets without waiting, dropping the tickets customers would get next to make room,
+     * at a given time on a simulated clock.
+     *
+     * @param tickets    The tickets to add, in release order.
+     * @param vendorId   The ID of the vendor releasing the tickets.
+     * @param epochNanos The time of the release in nanoseconds since the epoch, as journaled.
+     * @return The number of tickets added; less than the block size only if the thread was interrupted.
+     */
+    public int tryAddTicketsDroppingOldest(List<Tickets> tickets, int vendorId, long epochNanos) {
+        return addTicketsDroppingOldest(tickets, vendorId, NOT_TIMED, epochNanos);
+    }
+
+    /**
+     * Adds a block of tickets without waiting, dropping the tickets customers would get next to make room.
+     *
+     * @param tickets    The tickets to add, in release order.
+     * @param vendorId   The ID of the vendor releasing the tickets.
+     * @param start      The {@link System#nanoTime()} at which the vendor started waiting,
+     *                   or {@code NOT_TIMED} if it did not wait.
+     * @param epochNanos The time of the release in nanoseconds since the epoch, or {@code WALL_CLOCK} for now.
+     * @return The number of tickets added; less than the block size only if the thread was interrupted.
+     */
+    private int addTicketsDroppingOldest(List<Tickets> tickets, int vendorId, long start, long epochNanos) {
+        TicketPoolEngine currentEngine = engine;
+        int added = 0;
+        while (added < tickets.size() && !Thread.currentThread().isInterrupted()) {
+            List<Tickets> rest = tickets.subList(added, tickets.size());
+            added += recordReleases(rest, vendorId, currentEngine.offerBatch(rest, vendorId, 0), start, epochNanos);
+            // Other vendors may take the space first, so this can take more than one round
+            List<Tickets> dropped = new ArrayList<>(tickets.size() - added);
+            while (dropped.size() < tickets.size() - added) {
+                Tickets oldest = currentEngine.poll(vendorId, 0);
+                if (oldest == null) {
+                    break;
                 }
+                dropped.add(oldest);
             }
+            recordDrops(dropped, epochNanos);
         }
-        ticketsQueue.add(ticket);
-        ticketsAvailable++;
-        notifyAll();
+        return added;
     }
 
     /**
-     * Retrieves a ticket from the pool.
+     * Counts tickets dropped from the pool and journals them.
      *
+     * @param dropped    The dropped tickets.
+     * @param epochNanos The time of the drop in nanoseconds since the epoch, or {@code WALL_CLOCK} for now.
+     */
+    private void recordDrops(List<Tickets> dropped, long epochNanos) {
+        if (dropped.isEmpty()) {
+            return;
+        }
+        for (Tickets ticket : dropped) {
+            eventStats.taken(ticket);
+        }
+        metrics.recordDrops(dropped.size());
+        TicketJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.appendDrops(dropped, epochNanos != WALL_CLOCK ? epochNanos : LoggerService.epochNanos());
+        }
+    }
+
+    /**
+     * Adds as many tickets of a block as there is space for, without waiting.
+     *
+     * @param tickets  The tickets to add, in release order.
+     * @param vendorId The ID of the vendor releasing the tickets.
+     * @return The number of tickets added, counted from the start of the list.
+     */
+    public int tryAddTickets(List<Tickets> tickets, int vendorId) {
+        return tryAddTickets(tickets, vendorId, WALL_CLOCK);
+    }
+
+    /**
+     * Adds as many tickets of a block as there is space for, without waiting, at a given time on a
+     * simulated clock.
+     *
+     * @param tickets    The tickets to add, in release order.
+     * @param vendorId   The ID of the vendor releasing the tickets.
+     * @param epochNanos The time of the release in nanoseconds since the epoch, as journaled.
+     * @return The number of tickets added, counted from the start of the list.
+     */
+    public int tryAddTickets(List<Tickets> tickets, int vendorId, long epochNanos) {
+        return recordReleases(tickets, vendorId, engine.offerBatch(tickets, vendorId, 0), NOT_TIMED, epochNanos);
+    }
+
+    /**
+     * Retrieves a ticket from the pool, waiting while the pool is empty.
+     *
+     * @return The retrieved ticket, or null if the thread was interrupted while waiting.
+     */
+    public Tickets retrieveTicket() {
+        long start = System.nanoTime();
+        return recordSale(engine.poll(-1), 0, start);
+    }
+
+    /**
+     * Retrieves a ticket from the pool on behalf of a customer, waiting while the pool is empty.
+     *
+     * @param customerId The ID of the customer retrieving the ticket.
+     * @return The retrieved ticket, or null if the thread was interrupted while waiting.
+     */
+    public Tickets retrieveTicket(int customerId) {
+        long start = System.nanoTime();
+        return recordSale(engine.poll(customerId, -1), customerId, start);
+    }
+
+    /**
+     * Retrieves a ticket from the pool on behalf of a customer, waiting at most the given time.
+     *
+     * @param customerId   The ID of the customer retrieving the ticket.
+     * @param timeoutNanos The longest to wait in nanoseconds.
+     * @return The retrieved ticket, or null if none became available in time or the thread was interrupted.
+     */
+    public Tickets retrieveTicket(int customerId, long timeoutNanos) {
+        long start = System.nanoTime();
+        return recordSale(engine.poll(customerId, timeoutNanos), customerId, start);
+    }
+
+    /**
+     * Retrieves a ticket from the pool on behalf of a customer if one is available, without waiting.
+     *
+     * @param customerId The ID of the customer retrieving the ticket.
      * @return The retrieved ticket, or null if the pool is empty.
      */
-    public synchronized Tickets retrieveTicket() {
-        while (ticketsQueue.isEmpty()) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                // Check interrupted status and exit if interrupted
-                if (Thread.currentThread().isInterrupted()) {
-                    return null;
-                }
+    public Tickets tryRetrieveTicket(int customerId) {
+        return recordSale(engine.poll(customerId, 0), customerId, NOT_TIMED);
+    }
+
+    /**
+     * Retrieves the cheapest ticket matching a query on behalf of a customer, without waiting.
+     * Requires the {@link PoolEngineType#INDEXED} engine.
+     *
+     * @param query      The event, venue and price limit the ticket must match.
+     * @param customerId The ID of the customer retrieving the ticket.
+     * @return The retrieved ticket, or null if no ticket matches.
+     * @throws UnsupportedOperationException If the pool's engine does not index tickets by event.
+     */
+    public Tickets tryRetrieveTicket(TicketQuery query, int customerId) {
+        return recordSale(engine.poll(query, customerId, 0), customerId, NOT_TIMED);
+    }
+
+    /**
+     * Buys several tickets at once on behalf of a customer, waiting until enough are available.
+     * The purchase is all or nothing: the customer never holds part of a batch.
+     *
+     * @param count      The number of tickets to buy; at most the pool capacity.
+     * @param customerId The ID of the customer buying the tickets.
+     * @return The tickets, or null if the thread was interrupted while waiting or the pool capacity was
+     *         lowered below {@code count}.
+     */
+    public List<Tickets> retrieveTickets(int count, int customerId) {
+        long start = System.nanoTime();
+        return recordSales(engine.pollBatch(count, customerId, -1), customerId, start);
+    }
+
+    /**
+     * Buys several tickets at once on behalf of a customer, following the customer's policy while too few
+     * tickets are available. Purchases given up on are counted as rejected or timed out; an interrupted
+     * customer, or a purchase the pool has shrunk below, is not counted.
+     *
+     * @param count        The number of tickets to buy; at most the pool capacity.
+     * @param customerId   The ID of the customer buying the tickets.
+     * @param policy       What to do while too few tickets are available; null to wait.
+     * @param timeoutNanos The longest to wait in nanoseconds under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     * @return The tickets, or null if the customer gave up, the thread was interrupted or the pool capacity
+     *         was lowered below {@code count}.
+     * @throws IllegalArgumentException If the policy is {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT} and the
+     *                                  timeout is not positive.
+     */
+    public List<Tickets> retrieveTickets(int count, int customerId, BackpressurePolicy policy, long timeoutNanos) {
+        requireTimeout(policy, timeoutNanos);
+        if (policy == null || policy == BackpressurePolicy.BLOCK) {
+            return retrieveTickets(count, customerId);
+        }
+        long timeout = policy == BackpressurePolicy.BLOCK_WITH_TIMEOUT ? timeoutNanos : 0;
+        TicketPoolEngine currentEngine = engine;
+        long start = System.nanoTime();
+        List<Tickets> tickets = recordSales(currentEngine.pollBatch(count, customerId, timeout), customerId, start);
+        if (tickets == null && !Thread.currentThread().isInterrupted() && count <= currentEngine.capacity()) {
+            if (timeout > 0) {
+                metrics.recordPurchaseTimedOut();
+            } else {
+                metrics.recordPurchaseRejected();
             }
         }
-        Tickets ticket = ticketsQueue.poll();
-        ticketsAvailable--;
-        ticketsSold++;
-        notifyAll();
+        return tickets;
+    }
+
+    /**
+     * Checks that a policy that waits for a while has a time to wait, so that a wrong setting is not
+     * mistaken for a full or empty pool.
+     *
+     * @param policy       The vendor or customer policy.
+     * @param timeoutNanos The longest to wait in nanoseconds under {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}.
+     * @throws IllegalArgumentException If the policy is {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT} and the
+     *                                  timeout is not positive.
+     */
+    private static void requireTimeout(BackpressurePolicy policy, long timeoutNanos) {
+        if (policy == BackpressurePolicy.BLOCK_WITH_TIMEOUT && timeoutNanos <= 0) {
+            throw new IllegalArgumentException("A blocking timeout must be positive: " + timeoutNanos + " ns");
+        }
+    }
+
+    /**
+     * Buys several tickets at once on behalf of a customer if enough are available, without waiting.
+     *
+     * @param count      The number of tickets to buy; at most the pool capacity.
+     * @param customerId The ID of the customer buying the tickets.
+     * @return The tickets, or null if fewer than {@code count} are available.
+     */
+    public List<Tickets> tryRetrieveTickets(int count, int customerId) {
+        return tryRetrieveTickets(count, customerId, WALL_CLOCK);
+    }
+
+    /**
+     * Buys several tickets at once on behalf of a customer if enough are available, without waiting, at a
+     * given time on a simulated clock.
+     *
+     * @param count      The number of tickets to buy; at most the pool capacity.
+     * @param customerId The ID of the customer buying the tickets.
+     * @param epochNanos The time of the sale in nanoseconds since the epoch, as entered in the ledger and journal.
+     * @return The tickets, or null if fewer than {@code count} are available.
+     */
+    public List<Tickets> tryRetrieveTickets(int count, int customerId, long epochNanos) {
+        return recordSales(engine.pollBatch(count, customerId, 0), customerId, NOT_TIMED, epochNanos);
+    }
+
+    /**
+     * Takes a ticket out of the pool and holds it for a customer while checkout runs.
+     * The ticket only counts as sold once the hold is confirmed, and goes back to the pool by itself
+     * if the hold is neither confirmed nor cancelled within its time to live.
+     *
+     * @param customerId The ID of the customer holding the ticket.
+     * @param ttlMillis  How long the hold lasts in milliseconds.
+     * @return The hold, or null if the pool is empty.
+     */
+    public TicketHold reserveTicket(int customerId, long ttlMillis) {
+        return reserveTicket(customerId, ttlMillis, 0);
+    }
+
+    /**
+     * Takes a ticket out of the pool and holds it for a customer, waiting at most the given time for one.
+     *
+     * @param customerId   The ID of the customer holding the ticket.
+     * @param ttlMillis    How long the hold lasts in milliseconds.
+     * @param timeoutNanos The longest to wait for a ticket in nanoseconds.
+     * @return The hold, or null if no ticket became available in time or the thread was interrupted.
+     */
+    public TicketHold reserveTicket(int customerId, long ttlMillis, long timeoutNanos) {
+        Tickets ticket = engine.poll(customerId, timeoutNanos);
+        if (ticket == null) {
+            return null;
+        }
+        eventStats.taken(ticket);
+        return holds.hold(ticket, customerId, ttlMillis);
+    }
+
+    /**
+     * Completes the sale of a held ticket.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it does not exist, has expired or was cancelled.
+     */
+    public TicketHold confirmHold(long holdId) {
+        TicketHold hold = holds.settle(holdId);
+        if (hold != null) {
+            metrics.recordSales(1);
+            eventStats.sold(hold.getTicket());
+            long soldAt = LoggerService.epochNanos();
+            ledger.record(hold.getTicket().getId(), hold.getCustomerId(), soldAt);
+            TicketJournal currentJournal = journal;
+            if (currentJournal != null) {
+                currentJournal.appendSales(Collections.singletonList(hold.getTicket()), hold.getCustomerId(), soldAt);
+            }
+        }
+        return hold;
+    }
+
+    /**
+     * Cancels a hold and puts its ticket back into the pool.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it does not exist, has expired or was already confirmed.
+     */
+    public TicketHold cancelHold(long holdId) {
+        return holds.cancel(holdId);
+    }
+
+    /**
+     * Puts a ticket whose hold ended back into the pool, without waiting.
+     *
+     * @param ticket The ticket.
+     * @return True if the ticket was added, false if the pool is full.
+     */
+    private boolean returnTicket(Tickets ticket) {
+        if (!engine.offer(ticket, 0)) {
+            return false;
+        }
+        eventStats.added(ticket);
+        return true;
+    }
+
+    /**
+     * Counts an added ticket and records how long the vendor waited.
+     * Non-waiting adds are counted but not timed, since virtual time runs retry them on a simulated clock.
+     *
+     * @param ticket   The ticket.
+     * @param vendorId The ID of the vendor that released the ticket.
+     * @param added    True if the ticket was added.
+     * @param start    The {@link System#nanoTime()} at which the vendor started waiting,
+     *                 or {@code NOT_TIMED} if it did not wait.
+     * @return The same value as {@code added}.
+     */
+    private boolean recordRelease(Tickets ticket, int vendorId, boolean added, long start) {
+        if (added) {
+            eventStats.added(ticket);
+            TicketJournal currentJournal = journal;
+            if (currentJournal != null) {
+                currentJournal.appendRelease(ticket, vendorId, LoggerService.epochNanos());
+            }
+            countReleases(1, start);
+        }
+        return added;
+    }
+
+    /**
+     * Counts the added tickets of a block and records how long the vendor waited for them.
+     *
+     * @param tickets  The block.
+     * @param vendorId The ID of the vendor that released the block.
+     * @param added    The number of tickets added, counted from the start of the block.
+     * @param start    The {@link System#nanoTime()} at which the vendor started waiting,
+     *                 or {@code NOT_TIMED} if it did not wait.
+     * @return The same value as {@code added}.
+     */
+    private int recordReleases(List<Tickets> tickets, int vendorId, int added, long start) {
+        return recordReleases(tickets, vendorId, added, start, WALL_CLOCK);
+    }
+
+    /**
+     * Counts the added tickets of a block released at a given time and records how long the vendor waited.
+     *
+     * @param tickets    The block.
+     * @param vendorId   The ID of the vendor that released the block.
+     * @param added      The number of tickets added, counted from the start of the block.
+     * @param start      The {@link System#nanoTime()} at which the vendor started waiting,
+     *                   or {@code NOT_TIMED} if it did not wait.
+     * @param epochNanos The time of the release in nanoseconds since the epoch, or {@code WALL_CLOCK} for now.
+     * @return The same value as {@code added}.
+     */
+    private int recordReleases(List<Tickets> tickets, int vendorId, int added, long start, long epochNanos) {
+        for (int i = 0; i < added; i++) {
+            eventStats.added(tickets.get(i));
+        }
+        TicketJournal currentJournal = journal;
+        if (currentJournal != null && added > 0) {
+            currentJournal.appendReleases(tickets, added, vendorId,
+                    epochNanos != WALL_CLOCK ? epochNanos : LoggerService.epochNanos());
+        }
+        countReleases(added, start);
+        return added;
+    }
+
+    /**
+     * Counts added tickets and records how long the vendor waited for them.
+     *
+     * @param added The number of tickets added.
+     * @param start The {@link System#nanoTime()} at which the vendor started waiting,
+     *              or {@code NOT_TIMED} if it did not wait.
+     */
+    private void countReleases(int added, long start) {
+        if (added > 0) {
+            metrics.recordReleases(added);
+            if (start != NOT_TIMED) {
+                metrics.recordAddWait(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Counts a retrieved ticket as sold and records how long the customer waited and the ticket was pooled.
+     *
+     * @param ticket     The retrieved ticket, or null if none was retrieved.
+     * @param customerId The ID of the customer who bought the ticket.
+     * @param start      The {@link System#nanoTime()} at which the customer started waiting,
+     *                   or {@code NOT_TIMED} if it did not wait.
+     * @return The same ticket.
+     */
+    private Tickets recordSale(Tickets ticket, int customerId, long start) {
+        if (ticket != null) {
+            recordSales(Collections.singletonList(ticket), customerId, start);
+        }
         return ticket;
     }
 
+    /**
+     * Counts a purchase, enters it in the sales ledger and records how long the customer waited
+     * and each ticket was pooled.
+     *
+     * @param tickets    The purchased tickets, or null if the purchase did not happen.
+     * @param customerId The ID of the customer who bought the tickets.
+     * @param start      The {@link System#nanoTime()} at which the customer started waiting,
+     *                   or {@code NOT_TIMED} if it did not wait.
+     * @return The same tickets.
+     */
+    private List<Tickets> recordSales(List<Tickets> tickets, int customerId, long start) {
+        return recordSales(tickets, customerId, start, WALL_CLOCK);
+    }
+
+    /**
+     * Counts a purchase made at a given time, enters it in the sales ledger and records how long the
+     * customer waited and each ticket was pooled.
+     *
+     * @param tickets    The purchased tickets, or null if the purchase did not happen.
+     * @param customerId The ID of the customer who bought the tickets.
+     * @param start      The {@link System#nanoTime()} at which the customer started waiting,
+     *                   or {@code NOT_TIMED} if it did not wait.
+     * @param epochNanos The time of the sale in nanoseconds since the epoch, or {@code WALL_CLOCK} for now.
+     * @return The same tickets.
+     */
+    private List<Tickets> recordSales(List<Tickets> tickets, int customerId, long start, long epochNanos) {
+        if (tickets != null) {
+            metrics.recordSales(tickets.size());
+            SalesLedger currentLedger = ledger;
+            long soldAt = epochNanos != WALL_CLOCK ? epochNanos : LoggerService.epochNanos();
+            for (Tickets ticket : tickets) {
+                eventStats.taken(ticket);
+                eventStats.sold(ticket);
+                currentLedger.record(ticket.getId(), customerId, soldAt);
+            }
+            TicketJournal currentJournal = journal;
+            if (currentJournal != null) {
+                currentJournal.appendSales(tickets, customerId, soldAt);
+            }
+            if (start != NOT_TIMED) {
+                long now = System.nanoTime();
+                metrics.recordRetrieveWait(now - start);
+                for (Tickets ticket : tickets) {
+                    metrics.recordTimeInPool(now - ticket.pooledAtNanos());
+                }
+            }
+        }
+        return tickets;
+    }
+
     /**
      * Gets the number of available tickets in the pool.
      *
      * @return The number of available tickets.
      */
-    public synchronized int getTicketsAvailable() {
-        return ticketsAvailable;
+    public int getTicketsAvailable() {
+        return engine.size();
+    }
+
+    /**
+     * Changes the capacity of the pool while vendors and customers keep using it. Tickets already in the
+     * pool stay there if it shrinks; vendors wait until customers have brought it below the new capacity.
+     *
+     * @param capacity The new capacity.
+     * @throws IllegalArgumentException If the capacity is not positive or more than the engine can hold.
+     */
+    public void setCapacity(int capacity) {
+        engine.setCapacity(capacity);
+    }
+
+    /**
+     * Gets the number of tickets held for customers and not yet confirmed.
+     *
+     * @return The number of held tickets.
+     */
+    public int getTicketsHeld() {
+        return holds.size();
     }
 
     /**
@@ -86,7 +721,64 @@ public class TicketPool {
      *
      * @return The number of sold tickets.
      */
-    public synchronized int getTicketsSold() {
-        return ticketsSold;
+    public int getTicketsSold() {
+        return (int) metrics.getTicketsSold();
+    }
+
+    /**
+     * Gets the available and sold tickets of every event, ordered by event.
+     *
+     * @return The counters per event.
+     */
+    public List<EventAvailability> getEventAvailability() {
+        return eventStats.snapshot();
+    }
+
+    /**
+     * Gets the available and sold tickets of one event.
+     *
+     * @param event The event.
+     * @return The counters, or null if the pool has never seen a ticket of the event.
+     */
+    public EventAvailability getEventAvailability(String event) {
+        return eventStats.snapshot(event);
+    }
+
+    /**
+     * Looks up whether a ticket has been sold, and to whom.
+     *
+     * @param ticketId The ticket ID.
+     * @return The ticket's sale status.
+     */
+    public TicketSaleStatus getTicketSale(int ticketId) {
+        return ledger.lookup(ticketId);
+    }
+
+    /**
+     * Checks the sales ledger against the tickets released, pooled and held.
+     *
+     * @param maxTicketId The highest ticket ID of the run.
+     * @return The report.
+     */
+    public IntegrityReport getIntegrityReport(int maxTicketId) {
+        return ledger.report(maxTicketId, metrics.getTicketsReleased(), engine.size(), holds.size(),
+                metrics.getTicketsDropped());
+    }
+
+    /**
+     * Gets the latency and throughput metrics of the pool.
+     *
+     * @return The metrics.
+     */
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stops the thread that expires holds.
+     */
+    @PreDestroy
+    public void close() {
+        holds.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.TicketQuery;
+import com.example.ticket_simulation.model.Tickets;
+
+import java.util.List;
+
+/**
+ * Storage engine behind the {@link TicketPool}.
+ * Implementations hold at most {@link #capacity()} tickets and hand them out in FIFO order
+ * (per partition, for engines that partition their storage).
+ */
+public interface TicketPoolEngine {
+
+    /**
+     * Adds a ticket, waiting for space if the engine is full.
+     *
+     * @param ticket       The ticket to add.
+     * @param timeoutNanos How long to wait for space in nanoseconds; a negative value waits indefinitely
+     *                     and zero does not wait at all.
+     * @return True if the ticket was added, false if the wait timed out or the thread was interrupted.
+     */
+    boolean offer(Tickets ticket, long timeoutNanos);
+
+    /**
+     * Removes the oldest ticket, waiting for one if the engine is empty.
+     *
+     * @param timeoutNanos How long to wait for a ticket in nanoseconds; a negative value waits indefinitely
+     *                     and zero does not wait at all.
+     * @return The ticket, or null if the wait timed out or the thread was interrupted.
+     */
+    Tickets poll(long timeoutNanos);
+
+    /**
+     * Adds a ticket on behalf of a vendor. Engines that partition their storage use the vendor ID
+     * to pick a home partition; others ignore it.
+     *
+     * @param ticket       The ticket to add.
+     * @param vendorId     The ID of the vendor releasing the ticket.
+     * @param timeoutNanos How long to wait for space, as for {@link #offer(Tickets, long)}.
+     * @return True if the ticket was added, false if the wait timed out or the thread was interrupted.
+     */
+    default boolean offer(Tickets ticket, int vendorId, long timeoutNanos) {
+        return offer(ticket, timeoutNanos);
+    }
+
+    /**
+     * Removes a ticket on behalf of a customer. Engines that partition their storage use the customer ID
+     * to pick a home partition; others ignore it.
+     *
+     * @param customerId   The ID of the customer retrieving the ticket.
+     * @param timeoutNanos How long to wait for a ticket, as for {@link #poll(long)}.
+     * @return The ticket, or null if the wait timed out or the thread was interrupted.
+     */
+    default Tickets poll(int customerId, long timeoutNanos) {
+        return poll(timeoutNanos);
+    }
+
+    /**
+     * Removes the cheapest ticket that matches a query, oldest first among equally priced tickets.
+     * Only engines that index their storage by event support this.
+     *
+     * @param query        The event, venue and price limit the ticket must match.
+     * @param customerId   The ID of the customer retrieving the ticket.
+     * @param timeoutNanos How long to wait for a matching ticket, as for {@link #poll(long)}.
+     * @return The ticket, or null if the wait timed out or the thread was interrupted.
+     * @throws UnsupportedOperationException If the engine does not index its storage.
+     */
+    default Tickets poll(TicketQuery query, int customerId, long timeoutNanos) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot look tickets up by event");
+    }
+
+    /**
+     * Adds a block of tickets on behalf of a vendor, in order, taking as much free space as is available
+     * at a time instead of one ticket at a time. Tickets may become available to customers before the
+     * whole block has been added.
+     *
+     * @param tickets      The tickets to add.
+     * @param vendorId     The ID of the vendor releasing the tickets.
+     * @param timeoutNanos How long to wait for space, as for {@link #offer(Tickets, long)}.
+     * @return The number of tickets added, counted from the start of the list; less than the list size
+     *         only if the wait timed out or the thread was interrupted.
+     */
+    int offerBatch(List<Tickets> tickets, int vendorId, long timeoutNanos);
+
+    /**
+     * Removes several tickets at once on behalf of a customer. Either all of them are removed together
+     * or none are.
+     *
+     * @param count        The number of tickets to remove; at most {@link #capacity()}.
+     * @param customerId   The ID of the customer retrieving the tickets.
+     * @param timeoutNanos How long to wait until enough tickets are available, as for {@link #poll(long)}.
+     * @return The tickets, or null if the wait timed out, the thread was interrupted or the capacity was
+     *         lowered below {@code count}, so that the pool could never fill up to it.
+     * @throws IllegalArgumentException If {@code count} is not positive.
+     */
+    List<Tickets> pollBatch(int count, int customerId, long timeoutNanos);
+
+    /**
+     * Gets the number of tickets currently held.
+     *
+     * @return The number of tickets.
+     */
+    int size();
+
+    /**
+     * Gets the maximum number of tickets the engine holds.
+     *
+     * @return The capacity.
+     */
+    int capacity();
+
+    /**
+     * Changes the maximum number of tickets the engine holds while vendors and customers keep using it.
+     * Growing the pool wakes producers waiting for space. Shrinking it below the number of tickets held
+     * removes none of them: producers wait until customers have taken the pool below the new capacity,
+     * and batch retrievals waiting for more tickets than the new capacity give up.
+     *
+     * @param capacity The new capacity.
+     * @throws IllegalArgumentException If the capacity is not positive or more than the engine can hold.
+     */
+    void setCapacity(int capacity);
+}
@@ -1,13 +1,28 @@
 package com.example.ticket_simulation.service;
 
+import com.example.ticket_simulation.model.BackpressurePolicy;
 import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ConfigurationUpdate;
+import com.example.ticket_simulation.model.EventAvailability;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.ReleaseControlSnapshot;
+import com.example.ticket_simulation.model.TicketHold;
+import com.example.ticket_simulation.model.TicketQuery;
+import com.example.ticket_simulation.model.TicketSaleStatus;
 import com.example.ticket_simulation.model.Tickets;
-import com.example.ticket_simulation.util.SaveConfiguration;
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.util.ThreadExecutors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -22,15 +37,55 @@ public class TicketService {
     @Autowired
     private LoggerService loggerService;
 
-    private Configuration currentConfig;
-    private List<Thread> activeThreads = new ArrayList<>();
+    @Autowired
+    private ConfigurationStore configurationStore;
+
+    // Replaced rather than changed by live updates, so vendors and customers always see a whole configuration
+    private volatile Configuration currentConfig;
+    private ExecutorService actorExecutor;
+    // Null unless the service belongs to a session; then its runs lease their threads from a shared budget
+    private SharedActorExecutor sharedExecutor;
+    // Null unless the run controls its release rate; kept after the run so its decisions can still be read
+    private volatile ReleaseRateController releaseController;
     private AtomicBoolean simulationRunning = new AtomicBoolean(false);
     private AtomicBoolean simulationStarted = new AtomicBoolean(false);
 
+    /**
+     * Constructs a TicketService whose collaborators are injected by Spring.
+     */
+    public TicketService() {
+    }
+
+    /**
+     * Constructs a TicketService with the given collaborators, for use outside a Spring context.
+     * Configurations are not saved.
+     *
+     * @param ticketPool    The pool the vendors and customers share.
+     * @param loggerService The service that receives the log messages.
+     */
+    TicketService(TicketPool ticketPool, LoggerService loggerService) {
+        this(ticketPool, loggerService, null);
+    }
+
+    /**
+     * Constructs a TicketService for a session, whose runs take their threads from a budget shared with
+     * other sessions. Configurations are not saved.
+     *
+     * @param ticketPool     The pool the vendors and customers share.
+     * @param loggerService  The service that receives the log messages.
+     * @param sharedExecutor The thread budget, or null to start threads freely.
+     */
+    TicketService(TicketPool ticketPool, LoggerService loggerService, SharedActorExecutor sharedExecutor) {
+        this.ticketPool = ticketPool;
+        this.loggerService = loggerService;
+        this.sharedExecutor = sharedExecutor;
+    }
+
     /**
      * Starts the simulation with the given configuration.
      *
      * @param config The simulation configuration.
+     * @throws IllegalArgumentException If the backpressure settings are invalid for the run.
      */
     public void startSimulation(Configuration config) {
         if (simulationStarted.get()) {
@@ -38,91 +93,502 @@ public class TicketService {
             return;
         }
 
-        this.currentConfig = config;
-        ticketPool.initialize(config.getMaxTicketCapacity());
-        loggerService.clearLogs();
-        activeThreads.clear();
-
+        configure(config);
         loggerService.log("Simulation configuration: " +
                 "Total Tickets = " + config.getTotalTickets() +
                 ", Ticket Release Rate = " + config.getTicketReleaseRate() +
                 ", Customer Retrieval Rate = " + config.getCustomerRetrievalRate() +
-                ", Max Ticket Capacity = " + config.getMaxTicketCapacity());
+                ", Max Ticket Capacity = " + config.getMaxTicketCapacity() +
+                ", Release Batch Size = " + config.getReleaseBatchSize() +
+                ", Purchase Batch Size = " + config.getPurchaseBatchSize() +
+                ", Events = " + config.getEventCount() +
+                ", Price Tiers = " + config.getPriceTiers() +
+                ", Pool Engine = " + config.getPoolEngine() +
+                ", Vendors = " + config.getVendorCount() +
+                ", Customers = " + config.getCustomerCount() +
+                ", Execution Mode = " + config.getExecutionMode() +
+                ", Releases Per Second = " + config.getReleasesPerSecond() +
+                ", Purchases Per Second = " + config.getPurchasesPerSecond() +
+                ", Vendor Backpressure = " + config.getVendorBackpressure() +
+                ", Customer Backpressure = " + config.getCustomerBackpressure() +
+                (config.getScenario() != null ? ", Load Scenario = " + config.getScenario() : "") +
+                (config.getReleaseControl() != null ? ", Release Control = " + config.getReleaseControl() : ""));
 
-        SaveConfiguration.saveAsJson(config);
-        SaveConfiguration.saveAsText(config);
-        loggerService.log("Configuration saved.");
+        if (configurationStore != null) {
+            configurationStore.save(config);
+        }
         simulationStarted.set(true);
     }
 
+    /**
+     * Applies the last saved configuration when the application starts, so a run can begin without
+     * {@code /api/start}. Off unless {@code config.load-on-startup} is set, and skipped if the journal
+     * already restored a run. A new configuration can still be started afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSavedConfiguration() {
+        if (currentConfig != null || !configurationStore.isLoadOnStartup()) {
+            return;
+        }
+        Configuration config = configurationStore.loadLatest();
+        if (config != null) {
+            try {
+                configure(config);
+            } catch (IllegalArgumentException e) {
+                loggerService.log("The last saved configuration was not loaded: " + e.getMessage());
+                return;
+            }
+            loggerService.log("Loaded the last saved configuration: Total Tickets = " + config.getTotalTickets()
+                    + ", Max Ticket Capacity = " + config.getMaxTicketCapacity()
+                    + ", Pool Engine = " + config.getPoolEngine()
+                    + ", Execution Mode = " + config.getExecutionMode());
+        }
+    }
+
+    /**
+     * Gets the configuration of the current run.
+     *
+     * @return The configuration, or null if none has been applied.
+     */
+    public Configuration getConfiguration() {
+        return currentConfig;
+    }
+
+    /**
+     * Changes the rates and the pool capacity of the current run without stopping it. Vendors and customers
+     * pick up the new rates after their next release or purchase, or within a millisecond in a paced run,
+     * and the pool grows or shrinks in place.
+     * The changed configuration is saved as a new version.
+     *
+     * @param update The settings to change; null settings are kept.
+     * @return The changed configuration.
+     * @throws IllegalArgumentException If a rate is negative, the capacity is not positive, or the pool
+     *                                  engine cannot hold that many tickets.
+     * @throws IllegalStateException    If no configuration has been applied, or a virtual time run is running.
+     */
+    public synchronized Configuration updateConfiguration(ConfigurationUpdate update) {
+        Configuration config = currentConfig;
+        if (config == null) {
+            throw new IllegalStateException("No simulation is configured.");
+        }
+        if (simulationRunning.get() && config.getExecutionMode() == ExecutionMode.VIRTUAL_TIME) {
+            throw new IllegalStateException("A virtual time run cannot be changed while it is running.");
+        }
+        Configuration updated = new Configuration(config);
+        if (update.getTicketReleaseRate() != null) {
+            if (update.getTicketReleaseRate() < 0) {
+                throw new IllegalArgumentException("Ticket release rate must not be negative: "
+                        + update.getTicketReleaseRate());
+            }
+            updated.setTicketReleaseRate(update.getTicketReleaseRate());
+        }
+        if (update.getCustomerRetrievalRate() != null) {
+            if (update.getCustomerRetrievalRate() < 0) {
+                throw new IllegalArgumentException("Customer retrieval rate must not be negative: "
+                        + update.getCustomerRetrievalRate());
+            }
+            updated.setCustomerRetrievalRate(update.getCustomerRetrievalRate());
+        }
+        if (update.getReleasesPerSecond() != null) {
+            if (update.getReleasesPerSecond() < 0) {
+                throw new IllegalArgumentException("Releases per second must not be negative: "
+                        + update.getReleasesPerSecond());
+            }
+            updated.setReleasesPerSecond(update.getReleasesPerSecond());
+        }
+        if (update.getPurchasesPerSecond() != null) {
+            if (update.getPurchasesPerSecond() < 0) {
+                throw new IllegalArgumentException("Purchases per second must not be negative: "
+                        + update.getPurchasesPerSecond());
+            }
+            updated.setPurchasesPerSecond(update.getPurchasesPerSecond());
+        }
+        if (update.getMaxTicketCapacity() != null) {
+            if (update.getMaxTicketCapacity() <= 0) {
+                throw new IllegalArgumentException("Max ticket capacity must be positive: "
+                        + update.getMaxTicketCapacity());
+            }
+            updated.setMaxTicketCapacity(update.getMaxTicketCapacity());
+        }
+        int previous = config.getMaxTicketCapacity();
+        int capacity = updated.getMaxTicketCapacity();
+        // Customers size their purchases from the configuration, so it must never promise more than the pool holds
+        if (capacity < previous) {
+            currentConfig = updated;
+            ticketPool.setCapacity(capacity);
+        } else {
+            if (capacity > previous) {
+                ticketPool.setCapacity(capacity);
+            }
+            currentConfig = updated;
+        }
+        loggerService.log("Simulation configuration updated: " +
+                "Ticket Release Rate = " + updated.getTicketReleaseRate() +
+                ", Customer Retrieval Rate = " + updated.getCustomerRetrievalRate() +
+                ", Max Ticket Capacity = " + updated.getMaxTicketCapacity() +
+                ", Releases Per Second = " + updated.getReleasesPerSecond() +
+                ", Purchases Per Second = " + updated.getPurchasesPerSecond());
+        if (configurationStore != null) {
+            configurationStore.save(updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Applies a configuration without saving it: sets up an empty pool and clears the logs.
+     *
+     * @param config The simulation configuration.
+     * @throws IllegalArgumentException If the backpressure settings are invalid for the run.
+     */
+    void configure(Configuration config) {
+        validate(config);
+        this.currentConfig = config;
+        this.releaseController = null;
+        ticketPool.initialize(config);
+        loggerService.clearLogs();
+    }
+
+    /**
+     * Checks the backpressure settings of a configuration before anything is set up.
+     *
+     * @param config The simulation configuration.
+     * @throws IllegalArgumentException If a policy waits with a timeout that is not positive, or a paced run
+     *                                  asks for a policy other than waiting.
+     */
+    static void validate(Configuration config) {
+        if (config.getVendorBackpressure() == BackpressurePolicy.BLOCK_WITH_TIMEOUT
+                && config.getVendorTimeoutMillis() <= 0) {
+            throw new IllegalArgumentException("Vendor timeout must be positive: "
+                    + config.getVendorTimeoutMillis() + " ms");
+        }
+        if (config.getCustomerBackpressure() == BackpressurePolicy.BLOCK_WITH_TIMEOUT
+                && config.getCustomerTimeoutMillis() <= 0) {
+            throw new IllegalArgumentException("Customer timeout must be positive: "
+                    + config.getCustomerTimeoutMillis() + " ms");
+        }
+        // The pacer only dispatches what the pool can take, so a paced actor never waits on the pool
+        if (config.getExecutionMode() == ExecutionMode.PACED
+                && (!blocks(config.getVendorBackpressure()) || !blocks(config.getCustomerBackpressure()))) {
+            throw new IllegalArgumentException("Paced runs never wait on the pool and only support BLOCK "
+                    + "backpressure: vendors " + config.getVendorBackpressure()
+                    + ", customers " + config.getCustomerBackpressure());
+        }
+    }
+
+    /**
+     * Tells whether a policy is the default of waiting until the operation completes.
+     *
+     * @param policy The policy, or null.
+     * @return True if the policy is null or {@link BackpressurePolicy#BLOCK}.
+     */
+    private static boolean blocks(BackpressurePolicy policy) {
+        return policy == null || policy == BackpressurePolicy.BLOCK;
+    }
+
+    /**
+     * Restores the run recovered from the journal, without starting it. The pool and the sales ledger
+     * come back as they were; a new run still has to be started with a configuration.
+     *
+     * @param state The recovered state; its configuration must not be null.
+     * @return The number of unsold tickets that no longer fit in the pool.
+     */
+    int restore(JournalState state) {
+        this.currentConfig = state.getConfiguration();
+        return ticketPool.restore(currentConfig, state);
+    }
+
     /**
      * Runs the simulation, starting the vendor and customer threads.
+     *
+     * @throws IllegalStateException    If the service belongs to a session and the shared thread budget cannot
+     *                                  cover the run.
+     * @throws IllegalArgumentException If the release control settings are out of range, or the service
+     *                                  belongs to a session and the run asks for virtual threads.
      */
     public void runSimulation() {
         if (simulationRunning.get()) {
             loggerService.log("Simulation is already running.");
             return;
         }
+        // Virtual time runs keep the configured rate, since their clock does not follow the pool
+        this.releaseController = currentConfig.getReleaseControl() != null
+                && currentConfig.getExecutionMode() != ExecutionMode.VIRTUAL_TIME
+                ? new ReleaseRateController(() -> currentConfig, ticketPool) : null;
+        this.actorExecutor = createActorExecutor(currentConfig.getExecutionMode());
         this.simulationRunning.set(true);
+        if (currentConfig.getExecutionMode() == ExecutionMode.VIRTUAL_TIME) {
+            // A single thread replays every vendor and customer on the simulated clock
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(currentConfig, ticketPool, loggerService);
+            actorExecutor.execute(named("Virtual Time", () -> {
+                long simulatedMillis = simulation.run(simulationRunning::get);
+                loggerService.log("Virtual time run ended after " + simulatedMillis + " ms of simulated time.");
+                loggerService.log(getIntegrityReport().toString());
+            }));
+            actorExecutor.shutdown();
+            return;
+        }
+        if (currentConfig.getExecutionMode() == ExecutionMode.PACED) {
+            // One pacer and a few workers stand in for every vendor and customer
+            PacedSimulation simulation = new PacedSimulation(() -> currentConfig, ticketPool, loggerService,
+                    releaseController);
+            simulation.start(actorExecutor, simulationRunning::get);
+            actorExecutor.shutdown();
+            return;
+        }
         // Start vendor threads
-        for (int i = 1; i <= 10; i++) {
-            Thread vendorThread = new Thread(createVendorRunnable(i), "Vendor " + i);
-            activeThreads.add(vendorThread);
-            vendorThread.start();
+        for (int i = 1; i <= currentConfig.getVendorCount(); i++) {
+            actorExecutor.execute(named("Vendor " + i, createVendorRunnable(i)));
         }
 
         // Start customer threads
-        for (int i = 1; i <= 10; i++) {
-            Thread customerThread = new Thread(createCustomerRunnable(i), "Customer " + i);
-            activeThreads.add(customerThread);
-            customerThread.start();
+        for (int i = 1; i <= currentConfig.getCustomerCount(); i++) {
+            actorExecutor.execute(named("Customer " + i, createCustomerRunnable(i)));
         }
+        // Every task is in; the threads are released as the vendors and customers finish
+        actorExecutor.shutdown();
     }
 
     /**
-     * Creates a Runnable for a vendor thread.
+     * Creates the executor that runs one thread per vendor and customer, or the threads of a virtual time
+     * or paced run.
+     *
+     * @param mode The requested execution mode.
+     * @return A new executor.
+     * @throws IllegalArgumentException If the service belongs to a session and the run asks for virtual threads,
+     *                                  which the thread budget cannot bound.
+     * @throws IllegalStateException    If the service belongs to a session and the budget cannot cover the run.
+     */
+    private ExecutorService createActorExecutor(ExecutionMode mode) {
+        if (mode == ExecutionMode.VIRTUAL_THREADS && sharedExecutor != null) {
+            throw new IllegalArgumentException("Session runs cannot use virtual threads, which the shared thread "
+                    + "budget does not cover; use platform threads or a paced run");
+        }
+        if (mode == ExecutionMode.VIRTUAL_THREADS) {
+            ExecutorService executor = ThreadExecutors.newVirtualThreadPerTaskExecutor().orElse(null);
+            if (executor != null) {
+                return executor;
+            }
+            loggerService.log("Virtual threads are not supported by this JVM, using platform threads.");
+        }
+        if (sharedExecutor != null) {
+            return sharedExecutor.lease(actorThreads(currentConfig));
+        }
+        return ThreadExecutors.newPlatformThreadPerTaskExecutor();
+    }
+
+    /**
+     * Gets the number of platform threads a run uses at once.
+     *
+     * @param config The configuration of the run.
+     * @return One per vendor and customer, one for a virtual time run, or the driver, the pacer and the
+     *         workers of a paced run.
+     */
+    static int actorThreads(Configuration config) {
+        if (config.getExecutionMode() == ExecutionMode.VIRTUAL_TIME) {
+            return 1;
+        }
+        if (config.getExecutionMode() == ExecutionMode.PACED) {
+            return 2 + PacedSimulation.workerCount(config);
+        }
+        return config.getVendorCount() + config.getCustomerCount();
+    }
+
+    /**
+     * Wraps a Runnable so that the thread running it carries the given name.
+     *
+     * @param name     The thread name.
+     * @param runnable The Runnable to wrap.
+     * @return The wrapped Runnable.
+     */
+    static Runnable named(String name, Runnable runnable) {
+        return () -> {
+            Thread.currentThread().setName(name);
+            runnable.run();
+        };
+    }
+
+    /**
+     * Gets the number of tickets handled by one of several actors sharing the total evenly.
+     *
+     * @param config     The simulation configuration.
+     * @param actorId    The 1-based ID of the actor.
+     * @param actorCount The number of actors.
+     * @return The number of tickets for the actor.
+     */
+    static int ticketShare(Configuration config, int actorId, int actorCount) {
+        int total = config.getTotalTickets();
+        return total / actorCount + (actorId <= total % actorCount ? 1 : 0);
+    }
+
+    /**
+     * Gets the ID of the first ticket released by a vendor; each vendor releases a contiguous range.
+     *
+     * @param config   The simulation configuration.
+     * @param vendorId The 1-based ID of the vendor.
+     * @return The first ticket ID for the vendor.
+     */
+    static int firstTicketId(Configuration config, int vendorId) {
+        int total = config.getTotalTickets();
+        int vendorCount = config.getVendorCount();
+        return (vendorId - 1) * (total / vendorCount) + Math.min(vendorId - 1, total % vendorCount) + 1;
+    }
+
+    /**
+     * Gets the number of tickets a vendor releases in its next block.
+     *
+     * @param config    The simulation configuration.
+     * @param remaining The number of tickets the vendor still has to release.
+     * @return The block size; at least 1 and at most {@code remaining}.
+     */
+    static int releaseBatch(Configuration config, int remaining) {
+        return Math.min(Math.max(1, config.getReleaseBatchSize()), remaining);
+    }
+
+    /**
+     * Gets the number of tickets a customer buys in its next purchase.
+     * A purchase larger than the pool could never complete, so it is capped at the pool capacity.
+     *
+     * @param config    The simulation configuration.
+     * @param remaining The number of tickets the customer still has to buy.
+     * @return The purchase size; at least 1 and at most {@code remaining} and the pool capacity.
+     */
+    static int purchaseBatch(Configuration config, int remaining) {
+        int size = Math.min(config.getPurchaseBatchSize(), config.getMaxTicketCapacity());
+        return Math.min(Math.max(1, size), remaining);
+    }
+
+    /**
+     * Creates the ticket a vendor releases.
+     *
+     * @param ticketId The ID of the ticket.
+     * @return The new ticket.
+     */
+    static Tickets createTicket(int ticketId) {
+        return new Tickets(ticketId, "Event", "Location", 100.0);
+    }
+
+    /**
+     * Creates the ticket a vendor releases when several events or price tiers are on sale.
+     * Consecutive ticket IDs go round the events, and each pass round the events moves up a price tier,
+     * so every vendor's range covers every event and tier.
+     *
+     * @param config   The simulation configuration.
+     * @param ticketId The ID of the ticket.
+     * @return The new ticket.
+     */
+    static Tickets createTicket(Configuration config, int ticketId) {
+        int events = Math.max(1, config.getEventCount());
+        int tiers = Math.max(1, config.getPriceTiers());
+        if (events == 1 && tiers == 1) {
+            return createTicket(ticketId);
+        }
+        int event = (ticketId - 1) % events + 1;
+        int tier = (ticketId - 1) / events % tiers;
+        return new Tickets(ticketId, events == 1 ? "Event" : "Event " + event,
+                events == 1 ? "Location" : "Venue " + event, 100.0 + 50.0 * tier);
+    }
+
+    /**
+     * Creates a Runnable for a vendor thread. A vendor that gives up on a full pool keeps the rest of its
+     * block and tries again after its release interval.
      *
      * @param vendorId The ID of the vendor.
      * @return A Runnable for the vendor thread.
      */
     private Runnable createVendorRunnable(int vendorId) {
         return () -> {
-            int ticketIdCounter = (vendorId - 1) * currentConfig.getTotalTickets() / 10 + 1;
-            for (int i = 0; i < currentConfig.getTotalTickets() / 10; i++) {
+            int ticketIdCounter = firstTicketId(currentConfig, vendorId);
+            int remaining = ticketShare(currentConfig, vendorId, currentConfig.getVendorCount());
+            List<Tickets> batch = new ArrayList<>(releaseBatch(currentConfig, remaining));
+            while (remaining > 0) {
                 if (!simulationRunning.get())
                     break;
-                Tickets ticket = new Tickets(ticketIdCounter++, "Event", "Location", 100.0);
-                ticketPool.addTicket(ticket);
-                loggerService.log("Vendor " + vendorId + " added " + ticket + " [Event: "
-                        + ticket.getEvent() + ", Location: " + ticket.getLocation() + ", Price: $"
-                        + ticket.getPrice() + "]");
-                sleepFor(currentConfig.getTicketReleaseRate());
+                if (batch.isEmpty()) {
+                    for (int i = releaseBatch(currentConfig, remaining); i > 0; i--) {
+                        batch.add(createTicket(currentConfig, ticketIdCounter++));
+                    }
+                }
+                int added = ticketPool.addTickets(batch, vendorId, currentConfig.getVendorBackpressure(),
+                        TimeUnit.MILLISECONDS.toNanos(currentConfig.getVendorTimeoutMillis()));
+                for (int i = 0; i < added; i++) {
+                    loggerService.ticketAdded(vendorId, batch.get(i));
+                }
+                remaining -= added;
+                batch.subList(0, added).clear();
+                if (!batch.isEmpty() && Thread.currentThread().isInterrupted()) {
+                    // Interrupted while waiting for space; the rest of the block is never released
+                    break;
+                }
+                pauseBetweenReleases();
             }
         };
     }
 
     /**
-     * Creates a Runnable for a customer thread.
+     * Creates a Runnable for a customer thread. A customer that gives up on a purchase abandons it and
+     * moves on to its next one.
      *
      * @param customerId The ID of the customer.
      * @return A Runnable for the customer thread.
      */
     private Runnable createCustomerRunnable(int customerId) {
         return () -> {
-            for (int i = 0; i < currentConfig.getTotalTickets() / 10; i++) {
+            int remaining = ticketShare(currentConfig, customerId, currentConfig.getCustomerCount());
+            while (remaining > 0) {
                 if (!simulationRunning.get())
                     break;
-                Tickets retrievedTicket = ticketPool.retrieveTicket();
-                if (retrievedTicket != null) {
-                    loggerService.log("Customer " + customerId + " retrieved " + retrievedTicket + " [Event: "
-                            + retrievedTicket.getEvent() + ", Location: " + retrievedTicket.getLocation()
-                            + ", Price: $" + retrievedTicket.getPrice() + "]");
+                int count = purchaseBatch(currentConfig, remaining);
+                BackpressurePolicy policy = currentConfig.getCustomerBackpressure();
+                List<Tickets> purchased = ticketPool.retrieveTickets(count, customerId, policy,
+                        TimeUnit.MILLISECONDS.toNanos(currentConfig.getCustomerTimeoutMillis()));
+                if (purchased == null) {
+                    if (policy == null || policy == BackpressurePolicy.BLOCK || Thread.currentThread().isInterrupted()
+                            || count != purchaseBatch(currentConfig, remaining)) {
+                        // Interrupted, or the pool shrank below the purchase; retry at the new size unless stopped
+                        continue;
+                    }
+                    loggerService.log("Customer " + customerId + " gave up on buying " + count + " tickets.");
+                    remaining -= count;
+                    sleepFor(currentConfig.getCustomerRetrievalRate());
+                    continue;
                 }
+                for (Tickets ticket : purchased) {
+                    loggerService.ticketRetrieved(customerId, ticket);
+                }
+                remaining -= count;
                 sleepFor(currentConfig.getCustomerRetrievalRate());
             }
         };
     }
 
+    /**
+     * Sleeps between two blocks of a vendor: the configured release rate, or the pause that spreads the
+     * controlled rate over the vendors. Under control the pause is re-read at least every control interval,
+     * so a vendor follows a rate that goes up while it sleeps.
+     */
+    private void pauseBetweenReleases() {
+        ReleaseRateController controller = releaseController;
+        if (controller == null) {
+            sleepFor(currentConfig.getTicketReleaseRate());
+            return;
+        }
+        long start = System.nanoTime();
+        while (simulationRunning.get()) {
+            long pause = controller.releaseIntervalNanos(releaseBatch(currentConfig, Integer.MAX_VALUE),
+                    currentConfig.getVendorCount());
+            long remaining = start + pause - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, controller.intervalNanos()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     /**
      * Sleeps for the specified duration.
      *
@@ -144,23 +610,20 @@ public class TicketService {
             loggerService.log("Simulation is not running.");
             return;
         }
-        // Interrupt and wait for all active threads to finish
-        for (Thread thread : activeThreads) {
-            if (thread.isAlive()) {
-                thread.interrupt();
+        // Interrupt all vendors and customers and wait for them to finish
+        simulationRunning.set(false);
+        actorExecutor.shutdownNow();
+        try {
+            while (!actorExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                loggerService.log("Waiting for vendor and customer threads to finish.");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            loggerService.log("Interrupted while waiting for vendor and customer threads to finish.");
         }
 
-        activeThreads.forEach(thread -> {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                loggerService.log("Interrupted while waiting for thread " + thread.getName() + " to finish.");
-            }
-        });
-
-        simulationRunning.set(false);
         loggerService.log("Simulation stopped.");
+        loggerService.log(getIntegrityReport().toString());
     }
 
     /**
@@ -191,4 +654,131 @@ public class TicketService {
     public int getTicketsSold() {
         return ticketPool.getTicketsSold();
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the available and sold tickets of every event.
+     *
+     * @return The counters per event, ordered by event.
+     */
+    public List<EventAvailability> getEventAvailability() {
+        return ticketPool.getEventAvailability();
+    }
+
+    /**
+     * Gets the available and sold tickets of one event.
+     *
+     * @param event The event.
+     * @return The counters, or null if the event is unknown.
+     */
+    public EventAvailability getEventAvailability(String event) {
+        return ticketPool.getEventAvailability(event);
+    }
+
+    /**
+     * Buys the cheapest available ticket that matches a query, without waiting.
+     *
+     * @param query      The event, venue and price limit.
+     * @param customerId The ID of the customer.
+     * @return The ticket, or null if no ticket matches.
+     * @throws UnsupportedOperationException If the pool engine does not index tickets by event.
+     */
+    public Tickets purchaseTicket(TicketQuery query, int customerId) {
+        Tickets ticket = ticketPool.tryRetrieveTicket(query, customerId);
+        if (ticket != null) {
+            loggerService.ticketRetrieved(customerId, ticket);
+        }
+        return ticket;
+    }
+
+    /**
+     * Gets the number of tickets held for customers during checkout.
+     *
+     * @return The number of held tickets.
+     */
+    public int getTicketsHeld() {
+        return ticketPool.getTicketsHeld();
+    }
+
+    /**
+     * Holds a ticket for a customer while checkout runs.
+     *
+     * @param customerId The ID of the customer.
+     * @param ttlMillis  How long the hold lasts before the ticket goes back to the pool, in milliseconds.
+     * @return The hold, or null if no ticket is available.
+     */
+    public TicketHold reserveTicket(int customerId, long ttlMillis) {
+        return ticketPool.reserveTicket(customerId, ttlMillis);
+    }
+
+    /**
+     * Confirms a hold, completing the sale of its ticket.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it has expired, was cancelled or does not exist.
+     */
+    public TicketHold confirmHold(long holdId) {
+        TicketHold hold = ticketPool.confirmHold(holdId);
+        if (hold != null) {
+            loggerService.ticketRetrieved(hold.getCustomerId(), hold.getTicket());
+        }
+        return hold;
+    }
+
+    /**
+     * Cancels a hold, putting its ticket back into the pool.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it has expired, was confirmed or does not exist.
+     */
+    public TicketHold cancelHold(long holdId) {
+        return ticketPool.cancelHold(holdId);
+    }
+
+    /**
+     * Looks up whether a ticket has been sold, and to whom.
+     *
+     * @param ticketId The ticket ID.
+     * @return The ticket's sale status.
+     */
+    public TicketSaleStatus getTicketSale(int ticketId) {
+        return ticketPool.getTicketSale(ticketId);
+    }
+
+    /**
+     * Checks that no ticket of the current run was sold twice and that none went missing.
+     *
+     * @return The report.
+     */
+    public IntegrityReport getIntegrityReport() {
+        Configuration config = currentConfig;
+        return ticketPool.getIntegrityReport(config != null ? config.getTotalTickets() : 0);
+    }
+
+    /**
+     * Gets a snapshot of the ticket pool's latency and throughput metrics.
+     *
+     * @return The current metrics.
+     */
+    public MetricsSnapshot getMetrics() {
+        return ticketPool.getMetrics().snapshot();
+    }
+
+    /**
+     * Gets the state and the decisions of the controller that adjusts the release rate of the run.
+     *
+     * @return The controller's snapshot, or null if the run does not control its release rate.
+     */
+    public ReleaseControlSnapshot getReleaseControl() {
+        ReleaseRateController controller = releaseController;
+        return controller != null ? controller.snapshot() : null;
+    }
+
+    /**
+     * Checks whether the simulation has been run and not stopped since.
+     *
+     * @return True if the simulation is running.
+     */
+    public boolean isSimulationRunning() {
+        return simulationRunning.get();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.ticket_simulation.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FIFO queue of parked threads used by the non-blocking pool engines.
+ * <p>
+ * A thread registers with {@link #enqueue()}, re-checks its condition and only then calls {@link #park},
+ * so a concurrent {@link #signal()} can never slip between the check and the park.
+ */
+class WaitQueue {
+    private static final long MIN_BACK_OFF_NANOS = 10_000;
+    private static final long MAX_BACK_OFF_NANOS = 1_000_000;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Registers the current thread as a waiter.
+     *
+     * @return The waiter for the current thread.
+     */
+    Waiter enqueue() {
+        Waiter waiter = new Waiter(Thread.currentThread());
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * Parks the waiter until it is signalled, times out or is interrupted.
+     *
+     * @param waiter       The waiter for the current thread.
+     * @param timeoutNanos The original timeout; a negative value waits indefinitely.
+     * @param deadline     The deadline in {@link System#nanoTime()} units.
+     * @return True if the caller should retry, false if it should give up.
+     */
+    boolean park(Waiter waiter, long timeoutNanos, long deadline) {
+        // Park returns spuriously, and a lock taken elsewhere may consume our permit, so re-check the flag
+        while (!waiter.signalled && !Thread.currentThread().isInterrupted()) {
+            if (timeoutNanos < 0) {
+                LockSupport.park(this);
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+        boolean signalled = leave(waiter);
+        if (Thread.currentThread().isInterrupted()) {
+            // We may have consumed a wake-up meant for someone who can still make progress
+            if (signalled) {
+                signal();
+            }
+            return false;
+        }
+        // A signalled waiter retries once even past its deadline so that the wake-up is not wasted
+        return signalled || timeoutNanos < 0 || deadline - System.nanoTime() > 0;
+    }
+
+    /**
+     * Sleeps between retries of an operation that cannot wait for a single signal, such as a batch
+     * purchase that needs several tickets at once. The pause doubles with every round up to a millisecond.
+     *
+     * @param round        The number of retries so far.
+     * @param timeoutNanos The original timeout; a negative value waits indefinitely.
+     * @param deadline     The deadline in {@link System#nanoTime()} units.
+     * @return True if the caller should retry, false if it timed out or was interrupted.
+     */
+    static boolean backOff(int round, long timeoutNanos, long deadline) {
+        long pause = Math.min(MAX_BACK_OFF_NANOS, MIN_BACK_OFF_NANOS << Math.min(round, 16));
+        if (timeoutNanos >= 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            pause = Math.min(pause, remaining);
+        }
+        LockSupport.parkNanos(pause);
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Removes the waiter from the queue unless a signal already did so.
+     *
+     * @param waiter The waiter for the current thread.
+     * @return True if a signal was addressed to this waiter, so the caller can pass it on if unused.
+     */
+    boolean leave(Waiter waiter) {
+        return waiter.signalled || !waiters.remove(waiter);
+    }
+
+    /**
+     * Wakes the longest-waiting thread, if any.
+     *
+     * @return True if a thread was woken.
+     */
+    boolean signal() {
+        Waiter waiter = waiters.poll();
+        if (waiter == null) {
+            return false;
+        }
+        waiter.signalled = true;
+        LockSupport.unpark(waiter.thread);
+        return true;
+    }
+
+    /**
+     * Wakes up to the given number of the longest-waiting threads, one per ticket or slot made available.
+     *
+     * @param count The maximum number of threads to wake.
+     */
+    void signal(int count) {
+        for (int i = 0; i < count; i++) {
+            if (!signal()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A parked thread waiting for its condition to change.
+     */
+    static final class Waiter {
+        private final Thread thread;
+        private volatile boolean signalled;
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.ArrivalPattern;
+
+import java.util.Random;
+
+/**
+ * Draws the number of arrivals in successive intervals of time, at a rate that may change from one
+ * interval to the next.
+ */
+public class ArrivalProcess {
+    // Above this mean a Poisson count is drawn from its normal approximation, in constant time
+    private static final double NORMAL_APPROXIMATION_MEAN = 30;
+
+    private final ArrivalPattern pattern;
+    private final int burstSize;
+    private final Random random;
+    private double carry;
+
+    /**
+     * Constructs an ArrivalProcess.
+     *
+     * @param pattern   How arrivals are spread over time.
+     * @param burstSize The number of arrivals in each burst of {@link ArrivalPattern#BURSTY} arrivals.
+     * @param seed      The seed of the random draws.
+     */
+    public ArrivalProcess(ArrivalPattern pattern, int burstSize, long seed) {
+        if (burstSize <= 0) {
+            throw new IllegalArgumentException("Burst size must be positive: " + burstSize);
+        }
+        this.pattern = pattern;
+        this.burstSize = burstSize;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Draws the number of arrivals in an interval.
+     *
+     * @param perSecond    The rate over the interval.
+     * @param elapsedNanos The length of the interval.
+     * @return The number of arrivals; {@link Integer#MAX_VALUE} if the rate is infinite.
+     */
+    public int arrivals(double perSecond, long elapsedNanos) {
+        if (Double.isInfinite(perSecond)) {
+            return Integer.MAX_VALUE;
+        }
+        double mean = perSecond * elapsedNanos / 1_000_000_000.0;
+        if (pattern == ArrivalPattern.POISSON) {
+            return poisson(mean);
+        }
+        if (pattern == ArrivalPattern.BURSTY) {
+            return (int) Math.min(Integer.MAX_VALUE, (long) poisson(mean / burstSize) * burstSize);
+        }
+        // Steady: carry the fraction over, so that the arrivals add up to the rate exactly
+        carry += mean;
+        int count = (int) Math.min(Integer.MAX_VALUE, carry);
+        carry -= count;
+        return count;
+    }
+
+    /**
+     * Draws a Poisson-distributed count.
+     *
+     * @param mean The mean of the distribution.
+     * @return The count.
+     */
+    private int poisson(double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > NORMAL_APPROXIMATION_MEAN) {
+            double count = Math.rint(mean + Math.sqrt(mean) * random.nextGaussian());
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count));
+        }
+        // Multiply uniform draws until the product falls below e^-mean
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+}
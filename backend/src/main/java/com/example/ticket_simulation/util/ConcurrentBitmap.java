@@ -0,0 +1,92 @@
+package com.example.ticket_simulation.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free bitmap over the non-negative int range.
+ * <p>
+ * Bits live in pages of 64K that are allocated the first time one of their bits is set, so a bitmap over
+ * IDs 1 to N costs about N / 8 bytes however large the IDs get. Setting a bit is a single compare-and-set
+ * on the word that holds it, and tells the caller whether the bit was already set.
+ */
+public class ConcurrentBitmap {
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_BITS) / Long.SIZE;
+    private static final int PAGES = 1 << (Integer.SIZE - 1 - PAGE_BITS);
+
+    private final AtomicReferenceArray<AtomicLongArray> pages = new AtomicReferenceArray<>(PAGES);
+
+    /**
+     * Sets a bit.
+     *
+     * @param index The bit, at least 0.
+     * @return True if the bit was clear before, false if it was already set.
+     */
+    public boolean set(int index) {
+        AtomicLongArray page = page(index >>> PAGE_BITS);
+        int word = (index >>> 6) & (WORDS_PER_PAGE - 1);
+        long bit = 1L << index;
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    /**
+     * Checks a bit.
+     *
+     * @param index The bit, at least 0.
+     * @return True if the bit is set.
+     */
+    public boolean get(int index) {
+        AtomicLongArray page = pages.get(index >>> PAGE_BITS);
+        return page != null && (page.get((index >>> 6) & (WORDS_PER_PAGE - 1)) & (1L << index)) != 0;
+    }
+
+    /**
+     * Counts the set bits in a range.
+     *
+     * @param from The first bit, at least 0.
+     * @param to   The last bit, inclusive.
+     * @return The number of set bits between {@code from} and {@code to}.
+     */
+    public long cardinality(int from, int to) {
+        long count = 0;
+        for (long index = from; index <= to; ) {
+            AtomicLongArray page = pages.get((int) (index >>> PAGE_BITS));
+            if (page == null) {
+                index = ((index >>> PAGE_BITS) + 1) << PAGE_BITS;
+                continue;
+            }
+            int word = (int) (index >>> 6) & (WORDS_PER_PAGE - 1);
+            long bits = page.get(word) & (-1L << index);
+            long wordEnd = (index | 63);
+            if (wordEnd > to) {
+                bits &= -1L >>> (63 - (to & 63));
+            }
+            count += Long.bitCount(bits);
+            index = wordEnd + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Gets a page, allocating it if no bit in it has been set yet.
+     *
+     * @param pageIndex The page.
+     * @return The page.
+     */
+    private AtomicLongArray page(int pageIndex) {
+        AtomicLongArray page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new AtomicLongArray(WORDS_PER_PAGE));
+            page = pages.get(pageIndex);
+        }
+        return page;
+    }
+}
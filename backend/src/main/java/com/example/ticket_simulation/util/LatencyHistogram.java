@@ -0,0 +1,155 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.HistogramSnapshot;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below 32 ns get a bucket each; above that every power of two is split into 32 linear sub-buckets,
+ * so any recorded value is reported within about 3% of its true value while the whole range up to
+ * {@code Long.MAX_VALUE} fits in under 2,000 counters. Recording is a bucket increment plus striped
+ * count, sum and max updates, with no locks.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.getAndIncrement(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Clears every recorded value. Values recorded concurrently may or may not survive the reset.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Gets the number of recorded values, without taking a snapshot.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values, without taking a snapshot.
+     *
+     * @return The sum in nanoseconds.
+     */
+    public long getSumNanos() {
+        return sum.sum();
+    }
+
+    /**
+     * Takes a snapshot of the recorded values with the usual percentiles.
+     *
+     * @return The snapshot, with durations in microseconds.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long maxNanos = max.get();
+        return new HistogramSnapshot(total,
+                total == 0 ? 0 : micros(sum.sum()) / total,
+                micros(maxNanos),
+                micros(percentile(copy, total, 0.50, maxNanos)),
+                micros(percentile(copy, total, 0.90, maxNanos)),
+                micros(percentile(copy, total, 0.99, maxNanos)),
+                micros(percentile(copy, total, 0.999, maxNanos)));
+    }
+
+    /**
+     * Finds the value at the given percentile of a copy of the bucket counts.
+     *
+     * @param copy     The bucket counts.
+     * @param total    The sum of the bucket counts.
+     * @param quantile The percentile as a fraction between 0 and 1.
+     * @param maxNanos The largest recorded value, which caps the result.
+     * @return The representative value of the bucket that holds the percentile, in nanoseconds.
+     */
+    private static long percentile(long[] copy, long total, double quantile, long maxNanos) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                return Math.min(bucketMidpoint(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Maps a value to its bucket.
+     *
+     * @param value The value, at least 0.
+     * @return The bucket index.
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the value in the middle of a bucket.
+     *
+     * @param index The bucket index.
+     * @return The midpoint of the values that map to the bucket.
+     */
+    private static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    /**
+     * Converts nanoseconds to microseconds.
+     *
+     * @param nanos The duration in nanoseconds.
+     * @return The duration in microseconds.
+     */
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.HistogramSnapshot;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.ReleaseControlSnapshot;
+
+import java.util.Locale;
+
+/**
+ * Utility class for writing metrics in the Prometheus text exposition format.
+ */
+public class PrometheusFormat {
+
+    /**
+     * The content type of the Prometheus text format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Formats a metrics snapshot. Durations are converted to seconds as Prometheus expects.
+     *
+     * @param metrics The metrics to format.
+     * @return The metrics in Prometheus text format.
+     */
+    public static String format(MetricsSnapshot metrics) {
+        StringBuilder out = new StringBuilder();
+        summary(out, "ticket_add_wait_seconds", "Time vendors waited for space in the pool.", metrics.getAddWait());
+        summary(out, "ticket_retrieve_wait_seconds", "Time customers waited for a ticket.", metrics.getRetrieveWait());
+        summary(out, "ticket_time_in_pool_seconds", "Time tickets stayed in the pool before they were sold.",
+                metrics.getTimeInPool());
+        metric(out, "ticket_releases_total", "counter", "Tickets added to the pool.", metrics.getTicketsReleased());
+        metric(out, "ticket_sales_total", "counter", "Tickets sold.", metrics.getTicketsSold());
+        metric(out, "ticket_releases_per_second", "gauge", "Recent rate of tickets added to the pool.",
+                metrics.getReleasesPerSecond());
+        metric(out, "ticket_sales_per_second", "gauge", "Recent rate of tickets sold.", metrics.getSalesPerSecond());
+        metric(out, "ticket_releases_rejected_total", "counter",
+                "Releases vendors gave up on because the pool was full.", metrics.getReleasesRejected());
+        metric(out, "ticket_releases_timed_out_total", "counter", "Releases vendors gave up on after their timeout.",
+                metrics.getReleasesTimedOut());
+        metric(out, "ticket_purchases_rejected_total", "counter",
+                "Purchases customers gave up on because too few tickets were available.",
+                metrics.getPurchasesRejected());
+        metric(out, "ticket_purchases_timed_out_total", "counter",
+                "Purchases customers gave up on after their timeout.", metrics.getPurchasesTimedOut());
+        metric(out, "ticket_drops_total", "counter", "Tickets dropped from the pool to make room for others.",
+                metrics.getTicketsDropped());
+        return out.toString();
+    }
+
+    /**
+     * Formats a metrics snapshot followed by the decisions of the release-rate controller.
+     *
+     * @param metrics        The metrics to format.
+     * @param releaseControl The controller's snapshot, or null if the run does not control its release rate.
+     * @return The metrics in Prometheus text format.
+     */
+    public static String format(MetricsSnapshot metrics, ReleaseControlSnapshot releaseControl) {
+        if (releaseControl == null) {
+            return format(metrics);
+        }
+        StringBuilder out = new StringBuilder(format(metrics));
+        metric(out, "ticket_release_control_rate", "gauge", "Tickets per second the release controller set last.",
+                releaseControl.getReleasesPerSecond());
+        metric(out, "ticket_release_control_occupancy", "gauge",
+                "Share of the pool capacity filled at the last adjustment.", releaseControl.getOccupancy());
+        metric(out, "ticket_release_control_target_occupancy", "gauge",
+                "Share of the pool capacity the release controller keeps filled.",
+                releaseControl.getTargetOccupancy());
+        metric(out, "ticket_release_control_customer_wait_seconds", "gauge",
+                "Mean customer wait in the last control interval.", releaseControl.getCustomerWaitMillis() / 1e3);
+        metric(out, "ticket_release_control_updates_total", "counter", "Adjustments of the release rate.",
+                releaseControl.getUpdates());
+        metric(out, "ticket_release_control_increases_total", "counter", "Adjustments that raised the release rate.",
+                releaseControl.getIncreases());
+        metric(out, "ticket_release_control_decreases_total", "counter",
+                "Adjustments that lowered the release rate.", releaseControl.getDecreases());
+        metric(out, "ticket_release_control_starved_total", "counter",
+                "Control intervals in which customers waited longer than the limit.",
+                releaseControl.getStarvedIntervals());
+        return out.toString();
+    }
+
+    /**
+     * Writes a histogram as a summary with quantiles.
+     *
+     * @param out       The output.
+     * @param name      The metric name.
+     * @param help      The help text.
+     * @param histogram The histogram, in microseconds.
+     */
+    private static void summary(StringBuilder out, String name, String help, HistogramSnapshot histogram) {
+        header(out, name, "summary", help);
+        quantile(out, name, "0.5", histogram.getP50());
+        quantile(out, name, "0.9", histogram.getP90());
+        quantile(out, name, "0.99", histogram.getP99());
+        quantile(out, name, "0.999", histogram.getP999());
+        out.append(name).append("_sum ").append(number(histogram.getMean() * histogram.getCount() / 1e6)).append('\n');
+        out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+
+    /**
+     * Writes one quantile line of a summary.
+     *
+     * @param out      The output.
+     * @param name     The metric name.
+     * @param quantile The quantile label.
+     * @param micros   The value in microseconds.
+     */
+    private static void quantile(StringBuilder out, String name, String quantile, double micros) {
+        out.append(name).append("{quantile=\"").append(quantile).append("\"} ").append(number(micros / 1e6))
+                .append('\n');
+    }
+
+    /**
+     * Writes a single-valued metric.
+     *
+     * @param out   The output.
+     * @param name  The metric name.
+     * @param type  The metric type.
+     * @param help  The help text.
+     * @param value The value.
+     */
+    private static void metric(StringBuilder out, String name, String type, String help, double value) {
+        header(out, name, type, help);
+        out.append(name).append(' ').append(number(value)).append('\n');
+    }
+
+    /**
+     * Writes the HELP and TYPE lines of a metric.
+     *
+     * @param out  The output.
+     * @param name The metric name.
+     * @param type The metric type.
+     * @param help The help text.
+     */
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Formats a number without locale-specific separators.
+     *
+     * @param value The value.
+     * @return The formatted value.
+     */
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.9g", value);
+    }
+}
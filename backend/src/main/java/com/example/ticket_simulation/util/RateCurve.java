@@ -0,0 +1,66 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.RatePoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A piecewise rate curve over the time of a run: the rate jumps or ramps linearly to each point in turn and
+ * holds after the last one.
+ */
+public class RateCurve {
+    private final long[] times;
+    private final double[] rates;
+    private final boolean[] ramps;
+
+    /**
+     * Constructs a RateCurve.
+     *
+     * @param points The points of the curve, in any order.
+     * @throws IllegalArgumentException If a point has a negative time or rate.
+     */
+    public RateCurve(List<RatePoint> points) {
+        List<RatePoint> sorted = new ArrayList<>(points);
+        sorted.sort(Comparator.comparingLong(RatePoint::getAtMillis));
+        this.times = new long[sorted.size()];
+        this.rates = new double[sorted.size()];
+        this.ramps = new boolean[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            RatePoint point = sorted.get(i);
+            if (point.getAtMillis() < 0 || !(point.getPerSecond() >= 0)) {
+                throw new IllegalArgumentException("Rate points need a time and a rate that are not negative: "
+                        + point.getAtMillis() + " ms, " + point.getPerSecond() + " per second");
+            }
+            times[i] = point.getAtMillis();
+            rates[i] = point.getPerSecond();
+            ramps[i] = point.isRamp();
+        }
+    }
+
+    /**
+     * Gets the rate at a point in time.
+     *
+     * @param atMillis The time in milliseconds after the run started.
+     * @param base     The rate before the first point, which a ramp to the first point starts from.
+     * @return The number of tickets per second.
+     */
+    public double rateAt(double atMillis, double base) {
+        // Index of the first point still ahead
+        int next = 0;
+        while (next < times.length && times[next] <= atMillis) {
+            next++;
+        }
+        double previousRate = next > 0 ? rates[next - 1] : base;
+        if (next == times.length || !ramps[next]) {
+            return previousRate;
+        }
+        long previousTime = next > 0 ? times[next - 1] : 0;
+        if (Double.isInfinite(previousRate) || Double.isInfinite(rates[next])) {
+            return previousRate;
+        }
+        double progress = (atMillis - previousTime) / (times[next] - previousTime);
+        return previousRate + (rates[next] - previousRate) * progress;
+    }
+}
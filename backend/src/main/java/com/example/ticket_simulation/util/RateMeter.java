@@ -0,0 +1,91 @@
+package com.example.ticket_simulation.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free event counter that also reports how many events per second happened recently.
+ * <p>
+ * Marking an event only increments a striped counter. The rate is worked out when it is read, against a
+ * sample of the counter kept from an earlier read at least one second before, so a client that reads
+ * regularly sees the rate over the last one to two seconds.
+ */
+public class RateMeter {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final LongAdder count = new LongAdder();
+    private final AtomicReference<Samples> samples = new AtomicReference<>(Samples.start(0));
+
+    /**
+     * Counts one event.
+     */
+    public void mark() {
+        count.increment();
+    }
+
+    /**
+     * Counts several events at once.
+     *
+     * @param events The number of events.
+     */
+    public void mark(long events) {
+        count.add(events);
+    }
+
+    /**
+     * Gets the number of events counted since the last reset.
+     *
+     * @return The total count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the recent number of events per second.
+     *
+     * @return The events per second since a sample taken at least one second ago.
+     */
+    public double getRate() {
+        long now = System.nanoTime();
+        long current = count.sum();
+        Samples s = samples.get();
+        if (now - s.newerTime >= WINDOW_NANOS) {
+            Samples rolled = new Samples(s.newerTime, s.newerCount, now, current);
+            samples.compareAndSet(s, rolled);
+            s = samples.get();
+        }
+        long elapsed = now - s.olderTime;
+        return elapsed <= 0 ? 0 : Math.max(0, current - s.olderCount) * 1e9 / elapsed;
+    }
+
+    /**
+     * Clears the count and the rate.
+     */
+    public void reset() {
+        count.reset();
+        samples.set(Samples.start(0));
+    }
+
+    /**
+     * The two most recent samples of the counter.
+     */
+    private static final class Samples {
+        private final long olderTime;
+        private final long olderCount;
+        private final long newerTime;
+        private final long newerCount;
+
+        private Samples(long olderTime, long olderCount, long newerTime, long newerCount) {
+            this.olderTime = olderTime;
+            this.olderCount = olderCount;
+            this.newerTime = newerTime;
+            this.newerCount = newerCount;
+        }
+
+        private static Samples start(long count) {
+            long now = System.nanoTime();
+            return new Samples(now, count, now, count);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.HistogramSnapshot;
+import com.example.ticket_simulation.model.Sweep;
+import com.example.ticket_simulation.model.SweepRun;
+
+import java.util.Locale;
+
+/**
+ * Utility class for writing the results of a parameter sweep as a plain-text comparison table.
+ */
+public class SweepTable {
+
+    private static final String ROW =
+            "%4s %-11s %-16s %8s %8s %8s %7s %9s %-9s %9s %10s %10s %8s %8s %8s %8s %-3s\n";
+
+    /**
+     * Formats a sweep with one row per finished run, in grid order. Waits are in microseconds.
+     *
+     * @param sweep The sweep to format.
+     * @return The table, headed by the sweep's progress.
+     */
+    public static String format(Sweep sweep) {
+        StringBuilder out = new StringBuilder();
+        out.append("Sweep ").append(sweep.getId()).append(": ").append(sweep.getStatus()).append(", ")
+                .append(sweep.getRuns().size()).append(" of ").append(sweep.getRunCount()).append(" runs finished")
+                .append('\n');
+        out.append(String.format(Locale.ROOT, ROW, "Run", "Engine", "Mode", "Capacity", "Release", "Retrieve",
+                "Vendors", "Customers", "Outcome", "Sold", "Elapsed ms", "Tickets/s", "Add p50", "Add p99",
+                "Get p50", "Get p99", "OK"));
+        for (SweepRun run : sweep.getRuns()) {
+            Configuration config = run.getConfiguration();
+            out.append(String.format(Locale.ROOT, ROW, run.getRun(), config.getPoolEngine(),
+                    config.getExecutionMode(), config.getMaxTicketCapacity(), config.getTicketReleaseRate(),
+                    config.getCustomerRetrievalRate(), config.getVendorCount(), config.getCustomerCount(),
+                    run.getOutcome(), run.getTicketsSold(), run.getElapsedMillis(),
+                    String.format(Locale.ROOT, "%.0f", run.getTicketsPerSecond()),
+                    p50(run.getAddWait()), p99(run.getAddWait()), p50(run.getRetrieveWait()),
+                    p99(run.getRetrieveWait()), run.isConsistent() ? "yes" : "no"));
+        }
+        return out.toString();
+    }
+
+    private static String p50(HistogramSnapshot histogram) {
+        return histogram == null ? "-" : String.format(Locale.ROOT, "%.1f", histogram.getP50());
+    }
+
+    private static String p99(HistogramSnapshot histogram) {
+        return histogram == null ? "-" : String.format(Locale.ROOT, "%.1f", histogram.getP99());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ticket_simulation.util;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Utility class for creating the executors that run vendors and customers.
+ */
+public class ThreadExecutors {
+
+    /**
+     * Creates an executor that starts a new platform thread for every task.
+     *
+     * @return A new executor.
+     */
+    public static ExecutorService newPlatformThreadPerTaskExecutor() {
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task.
+     * The factory method is looked up at runtime so the application still builds and runs on JVMs
+     * that predate virtual threads.
+     *
+     * @return A new executor, or empty if the running JVM does not support virtual threads.
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.ticket_simulation.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel that runs a callback for each item whose delay has passed.
+ * <p>
+ * The wheel is a ring of buckets, one per tick. Scheduling only appends to a lock-free queue; the single
+ * worker thread moves new timeouts into the bucket of the tick they are due in, and on every tick
+ * expires the due timeouts of one bucket. Timeouts more than a full turn away wait in their bucket for
+ * the remaining number of turns. Scheduling and cancelling are O(1) however many timeouts are pending,
+ * and expiry is accurate to one tick. The worker thread is only started by the first schedule.
+ *
+ * @param <T> The type of the scheduled items.
+ */
+public class TimingWheel<T> {
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private final Consumer<T> onExpiry;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+    private volatile boolean running = true;
+    // Only touched by the worker thread
+    private long tick;
+
+    /**
+     * Constructs a TimingWheel.
+     *
+     * @param tickMillis The length of a tick in milliseconds, which is also the expiry accuracy.
+     * @param wheelSize  The number of buckets, rounded up to a power of two.
+     * @param onExpiry   Called on the worker thread for every item that expires.
+     * @param threadName The name of the worker thread.
+     */
+    public TimingWheel(long tickMillis, int wheelSize, Consumer<T> onExpiry, String threadName) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive: " + tickMillis + ", " + wheelSize);
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.onExpiry = onExpiry;
+        this.worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+    }
+
+    /**
+     * Schedules an item to expire after the given delay.
+     *
+     * @param item        The item passed to the expiry callback.
+     * @param delayMillis The delay in milliseconds.
+     * @return A handle that can cancel the expiry.
+     */
+    public Timeout<T> schedule(T item, long delayMillis) {
+        if (started.compareAndSet(false, true)) {
+            worker.start();
+        }
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        Timeout<T> timeout = new Timeout<>(item, deadline);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts never expire.
+     */
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Worker loop: waits for each tick, files new timeouts and expires the due bucket.
+     */
+    private void run() {
+        while (running) {
+            long sleepNanos = (tick + 1) * tickNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            transferPending();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    /**
+     * Moves newly scheduled timeouts into their buckets.
+     */
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long due = timeout.deadline / tickNanos;
+            timeout.rounds = Math.max(0, (due - tick) / buckets.size());
+            // Anything already overdue goes into the bucket expired on this tick
+            buckets.get((int) (Math.max(due, tick) & mask)).add(timeout);
+        }
+    }
+
+    /**
+     * Expires the due timeouts of a bucket and drops the cancelled ones, keeping the rest in place.
+     *
+     * @param bucket The bucket of the current tick.
+     */
+    private void expire(List<Timeout<T>> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout<T> timeout = bucket.get(i);
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.set(kept++, timeout);
+                continue;
+            }
+            if (timeout.state.compareAndSet(false, true)) {
+                try {
+                    onExpiry.accept(timeout.item);
+                } catch (RuntimeException e) {
+                    // One failing callback must not stop the wheel
+                }
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * A scheduled expiry.
+     *
+     * @param <T> The type of the scheduled item.
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        // Set once the timeout has either expired or been cancelled
+        private final AtomicBoolean state = new AtomicBoolean();
+        private volatile boolean cancelled;
+        // Only touched by the worker thread
+        private long rounds;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the expiry if it has not happened yet.
+         *
+         * @return True if the timeout was cancelled, false if it had already expired or been cancelled.
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(false, true)) {
+                cancelled = true;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
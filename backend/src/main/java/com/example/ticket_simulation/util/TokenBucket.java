@@ -0,0 +1,93 @@
+package com.example.ticket_simulation.util;
+
+/**
+ * A token bucket that paces operations to a rate.
+ * <p>
+ * Tokens accrue continuously at the configured rate, measured on {@link System#nanoTime()}, up to the
+ * bucket's burst size; an operation takes as many tokens as the work it does. The bucket starts empty, so
+ * the rate holds from the first operation. An infinite rate grants every request in full.
+ */
+public class TokenBucket {
+    private double tokensPerNano;
+    private double burst;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * Constructs a TokenBucket.
+     *
+     * @param tokensPerSecond The rate tokens accrue at; {@link Double#POSITIVE_INFINITY} for no limit.
+     * @param burst           The most tokens the bucket holds, which is also the largest request it can grant.
+     */
+    public TokenBucket(double tokensPerSecond, double burst) {
+        setRate(tokensPerSecond, burst);
+    }
+
+    /**
+     * Changes the rate and the burst size. Tokens accrued so far are kept, up to the new burst size.
+     *
+     * @param tokensPerSecond The rate tokens accrue at; {@link Double#POSITIVE_INFINITY} for no limit.
+     * @param burst           The most tokens the bucket holds.
+     */
+    public synchronized void setRate(double tokensPerSecond, double burst) {
+        if (!(tokensPerSecond >= 0) || !(burst > 0)) {
+            throw new IllegalArgumentException("Rate must not be negative and burst must be positive: "
+                    + tokensPerSecond + ", " + burst);
+        }
+        refill();
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000.0;
+        this.burst = burst;
+        this.tokens = Math.min(tokens, burst);
+    }
+
+    /**
+     * Gets the number of tokens the bucket holds.
+     *
+     * @return The whole tokens held; {@link Integer#MAX_VALUE} if the rate is infinite.
+     */
+    public synchronized int available() {
+        if (tokensPerNano == Double.POSITIVE_INFINITY) {
+            return Integer.MAX_VALUE;
+        }
+        refill();
+        return (int) tokens;
+    }
+
+    /**
+     * Takes as many whole units of tokens as the bucket holds, up to a limit.
+     *
+     * @param unit The number of tokens in a unit; at most the burst size.
+     * @param max  The most tokens to take.
+     * @return The number of tokens taken, a multiple of {@code unit}; 0 if the bucket holds less than a unit.
+     */
+    public synchronized int tryAcquire(int unit, int max) {
+        int units = max / unit;
+        if (tokensPerNano != Double.POSITIVE_INFINITY) {
+            refill();
+            units = (int) Math.min(units, (long) (tokens / unit));
+            tokens -= (double) units * unit;
+        }
+        return units * unit;
+    }
+
+    /**
+     * Adds tokens, up to the burst size: tokens given back for work that could not be done, or arrivals
+     * drawn outside the bucket when it paces at a rate of 0.
+     *
+     * @param count The number of tokens.
+     */
+    public synchronized void deposit(int count) {
+        tokens = Math.min(burst, tokens + count);
+    }
+
+    /**
+     * Adds the tokens accrued since the last refill.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        if (tokensPerNano != Double.POSITIVE_INFINITY) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+        }
+        lastRefill = now;
+    }
+}
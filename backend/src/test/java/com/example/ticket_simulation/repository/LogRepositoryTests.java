@@ -0,0 +1,130 @@
+package com.example.ticket_simulation.repository;
+
+import com.example.ticket_simulation.model.LogEntry;
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRepositoryTests {
+
+	private static final Pattern ADDED = Pattern.compile(
+			"Vendor (\\d+) added Ticket ID (\\d+) \\[Event: Event (\\d+), Location: Hall (\\d+), Price: \\$(\\d+)\\.0]$");
+
+	private static Tickets ticket(int id) {
+		return new Tickets(id, "Event " + id % 7, "Hall " + id % 7, id % 7);
+	}
+
+	private static List<Long> sequences(LogPage page) {
+		List<Long> sequences = new ArrayList<>();
+		for (LogEntry entry : page.getEntries()) {
+			sequences.add(entry.getSequence());
+		}
+		return sequences;
+	}
+
+	@Test
+	void pagesFromACursorAndJumpsPastOverwrittenEntries() {
+		LogRepository repository = new LogRepository(4);
+		for (int i = 1; i <= 3; i++) {
+			repository.addRecord(LogEventType.MESSAGE, 0, "message " + i, i);
+		}
+		LogPage page = repository.getLogsAfter(0, 2);
+		assertEquals(List.of(1L, 2L), sequences(page));
+		assertEquals(1, page.getOldestSequence());
+		assertEquals(4, page.getNextSequence());
+		assertTrue(page.getEntries().get(1).getMessage().endsWith(" - message 2"));
+		assertEquals(List.of(3L), sequences(repository.getLogsAfter(2, 10)));
+		assertEquals(List.of(), sequences(repository.getLogsAfter(3, 10)));
+
+		// Wrap round the ring twice; a reader still at sequence 2 resumes from the oldest survivor
+		for (int i = 4; i <= 10; i++) {
+			repository.addRecord(LogEventType.MESSAGE, 0, "message " + i, i);
+		}
+		page = repository.getLogsAfter(2, 10);
+		assertEquals(7, page.getOldestSequence());
+		assertEquals(11, page.getNextSequence());
+		assertEquals(List.of(7L, 8L, 9L, 10L), sequences(page));
+		assertTrue(page.getEntries().get(0).getMessage().endsWith(" - message 7"));
+		assertEquals(List.of("message 7", "message 8", "message 9", "message 10"),
+				repository.getLogs().stream().map(line -> line.substring(line.indexOf(" - ") + 3)).toList());
+
+		// A clear skips a sequence number, so a reader that saw everything still notices the gap
+		repository.clearLogs();
+		page = repository.getLogsAfter(10, 10);
+		assertEquals(List.of(), page.getEntries());
+		assertEquals(12, page.getOldestSequence());
+		repository.addLog("after clear");
+		assertEquals(List.of(12L), sequences(repository.getLogsAfter(0, 10)));
+	}
+
+	@Test
+	void filtersByKindAndActorBeforeRendering() {
+		LogRepository repository = new LogRepository(100);
+		for (int i = 1; i <= 6; i++) {
+			repository.addRecord(LogEventType.TICKET_ADDED, i % 2 + 1, ticket(i), i);
+			repository.addRecord(LogEventType.TICKET_RETRIEVED, i % 3 + 1, ticket(i), i);
+		}
+		repository.addLog("done");
+
+		LogPage added = repository.getLogsAfter(0, 100, LogEventType.TICKET_ADDED, null);
+		assertEquals(6, added.getEntries().size());
+		for (LogEntry entry : added.getEntries()) {
+			assertTrue(entry.getMessage().contains(" added Ticket ID "), entry.getMessage());
+		}
+		LogPage customer = repository.getLogsAfter(0, 100, LogEventType.TICKET_RETRIEVED, 1);
+		assertEquals(List.of(6L, 12L), sequences(customer));
+		assertTrue(customer.getEntries().get(0).getMessage()
+				.endsWith("Customer 1 retrieved Ticket ID 3 [Event: Event 3, Location: Hall 3, Price: $3.0]"));
+		assertEquals(List.of(13L), sequences(repository.getLogsAfter(0, 100, LogEventType.MESSAGE, null)));
+		// The limit counts matching entries, not the entries skipped by the filter
+		assertEquals(List.of(1L, 3L), sequences(repository.getLogsAfter(0, 2, LogEventType.TICKET_ADDED, null)));
+		assertEquals(List.of(), sequences(repository.getLogsAfter(0, 100, null, 99)));
+	}
+
+	@Test
+	void readersNeverSeeATornRecordWhileTheWriterLapsThem() throws InterruptedException {
+		LogRepository repository = new LogRepository(64);
+		AtomicBoolean writing = new AtomicBoolean(true);
+		Thread writer = new Thread(() -> {
+			for (int i = 1; i <= 200_000; i++) {
+				// The vendor, the ticket and its details all derive from the same number
+				repository.addRecord(LogEventType.TICKET_ADDED, i, ticket(i), i);
+			}
+			writing.set(false);
+		});
+		writer.start();
+		long reads = 0;
+		long after = 0;
+		while (writing.get()) {
+			LogPage page = repository.getLogsAfter(after, 64);
+			long previous = after;
+			for (LogEntry entry : page.getEntries()) {
+				assertTrue(entry.getSequence() > previous);
+				previous = entry.getSequence();
+				Matcher matcher = ADDED.matcher(entry.getMessage());
+				assertTrue(matcher.find(), entry.getMessage());
+				int id = Integer.parseInt(matcher.group(2));
+				assertEquals(entry.getSequence(), id);
+				assertEquals(id, Integer.parseInt(matcher.group(1)));
+				assertEquals(id % 7, Integer.parseInt(matcher.group(3)));
+				assertEquals(id % 7, Integer.parseInt(matcher.group(4)));
+				assertEquals(id % 7, Integer.parseInt(matcher.group(5)));
+				reads++;
+			}
+			// Alternate between following the writer and rereading slots it is about to overwrite
+			after = reads % 2 == 0 ? previous : Math.max(0, page.getNextSequence() - 64);
+		}
+		writer.join();
+		assertTrue(reads > 0);
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.LogEntry;
+import com.example.ticket_simulation.model.LogEventType;
+import com.example.ticket_simulation.model.LogOverflowPolicy;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogPipelineTests {
+
+	private static final Pattern ADDED = Pattern.compile("Vendor (\\d+) added Ticket ID (\\d+) ");
+
+	// Starts one thread per vendor, each logging its own tickets in ascending ID order
+	private static List<Thread> produce(LoggerService loggerService, int producers, int perProducer) {
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 1; p <= producers; p++) {
+			int vendorId = p;
+			Thread thread = new Thread(() -> {
+				for (int i = 1; i <= perProducer; i++) {
+					loggerService.ticketAdded(vendorId, new Tickets(i, "Event", "Hall", 1.0));
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		return threads;
+	}
+
+	@Test
+	void closeStoresEveryQueuedEventInOrderPerProducer() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 5_000;
+		LogRepository repository = new LogRepository(producers * perProducer + 1);
+		// A ring far smaller than the load, so producers wrap it many times and block on the writer
+		LoggerService loggerService = new LoggerService(repository, true, 16, LogOverflowPolicy.BLOCK, 1);
+		for (Thread thread : produce(loggerService, producers, perProducer)) {
+			thread.join();
+		}
+		loggerService.log("last");
+		loggerService.close();
+
+		List<LogEntry> entries = repository.getLogsAfter(0, Integer.MAX_VALUE).getEntries();
+		assertEquals(producers * perProducer + 1, entries.size());
+		assertTrue(entries.get(entries.size() - 1).getMessage().endsWith(" - last"));
+		int[] lastTicket = new int[producers + 1];
+		for (LogEntry entry : entries.subList(0, entries.size() - 1)) {
+			Matcher matcher = ADDED.matcher(entry.getMessage());
+			assertTrue(matcher.find(), entry.getMessage());
+			int vendorId = Integer.parseInt(matcher.group(1));
+			int ticketId = Integer.parseInt(matcher.group(2));
+			assertEquals(lastTicket[vendorId] + 1, ticketId, "vendor " + vendorId);
+			lastTicket[vendorId] = ticketId;
+		}
+		for (int p = 1; p <= producers; p++) {
+			assertEquals(perProducer, lastTicket[p]);
+		}
+		assertEquals(0, loggerService.getDroppedLogCount());
+	}
+
+	@Test
+	void flushWaitsForEverythingLoggedBeforeIt() throws InterruptedException {
+		LogRepository repository = new LogRepository(10_000);
+		LoggerService loggerService = new LoggerService(repository, true, 1_024, LogOverflowPolicy.BLOCK, 1);
+		try {
+			List<Thread> threads = produce(loggerService, 2, 1_000);
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			loggerService.flush();
+			assertEquals(2_000, repository.getLogsAfter(0, 10_000, LogEventType.TICKET_ADDED, null).getEntries().size());
+
+			// Clearing stores the queued events first, so none of them leak into the new log
+			produce(loggerService, 1, 500).get(0).join();
+			loggerService.clearLogs();
+			loggerService.log("fresh");
+			loggerService.flush();
+			List<LogEntry> entries = repository.getLogsAfter(0, 10_000).getEntries();
+			assertEquals(1, entries.size());
+			assertTrue(entries.get(0).getMessage().endsWith(" - fresh"));
+		} finally {
+			loggerService.close();
+		}
+	}
+
+	@Test
+	void dropPolicyCountsWhatItDiscardsAndStoresTheRest() throws InterruptedException {
+		LogRepository repository = new LogRepository(100_000);
+		LoggerService loggerService = new LoggerService(repository, true, 8, LogOverflowPolicy.DROP, 1);
+		for (Thread thread : produce(loggerService, 4, 5_000)) {
+			thread.join();
+		}
+		loggerService.close();
+		long stored = repository.getLogsAfter(0, 100_000).getEntries().size();
+		assertEquals(20_000, stored + loggerService.getDroppedLogCount());
+	}
+
+}
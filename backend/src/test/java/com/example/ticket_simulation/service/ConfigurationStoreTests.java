@@ -0,0 +1,138 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ConfigurationVersion;
+import com.example.ticket_simulation.model.PoolEngineType;
+import com.example.ticket_simulation.repository.LogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private ConfigurationStore store(int historySize) throws IOException {
+		return new ConfigurationStore(new ObjectMapper(), new LoggerService(new LogRepository(1_000)),
+				directory.toString(), historySize, false);
+	}
+
+	private static Configuration config(int totalTickets) {
+		Configuration config = new Configuration(totalTickets, 10, 20, 5);
+		config.setPoolEngine(PoolEngineType.SHARDED);
+		return config;
+	}
+
+	private static List<Long> versions(List<ConfigurationVersion> history) {
+		List<Long> versions = new ArrayList<>();
+		for (ConfigurationVersion version : history) {
+			versions.add(version.getVersion());
+		}
+		return versions;
+	}
+
+	@Test
+	void saveWritesTheVersionAndTheCurrentFilesWithoutLeavingTemporaryFiles() throws IOException {
+		ConfigurationStore store = store(10);
+		try {
+			assertNull(store.loadLatest());
+			assertEquals(1, store.save(config(100)));
+			store.flush();
+
+			Configuration latest = store.loadLatest();
+			assertEquals(100, latest.getTotalTickets());
+			assertEquals(PoolEngineType.SHARDED, latest.getPoolEngine());
+			String text = Files.readString(directory.resolve("configuration.txt"), StandardCharsets.UTF_8);
+			assertTrue(text.startsWith("Total Tickets: 100\n"), text);
+			assertTrue(Files.exists(directory.resolve("history").resolve("configuration-000001.json")));
+			try (Stream<Path> files = Files.walk(directory)) {
+				assertEquals(0, files.filter(file -> file.toString().endsWith(".tmp")).count());
+			}
+			assertFalse(store.isLoadOnStartup());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	void keepsHistoryNewestFirstAndPrunesTheOldestVersions() throws IOException {
+		ConfigurationStore store = store(3);
+		try {
+			for (int i = 1; i <= 5; i++) {
+				store.save(config(i * 100));
+			}
+			store.flush();
+			List<ConfigurationVersion> history = store.getHistory();
+			assertEquals(List.of(5L, 4L, 3L), versions(history));
+			assertEquals(500, history.get(0).getConfiguration().getTotalTickets());
+			assertEquals(300, history.get(2).getConfiguration().getTotalTickets());
+			assertNull(store.getVersion(2));
+			assertNull(store.getVersion(99));
+		} finally {
+			store.close();
+		}
+
+		// A new store carries on numbering after the history on disk
+		ConfigurationStore reopened = store(3);
+		try {
+			assertEquals(6, reopened.save(config(600)));
+			reopened.flush();
+			assertEquals(List.of(6L, 5L, 4L), versions(reopened.getHistory()));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	void rollingBackSavesAnOldVersionAsTheNewestOne() throws IOException {
+		ConfigurationStore store = store(10);
+		try {
+			store.save(config(100));
+			store.save(config(200));
+			store.flush();
+			ConfigurationVersion first = store.getVersion(1);
+			assertEquals(3, store.save(first.getConfiguration()));
+			store.flush();
+
+			assertEquals(100, store.loadLatest().getTotalTickets());
+			assertEquals(List.of(3L, 2L, 1L), versions(store.getHistory()));
+			assertEquals(200, store.getVersion(2).getConfiguration().getTotalTickets());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	void historyReadsSkipVersionsPrunedWhileTheyAreListed() throws IOException, InterruptedException {
+		ConfigurationStore store = store(2);
+		Thread saver = new Thread(() -> {
+			for (int i = 1; i <= 300; i++) {
+				store.save(config(i));
+			}
+			store.flush();
+		});
+		try {
+			saver.start();
+			while (saver.isAlive()) {
+				List<ConfigurationVersion> history = store.getHistory();
+				assertTrue(history.size() <= 3, "history " + versions(history));
+			}
+			saver.join();
+			assertEquals(List.of(300L, 299L), versions(store.getHistory()));
+		} finally {
+			store.close();
+		}
+	}
+
+}
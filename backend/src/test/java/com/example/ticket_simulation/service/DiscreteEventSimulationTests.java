@@ -0,0 +1,146 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.BackpressurePolicy;
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.repository.LogRepository;
+import com.example.ticket_simulation.repository.TicketJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscreteEventSimulationTests {
+
+	@TempDir
+	Path directory;
+
+	private static Configuration config(int totalTickets, int releaseRate, int retrievalRate, int capacity,
+										int vendors, int customers) {
+		Configuration config = new Configuration(totalTickets, releaseRate, retrievalRate, capacity);
+		config.setVendorCount(vendors);
+		config.setCustomerCount(customers);
+		config.setReleaseBatchSize(1);
+		config.setPurchaseBatchSize(1);
+		config.setExecutionMode(ExecutionMode.VIRTUAL_TIME);
+		config.setSeed(42);
+		return config;
+	}
+
+	private static long run(Configuration config, TicketPool ticketPool) {
+		LoggerService loggerService = new LoggerService(new LogRepository(1_000));
+		return new DiscreteEventSimulation(config, ticketPool, loggerService).run(() -> true);
+	}
+
+	@Test
+	void dropOldestMakesRoomAndJournalsTheDroppedTickets() throws IOException {
+		Configuration config = config(20, 10, 10, 5, 1, 0);
+		config.setVendorBackpressure(BackpressurePolicy.DROP_OLDEST);
+		TicketPool ticketPool = new TicketPool();
+		TicketJournal journal = TicketJournal.open(directory, 1 << 16);
+		try {
+			ticketPool.initialize(config);
+			ticketPool.attachJournal(journal);
+			assertEquals(190, run(config, ticketPool));
+			ticketPool.attachJournal(null);
+			journal.close();
+
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertEquals(15, metrics.getTicketsDropped());
+			assertEquals(0, metrics.getReleasesRejected());
+			assertEquals(5, ticketPool.getTicketsAvailable());
+			assertEquals(0, ticketPool.getIntegrityReport(20).getTicketsUnaccounted());
+
+			JournalState state = JournalState.load(directory);
+			TicketJournal.replay(directory, state.getNextSegment(), Long.MAX_VALUE, state);
+			assertEquals(15, state.getTicketsDropped());
+			List<Integer> pooled = new ArrayList<>();
+			for (Tickets ticket : state.getPooledTickets()) {
+				pooled.add(ticket.getId());
+			}
+			assertEquals(Arrays.asList(16, 17, 18, 19, 20), pooled);
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void failFastGivesUpStraightAwayAndCountsTheRejections() {
+		// One ticket every 100 ms, and a customer who tries every 10 ms without waiting
+		Configuration config = config(5, 100, 10, 1, 1, 1);
+		config.setCustomerBackpressure(BackpressurePolicy.FAIL_FAST);
+		TicketPool ticketPool = new TicketPool();
+		try {
+			ticketPool.initialize(config);
+			run(config, ticketPool);
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertTrue(metrics.getPurchasesRejected() > 0);
+			// Every purchase either went through or was given up on
+			assertEquals(5, ticketPool.getTicketsSold() + metrics.getPurchasesRejected());
+			assertEquals(0, metrics.getPurchasesTimedOut());
+		} finally {
+			ticketPool.close();
+		}
+
+		// A vendor releasing every 10 ms into a pool of one that a customer empties every 100 ms
+		config = config(3, 10, 100, 1, 1, 1);
+		config.setVendorBackpressure(BackpressurePolicy.FAIL_FAST);
+		ticketPool = new TicketPool();
+		try {
+			ticketPool.initialize(config);
+			run(config, ticketPool);
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertTrue(metrics.getReleasesRejected() >= 8, "rejected " + metrics.getReleasesRejected());
+			assertEquals(3, ticketPool.getTicketsSold());
+			assertEquals(0, metrics.getTicketsDropped());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void timeoutsPassOnTheSimulatedClock() {
+		// The customer buys the first ticket, then waits 50 ms for each of the others, which come every second
+		Configuration config = config(3, 1_000, 0, 1, 1, 1);
+		config.setCustomerBackpressure(BackpressurePolicy.BLOCK_WITH_TIMEOUT);
+		config.setCustomerTimeoutMillis(50);
+		TicketPool ticketPool = new TicketPool();
+		try {
+			ticketPool.initialize(config);
+			assertEquals(2_000, run(config, ticketPool));
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertEquals(2, metrics.getPurchasesTimedOut());
+			assertEquals(0, metrics.getPurchasesRejected());
+			assertEquals(1, ticketPool.getTicketsSold());
+			assertEquals(1, ticketPool.getTicketsAvailable());
+		} finally {
+			ticketPool.close();
+		}
+
+		// The vendor waits 30 ms for space at 20 and again at 60 ms, before the customer makes room at 100 ms
+		config = config(3, 10, 100, 1, 1, 1);
+		config.setVendorBackpressure(BackpressurePolicy.BLOCK_WITH_TIMEOUT);
+		config.setVendorTimeoutMillis(30);
+		ticketPool = new TicketPool();
+		try {
+			ticketPool.initialize(config);
+			assertEquals(200, run(config, ticketPool));
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertEquals(2, metrics.getReleasesTimedOut());
+			assertEquals(0, metrics.getReleasesRejected());
+			assertEquals(3, ticketPool.getTicketsSold());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
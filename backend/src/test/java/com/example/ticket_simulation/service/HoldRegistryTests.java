@@ -0,0 +1,138 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.TicketHold;
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldRegistryTests {
+
+	private static Tickets ticket(int id) {
+		return new Tickets(id, "Event", "Location", 100.0);
+	}
+
+	@Test
+	void expiredHoldReturnsItsTicket() throws InterruptedException {
+		AtomicIntegerArray returned = new AtomicIntegerArray(1);
+		HoldRegistry registry = new HoldRegistry(ticket -> {
+			returned.incrementAndGet(ticket.getId());
+			return true;
+		});
+		try {
+			TicketHold hold = registry.hold(ticket(0), 1, 100);
+			assertEquals(1, registry.size());
+			waitFor(() -> registry.size() == 0);
+			assertEquals(1, returned.get(0));
+			assertNull(registry.settle(hold.getHoldId()));
+			assertNull(registry.cancel(hold.getHoldId()));
+		} finally {
+			registry.close();
+		}
+	}
+
+	@Test
+	void everyHoldIsSettledCancelledOrExpiredExactlyOnce() throws InterruptedException {
+		int count = 2_000;
+		AtomicIntegerArray returned = new AtomicIntegerArray(count);
+		AtomicIntegerArray settled = new AtomicIntegerArray(count);
+		HoldRegistry registry = new HoldRegistry(ticket -> {
+			returned.incrementAndGet(ticket.getId());
+			return true;
+		});
+		try {
+			List<TicketHold> holds = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				holds.add(registry.hold(ticket(i), i, 100));
+			}
+			// Settle and cancel while the wheel is expiring the same holds
+			Thread.sleep(90);
+			CountDownLatch start = new CountDownLatch(1);
+			List<Thread> workers = new ArrayList<>();
+			for (int t = 0; t < 2; t++) {
+				boolean confirm = t == 0;
+				workers.add(new Thread(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < count; i++) {
+						TicketHold hold = holds.get(i);
+						if (confirm && registry.settle(hold.getHoldId()) != null) {
+							settled.incrementAndGet(i);
+						} else if (!confirm) {
+							registry.cancel(hold.getHoldId());
+						}
+					}
+				}));
+			}
+			workers.forEach(Thread::start);
+			start.countDown();
+			for (Thread worker : workers) {
+				worker.join();
+			}
+			waitFor(() -> registry.size() == 0);
+			for (int i = 0; i < count; i++) {
+				assertEquals(1, returned.get(i) + settled.get(i), "hold " + i);
+			}
+		} finally {
+			registry.close();
+		}
+	}
+
+	@Test
+	void ticketThatCannotGoBackStaysHeldUntilThePoolHasRoom() throws InterruptedException {
+		AtomicBoolean poolFull = new AtomicBoolean(true);
+		AtomicIntegerArray attempts = new AtomicIntegerArray(1);
+		HoldRegistry registry = new HoldRegistry(ticket -> {
+			attempts.incrementAndGet(0);
+			return !poolFull.get();
+		});
+		try {
+			TicketHold hold = registry.hold(ticket(0), 1, 100);
+			waitFor(() -> attempts.get(0) >= 3);
+			// Expired and retried, but neither in the pool nor lost
+			assertEquals(1, registry.size());
+			assertNull(registry.settle(hold.getHoldId()));
+
+			poolFull.set(false);
+			waitFor(() -> registry.size() == 0);
+		} finally {
+			registry.close();
+		}
+	}
+
+	@Test
+	void cancelledTicketWaitsForRoomTheSameWay() throws InterruptedException {
+		AtomicBoolean poolFull = new AtomicBoolean(true);
+		HoldRegistry registry = new HoldRegistry(ticket -> !poolFull.get());
+		try {
+			TicketHold hold = registry.hold(ticket(0), 1, 60_000);
+			assertSame(hold, registry.cancel(hold.getHoldId()));
+			assertNull(registry.cancel(hold.getHoldId()));
+			assertEquals(1, registry.size());
+
+			poolFull.set(false);
+			waitFor(() -> registry.size() == 0);
+		} finally {
+			registry.close();
+		}
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out waiting");
+			Thread.sleep(5);
+		}
+	}
+
+}
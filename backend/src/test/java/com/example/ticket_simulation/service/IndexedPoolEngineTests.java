@@ -0,0 +1,44 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.TicketQuery;
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedPoolEngineTests {
+
+	@Test
+	void servesCheapestMatchingTicketWithinPriceLimit() {
+		IndexedPoolEngine engine = new IndexedPoolEngine(10);
+		engine.offer(new Tickets(1, "Concert", "Arena", 150.0), 0);
+		engine.offer(new Tickets(2, "Concert", "Hall", 100.0), 0);
+		engine.offer(new Tickets(3, "Concert", "Arena", 100.0), 0);
+		engine.offer(new Tickets(4, "Match", "Stadium", 50.0), 0);
+
+		assertEquals(2, engine.poll(new TicketQuery("Concert", null, 120.0), 1, 0).getId());
+		assertEquals(3, engine.poll(new TicketQuery("Concert", null, 120.0), 1, 0).getId());
+		assertNull(engine.poll(new TicketQuery("Concert", null, 120.0), 1, 0));
+		assertNull(engine.poll(new TicketQuery("Concert", "Hall", null), 1, 0));
+		assertEquals(1, engine.poll(new TicketQuery("Concert", "Arena", null), 1, 0).getId());
+		assertNull(engine.poll(new TicketQuery("Theatre", null, null), 1, 0));
+		assertEquals(1, engine.size());
+	}
+
+	@Test
+	void untargetedPollsStayFifoAcrossTiers() {
+		IndexedPoolEngine engine = new IndexedPoolEngine(4);
+		engine.offer(new Tickets(1, "Concert", "Arena", 150.0), 0);
+		engine.offer(new Tickets(2, "Match", "Stadium", 50.0), 0);
+		engine.offer(new Tickets(3, "Concert", "Arena", 100.0), 0);
+		engine.offer(new Tickets(4, "Concert", "Arena", 150.0), 0);
+		assertFalse(engine.offer(new Tickets(5, "Match", "Stadium", 50.0), 0));
+
+		assertEquals(3, engine.poll(new TicketQuery("Concert", null, null), 1, 0).getId());
+		assertEquals(1, engine.poll(0).getId());
+		assertEquals(2, engine.poll(0).getId());
+		assertEquals(4, engine.poll(0).getId());
+		assertNull(engine.poll(0));
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.repository.TicketJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalRecoveryTests {
+
+	private static final int SEGMENT_BYTES = 4096;
+
+	@TempDir
+	Path directory;
+
+	private static Configuration config(int capacity) {
+		return new Configuration(100, 10, 10, capacity);
+	}
+
+	private static List<Tickets> tickets(int from, int count) {
+		List<Tickets> tickets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int id = from + i;
+			tickets.add(new Tickets(id, id % 2 == 0 ? "Concert" : "Match", "Arena", 50.0 + id % 3));
+		}
+		return tickets;
+	}
+
+	private static List<Integer> ids(Iterable<Tickets> tickets) {
+		List<Integer> ids = new ArrayList<>();
+		for (Tickets ticket : tickets) {
+			ids.add(ticket.getId());
+		}
+		return ids;
+	}
+
+	private static JournalState replayAll(Path directory) throws IOException {
+		JournalState state = JournalState.load(directory);
+		TicketJournal.replay(directory, state.getNextSegment(), Long.MAX_VALUE, state);
+		return state;
+	}
+
+	@Test
+	void replayRebuildsWhatWasAppendedAcrossSegments() throws IOException {
+		TicketJournal journal = TicketJournal.open(directory, SEGMENT_BYTES);
+		journal.appendReset(config(500));
+		List<Tickets> released = tickets(1, 300);
+		journal.appendReleases(released, released.size(), 1, 1_000);
+		journal.appendSales(released.subList(0, 100), 7, 2_000);
+		journal.appendDrops(released.subList(100, 110), 3_000);
+		journal.close();
+		assertTrue(TicketJournal.segments(directory).size() > 1);
+
+		JournalState state = replayAll(directory);
+		assertEquals(500, state.getConfiguration().getMaxTicketCapacity());
+		assertEquals(300, state.getTicketsReleased());
+		assertEquals(10, state.getTicketsDropped());
+		assertEquals(ids(released.subList(110, 300)), ids(state.getPooledTickets()));
+		Tickets first = state.getPooledTickets().iterator().next();
+		assertEquals(released.get(110).getEvent(), first.getEvent());
+		assertEquals(released.get(110).getPrice(), first.getPrice());
+		assertEquals(100, state.getSaleCount());
+		assertEquals(1, state.getSaleTicketId(0));
+		assertEquals(7, state.getSaleCustomerId(99));
+		assertEquals(2_000, state.getSaleTime(50));
+		assertEquals(50L, state.getSoldByEvent().get("Concert"));
+		assertEquals(50L, state.getSoldByEvent().get("Match"));
+	}
+
+	@Test
+	void snapshotAndTailReplayMatchAFullReplay() throws IOException {
+		TicketJournal journal = TicketJournal.open(directory, SEGMENT_BYTES);
+		journal.appendReset(config(500));
+		List<Tickets> released = tickets(1, 400);
+		journal.appendReleases(released, 250, 1, 1_000);
+		journal.appendSales(released.subList(0, 120), 7, 2_000);
+
+		// Fold the completed segments into a snapshot and delete them, as the flush thread does
+		long upTo = journal.currentSegment();
+		JournalState compacted = new JournalState();
+		TicketJournal.replay(directory, 1, upTo, compacted);
+		compacted.setNextSegment(upTo);
+		compacted.save(directory);
+		TicketJournal.deleteSegments(directory, upTo);
+
+		journal.appendReleases(released.subList(250, 400), 150, 2, 3_000);
+		journal.appendSales(released.subList(120, 200), 8, 4_000);
+		journal.appendDrops(released.subList(390, 400), 5_000);
+		journal.close();
+		assertEquals(upTo, (long) TicketJournal.segments(directory).get(0));
+
+		JournalState state = replayAll(directory);
+		assertEquals(upTo, JournalState.load(directory).getNextSegment());
+		assertEquals(400, state.getTicketsReleased());
+		assertEquals(200, state.getSaleCount());
+		assertEquals(10, state.getTicketsDropped());
+		assertEquals(ids(released.subList(200, 390)), ids(state.getPooledTickets()));
+		assertEquals(8, state.getSaleCustomerId(199));
+		assertEquals(100L, state.getSoldByEvent().get("Concert"));
+	}
+
+	@Test
+	void corruptOrTornLastRecordIsDroppedWithoutLosingEarlierOnes() throws IOException {
+		TicketJournal journal = TicketJournal.open(directory, SEGMENT_BYTES);
+		journal.appendReset(config(500));
+		List<Tickets> released = tickets(1, 20);
+		journal.appendReleases(released, released.size(), 1, 1_000);
+		journal.appendSales(released.subList(0, 5), 7, 2_000);
+		journal.close();
+		List<Long> segments = TicketJournal.segments(directory);
+		assertEquals(1, segments.size());
+		Path segment;
+		try (var files = Files.list(directory)) {
+			segment = files.filter(file -> file.getFileName().toString().endsWith(".journal")).findFirst().get();
+		}
+
+		// Find the last record by walking the length prefixes
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+		int last = 0;
+		for (int position = 0; data.getInt(position) > 0; position += 8 + data.getInt(position)) {
+			last = position;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			// Flip a byte of the last sale's customer ID, so its checksum no longer matches
+			file.seek(last + 8 + 5);
+			int original = file.read();
+			file.seek(last + 8 + 5);
+			file.write(original ^ 0xFF);
+		}
+		JournalState corrupt = replayAll(directory);
+		assertEquals(20, corrupt.getTicketsReleased());
+		assertEquals(4, corrupt.getSaleCount());
+		assertEquals(ids(released.subList(4, 20)), ids(corrupt.getPooledTickets()));
+
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			// A crash halfway through the record: the file ends inside its payload
+			file.setLength(last + 8 + 3);
+		}
+		JournalState torn = replayAll(directory);
+		assertEquals(20, torn.getTicketsReleased());
+		assertEquals(4, torn.getSaleCount());
+	}
+
+	@Test
+	void restoringIntoASmallerPoolCountsTheOverflowAsDropped() {
+		JournalState state = new JournalState();
+		state.reset(config(10));
+		for (Tickets ticket : tickets(1, 6)) {
+			state.released(ticket, 1, 1_000);
+		}
+		state.sold(1, 7, 2_000);
+
+		TicketPool ticketPool = new TicketPool();
+		try {
+			assertEquals(3, ticketPool.restore(config(2), state));
+			assertEquals(2, ticketPool.getTicketsAvailable());
+			assertEquals(1, ticketPool.getTicketsSold());
+			assertTrue(ticketPool.getTicketSale(1).isSold());
+			// The oldest unsold tickets are kept
+			assertEquals(2, ticketPool.tryRetrieveTicket(0).getId());
+			assertEquals(3, ticketPool.tryRetrieveTicket(0).getId());
+
+			IntegrityReport report = ticketPool.getIntegrityReport(6);
+			assertEquals(3, report.getTicketsDropped());
+			assertEquals(3, ticketPool.getMetrics().snapshot().getTicketsDropped());
+			assertEquals(0, report.getTicketsUnaccounted());
+			assertEquals(Collections.emptyList(), report.getDuplicateTicketIds());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacedSimulationTests {
+
+	private static Configuration config() {
+		Configuration config = new Configuration(200, 0, 0, 20);
+		config.setExecutionMode(ExecutionMode.PACED);
+		config.setVendorCount(2);
+		config.setCustomerCount(4);
+		config.setReleasesPerSecond(20_000);
+		config.setPurchasesPerSecond(20_000);
+		config.setPacingWorkers(2);
+		return config;
+	}
+
+	// Runs a simulation to the end on threads of its own
+	private static void run(PacedSimulation simulation) throws InterruptedException {
+		ExecutorService threads = Executors.newCachedThreadPool();
+		simulation.start(threads, () -> true);
+		threads.shutdown();
+		assertTrue(threads.awaitTermination(30, TimeUnit.SECONDS), "the run never ended");
+	}
+
+	@Test
+	void releasesAndSellsEveryTicket() throws InterruptedException {
+		Configuration config = config();
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(config);
+		try {
+			PacedSimulation simulation = new PacedSimulation(() -> config, ticketPool,
+					new LoggerService(new LogRepository(1_000)));
+			run(simulation);
+			assertEquals(200, ticketPool.getTicketsSold());
+			assertEquals(0, ticketPool.getTicketsAvailable());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void aFailingTickEndsTheRunInsteadOfHangingIt() throws InterruptedException {
+		Configuration config = config();
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(config);
+		LogRepository logs = new LogRepository(1_000);
+		// The constructor reads the configuration once; the fifth tick finds it broken
+		AtomicInteger reads = new AtomicInteger();
+		try {
+			PacedSimulation simulation = new PacedSimulation(() -> {
+				if (reads.incrementAndGet() > 5) {
+					throw new IllegalStateException("configuration unavailable");
+				}
+				return config;
+			}, ticketPool, new LoggerService(logs));
+			run(simulation);
+			String failure = "Paced run failed: java.lang.IllegalStateException: configuration unavailable";
+			assertTrue(logs.getLogs().stream().anyMatch(line -> line.endsWith(failure)), logs.getLogs().toString());
+			assertTrue(ticketPool.getTicketsSold() < 200);
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
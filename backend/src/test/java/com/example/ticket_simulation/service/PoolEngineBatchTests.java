@@ -0,0 +1,81 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolEngineBatchTests {
+
+	private static final List<IntFunction<TicketPoolEngine>> ENGINES = Arrays.asList(
+			LockingPoolEngine::new,
+			RingBufferPoolEngine::new,
+			capacity -> new ShardedPoolEngine(capacity, 4),
+			IndexedPoolEngine::new,
+			CompactPoolEngine::new);
+
+	private static List<Tickets> tickets(int from, int count) {
+		List<Tickets> tickets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tickets.add(new Tickets(from + i, "Event", "Location", 100.0));
+		}
+		return tickets;
+	}
+
+	@Test
+	void neverHandsOutPartOfABatch() {
+		for (IntFunction<TicketPoolEngine> factory : ENGINES) {
+			TicketPoolEngine engine = factory.apply(10);
+			String name = engine.getClass().getSimpleName();
+			assertEquals(3, engine.offerBatch(tickets(1, 3), 0, 0), name);
+
+			assertNull(engine.pollBatch(4, 0, 0), name);
+			assertNull(engine.pollBatch(4, 0, TimeUnit.MILLISECONDS.toNanos(20)), name);
+			assertEquals(3, engine.size(), name);
+
+			List<Tickets> batch = engine.pollBatch(3, 0, 0);
+			assertNotNull(batch, name);
+			assertEquals(3, batch.size(), name);
+			assertEquals(0, engine.size(), name);
+		}
+	}
+
+	@Test
+	void batchLargerThanTheCapacityGivesUpInsteadOfWaiting() {
+		for (IntFunction<TicketPoolEngine> factory : ENGINES) {
+			TicketPoolEngine engine = factory.apply(4);
+			String name = engine.getClass().getSimpleName();
+			engine.offerBatch(tickets(1, 4), 0, 0);
+			assertNull(assertTimeoutPreemptively(Duration.ofSeconds(5), () -> engine.pollBatch(5, 0, -1), name),
+					name);
+			assertEquals(4, engine.size(), name);
+		}
+	}
+
+	@Test
+	void batchOffersWakeWaitingConsumers() throws Exception {
+		for (IntFunction<TicketPoolEngine> factory : ENGINES) {
+			TicketPoolEngine engine = factory.apply(10);
+			String name = engine.getClass().getSimpleName();
+			CompletableFuture<Tickets> single = CompletableFuture.supplyAsync(() -> engine.poll(1, -1));
+			CompletableFuture<List<Tickets>> batch = CompletableFuture.supplyAsync(() -> engine.pollBatch(3, 2, -1));
+			Thread.sleep(50);
+			assertFalse(single.isDone(), name);
+			assertFalse(batch.isDone(), name);
+
+			assertEquals(4, engine.offerBatch(tickets(1, 4), 0, 0), name);
+			assertNotNull(single.get(5, TimeUnit.SECONDS), name);
+			assertEquals(3, batch.get(5, TimeUnit.SECONDS).size(), name);
+			assertEquals(0, engine.size(), name);
+		}
+	}
+
+}
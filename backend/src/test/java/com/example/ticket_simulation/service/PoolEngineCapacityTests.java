@@ -0,0 +1,97 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolEngineCapacityTests {
+
+	private static final List<IntFunction<TicketPoolEngine>> ENGINES = Arrays.asList(
+			LockingPoolEngine::new,
+			RingBufferPoolEngine::new,
+			capacity -> new ShardedPoolEngine(capacity, 4),
+			IndexedPoolEngine::new,
+			CompactPoolEngine::new);
+
+	private static Tickets ticket(int id) {
+		return new Tickets(id, "Event", "Location", 100.0);
+	}
+
+	@Test
+	void growingWakesAProducerWaitingForSpace() throws Exception {
+		for (IntFunction<TicketPoolEngine> factory : ENGINES) {
+			TicketPoolEngine engine = factory.apply(8);
+			String name = engine.getClass().getSimpleName();
+			engine.setCapacity(2);
+			assertTrue(engine.offer(ticket(1), 0), name);
+			assertTrue(engine.offer(ticket(2), 0), name);
+			CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> engine.offer(ticket(3), -1));
+			Thread.sleep(50);
+			assertFalse(producer.isDone(), name);
+
+			engine.setCapacity(3);
+			assertTrue(producer.get(5, TimeUnit.SECONDS), name);
+			assertEquals(3, engine.size(), name);
+			assertEquals(3, engine.capacity(), name);
+		}
+	}
+
+	@Test
+	void shrinkingKeepsEveryPooledTicket() {
+		for (IntFunction<TicketPoolEngine> factory : ENGINES) {
+			TicketPoolEngine engine = factory.apply(8);
+			String name = engine.getClass().getSimpleName();
+			for (int id = 1; id <= 6; id++) {
+				assertTrue(engine.offer(ticket(id), 0), name);
+			}
+			engine.setCapacity(3);
+			assertEquals(6, engine.size(), name);
+			assertFalse(engine.offer(ticket(7), 0), name);
+
+			Set<Integer> taken = new HashSet<>();
+			for (int i = 0; i < 4; i++) {
+				taken.add(engine.poll(0).getId());
+			}
+			// Room again once customers take the pool below the new capacity
+			assertTrue(engine.offer(ticket(7), 0), name);
+			assertFalse(engine.offer(ticket(8), 0), name);
+			List<Tickets> rest = new ArrayList<>();
+			for (Tickets ticket = engine.poll(0); ticket != null; ticket = engine.poll(0)) {
+				rest.add(ticket);
+			}
+			for (Tickets ticket : rest) {
+				taken.add(ticket.getId());
+			}
+			assertEquals(3, rest.size(), name);
+			assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7)), taken, name);
+		}
+	}
+
+	@Test
+	void waitingBatchGivesUpWhenItNoLongerFits() throws Exception {
+		for (IntFunction<TicketPoolEngine> factory : ENGINES) {
+			TicketPoolEngine engine = factory.apply(8);
+			String name = engine.getClass().getSimpleName();
+			assertTrue(engine.offer(ticket(1), 0), name);
+			assertTrue(engine.offer(ticket(2), 0), name);
+			CompletableFuture<List<Tickets>> batch = CompletableFuture.supplyAsync(() -> engine.pollBatch(5, 1, -1));
+			Thread.sleep(50);
+			assertFalse(batch.isDone(), name);
+
+			engine.setCapacity(4);
+			assertNull(batch.get(5, TimeUnit.SECONDS), name);
+			assertEquals(2, engine.size(), name);
+		}
+	}
+
+}
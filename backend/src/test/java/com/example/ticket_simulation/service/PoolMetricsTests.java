@@ -0,0 +1,56 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolMetricsTests {
+
+	@Test
+	void keepsEachWaitInItsOwnHistogramAndResetsEveryCounter() {
+		PoolMetrics metrics = new PoolMetrics();
+		metrics.recordReleases(5);
+		metrics.recordSales(3);
+		metrics.recordAddWait(2_000);
+		metrics.recordRetrieveWait(10);
+		metrics.recordRetrieveWait(30);
+		metrics.recordTimeInPool(1_000_000);
+		metrics.recordReleaseRejected();
+		metrics.recordReleaseTimedOut();
+		metrics.recordReleaseTimedOut();
+		metrics.recordPurchaseRejected();
+		metrics.recordPurchaseTimedOut();
+		metrics.recordDrops(4);
+
+		MetricsSnapshot snapshot = metrics.snapshot();
+		assertEquals(5, snapshot.getTicketsReleased());
+		assertEquals(3, snapshot.getTicketsSold());
+		assertEquals(1, snapshot.getAddWait().getCount());
+		assertEquals(2.0, snapshot.getAddWait().getMax());
+		assertEquals(2, snapshot.getRetrieveWait().getCount());
+		assertEquals(0.010, snapshot.getRetrieveWait().getP50(), 1e-9);
+		assertEquals(0.030, snapshot.getRetrieveWait().getP90(), 1e-9);
+		assertEquals(2, metrics.getRetrieveWaitCount());
+		assertEquals(40, metrics.getRetrieveWaitNanos());
+		assertEquals(1, snapshot.getTimeInPool().getCount());
+		assertEquals(1, snapshot.getReleasesRejected());
+		assertEquals(2, snapshot.getReleasesTimedOut());
+		assertEquals(1, snapshot.getPurchasesRejected());
+		assertEquals(1, snapshot.getPurchasesTimedOut());
+		assertEquals(4, snapshot.getTicketsDropped());
+
+		metrics.reset();
+		snapshot = metrics.snapshot();
+		assertEquals(0, snapshot.getTicketsReleased());
+		assertEquals(0, snapshot.getTicketsSold());
+		assertEquals(0, snapshot.getAddWait().getCount());
+		assertEquals(0, snapshot.getRetrieveWait().getCount());
+		assertEquals(0, snapshot.getTimeInPool().getCount());
+		assertEquals(0, snapshot.getTimeInPool().getMax());
+		assertEquals(0, snapshot.getReleasesRejected() + snapshot.getReleasesTimedOut()
+				+ snapshot.getPurchasesRejected() + snapshot.getPurchasesTimedOut() + snapshot.getTicketsDropped());
+		assertEquals(0, metrics.getRetrieveWaitNanos());
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseServiceTests {
+
+	@Test
+	void ticketArrivingForABuyerWhoTimesOutIsNeitherSoldNorLost() throws InterruptedException {
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(1);
+		LoggerService loggerService = new LoggerService(new LogRepository(100));
+		PurchaseService purchaseService = new PurchaseService(ticketPool, loggerService, 10_000, 60_000, 10);
+		int rounds = 200;
+		int delivered = 0;
+		try {
+			for (int round = 0; round < rounds; round++) {
+				DeferredResult<ResponseEntity<?>> result = purchaseService.purchase(round, 10_000L);
+				assertFalse(result.hasResult());
+				Tickets ticket = new Tickets(round, "Event", "Location", 100.0);
+				CountDownLatch start = new CountDownLatch(1);
+				Thread vendor = new Thread(() -> {
+					awaitQuietly(start);
+					ticketPool.tryAddTicket(ticket, 0);
+				});
+				Thread timeout = new Thread(() -> {
+					awaitQuietly(start);
+					result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+				});
+				vendor.start();
+				timeout.start();
+				start.countDown();
+				vendor.join();
+				timeout.join();
+
+				// Either the buyer got the ticket, or it is back in the pool for the next one
+				waitFor(() -> purchaseService.getWaitingCount() == 0 && ticketPool.getTicketsHeld() == 0);
+				ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+				if (response.getStatusCode() == HttpStatus.OK) {
+					assertSame(ticket, response.getBody());
+					delivered++;
+				} else {
+					waitFor(() -> ticketPool.getTicketsAvailable() == 1);
+					Tickets unsold = ticketPool.tryRetrieveTicket(round);
+					assertNotNull(unsold, "round " + round);
+					assertEquals(ticket.getId(), unsold.getId());
+					delivered++;
+				}
+				int sold = delivered;
+				waitFor(() -> ticketPool.getTicketsSold() >= sold);
+				assertEquals(0, ticketPool.getTicketsAvailable(), "round " + round);
+				assertEquals(delivered, ticketPool.getTicketsSold(), "round " + round);
+			}
+		} finally {
+			purchaseService.close();
+			ticketPool.close();
+			loggerService.close();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out waiting");
+			Thread.sleep(1);
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ReleaseControl;
+import com.example.ticket_simulation.model.ReleaseControlAlgorithm;
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReleaseRateControllerTests {
+
+	private static final int CAPACITY = 10;
+	private static final long INTERVAL_MILLIS = 5;
+
+	private static Configuration config(ReleaseControlAlgorithm algorithm) {
+		ReleaseControl control = new ReleaseControl();
+		control.setAlgorithm(algorithm);
+		control.setTargetOccupancy(0.5);
+		control.setIntervalMillis(INTERVAL_MILLIS);
+		control.setMinReleasesPerSecond(10);
+		control.setMaxReleasesPerSecond(1_000);
+		control.setAdditiveIncrease(100);
+		Configuration config = new Configuration(100, 10, 10, CAPACITY);
+		config.setReleasesPerSecond(200);
+		config.setReleaseControl(control);
+		return config;
+	}
+
+	private static void fill(TicketPool ticketPool, int tickets) {
+		while (ticketPool.getTicketsAvailable() < tickets) {
+			int id = ticketPool.getTicketsAvailable() + 1;
+			assertTrue(ticketPool.tryAddTicket(new Tickets(id, "Event", "Location", 100.0), 0));
+		}
+		while (ticketPool.getTicketsAvailable() > tickets) {
+			assertNotNull(ticketPool.tryRetrieveTicket(0));
+		}
+	}
+
+	// Lets several intervals pass, checking after each one that the rate stays within its limits
+	private static double advance(ReleaseRateController controller, int intervals) throws InterruptedException {
+		double rate = controller.rate();
+		for (int i = 0; i < intervals; i++) {
+			Thread.sleep(INTERVAL_MILLIS + 1);
+			rate = controller.rate();
+			assertTrue(rate >= 10 && rate <= 1_000, "rate " + rate);
+		}
+		return rate;
+	}
+
+	@Test
+	void aimdRaisesAnEmptyPoolAndBacksOffAFullOne() throws InterruptedException {
+		Configuration config = config(ReleaseControlAlgorithm.AIMD);
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(config);
+		try {
+			ReleaseRateController controller = new ReleaseRateController(() -> config, ticketPool);
+			assertEquals(200, controller.rate());
+
+			// Additive steps up to the limit, never past it
+			assertEquals(1_000, advance(controller, 15));
+			assertEquals(8, controller.snapshot().getIncreases());
+
+			// Halved on every interval down to the limit
+			fill(ticketPool, CAPACITY);
+			assertEquals(10, advance(controller, 15));
+			assertTrue(controller.snapshot().getDecreases() >= 6);
+			assertEquals(1.0, controller.snapshot().getOccupancy());
+
+			// At the target the rate holds
+			fill(ticketPool, CAPACITY / 2);
+			advance(controller, 2);
+			double held = controller.rate();
+			assertEquals(held, advance(controller, 5));
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void pidMovesTheRateTowardTheTargetWithinItsLimits() throws InterruptedException {
+		Configuration config = config(ReleaseControlAlgorithm.PID);
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(config);
+		try {
+			ReleaseRateController controller = new ReleaseRateController(() -> config, ticketPool);
+			fill(ticketPool, CAPACITY);
+			double overfilled = advance(controller, 10);
+			assertTrue(overfilled < 200, "rate " + overfilled);
+
+			fill(ticketPool, 0);
+			double underfilled = advance(controller, 20);
+			assertTrue(underfilled > 200, "rate " + underfilled);
+			assertTrue(underfilled > overfilled);
+
+			// The integral winds down once the pool is back at the target
+			fill(ticketPool, CAPACITY / 2);
+			double atTarget = advance(controller, 5);
+			assertTrue(atTarget <= underfilled, "rate " + atTarget);
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
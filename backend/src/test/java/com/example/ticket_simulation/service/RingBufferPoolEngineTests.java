@@ -0,0 +1,58 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferPoolEngineTests {
+
+	@Test
+	void enforcesExactCapacityAndFifoOrder() {
+		RingBufferPoolEngine engine = new RingBufferPoolEngine(3);
+		for (int i = 1; i <= 3; i++) {
+			assertTrue(engine.offer(new Tickets(i, "Event", "Location", 100.0), 0));
+		}
+		assertFalse(engine.offer(new Tickets(4, "Event", "Location", 100.0), 0));
+		assertEquals(3, engine.size());
+		assertEquals(1, engine.poll(0).getId());
+		assertEquals(2, engine.poll(0).getId());
+		assertEquals(3, engine.poll(0).getId());
+		assertNull(engine.poll(1_000_000));
+	}
+
+	@Test
+	void deliversEveryTicketExactlyOnceUnderContention() throws InterruptedException {
+		int threads = 8;
+		int perThread = 10_000;
+		RingBufferPoolEngine engine = new RingBufferPoolEngine(5);
+		AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int base = t * perThread;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					engine.offer(new Tickets(base + i, "Event", "Location", 100.0), -1);
+				}
+			}));
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					seen.incrementAndGet(engine.poll(-1).getId());
+				}
+			}));
+		}
+		workers.forEach(Thread::start);
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		for (int i = 0; i < seen.length(); i++) {
+			assertEquals(1, seen.get(i), "ticket " + i);
+		}
+		assertEquals(0, engine.size());
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.IntegrityReport;
+import com.example.ticket_simulation.model.TicketSaleStatus;
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesLedgerTests {
+
+	@Test
+	void catchesDuplicateSalesAndAccountsForEveryTicket() {
+		SalesLedger ledger = new SalesLedger();
+		assertTrue(ledger.record(1, 10, 1_000_000));
+		assertTrue(ledger.record(2, 11, 2_000_000));
+		assertFalse(ledger.record(1, 12, 3_000_000));
+		assertFalse(ledger.isSold(3));
+
+		TicketSaleStatus status = ledger.lookup(1);
+		assertEquals(2, status.getSaleCount());
+		assertEquals(10, status.getCustomerId());
+		assertEquals(1L, status.getSoldAt());
+
+		// Five released: two sold, one in the pool, one held and one dropped
+		IntegrityReport report = ledger.report(5, 5, 1, 1, 1);
+		assertEquals(3, report.getSalesRecorded());
+		assertEquals(2, report.getDistinctTicketsSold());
+		assertEquals(1, report.getDuplicateSales());
+		assertEquals(Collections.singletonList(1), report.getDuplicateTicketIds());
+		assertEquals(0, report.getTicketsUnaccounted());
+		assertFalse(report.isConsistent());
+	}
+
+	@Test
+	void countsEachDuplicateOnceUnderContention() throws InterruptedException {
+		SalesLedger ledger = new SalesLedger();
+		int tickets = 10_000;
+		AtomicInteger firstSales = new AtomicInteger();
+		List<Thread> customers = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int customerId = t;
+			customers.add(new Thread(() -> {
+				for (int id = 1; id <= tickets; id++) {
+					if (ledger.record(id, customerId, id)) {
+						firstSales.incrementAndGet();
+					}
+				}
+			}));
+		}
+		customers.forEach(Thread::start);
+		for (Thread customer : customers) {
+			customer.join();
+		}
+		assertEquals(tickets, firstSales.get());
+		IntegrityReport report = ledger.report(tickets, tickets, 0, 0, 0);
+		assertEquals(4L * tickets, report.getSalesRecorded());
+		assertEquals(tickets, report.getDistinctTicketsSold());
+		assertEquals(3L * tickets, report.getDuplicateSales());
+		assertEquals(20, report.getDuplicateTicketIds().size());
+		assertFalse(report.getDuplicateTicketIds().contains(0));
+	}
+
+	@Test
+	void salesOnASimulatedClockKeepTheirTime() {
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(10);
+		try {
+			long simulated = 1_000_000_000_000_000L;
+			List<Tickets> block = new ArrayList<>();
+			block.add(new Tickets(1, "Event", "Location", 100.0));
+			block.add(new Tickets(2, "Event", "Location", 100.0));
+			assertEquals(2, ticketPool.tryAddTickets(block, 1, simulated));
+			assertEquals(2, ticketPool.tryRetrieveTickets(2, 7, simulated + 5_000_000).size());
+
+			TicketSaleStatus status = ticketPool.getTicketSale(2);
+			assertEquals(7, status.getCustomerId());
+			assertEquals((simulated + 5_000_000) / 1_000_000, status.getSoldAt());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionServiceTests {
+
+	private static final int BUDGET = 10;
+
+	// A run that takes many seconds to finish, so it holds its threads for the whole test
+	private static Configuration slow(ExecutionMode mode, int vendors, int customers) {
+		Configuration config = new Configuration(100_000, 100, 100, 10);
+		config.setExecutionMode(mode);
+		config.setVendorCount(vendors);
+		config.setCustomerCount(customers);
+		return config;
+	}
+
+	// Counts the live threads that were not there before the test
+	private static int newThreads(Set<Thread> before) {
+		int count = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && !before.contains(thread)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static TicketService configure(SessionService sessions, Configuration config) {
+		TicketService ticketService = sessions.getTicketService(sessions.open().getId());
+		ticketService.startSimulation(config);
+		return ticketService;
+	}
+
+	@Test
+	void concurrentSessionsStayWithinTheThreadBudget() throws InterruptedException {
+		Set<Thread> before = new HashSet<>(Thread.getAllStackTraces().keySet());
+		SessionService sessions = new SessionService(new LoggerService(new LogRepository(100)), BUDGET, 8, 100);
+		try {
+			TicketService platform = configure(sessions, slow(ExecutionMode.PLATFORM_THREADS, 2, 4));
+			platform.runSimulation();
+			assertEquals(BUDGET - 6, sessions.getAvailableThreads());
+
+			// A driver, a pacer and two workers, all on the budget
+			Configuration pacedConfig = slow(ExecutionMode.PACED, 50, 50);
+			pacedConfig.setReleasesPerSecond(100);
+			pacedConfig.setPurchasesPerSecond(100);
+			pacedConfig.setPacingWorkers(2);
+			TicketService paced = configure(sessions, pacedConfig);
+			paced.runSimulation();
+			assertEquals(0, sessions.getAvailableThreads());
+
+			TicketService refused = configure(sessions, slow(ExecutionMode.VIRTUAL_TIME, 1, 1));
+			assertThrows(IllegalStateException.class, refused::runSimulation);
+			assertFalse(refused.isSimulationRunning());
+
+			// Give every run time to start all of its threads before counting them
+			Thread.sleep(200);
+			assertTrue(newThreads(before) <= BUDGET, "threads " + newThreads(before));
+			assertTrue(paced.getTicketsSold() + paced.getTicketsAvailable() > 0);
+
+			platform.stopSimulation();
+			assertEquals(6, sessions.getAvailableThreads());
+			refused.runSimulation();
+			assertEquals(5, sessions.getAvailableThreads());
+		} finally {
+			sessions.close();
+		}
+	}
+
+	@Test
+	void closingASessionReleasesItsLease() {
+		SessionService sessions = new SessionService(new LoggerService(new LogRepository(100)), BUDGET, 8, 100);
+		try {
+			long id = sessions.open().getId();
+			TicketService ticketService = sessions.getTicketService(id);
+			ticketService.startSimulation(slow(ExecutionMode.PLATFORM_THREADS, 3, 3));
+			ticketService.runSimulation();
+			assertEquals(BUDGET - 6, sessions.getAvailableThreads());
+			assertTrue(sessions.close(id));
+			assertEquals(BUDGET, sessions.getAvailableThreads());
+			assertNull(sessions.getTicketService(id));
+		} finally {
+			sessions.close();
+		}
+	}
+
+	@Test
+	void virtualThreadRunsAreRefusedWithoutTakingThreads() {
+		SessionService sessions = new SessionService(new LoggerService(new LogRepository(100)), BUDGET, 8, 100);
+		try {
+			TicketService ticketService = configure(sessions, slow(ExecutionMode.VIRTUAL_THREADS, 20, 20));
+			assertThrows(IllegalArgumentException.class, ticketService::runSimulation);
+			assertFalse(ticketService.isSimulationRunning());
+			assertEquals(BUDGET, sessions.getAvailableThreads());
+		} finally {
+			sessions.close();
+		}
+	}
+
+}
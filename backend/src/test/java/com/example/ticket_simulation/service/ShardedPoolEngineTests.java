@@ -0,0 +1,106 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Tickets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPoolEngineTests {
+
+	private static Tickets ticket(int id) {
+		return new Tickets(id, "Event", "Location", 100.0);
+	}
+
+	@Test
+	void holdsExactlyTheCapacityAcrossShards() {
+		ShardedPoolEngine engine = new ShardedPoolEngine(10, 4);
+		// Every offer starts at the same home shard and spills into the others
+		for (int i = 1; i <= 10; i++) {
+			assertTrue(engine.offer(ticket(i), 0, 0), "ticket " + i);
+		}
+		assertFalse(engine.offer(ticket(11), 0, 0));
+		assertFalse(engine.offer(ticket(11), 3, 0));
+		assertEquals(10, engine.size());
+	}
+
+	@Test
+	void customersStealFromOtherShards() {
+		ShardedPoolEngine engine = new ShardedPoolEngine(8, 4);
+		for (int i = 1; i <= 2; i++) {
+			assertTrue(engine.offer(ticket(i), 1, 0));
+		}
+		// Customer 2's home shard is empty, so both tickets come from vendor 1's shard in order
+		assertEquals(1, engine.poll(2, 0).getId());
+		assertEquals(2, engine.poll(2, 0).getId());
+		assertNull(engine.poll(2, 0));
+		assertEquals(0, engine.size());
+	}
+
+	@Test
+	void batchPurchaseTakesTicketsFromSeveralShards() {
+		ShardedPoolEngine engine = new ShardedPoolEngine(8, 4);
+		for (int vendor = 0; vendor < 4; vendor++) {
+			assertTrue(engine.offer(ticket(vendor + 1), vendor, 0));
+		}
+		assertNull(engine.pollBatch(5, 0, 0));
+		assertEquals(4, engine.size());
+
+		List<Tickets> tickets = engine.pollBatch(3, 0, 0);
+		assertNotNull(tickets);
+		assertEquals(3, tickets.size());
+		assertEquals(1, engine.size());
+	}
+
+	@Test
+	void poolStartedSmallSpreadsOverEveryShardOnceGrown() {
+		ShardedPoolEngine engine = new ShardedPoolEngine(1, 4);
+		assertTrue(engine.offer(ticket(1), 0, 0));
+		assertFalse(engine.offer(ticket(2), 1, 0));
+
+		engine.setCapacity(8);
+		for (int i = 2; i <= 8; i++) {
+			assertTrue(engine.offer(ticket(i), i, 0), "ticket " + i);
+		}
+		assertFalse(engine.offer(ticket(9), 0, 0));
+		// Tickets went to their vendors' home shards, so customers find those at home first
+		assertEquals(3, engine.poll(3, 0).getId());
+		assertEquals(2, engine.poll(2, 0).getId());
+		assertEquals(1, engine.poll(0, 0).getId());
+	}
+
+	@Test
+	void deliversEveryTicketExactlyOnceUnderContention() throws InterruptedException {
+		int threads = 8;
+		int perThread = 10_000;
+		ShardedPoolEngine engine = new ShardedPoolEngine(16, 4);
+		AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			int base = t * perThread;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					engine.offer(ticket(base + i), id, -1);
+				}
+			}));
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					seen.incrementAndGet(engine.poll(id + 1, -1).getId());
+				}
+			}));
+		}
+		workers.forEach(Thread::start);
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		for (int i = 0; i < seen.length(); i++) {
+			assertEquals(1, seen.get(i), "ticket " + i);
+		}
+		assertEquals(0, engine.size());
+	}
+
+}
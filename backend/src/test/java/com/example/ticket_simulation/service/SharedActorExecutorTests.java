@@ -0,0 +1,130 @@
+package com.example.ticket_simulation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedActorExecutorTests {
+
+	@Test
+	void refusesLeasesBeyondTheBudgetAndReleasesThemOnceTheirTasksEnd() throws InterruptedException {
+		SharedActorExecutor executor = new SharedActorExecutor(4);
+		try {
+			ExecutorService first = executor.lease(3);
+			assertThrows(IllegalStateException.class, () -> executor.lease(2));
+			assertEquals(1, executor.availableThreads());
+
+			CountDownLatch started = new CountDownLatch(3);
+			CountDownLatch release = new CountDownLatch(1);
+			for (int i = 0; i < 3; i++) {
+				first.execute(() -> {
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			// Shut down but still running, so the threads stay leased
+			first.shutdown();
+			assertFalse(first.awaitTermination(50, TimeUnit.MILLISECONDS));
+			assertEquals(1, executor.availableThreads());
+
+			release.countDown();
+			assertTrue(first.awaitTermination(5, TimeUnit.SECONDS));
+			assertEquals(4, executor.availableThreads());
+			executor.lease(4).shutdown();
+			assertEquals(4, executor.availableThreads());
+		} finally {
+			executor.close();
+		}
+	}
+
+	@Test
+	void shutdownNowInterruptsOnlyItsOwnTasks() throws InterruptedException {
+		SharedActorExecutor executor = new SharedActorExecutor(2);
+		try {
+			ExecutorService stopped = executor.lease(1);
+			ExecutorService kept = executor.lease(1);
+			CountDownLatch started = new CountDownLatch(2);
+			AtomicInteger interrupted = new AtomicInteger();
+			CountDownLatch keptDone = new CountDownLatch(1);
+			stopped.execute(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					interrupted.incrementAndGet();
+				}
+			});
+			kept.execute(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					interrupted.incrementAndGet();
+				}
+				keptDone.countDown();
+			});
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			stopped.shutdownNow();
+			assertTrue(stopped.awaitTermination(5, TimeUnit.SECONDS));
+			assertEquals(1, executor.availableThreads());
+			assertTrue(keptDone.await(5, TimeUnit.SECONDS));
+			assertEquals(1, interrupted.get());
+			kept.shutdown();
+			assertTrue(kept.awaitTermination(5, TimeUnit.SECONDS));
+			assertEquals(2, executor.availableThreads());
+		} finally {
+			executor.close();
+		}
+	}
+
+	@Test
+	void concurrentLeasesNeverHoldMoreThanTheBudget() throws InterruptedException {
+		int budget = 8;
+		SharedActorExecutor executor = new SharedActorExecutor(budget);
+		AtomicInteger held = new AtomicInteger();
+		AtomicInteger mostHeld = new AtomicInteger();
+		AtomicInteger refused = new AtomicInteger();
+		List<Thread> runs = new ArrayList<>();
+		try {
+			for (int t = 0; t < 6; t++) {
+				int size = t % 3 + 1;
+				Thread run = new Thread(() -> {
+					for (int i = 0; i < 500; i++) {
+						ExecutorService lease;
+						try {
+							lease = executor.lease(size);
+						} catch (IllegalStateException e) {
+							refused.incrementAndGet();
+							continue;
+						}
+						mostHeld.accumulateAndGet(held.addAndGet(size), Math::max);
+						held.addAndGet(-size);
+						lease.shutdown();
+					}
+				});
+				run.start();
+				runs.add(run);
+			}
+			for (Thread run : runs) {
+				run.join();
+			}
+			assertTrue(mostHeld.get() <= budget, "held " + mostHeld.get());
+			assertEquals(budget, executor.availableThreads());
+		} finally {
+			executor.close();
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.LogEntry;
+import com.example.ticket_simulation.model.LogPage;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamServiceTests {
+
+	private final LoggerService loggerService = new LoggerService(new LogRepository(10_000));
+	private final TicketPool ticketPool = new TicketPool();
+
+	// A stream that pushes every 10 ms, five log entries at a time
+	private StreamService stream(long stallTimeoutMillis) {
+		ticketPool.initialize(new Configuration(100, 10, 10, 10));
+		TicketService ticketService = new TicketService(ticketPool, loggerService);
+		return new StreamService(ticketService, loggerService, 100, 5, stallTimeoutMillis);
+	}
+
+	private void close(StreamService stream) {
+		stream.close();
+		ticketPool.close();
+	}
+
+	private void log(int count) {
+		for (int i = 0; i < count; i++) {
+			loggerService.log("message");
+		}
+	}
+
+	private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, message);
+			Thread.sleep(5);
+		}
+	}
+
+	private static List<Long> range(long from, long to) {
+		List<Long> sequences = new ArrayList<>();
+		for (long sequence = from; sequence <= to; sequence++) {
+			sequences.add(sequence);
+		}
+		return sequences;
+	}
+
+	@Test
+	void aReconnectingClientResumesFromTheLastEntryItReceived() throws InterruptedException {
+		log(30);
+		StreamService stream = stream(30_000);
+		try {
+			// The connection breaks on the third batch of log entries
+			RecordingEmitter first = new RecordingEmitter();
+			first.failOnLogPush = 3;
+			stream.subscribe(first, 0);
+			await(() -> first.failed && stream.getSubscriberCount() == 0, "first connection never broke");
+			assertEquals(range(1, 10), first.received);
+
+			// Reconnect with the ID of the last event received, the way EventSource sends Last-Event-ID
+			log(10);
+			RecordingEmitter second = new RecordingEmitter();
+			stream.subscribe(second, first.received.get(first.received.size() - 1));
+			await(() -> second.received.size() == 30, "received " + second.received);
+			// Once caught up it follows the shared page like every other subscriber
+			log(7);
+			await(() -> second.received.size() == 37, "received " + second.received);
+
+			List<Long> all = new ArrayList<>(first.received);
+			all.addAll(second.received);
+			assertEquals(range(1, 47), all);
+		} finally {
+			close(stream);
+		}
+	}
+
+	@Test
+	void aBusySubscriberHasOnePushInFlightAndDoesNotHoldUpTheOthers() throws InterruptedException {
+		StreamService stream = stream(30_000);
+		try {
+			RecordingEmitter busy = new RecordingEmitter();
+			busy.gate = new CountDownLatch(1);
+			RecordingEmitter idle = new RecordingEmitter();
+			stream.subscribe(busy, 0);
+			stream.subscribe(idle, 0);
+
+			log(1);
+			await(() -> busy.sends.get() == 1, "busy subscriber never pushed to");
+			for (int i = 0; i < 10; i++) {
+				log(2);
+				Thread.sleep(10);
+			}
+			await(() -> idle.received.size() == 21, "received " + idle.received);
+			// Ten more ticks went by, but the first push is still the only one
+			assertEquals(1, busy.sends.get());
+			assertEquals(2, stream.getSubscriberCount());
+
+			busy.gate.countDown();
+			await(() -> busy.received.size() == 21, "received " + busy.received);
+			assertEquals(range(1, 21), busy.received);
+			assertEquals(1, busy.maxConcurrentSends.get());
+		} finally {
+			close(stream);
+		}
+	}
+
+	@Test
+	void aSubscriberStuckLongerThanTheStallTimeoutIsDisconnected() throws InterruptedException {
+		StreamService stream = stream(50);
+		try {
+			RecordingEmitter stuck = new RecordingEmitter();
+			stuck.gate = new CountDownLatch(1);
+			RecordingEmitter healthy = new RecordingEmitter();
+			stream.subscribe(stuck, 0);
+			stream.subscribe(healthy, 0);
+			log(1);
+			await(() -> stuck.completed, "stalled subscriber was never disconnected");
+			await(() -> stream.getSubscriberCount() == 1, "subscribers " + stream.getSubscriberCount());
+			log(1);
+			await(() -> healthy.received.size() == 2, "received " + healthy.received);
+			assertFalse(healthy.completed);
+		} finally {
+			close(stream);
+		}
+	}
+
+	// Records the log entries it is sent, and can hold up or break its pushes
+	private static final class RecordingEmitter extends SseEmitter {
+		private final List<Long> received = new CopyOnWriteArrayList<>();
+		private final AtomicInteger sends = new AtomicInteger();
+		private final AtomicInteger concurrentSends = new AtomicInteger();
+		private final AtomicInteger maxConcurrentSends = new AtomicInteger();
+		private final AtomicInteger logPushes = new AtomicInteger();
+		private volatile CountDownLatch gate;
+		private volatile int failOnLogPush;
+		private volatile boolean failed;
+		private volatile boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			sends.incrementAndGet();
+			maxConcurrentSends.accumulateAndGet(concurrentSends.incrementAndGet(), Math::max);
+			try {
+				CountDownLatch latch = gate;
+				if (latch != null && !latch.await(10, TimeUnit.SECONDS)) {
+					throw new IOException("gate never opened");
+				}
+				for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+					if (!(data.getData() instanceof LogPage page)) {
+						continue;
+					}
+					if (logPushes.incrementAndGet() == failOnLogPush) {
+						failed = true;
+						throw new IOException("connection reset");
+					}
+					for (LogEntry entry : page.getEntries()) {
+						received.add(entry.getSequence());
+					}
+				}
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			} finally {
+				concurrentSends.decrementAndGet();
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		@Override
+		public void completeWithError(Throwable error) {
+			completed = true;
+		}
+	}
+
+}
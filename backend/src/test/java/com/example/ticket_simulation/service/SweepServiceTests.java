@@ -0,0 +1,104 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ReleaseControl;
+import com.example.ticket_simulation.model.Sweep;
+import com.example.ticket_simulation.model.SweepRequest;
+import com.example.ticket_simulation.model.SweepRun;
+import com.example.ticket_simulation.model.SweepRunOutcome;
+import com.example.ticket_simulation.model.SweepStatus;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepServiceTests {
+
+	@Test
+	void runsEveryConfigurationOfASmallGridInItsOwnPool() throws InterruptedException {
+		SweepService sweepService = new SweepService(new LoggerService(new LogRepository(100)), 4, 16, 30, 100, 1, 5);
+		try {
+			SweepRequest request = new SweepRequest();
+			request.setBase(new Configuration(60, 1, 1, 5));
+			request.setMaxTicketCapacities(List.of(5, 20));
+			request.setVendorCounts(List.of(1, 3));
+			Sweep sweep = sweepService.submit(request);
+			assertEquals(4, sweep.getRunCount());
+			// Only one sweep may run at a time here
+			assertThrows(IllegalStateException.class, () -> sweepService.submit(request));
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (sweep.getStatus() != SweepStatus.COMPLETED) {
+				assertTrue(System.nanoTime() < deadline, "runs finished " + sweep.getRuns().size());
+				Thread.sleep(10);
+				sweep = sweepService.getSweep(sweep.getId());
+			}
+			List<SweepRun> runs = sweep.getRuns();
+			assertEquals(4, runs.size());
+			int[][] expected = {{5, 1}, {5, 3}, {20, 1}, {20, 3}};
+			for (int i = 0; i < runs.size(); i++) {
+				SweepRun run = runs.get(i);
+				assertEquals(i + 1, run.getRun());
+				assertEquals(expected[i][0], run.getConfiguration().getMaxTicketCapacity());
+				assertEquals(expected[i][1], run.getConfiguration().getVendorCount());
+				assertEquals(SweepRunOutcome.COMPLETED, run.getOutcome());
+				// Every run sold exactly its own tickets, so none of them saw another run's pool
+				assertEquals(60, run.getTicketsSold());
+				assertTrue(run.isConsistent(), "run " + run.getRun());
+			}
+		} finally {
+			sweepService.close();
+		}
+	}
+
+	@Test
+	void aRunThatOverrunsItsTimeoutIsStoppedAndReportedAsTimedOut() throws InterruptedException {
+		// One ticket a second, far slower than the timeout allows
+		Configuration config = new Configuration(100, 1_000, 1, 10);
+		long start = System.nanoTime();
+		SweepRun run = SweepService.run(7, config, TimeUnit.MILLISECONDS.toNanos(200), 100);
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(7, run.getRun());
+		assertEquals(SweepRunOutcome.TIMED_OUT, run.getOutcome());
+		assertTrue(run.getTicketsSold() < 100, "sold " + run.getTicketsSold());
+		assertTrue(run.getElapsedMillis() >= 200, "elapsed " + run.getElapsedMillis());
+		assertTrue(elapsedMillis < 10_000, "took " + elapsedMillis + " ms");
+		assertTrue(run.isConsistent());
+		assertNull(run.getError());
+
+		// Stopping the run ends its vendor and customer threads
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (actorThreadsAlive()) {
+			assertTrue(System.nanoTime() < deadline, "vendor or customer threads still running");
+			Thread.sleep(10);
+		}
+	}
+
+	// Looks for a live thread running a vendor or customer
+	private static boolean actorThreadsAlive() {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			String name = thread.getName();
+			if (thread.isAlive() && (name.startsWith("Vendor ") || name.startsWith("Customer "))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	void aRunThatCannotStartIsReportedAsFailed() {
+		Configuration config = new Configuration(10, 1, 1, 5);
+		ReleaseControl control = new ReleaseControl();
+		control.setTargetOccupancy(2);
+		config.setReleaseControl(control);
+		SweepRun run = SweepService.run(1, config, TimeUnit.SECONDS.toNanos(5), 100);
+		assertEquals(SweepRunOutcome.FAILED, run.getOutcome());
+		assertTrue(run.getError().startsWith("Target occupancy"), run.getError());
+		assertEquals(0, run.getTicketsSold());
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.BackpressurePolicy;
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.MetricsSnapshot;
+import com.example.ticket_simulation.model.Tickets;
+import com.example.ticket_simulation.repository.JournalState;
+import com.example.ticket_simulation.repository.TicketJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketPoolTests {
+
+	private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	@TempDir
+	Path directory;
+
+	private static List<Tickets> tickets(int from, int count) {
+		List<Tickets> tickets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tickets.add(new Tickets(from + i, "Concert", "Arena", 50.0));
+		}
+		return tickets;
+	}
+
+	private static TicketPool full(int capacity) {
+		TicketPool ticketPool = new TicketPool();
+		ticketPool.initialize(new Configuration(100, 10, 10, capacity));
+		assertEquals(capacity, ticketPool.tryAddTickets(tickets(1, capacity), 1));
+		return ticketPool;
+	}
+
+	@Test
+	void vendorPoliciesGiveUpOnAFullPoolAndCountWhy() {
+		TicketPool ticketPool = full(4);
+		try {
+			assertEquals(0, ticketPool.addTickets(tickets(5, 2), 1, BackpressurePolicy.FAIL_FAST, 0));
+			long start = System.nanoTime();
+			assertEquals(0, ticketPool.addTickets(tickets(5, 2), 1, BackpressurePolicy.BLOCK_WITH_TIMEOUT,
+					TIMEOUT_NANOS));
+			assertTrue(System.nanoTime() - start >= TIMEOUT_NANOS);
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertEquals(1, metrics.getReleasesRejected());
+			assertEquals(1, metrics.getReleasesTimedOut());
+			assertEquals(0, metrics.getTicketsDropped());
+
+			// A timeout that cannot be waited is a setting error, not a full pool
+			assertThrows(IllegalArgumentException.class,
+					() -> ticketPool.addTickets(tickets(5, 2), 1, BackpressurePolicy.BLOCK_WITH_TIMEOUT, 0));
+			assertThrows(IllegalArgumentException.class,
+					() -> ticketPool.retrieveTickets(1, 1, BackpressurePolicy.BLOCK_WITH_TIMEOUT, -1));
+			metrics = ticketPool.getMetrics().snapshot();
+			assertEquals(1, metrics.getReleasesRejected());
+			assertEquals(1, metrics.getReleasesTimedOut());
+			assertEquals(0, metrics.getPurchasesRejected());
+			assertEquals(4, ticketPool.getTicketsAvailable());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void aTimedVendorGetsInOnceACustomerMakesRoom() throws InterruptedException {
+		TicketPool ticketPool = full(4);
+		try {
+			Thread customer = new Thread(() -> {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					return;
+				}
+				assertNotNull(ticketPool.tryRetrieveTickets(2, 7));
+			});
+			customer.start();
+			assertEquals(2, ticketPool.addTickets(tickets(5, 2), 1, BackpressurePolicy.BLOCK_WITH_TIMEOUT,
+					TimeUnit.SECONDS.toNanos(10)));
+			customer.join();
+			assertEquals(0, ticketPool.getMetrics().snapshot().getReleasesTimedOut());
+			assertEquals(4, ticketPool.getTicketsAvailable());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void dropOldestMakesRoomAndJournalsTheDropsAtTheCurrentTime() throws IOException {
+		TicketPool ticketPool = full(5);
+		TicketJournal journal = TicketJournal.open(directory, 1 << 16);
+		try {
+			ticketPool.attachJournal(journal);
+			long before = LoggerService.epochNanos();
+			assertEquals(3, ticketPool.addTickets(tickets(6, 3), 2, BackpressurePolicy.DROP_OLDEST, 0));
+			List<Tickets> sold = ticketPool.tryRetrieveTickets(1, 9);
+			long after = LoggerService.epochNanos();
+			ticketPool.attachJournal(null);
+			journal.close();
+
+			// Tickets 1 to 3 made way; the rest stay in release order
+			assertEquals(4, sold.get(0).getId());
+			List<Integer> left = new ArrayList<>();
+			for (Tickets ticket : ticketPool.tryRetrieveTickets(4, 9)) {
+				left.add(ticket.getId());
+			}
+			assertEquals(List.of(5, 6, 7, 8), left);
+			MetricsSnapshot metrics = ticketPool.getMetrics().snapshot();
+			assertEquals(3, metrics.getTicketsDropped());
+			assertEquals(0, metrics.getReleasesRejected());
+			assertEquals(0, ticketPool.getIntegrityReport(8).getTicketsUnaccounted());
+			// Sold on the wall clock, not at a sentinel time
+			long soldAt = ticketPool.getTicketSale(4).getSoldAt();
+			assertTrue(soldAt >= TimeUnit.NANOSECONDS.toMillis(before)
+					&& soldAt <= TimeUnit.NANOSECONDS.toMillis(after), "sold at " + soldAt);
+
+			JournalState state = JournalState.load(directory);
+			TicketJournal.replay(directory, state.getNextSegment(), Long.MAX_VALUE, state);
+			assertEquals(3, state.getTicketsDropped());
+			assertEquals(3, state.getTicketsReleased());
+			assertEquals(soldAt, TimeUnit.NANOSECONDS.toMillis(state.getSaleTime(0)));
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.example.ticket_simulation.service;
+
+import com.example.ticket_simulation.model.BackpressurePolicy;
+import com.example.ticket_simulation.model.Configuration;
+import com.example.ticket_simulation.model.ExecutionMode;
+import com.example.ticket_simulation.model.PoolEngineType;
+import com.example.ticket_simulation.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketServiceTests {
+
+	@Test
+	void virtualThreadCustomersWaitingOnAnEmptyLockingPoolAllGetServed() throws InterruptedException {
+		// Far more customers blocked at once than there are carrier threads, or than the JVM adds for pinned ones
+		int customers = 1_000;
+		Configuration config = new Configuration(customers, 2, 0, 100);
+		config.setPoolEngine(PoolEngineType.LOCKING);
+		config.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+		config.setVendorCount(1);
+		config.setCustomerCount(customers);
+		config.setReleaseBatchSize(1);
+		config.setPurchaseBatchSize(1);
+		TicketPool ticketPool = new TicketPool();
+		TicketService ticketService = new TicketService(ticketPool, new LoggerService(new LogRepository(100)));
+		try {
+			ticketService.startSimulation(config);
+			ticketService.runSimulation();
+			long deadline = System.nanoTime() + 30_000_000_000L;
+			while (ticketService.getTicketsSold() < customers) {
+				assertTrue(System.nanoTime() < deadline, "sold " + ticketService.getTicketsSold());
+				Thread.sleep(10);
+			}
+			assertEquals(0, ticketService.getTicketsAvailable());
+		} finally {
+			ticketService.stopSimulation();
+			ticketPool.close();
+		}
+	}
+
+	@Test
+	void backpressureSettingsAreCheckedBeforeTheRunIsConfigured() {
+		TicketPool ticketPool = new TicketPool();
+		TicketService ticketService = new TicketService(ticketPool, new LoggerService(new LogRepository(100)));
+		try {
+			Configuration timed = new Configuration(10, 10, 10, 5);
+			timed.setCustomerBackpressure(BackpressurePolicy.BLOCK_WITH_TIMEOUT);
+			assertThrows(IllegalArgumentException.class, () -> ticketService.startSimulation(timed));
+			timed.setCustomerTimeoutMillis(100);
+			TicketService.validate(timed);
+
+			// A paced run only dispatches what the pool can take, so it has no other policy to apply
+			Configuration paced = new Configuration(10, 10, 10, 5);
+			paced.setExecutionMode(ExecutionMode.PACED);
+			paced.setVendorBackpressure(BackpressurePolicy.DROP_OLDEST);
+			assertThrows(IllegalArgumentException.class, () -> ticketService.startSimulation(paced));
+			paced.setVendorBackpressure(BackpressurePolicy.BLOCK);
+			paced.setCustomerBackpressure(BackpressurePolicy.FAIL_FAST);
+			assertThrows(IllegalArgumentException.class, () -> ticketService.startSimulation(paced));
+			assertNull(ticketService.getConfiguration());
+
+			paced.setCustomerBackpressure(null);
+			ticketService.startSimulation(paced);
+			assertSame(paced, ticketService.getConfiguration());
+		} finally {
+			ticketPool.close();
+		}
+	}
+
+}
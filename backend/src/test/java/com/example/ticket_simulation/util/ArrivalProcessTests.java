@@ -0,0 +1,69 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.ArrivalPattern;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrivalProcessTests {
+
+	private static final long MILLISECOND = 1_000_000;
+
+	private static long total(ArrivalProcess process, double perSecond, int intervals) {
+		long total = 0;
+		for (int i = 0; i < intervals; i++) {
+			total += process.arrivals(perSecond, MILLISECOND);
+		}
+		return total;
+	}
+
+	@Test
+	void sameSeedDrawsTheSameArrivals() {
+		for (ArrivalPattern pattern : ArrivalPattern.values()) {
+			ArrivalProcess first = new ArrivalProcess(pattern, 4, 42);
+			ArrivalProcess second = new ArrivalProcess(pattern, 4, 42);
+			for (int i = 0; i < 1_000; i++) {
+				// Both sides of the normal approximation
+				double perSecond = i % 2 == 0 ? 2_000 : 100_000;
+				assertEquals(first.arrivals(perSecond, MILLISECOND), second.arrivals(perSecond, MILLISECOND),
+						pattern.name());
+			}
+		}
+	}
+
+	@Test
+	void steadyArrivalsAddUpToTheRateExactly() {
+		ArrivalProcess process = new ArrivalProcess(ArrivalPattern.STEADY, 1, 1);
+		// 0.25 arrivals per interval
+		assertEquals(2_500, total(process, 250, 10_000));
+	}
+
+	@Test
+	void poissonAndBurstyArrivalsMatchTheRateOnAverage() {
+		int intervals = 100_000;
+		for (double perSecond : new double[] {2_000, 100_000}) {
+			double expected = perSecond / 1_000 * intervals;
+			long poisson = total(new ArrivalProcess(ArrivalPattern.POISSON, 1, 7), perSecond, intervals);
+			assertEquals(expected, poisson, expected * 0.02, "Poisson at " + perSecond);
+
+			ArrivalProcess bursty = new ArrivalProcess(ArrivalPattern.BURSTY, 10, 7);
+			long burstTotal = 0;
+			for (int i = 0; i < intervals; i++) {
+				int arrivals = bursty.arrivals(perSecond, MILLISECOND);
+				assertEquals(0, arrivals % 10);
+				burstTotal += arrivals;
+			}
+			assertEquals(expected, burstTotal, expected * 0.02, "bursty at " + perSecond);
+		}
+	}
+
+	@Test
+	void infiniteRateArrivesAtOnce() {
+		for (ArrivalPattern pattern : ArrivalPattern.values()) {
+			ArrivalProcess process = new ArrivalProcess(pattern, 3, 1);
+			assertEquals(Integer.MAX_VALUE, process.arrivals(Double.POSITIVE_INFINITY, MILLISECOND));
+			assertEquals(0, process.arrivals(0, MILLISECOND));
+		}
+	}
+
+}
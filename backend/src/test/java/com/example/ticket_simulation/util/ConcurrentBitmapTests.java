@@ -0,0 +1,105 @@
+package com.example.ticket_simulation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBitmapTests {
+
+	@Test
+	void reportsWhetherABitWasAlreadySet() {
+		ConcurrentBitmap bitmap = new ConcurrentBitmap();
+		assertTrue(bitmap.set(5));
+		assertFalse(bitmap.set(5));
+		assertTrue(bitmap.get(5));
+		assertFalse(bitmap.get(4));
+		assertFalse(bitmap.get(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void countsBitsAcrossWordsAndPages() {
+		ConcurrentBitmap bitmap = new ConcurrentBitmap();
+		int[] bits = {0, 1, 63, 64, 65, 127, 65_535, 65_536, 200_000, Integer.MAX_VALUE};
+		for (int bit : bits) {
+			bitmap.set(bit);
+		}
+		assertEquals(bits.length, bitmap.cardinality(0, Integer.MAX_VALUE));
+		assertEquals(3, bitmap.cardinality(1, 64));
+		assertEquals(2, bitmap.cardinality(63, 64));
+		assertEquals(1, bitmap.cardinality(64, 64));
+		assertEquals(0, bitmap.cardinality(2, 62));
+		assertEquals(2, bitmap.cardinality(65_535, 65_536));
+		// Skips the pages no bit was ever set in
+		assertEquals(2, bitmap.cardinality(65_537, Integer.MAX_VALUE));
+	}
+
+	// Runs the same body on several threads released at once, and waits for all of them
+	private static void race(int threads, IntConsumer body) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> running = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			Thread runner = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				body.accept(thread);
+			});
+			runner.start();
+			running.add(runner);
+		}
+		start.countDown();
+		for (Thread runner : running) {
+			runner.join();
+		}
+	}
+
+	@Test
+	void interleavedSettersSharingEveryWordLoseNoBits() throws InterruptedException {
+		ConcurrentBitmap bitmap = new ConcurrentBitmap();
+		int threads = 4;
+		// Spans many words and the first two page boundaries, with every word written by every thread
+		int from = 65_536 - 1_000;
+		int to = 2 * 65_536 + 1_000;
+		AtomicInteger failedSets = new AtomicInteger();
+		race(threads, thread -> {
+			for (int bit = from + thread; bit <= to; bit += threads) {
+				if (!bitmap.set(bit)) {
+					failedSets.incrementAndGet();
+				}
+			}
+		});
+		assertEquals(0, failedSets.get());
+		assertEquals(to - from + 1, bitmap.cardinality(0, Integer.MAX_VALUE));
+		for (int bit = from; bit <= to; bit++) {
+			assertTrue(bitmap.get(bit), "bit " + bit);
+		}
+		assertFalse(bitmap.get(from - 1));
+		assertFalse(bitmap.get(to + 1));
+	}
+
+	@Test
+	void exactlyOneSetterWinsEachBit() throws InterruptedException {
+		ConcurrentBitmap bitmap = new ConcurrentBitmap();
+		int bits = 200_000;
+		AtomicInteger wins = new AtomicInteger();
+		race(4, thread -> {
+			for (int bit = 0; bit < bits; bit++) {
+				if (bitmap.set(bit)) {
+					wins.incrementAndGet();
+				}
+			}
+		});
+		assertEquals(bits, wins.get());
+		assertEquals(bits, bitmap.cardinality(0, bits - 1));
+	}
+
+}
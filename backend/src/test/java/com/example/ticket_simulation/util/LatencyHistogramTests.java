@@ -0,0 +1,131 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.HistogramSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+	private static final double DELTA = 1e-9;
+
+	// Records a single value and reads back what the histogram reports for it, in nanoseconds
+	private static double reported(long nanos) {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(nanos);
+		// A second, larger value keeps the maximum from capping the reported median
+		histogram.record(Long.MAX_VALUE / 2);
+		return histogram.snapshot().getP50() * 1_000;
+	}
+
+	@Test
+	void smallValuesAreExactAndLargerOnesLandOnTheirBucketMidpoint() {
+		for (long value = 0; value < 32; value++) {
+			assertEquals(value, reported(value), DELTA);
+		}
+		// 32 to 63 still have a bucket each
+		assertEquals(32, reported(32), DELTA);
+		assertEquals(63, reported(63), DELTA);
+		// From 64 the buckets are two wide, then four, and so on
+		assertEquals(65, reported(64), DELTA);
+		assertEquals(65, reported(65), DELTA);
+		assertEquals(67, reported(66), DELTA);
+		assertEquals(127, reported(127), DELTA);
+		assertEquals(130, reported(128), DELTA);
+		assertEquals(130, reported(131), DELTA);
+		assertEquals(134, reported(132), DELTA);
+		// 999,424 to 1,015,807 share one bucket
+		assertEquals(1_007_616, reported(999_424), 1e-6);
+		assertEquals(1_007_616, reported(1_000_000), 1e-6);
+		assertEquals(1_007_616, reported(1_015_807), 1e-6);
+		assertEquals(1_024_000, reported(1_015_808), 1e-6);
+
+		for (long value = 32; value < 1L << 40; value = value * 3 + 1) {
+			assertEquals(value, reported(value), value * 0.032, "value " + value);
+		}
+	}
+
+	@Test
+	void extractsPercentilesByRankAndCapsThemAtTheMaximum() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		// Out of order, since only the counts per bucket matter
+		for (long value = 100; value >= 1; value--) {
+			histogram.record(value);
+		}
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(100, snapshot.getCount());
+		assertEquals(0.0505, snapshot.getMean(), DELTA);
+		assertEquals(0.1, snapshot.getMax(), DELTA);
+		// The 50th value is exact, the 90th and 99th sit in two-wide buckets
+		assertEquals(0.050, snapshot.getP50(), DELTA);
+		assertEquals(0.091, snapshot.getP90(), DELTA);
+		assertEquals(0.099, snapshot.getP99(), DELTA);
+		// The 100th value's bucket midpoint is 101, but nothing above the maximum is reported
+		assertEquals(0.1, snapshot.getP999(), DELTA);
+
+		// One slow outlier in a thousand only shows at the top percentile
+		LatencyHistogram tail = new LatencyHistogram();
+		for (int i = 0; i < 999; i++) {
+			tail.record(10);
+		}
+		tail.record(5_000_000);
+		snapshot = tail.snapshot();
+		assertEquals(0.010, snapshot.getP99(), DELTA);
+		assertEquals(0.010, snapshot.getP999(), DELTA);
+		assertEquals(5_000, snapshot.getMax(), DELTA);
+		tail.record(5_000_000);
+		assertEquals(5_000, tail.snapshot().getP999(), DELTA);
+	}
+
+	@Test
+	void resetClearsEverythingAndRecordingStartsAfresh() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.snapshot().getP50());
+		histogram.record(1_000_000);
+		histogram.record(-5);
+		assertEquals(2, histogram.getCount());
+		assertEquals(1_000_000, histogram.getSumNanos());
+		assertEquals(0, histogram.snapshot().getP50());
+
+		histogram.reset();
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getMean());
+		assertEquals(0, snapshot.getMax());
+		assertEquals(0, snapshot.getP999());
+		assertEquals(0, histogram.getSumNanos());
+
+		histogram.record(20);
+		snapshot = histogram.snapshot();
+		assertEquals(1, snapshot.getCount());
+		assertEquals(0.020, snapshot.getMax(), DELTA);
+		assertEquals(0.020, snapshot.getP999(), DELTA);
+	}
+
+	@Test
+	void concurrentRecordingLosesNothing() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 1; t <= 4; t++) {
+			long value = t * 1_000L;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 50_000; i++) {
+					histogram.record(value);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(200_000, snapshot.getCount());
+		assertEquals(500_000_000L, histogram.getSumNanos());
+		assertEquals(4, snapshot.getMax(), DELTA);
+	}
+
+}
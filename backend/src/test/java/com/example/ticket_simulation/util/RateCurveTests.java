@@ -0,0 +1,58 @@
+package com.example.ticket_simulation.util;
+
+import com.example.ticket_simulation.model.RatePoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateCurveTests {
+
+	@Test
+	void stepsHoldUntilTheNextPointAndAfterTheLast() {
+		// Out of order on purpose
+		RateCurve curve = new RateCurve(Arrays.asList(
+				new RatePoint(2_000, 50, false),
+				new RatePoint(1_000, 20, false)));
+		assertEquals(5, curve.rateAt(0, 5));
+		assertEquals(5, curve.rateAt(999.9, 5));
+		assertEquals(20, curve.rateAt(1_000, 5));
+		assertEquals(20, curve.rateAt(1_999, 5));
+		assertEquals(50, curve.rateAt(2_000, 5));
+		assertEquals(50, curve.rateAt(1_000_000, 5));
+		assertEquals(7, new RateCurve(Collections.emptyList()).rateAt(500, 7));
+	}
+
+	@Test
+	void rampsMoveLinearlyBetweenPoints() {
+		RateCurve curve = new RateCurve(Arrays.asList(
+				new RatePoint(1_000, 100, true),
+				new RatePoint(3_000, 0, true)));
+		// The first ramp starts from the base rate at the start of the run
+		assertEquals(10, curve.rateAt(0, 10), 1e-9);
+		assertEquals(55, curve.rateAt(500, 10), 1e-9);
+		assertEquals(100, curve.rateAt(1_000, 10), 1e-9);
+		assertEquals(75, curve.rateAt(1_500, 10), 1e-9);
+		assertEquals(25, curve.rateAt(2_500, 10), 1e-9);
+		assertEquals(0, curve.rateAt(3_000, 10), 1e-9);
+		assertEquals(0, curve.rateAt(10_000, 10), 1e-9);
+	}
+
+	@Test
+	void infiniteRatesAreNeverRampedThrough() {
+		RateCurve curve = new RateCurve(Arrays.asList(
+				new RatePoint(1_000, Double.POSITIVE_INFINITY, true),
+				new RatePoint(2_000, 40, true)));
+		assertEquals(10, curve.rateAt(500, 10));
+		assertEquals(Double.POSITIVE_INFINITY, curve.rateAt(1_000, 10));
+		assertEquals(Double.POSITIVE_INFINITY, curve.rateAt(1_500, 10));
+		assertEquals(40, curve.rateAt(2_000, 10));
+		assertThrows(IllegalArgumentException.class,
+				() -> new RateCurve(Collections.singletonList(new RatePoint(-1, 10, false))));
+		assertThrows(IllegalArgumentException.class,
+				() -> new RateCurve(Collections.singletonList(new RatePoint(0, Double.NaN, false))));
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.example.ticket_simulation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+	@Test
+	void expiresItemsAfterTheirDelayAndNotBefore() throws InterruptedException {
+		Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+		CountDownLatch expired = new CountDownLatch(2);
+		TimingWheel<String> wheel = new TimingWheel<>(10, 4, item -> {
+			expiredAt.put(item, System.nanoTime());
+			expired.countDown();
+		}, "test-wheel");
+		try {
+			long start = System.nanoTime();
+			wheel.schedule("soon", 20);
+			// Several turns of a four-bucket wheel away
+			wheel.schedule("later", 150);
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+			assertTrue(expiredAt.get("soon") - start >= TimeUnit.MILLISECONDS.toNanos(20));
+			assertTrue(expiredAt.get("later") - start >= TimeUnit.MILLISECONDS.toNanos(150));
+		} finally {
+			wheel.close();
+		}
+	}
+
+	@Test
+	void cancelledItemsNeverExpire() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(1);
+		Map<String, Boolean> seen = new ConcurrentHashMap<>();
+		TimingWheel<String> wheel = new TimingWheel<>(10, 8, item -> {
+			seen.put(item, true);
+			expired.countDown();
+		}, "test-wheel");
+		try {
+			TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 20);
+			TimingWheel.Timeout<String> kept = wheel.schedule("kept", 40);
+			assertTrue(cancelled.cancel());
+			assertFalse(cancelled.cancel());
+
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+			assertFalse(kept.cancel());
+			assertEquals(Map.of("kept", true), seen);
+		} finally {
+			wheel.close();
+		}
+	}
+
+	@Test
+	void timeoutsSharingABucketExpireOnTheirOwnTurn() throws InterruptedException {
+		// 10, 50, 90 and 130 ms all land in the same bucket of a 4 x 10 ms wheel, one to three turns apart
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		Map<Integer, Long> expiredAt = new ConcurrentHashMap<>();
+		CountDownLatch expired = new CountDownLatch(4);
+		TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, item -> {
+			expiredAt.put(item, System.nanoTime());
+			order.add(item);
+			expired.countDown();
+		}, "test-wheel");
+		try {
+			long start = System.nanoTime();
+			for (int delay : new int[] {130, 50, 10, 90}) {
+				wheel.schedule(delay, delay);
+			}
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+			assertEquals(List.of(10, 50, 90, 130), order);
+			for (Map.Entry<Integer, Long> entry : expiredAt.entrySet()) {
+				assertTrue(entry.getValue() - start >= TimeUnit.MILLISECONDS.toNanos(entry.getKey()),
+						"expired " + entry.getKey() + " early");
+			}
+		} finally {
+			wheel.close();
+		}
+	}
+
+	@Test
+	void cancellingAFiledTimeoutStopsItFromExpiringOnALaterTurn() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(1);
+		Map<String, Boolean> seen = new ConcurrentHashMap<>();
+		TimingWheel<String> wheel = new TimingWheel<>(5, 4, item -> {
+			seen.put(item, true);
+			expired.countDown();
+		}, "test-wheel");
+		try {
+			TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 100);
+			// Give the worker a few ticks to move the timeout into its bucket and count down its turns
+			Thread.sleep(40);
+			assertTrue(cancelled.cancel());
+			wheel.schedule("kept", 150);
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+			assertEquals(Map.of("kept", true), seen);
+			assertFalse(cancelled.cancel());
+		} finally {
+			wheel.close();
+		}
+	}
+
+	@Test
+	void aFailingCallbackDoesNotStopTheWheel() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(1);
+		TimingWheel<String> wheel = new TimingWheel<>(5, 8, item -> {
+			if (item.equals("fails")) {
+				throw new IllegalStateException(item);
+			}
+			expired.countDown();
+		}, "test-wheel");
+		try {
+			wheel.schedule("fails", 5);
+			wheel.schedule("works", 30);
+			assertTrue(expired.await(5, TimeUnit.SECONDS));
+		} finally {
+			wheel.close();
+		}
+	}
+
+	@Test
+	void closeStopsTheWorkerAndDropsPendingTimeouts() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(1);
+		List<String> seen = Collections.synchronizedList(new ArrayList<>());
+		TimingWheel<String> wheel = new TimingWheel<>(5, 8, item -> {
+			seen.add(item);
+			expired.countDown();
+		}, "closed-wheel");
+		wheel.schedule("before", 5);
+		assertTrue(expired.await(5, TimeUnit.SECONDS));
+		TimingWheel.Timeout<String> pending = wheel.schedule("pending", 20);
+		wheel.close();
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (workerAlive("closed-wheel")) {
+			assertTrue(System.nanoTime() < deadline, "worker still running");
+			Thread.sleep(5);
+		}
+		Thread.sleep(50);
+		assertEquals(List.of("before"), seen);
+		// It never expired, so the handle can still be cancelled
+		assertTrue(pending.cancel());
+	}
+
+	// Looks for a live thread with the given name
+	private static boolean workerAlive(String name) {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals(name) && thread.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
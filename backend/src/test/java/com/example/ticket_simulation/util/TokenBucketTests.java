@@ -0,0 +1,61 @@
+package com.example.ticket_simulation.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTests {
+
+	@Test
+	void accruesAtTheRateFromEmpty() throws InterruptedException {
+		long start = System.nanoTime();
+		TokenBucket bucket = new TokenBucket(1_000, 1_000);
+		assertTrue(bucket.available() <= 1);
+		Thread.sleep(100);
+		int available = bucket.available();
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		assertTrue(available >= 90, "accrued " + available);
+		assertTrue(available <= elapsedMillis + 1, "accrued " + available + " in " + elapsedMillis + " ms");
+
+		int taken = bucket.tryAcquire(1, 1_000);
+		assertTrue(taken >= available);
+		assertTrue(bucket.available() < available);
+	}
+
+	@Test
+	void capsTokensAtTheBurstAndTakesWholeUnits() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(1_000_000, 10);
+		Thread.sleep(20);
+		assertEquals(10, bucket.available());
+		assertEquals(9, bucket.tryAcquire(3, 100));
+		assertEquals(0, bucket.tryAcquire(3, 2));
+
+		// Shrinking the burst drops the tokens above it
+		Thread.sleep(20);
+		bucket.setRate(0, 4);
+		assertEquals(4, bucket.available());
+	}
+
+	@Test
+	void depositsAddTokensUpToTheBurst() {
+		TokenBucket bucket = new TokenBucket(0, 5);
+		assertEquals(0, bucket.tryAcquire(1, 10));
+		bucket.deposit(3);
+		assertEquals(3, bucket.tryAcquire(1, 10));
+		bucket.deposit(10);
+		assertEquals(5, bucket.available());
+		assertEquals(4, bucket.tryAcquire(2, 10));
+		assertEquals(1, bucket.available());
+	}
+
+	@Test
+	void infiniteRateGrantsEveryRequest() {
+		TokenBucket bucket = new TokenBucket(Double.POSITIVE_INFINITY, 1);
+		assertEquals(Integer.MAX_VALUE, bucket.available());
+		assertEquals(6, bucket.tryAcquire(2, 7));
+		assertEquals(1_000_000, bucket.tryAcquire(1, 1_000_000));
+		assertThrows(IllegalArgumentException.class, () -> bucket.setRate(-1, 1));
+		assertThrows(IllegalArgumentException.class, () -> bucket.setRate(1, 0));
+	}
+
+}
@@ -36,18 +36,47 @@ export class ConfigurationFormComponent implements OnInit {
       totalTickets: [100, Validators.required],
       ticketReleaseRate: [100, Validators.required],
       customerRetrievalRate: [500, Validators.required],
-      maxTicketCapacity: [10, Validators.required]
+      maxTicketCapacity: [10, Validators.required],
+      vendorCount: [10, [Validators.required, Validators.min(1)]],
+      customerCount: [10, [Validators.required, Validators.min(1)]],
+      releaseBatchSize: [1, [Validators.required, Validators.min(1)]],
+      purchaseBatchSize: [1, [Validators.required, Validators.min(1)]],
+      eventCount: [1, [Validators.required, Validators.min(1)]],
+      priceTiers: [1, [Validators.required, Validators.min(1)]],
+      executionMode: ['PLATFORM_THREADS', Validators.required],
+      releasesPerSecond: [0, [Validators.required, Validators.min(0)]],
+      purchasesPerSecond: [0, [Validators.required, Validators.min(0)]],
+      vendorBackpressure: ['BLOCK', Validators.required],
+      vendorTimeoutMillis: [0, [Validators.required, Validators.min(0)]],
+      customerBackpressure: ['BLOCK', Validators.required],
+      customerTimeoutMillis: [0, [Validators.required, Validators.min(0)]],
+      releaseControl: this.fb.group({
+        algorithm: ['NONE', Validators.required],
+        targetOccupancy: [0.5, [Validators.required, Validators.min(0), Validators.max(1)]]
+      }),
+      scenario: this.fb.group({
+        arrivals: ['STEADY', Validators.required],
+        onSaleAtMillis: [0, [Validators.required, Validators.min(0)]]
+      })
     });
   }
 
   /**
    * Handles form submission.
-   * Sends the configuration data to the backend via the ApiService.
+   * Sends the configuration data to the backend via the ApiService; the load scenario is only sent for paced runs,
+   * and the release control only when an algorithm is selected.
    * Emits the `simulationConfigured` event when the configuration is successfully submitted.
    */
   onSubmit() {
     if (this.configForm.valid) {
-      this.apiService.startSimulation(this.configForm.value).subscribe({
+      const config = { ...this.configForm.value };
+      if (config.executionMode !== 'PACED') {
+        delete config.scenario;
+      }
+      if (config.releaseControl.algorithm === 'NONE') {
+        delete config.releaseControl;
+      }
+      this.apiService.startSimulation(config).subscribe({
         next: (response) => {
           console.log('Simulation configuration submitted:', response);
           this.simulationConfigured.emit(); // Emit event to notify configuration is ready
@@ -7,9 +7,8 @@ import {
   AfterViewChecked,
 } from '@angular/core';
 import { CommonModule } from '@angular/common';
-import { ApiService } from '../services/api.service';
-import { interval, Subscription } from 'rxjs';
-import { startWith, switchMap } from 'rxjs/operators';
+import { ApiService, LogPage } from '../services/api.service';
+import { Subscription } from 'rxjs';
 
 /**
  * Component for displaying log messages.
@@ -22,7 +21,13 @@ import { startWith, switchMap } from 'rxjs/operators';
   styleUrls: ['./log-display.component.css'],
 })
 export class LogDisplayComponent implements OnInit, OnDestroy, AfterViewChecked {
+  /**
+   * The maximum number of log messages kept on screen.
+   */
+  static readonly MAX_LOGS = 1000;
+
   logs: string[] = [];
+  private lastSequence = 0;
   private logSubscription?: Subscription;
 
   /**
@@ -32,29 +37,48 @@ export class LogDisplayComponent implements OnInit, OnDestroy, AfterViewChecked
 
   /**
    * Creates an instance of LogDisplayComponent.
-   * @param apiService The ApiService for fetching logs.
+   * @param apiService The ApiService for streaming logs.
    */
   constructor(private apiService: ApiService) {}
 
   /**
-   * Initializes the component and starts fetching logs.
+   * Initializes the component and starts receiving new log entries from the update stream.
    */
   ngOnInit() {
-    this.logSubscription = interval(1000)
-      .pipe(
-        startWith(0),
-        switchMap(() => this.apiService.getLogs())
-      )
+    this.logSubscription = this.apiService.streamLogs()
       .subscribe({
-        next: (logs) => {
-          this.logs = logs;
+        next: (page) => {
+          this.appendLogs(page);
         },
         error: (error) => {
-          console.error('Error fetching logs:', error);
+          console.error('Error streaming logs:', error);
         },
       });
   }
 
+  /**
+   * Appends a page of log entries, starting over if entries were cleared or overwritten since the last fetch.
+   * @param page The page returned by the backend.
+   */
+  private appendLogs(page: LogPage) {
+    if (page.oldestSequence > this.lastSequence + 1) {
+      this.logs = [];
+    }
+    for (const entry of page.entries) {
+      if (entry.sequence <= this.lastSequence) {
+        continue;
+      }
+      this.logs.push(entry.message);
+      this.lastSequence = entry.sequence;
+    }
+    if (page.entries.length === 0) {
+      this.lastSequence = Math.max(this.lastSequence, page.oldestSequence - 1);
+    }
+    if (this.logs.length > LogDisplayComponent.MAX_LOGS) {
+      this.logs = this.logs.slice(this.logs.length - LogDisplayComponent.MAX_LOGS);
+    }
+  }
+
   /**
    * Scrolls to the bottom of the log container after the view has been checked.
    */
@@ -2,7 +2,40 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
 import { environment } from '../../enviroment/enviroment';
-import { catchError, map } from 'rxjs/operators';
+import { catchError, filter, map, share } from 'rxjs/operators';
+
+/**
+ * A single log message and its position in the backend log.
+ */
+export interface LogEntry {
+  sequence: number;
+  message: string;
+}
+
+/**
+ * A batch of log entries returned by an incremental log fetch.
+ */
+export interface LogPage {
+  entries: LogEntry[];
+  oldestSequence: number;
+  nextSequence: number;
+}
+
+/**
+ * The ticket counters pushed by the update stream.
+ */
+export interface CounterSnapshot {
+  ticketsAvailable: number;
+  ticketsSold: number;
+  running: boolean;
+}
+
+/**
+ * An event received from the update stream.
+ */
+export type StreamEvent =
+  | { type: 'logs'; page: LogPage }
+  | { type: 'counters'; counters: CounterSnapshot };
 
 /**
  * Service for making API requests to the backend.
@@ -13,6 +46,25 @@ import { catchError, map } from 'rxjs/operators';
 export class ApiService {
   private apiUrl = environment.apiUrl;
 
+  /**
+   * One Server-Sent Events connection shared by every subscriber; it is opened by the first
+   * subscription and closed when the last one unsubscribes.
+   */
+  private updates$: Observable<StreamEvent> = new Observable<StreamEvent>(subscriber => {
+    const source = new EventSource(`${this.apiUrl}/stream`);
+    source.addEventListener('logs', (event: MessageEvent) => {
+      subscriber.next({ type: 'logs', page: JSON.parse(event.data) });
+    });
+    source.addEventListener('counters', (event: MessageEvent) => {
+      subscriber.next({ type: 'counters', counters: JSON.parse(event.data) });
+    });
+    source.onerror = () => {
+      // The browser reconnects on its own and resumes after the last log entry received
+      console.error('Update stream interrupted, reconnecting.');
+    };
+    return () => source.close();
+  }).pipe(share());
+
   /**
    * Creates an instance of ApiService.
    * @param http The HttpClient for making HTTP requests.
@@ -120,6 +172,43 @@ export class ApiService {
     );
   }
 
+  /**
+   * Retrieves the log entries that follow the given sequence number.
+   *
+   * @param after The sequence number of the last entry already received, or 0 to start from the oldest.
+   * @param limit The maximum number of entries to return.
+   * @returns An Observable that emits the new entries and the retained sequence range.
+   */
+  getLogsAfter(after: number, limit: number = 500): Observable<LogPage> {
+    return this.http.get<LogPage>(`${this.apiUrl}/logs`, { params: { after, limit } }).pipe(
+      catchError(this.handleError)
+    );
+  }
+
+  /**
+   * Streams new log entries as they are pushed by the backend.
+   *
+   * @returns An Observable that emits each page of new log entries.
+   */
+  streamLogs(): Observable<LogPage> {
+    return this.updates$.pipe(
+      filter((event): event is { type: 'logs'; page: LogPage } => event.type === 'logs'),
+      map(event => event.page)
+    );
+  }
+
+  /**
+   * Streams the ticket counters whenever they change, at most a few times a second.
+   *
+   * @returns An Observable that emits the latest counters.
+   */
+  streamCounters(): Observable<CounterSnapshot> {
+    return this.updates$.pipe(
+      filter((event): event is { type: 'counters'; counters: CounterSnapshot } => event.type === 'counters'),
+      map(event => event.counters)
+    );
+  }
+
   /**
    * Retrieves the number of available tickets from the backend.
    *
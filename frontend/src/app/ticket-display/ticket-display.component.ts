@@ -17,6 +17,7 @@ export class TicketDisplayComponent implements OnInit, OnDestroy, OnChanges {
     ticketsAvailable: number = 0;
     ticketsSold: number = 0;
     private ticketSubscription?: Subscription;
+    private counterSubscription?: Subscription;
 
     /**
      * Input property to trigger a refresh of the ticket data.
@@ -30,10 +31,19 @@ export class TicketDisplayComponent implements OnInit, OnDestroy, OnChanges {
     constructor(private apiService: ApiService) { }
 
     /**
-     * Initializes the component and fetches the initial ticket data.
+     * Initializes the component, fetches the initial ticket data and follows the counter stream.
      */
     ngOnInit() {
       this.fetchTicketData();
+      this.counterSubscription = this.apiService.streamCounters().subscribe({
+        next: (counters) => {
+          this.ticketsAvailable = counters.ticketsAvailable;
+          this.ticketsSold = counters.ticketsSold;
+        },
+        error: (error) => {
+          console.error('Error streaming ticket counters:', error);
+        }
+      });
     }
 
     /**
@@ -48,10 +58,11 @@ export class TicketDisplayComponent implements OnInit, OnDestroy, OnChanges {
     }
 
     /**
-     * Unsubscribes from the ticket data subscription when the component is destroyed.
+     * Unsubscribes from the ticket data and counter stream when the component is destroyed.
      */
     ngOnDestroy() {
         this.unsubscribeFromTicketData();
+        this.counterSubscription?.unsubscribe();
     }
 
     /**